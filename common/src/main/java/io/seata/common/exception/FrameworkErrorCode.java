@@ -206,6 +206,16 @@ public enum FrameworkErrorCode {
      */
     StateMachineExecutionTimeout("0421", "State machine execution timeout", "State machine execution timeout"),
 
+    /**
+     * TCC fence record already exists
+     */
+    TccFenceRecordAlreadyExists("0501", "TCC fence record already exists", "The branch has been rolled back before its try method, or the try method is executed repeatedly"),
+
+    /**
+     * TCC fence record not exists
+     */
+    TccFenceRecordNotExists("0502", "TCC fence record not exists", "Please check whether the try method of the branch is executed with the TCC fence"),
+
     /**
      * Undefined error
      */
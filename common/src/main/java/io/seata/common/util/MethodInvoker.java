@@ -0,0 +1,34 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.common.util;
+
+/**
+ * Invoker of a method bound once, see {@link ReflectionUtil#getMethodInvoker}.
+ * Unlike Method.invoke, an exception thrown by the method is rethrown as it is.
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+    /**
+     * invoke the method
+     *
+     * @param target the target, ignored for static methods
+     * @param args   the arguments
+     * @return the result, null for void methods
+     * @throws Throwable the exception thrown by the method
+     */
+    Object invoke(Object target, Object... args) throws Throwable;
+}
@@ -15,6 +15,11 @@
  */
 package io.seata.common.util;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -22,6 +27,8 @@ import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Reflection tools
@@ -199,6 +206,66 @@ public class ReflectionUtil {
         return interfaces;
     }
 
+    /**
+     * bind a method once into an invoker.
+     * A public instance method with at most one parameter and a return value, whose class is visible from
+     * this class loader, gets a LambdaMetafactory generated function, other methods a bound method handle.
+     *
+     * @param method the method
+     * @return the method invoker
+     * @throws IllegalAccessException if the method cannot be made accessible
+     */
+    public static MethodInvoker getMethodInvoker(Method method) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (isLambdaBindable(method)) {
+            try {
+                MethodHandle methodHandle = lookup.unreflect(method);
+                MethodType instantiatedType = methodHandle.type().wrap();
+                if (method.getParameterCount() == 0) {
+                    CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), methodHandle, instantiatedType);
+                    Function<Object, Object> function = (Function<Object, Object>)callSite.getTarget().invokeExact();
+                    return (target, args) -> function.apply(target);
+                }
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(BiFunction.class),
+                    MethodType.methodType(Object.class, Object.class, Object.class), methodHandle, instantiatedType);
+                BiFunction<Object, Object, Object> function =
+                    (BiFunction<Object, Object, Object>)callSite.getTarget().invokeExact();
+                return (target, args) -> function.apply(target, args[0]);
+            } catch (Throwable e) {
+                // fall back to a method handle
+            }
+        }
+
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        int parameterCount = method.getParameterCount();
+        MethodHandle methodHandle = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+        }
+        MethodHandle invoker = methodHandle.asType(methodHandle.type().generic())
+            .asSpreader(Object[].class, parameterCount);
+        return (target, args) -> invoker.invokeExact(target, args);
+    }
+
+    private static boolean isLambdaBindable(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (method.getParameterCount() > 1 || method.getReturnType() == void.class
+            || Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())
+            || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        // the generated class resolves the declaring class through this class loader
+        try {
+            return Class.forName(declaringClass.getName(), false, ReflectionUtil.class.getClassLoader())
+                == declaringClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
     public static void modifyStaticFinalField(Class cla, String modifyFieldName, Object newValue)
         throws NoSuchFieldException, IllegalAccessException {
         Field field = cla.getDeclaredField(modifyFieldName);
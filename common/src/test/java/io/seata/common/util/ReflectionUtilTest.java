@@ -108,4 +108,42 @@ public class ReflectionUtilTest {
         ReflectionUtil.modifyStaticFinalField(ReflectionUtilTest.class, "testValue", "hello world");
         Assertions.assertEquals("hello world", testValue);
     }
+
+    @Test
+    public void testGetMethodInvoker() throws Throwable {
+        // generated function
+        Assertions.assertEquals(3, ReflectionUtil.getMethodInvoker(String.class.getMethod("length")).invoke("foo"));
+        Assertions.assertEquals('o',
+                ReflectionUtil.getMethodInvoker(String.class.getMethod("charAt", int.class)).invoke("foo", 1));
+        // method handle
+        Assertions.assertEquals("foo-bar", ReflectionUtil.getMethodInvoker(
+                InvokerTarget.class.getDeclaredMethod("join", String.class, String.class))
+                .invoke(new InvokerTarget(), "foo", "bar"));
+        Assertions.assertEquals("7", ReflectionUtil.getMethodInvoker(String.class.getMethod("valueOf", int.class))
+                .invoke(null, 7));
+        InvokerTarget target = new InvokerTarget();
+        Assertions.assertNull(ReflectionUtil.getMethodInvoker(InvokerTarget.class.getDeclaredMethod("clear"))
+                .invoke(target));
+        Assertions.assertTrue(target.cleared);
+        // the exception of the method is not wrapped
+        Assertions.assertThrows(IllegalStateException.class, () -> ReflectionUtil.getMethodInvoker(
+                InvokerTarget.class.getMethod("fail", String.class)).invoke(new InvokerTarget(), "failed"));
+    }
+
+    public static class InvokerTarget {
+
+        private boolean cleared;
+
+        private String join(String a, String b) {
+            return a + "-" + b;
+        }
+
+        void clear() {
+            cleared = true;
+        }
+
+        public boolean fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
 }
@@ -0,0 +1,398 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.DurationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caching decorator of a remote configuration.
+ * <p>
+ * The first read of a key subscribes to its changes and fetches it from the config center, later reads are served
+ * from the cache together with the value parsed by the last typed getter. A change event replaces the entry, so
+ * reads on request paths never reach the config center.
+ * <p>
+ * A prefetched key is only fetched. It is subscribed on its first read, since a subscription costs a watch or
+ * a long poll on some config centers, and then fetched once more in the background to catch a change made
+ * before the subscription.
+ */
+public class ConfigurationCache extends AbstractConfiguration implements ConfigurationChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationCache.class);
+
+    private static final String CONFIG_KEY_SUFFIX = ".";
+
+    private static final long SLOW_FETCH_MILLS = 1000;
+
+    private final Configuration delegate;
+
+    private final ConcurrentMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    private final Set<String> subscribedDataIds = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder fetchTimeNanos = new LongAdder();
+
+    private final AtomicLong maxFetchTimeNanos = new AtomicLong();
+
+    private volatile ThreadPoolExecutor refreshExecutor;
+
+    /**
+     * Instantiates a new Configuration cache.
+     *
+     * @param delegate the remote configuration
+     */
+    public ConfigurationCache(Configuration delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Fetches the given keys in the background, the cache is then warm for the request paths.
+     * The keys are not subscribed until they are read.
+     *
+     * @param dataIds the data ids
+     */
+    public void prefetch(Collection<String> dataIds) {
+        List<String> toFetch = new ArrayList<>(dataIds);
+        ExecutorService prefetchExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("configPrefetch", 1));
+        prefetchExecutor.submit(() -> {
+            for (String dataId : toFetch) {
+                try {
+                    if (!cache.containsKey(dataId)) {
+                        cache.putIfAbsent(dataId, new CacheEntry(fetch(dataId, DEFAULT_CONFIG_TIMEOUT), true));
+                    }
+                } catch (Exception e) {
+                    LOGGER.warn("Failed to prefetch config {}: {}", dataId, e.getMessage());
+                }
+            }
+        });
+        prefetchExecutor.shutdown();
+    }
+
+    /**
+     * Prefetches the keys declared as String constants of a configuration keys holder, leaving out the prefixes.
+     *
+     * @param configuration the configuration, only prefetched if it is a cache
+     * @param keysHolder    the class declaring the keys
+     */
+    public static void prefetch(Configuration configuration, Class<?> keysHolder) {
+        if (!(configuration instanceof ConfigurationCache)) {
+            return;
+        }
+        List<String> dataIds = new ArrayList<>();
+        for (Field field : keysHolder.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                try {
+                    String dataId = (String)field.get(null);
+                    if (dataId != null && dataId.contains(CONFIG_KEY_SUFFIX) && !dataId.endsWith(CONFIG_KEY_SUFFIX)) {
+                        dataIds.add(dataId);
+                    }
+                } catch (IllegalAccessException ignore) {
+                }
+            }
+        }
+        ((ConfigurationCache)configuration).prefetch(dataIds);
+    }
+
+    @Override
+    public String getConfig(String dataId, String defaultValue, long timeoutMills) {
+        String value = getEntry(dataId, timeoutMills).value;
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public short getShort(String dataId, int defaultValue, long timeoutMills) {
+        CacheEntry entry = getEntry(dataId, timeoutMills);
+        if (entry.value == null) {
+            return (short)defaultValue;
+        }
+        Object typedValue = entry.typedValue;
+        if (!(typedValue instanceof Short)) {
+            typedValue = Short.parseShort(entry.value);
+            entry.typedValue = typedValue;
+        }
+        return (Short)typedValue;
+    }
+
+    @Override
+    public int getInt(String dataId, int defaultValue, long timeoutMills) {
+        CacheEntry entry = getEntry(dataId, timeoutMills);
+        if (entry.value == null) {
+            return defaultValue;
+        }
+        Object typedValue = entry.typedValue;
+        if (!(typedValue instanceof Integer)) {
+            typedValue = Integer.parseInt(entry.value);
+            entry.typedValue = typedValue;
+        }
+        return (Integer)typedValue;
+    }
+
+    @Override
+    public long getLong(String dataId, long defaultValue, long timeoutMills) {
+        CacheEntry entry = getEntry(dataId, timeoutMills);
+        if (entry.value == null) {
+            return defaultValue;
+        }
+        Object typedValue = entry.typedValue;
+        if (!(typedValue instanceof Long)) {
+            typedValue = Long.parseLong(entry.value);
+            entry.typedValue = typedValue;
+        }
+        return (Long)typedValue;
+    }
+
+    @Override
+    public boolean getBoolean(String dataId, boolean defaultValue, long timeoutMills) {
+        CacheEntry entry = getEntry(dataId, timeoutMills);
+        if (entry.value == null) {
+            return defaultValue;
+        }
+        Object typedValue = entry.typedValue;
+        if (!(typedValue instanceof Boolean)) {
+            typedValue = Boolean.parseBoolean(entry.value);
+            entry.typedValue = typedValue;
+        }
+        return (Boolean)typedValue;
+    }
+
+    @Override
+    public Duration getDuration(String dataId, Duration defaultValue, long timeoutMills) {
+        CacheEntry entry = getEntry(dataId, timeoutMills);
+        if (entry.value == null) {
+            return defaultValue;
+        }
+        Object typedValue = entry.typedValue;
+        if (!(typedValue instanceof Duration)) {
+            typedValue = DurationUtil.parse(entry.value);
+            entry.typedValue = typedValue;
+        }
+        return (Duration)typedValue;
+    }
+
+    @Override
+    public boolean putConfig(String dataId, String content, long timeoutMills) {
+        cache.remove(dataId);
+        return delegate.putConfig(dataId, content, timeoutMills);
+    }
+
+    @Override
+    public boolean putConfigIfAbsent(String dataId, String content, long timeoutMills) {
+        cache.remove(dataId);
+        return delegate.putConfigIfAbsent(dataId, content, timeoutMills);
+    }
+
+    @Override
+    public boolean removeConfig(String dataId, long timeoutMills) {
+        cache.remove(dataId);
+        return delegate.removeConfig(dataId, timeoutMills);
+    }
+
+    @Override
+    public void addConfigListener(String dataId, ConfigurationChangeListener listener) {
+        delegate.addConfigListener(dataId, listener);
+    }
+
+    @Override
+    public void removeConfigListener(String dataId, ConfigurationChangeListener listener) {
+        delegate.removeConfigListener(dataId, listener);
+    }
+
+    @Override
+    public Set<ConfigurationChangeListener> getConfigListeners(String dataId) {
+        return delegate.getConfigListeners(dataId);
+    }
+
+    @Override
+    public String getTypeName() {
+        return delegate instanceof AbstractConfiguration ? ((AbstractConfiguration)delegate).getTypeName()
+            : delegate.getClass().getSimpleName();
+    }
+
+    @Override
+    public void onChangeEvent(ConfigurationChangeEvent event) {
+        String dataId = event.getDataId();
+        if (dataId == null) {
+            return;
+        }
+        if (event.getChangeType() == ConfigurationChangeType.DELETE) {
+            cache.put(dataId, new CacheEntry(null, false));
+        } else {
+            cache.put(dataId, new CacheEntry(event.getNewValue(), false));
+        }
+    }
+
+    private CacheEntry getEntry(String dataId, long timeoutMills) {
+        CacheEntry entry = cache.get(dataId);
+        if (entry != null) {
+            hitCount.increment();
+            if (entry.prefetched && subscribedDataIds.add(dataId)) {
+                delegate.addConfigListener(dataId, this);
+                refreshAsync(dataId, entry);
+            }
+            return entry;
+        }
+        missCount.increment();
+        // subscribe first, a change arriving during the fetch then replaces the fetched value
+        if (subscribedDataIds.add(dataId)) {
+            delegate.addConfigListener(dataId, this);
+        }
+        entry = new CacheEntry(fetch(dataId, timeoutMills), false);
+        CacheEntry previous = cache.putIfAbsent(dataId, entry);
+        return previous != null ? previous : entry;
+    }
+
+    private String fetch(String dataId, long timeoutMills) {
+        long start = System.nanoTime();
+        String value = delegate.getConfig(dataId, null, timeoutMills);
+        recordFetch(dataId, System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * replaces the prefetched entry if the key changed before it was subscribed, unless a change event came first
+     */
+    private void refreshAsync(String dataId, CacheEntry prefetched) {
+        try {
+            getRefreshExecutor().execute(() -> {
+                try {
+                    String value = fetch(dataId, DEFAULT_CONFIG_TIMEOUT);
+                    if (!Objects.equals(value, prefetched.value)) {
+                        cache.replace(dataId, prefetched, new CacheEntry(value, false));
+                    }
+                } catch (Exception e) {
+                    LOGGER.warn("Failed to refresh prefetched config {}: {}", dataId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Failed to refresh prefetched config {}: {}", dataId, e.getMessage());
+        }
+    }
+
+    private ThreadPoolExecutor getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            synchronized (this) {
+                if (refreshExecutor == null) {
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), new NamedThreadFactory("configRefresh", 1));
+                    // the thread is only alive while prefetched keys are read for the first time
+                    executor.allowCoreThreadTimeOut(true);
+                    refreshExecutor = executor;
+                }
+            }
+        }
+        return refreshExecutor;
+    }
+
+    private void recordFetch(String dataId, long nanos) {
+        fetchTimeNanos.add(nanos);
+        long max;
+        while (nanos > (max = maxFetchTimeNanos.get())) {
+            if (maxFetchTimeNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+        if (nanos > SLOW_FETCH_MILLS * 1000000L) {
+            LOGGER.warn("Fetching config {} from {} took {} ms", dataId, getTypeName(), nanos / 1000000L);
+        }
+    }
+
+    /**
+     * Gets the delegate configuration.
+     *
+     * @return the delegate
+     */
+    public Configuration getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Reads served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Reads which fetched the value from the config center.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Total time spent fetching from the config center.
+     *
+     * @return the fetch time in nanoseconds
+     */
+    public long getFetchTimeNanos() {
+        return fetchTimeNanos.sum();
+    }
+
+    /**
+     * Longest single fetch from the config center.
+     *
+     * @return the max fetch time in nanoseconds
+     */
+    public long getMaxFetchTimeNanos() {
+        return maxFetchTimeNanos.get();
+    }
+
+    private static final class CacheEntry {
+
+        private final String value;
+
+        /**
+         * fetched without subscribing to the changes of the key
+         */
+        private final boolean prefetched;
+
+        private volatile Object typedValue;
+
+        private CacheEntry(String value, boolean prefetched) {
+            this.value = value;
+            this.prefetched = prefetched;
+        }
+    }
+}
@@ -119,8 +119,8 @@ public final class ConfigurationFactory {
 
             return null == extConfiguration ? configuration : extConfiguration;
         } else {
-            return EnhancedServiceLoader.load(ConfigurationProvider.class, Objects.requireNonNull(configType).name())
-                .provide();
+            return new ConfigurationCache(EnhancedServiceLoader.load(ConfigurationProvider.class,
+                Objects.requireNonNull(configType).name()).provide());
         }
     }
 }
@@ -16,9 +16,15 @@
 package io.seata.config;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
-import java.util.HashMap;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -28,16 +34,21 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
 import io.netty.util.internal.ConcurrentSet;
 import io.seata.common.thread.NamedThreadFactory;
-import io.seata.config.ConfigFuture.ConfigOperation;
 import org.apache.commons.lang.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The type FileConfiguration.
+ * <p>
+ * Reads are served on the caller thread from an immutable {@link Snapshot} of the parsed file. Writes and reloads
+ * publish a new snapshot. A single watcher thread reloads the file when it changes and notifies the listeners of
+ * the keys whose value changed.
  *
  * @author slievrly
  */
@@ -45,13 +56,9 @@ public class FileConfiguration extends AbstractConfiguration {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FileConfiguration.class);
 
-    private Config fileConfig;
+    private volatile Snapshot snapshot;
 
-    private ExecutorService configOperateExecutor;
-
-    private static final int CORE_CONFIG_OPERATE_THREAD = 1;
-
-    private static final int MAX_CONFIG_OPERATE_THREAD = 2;
+    private volatile ExecutorService watcherExecutor;
 
     private static final long LISTENER_CONFIG_INTERNAL = 1 * 1000;
 
@@ -62,7 +69,7 @@ public class FileConfiguration extends AbstractConfiguration {
     private final ConcurrentMap<String, Set<ConfigurationChangeListener>> configListenersMap = new ConcurrentHashMap<>(
         8);
 
-    private final Map<String, String> listenedConfigMap = new HashMap<>(8);
+    private final Map<String, String> listenedConfigMap = new ConcurrentHashMap<>(8);
 
     private final String targetFilePath;
 
@@ -99,6 +106,7 @@ public class FileConfiguration extends AbstractConfiguration {
      */
     public FileConfiguration(String name, boolean allowDynamicRefresh) {
         LOGGER.info("The file name of the operation is {}", name);
+        Config fileConfig = null;
         if (null == name) {
             throw new IllegalArgumentException("name can't be null");
         } else if (name.startsWith(SYS_FILE_RESOURCE_PREFIX)) {
@@ -133,9 +141,10 @@ public class FileConfiguration extends AbstractConfiguration {
         }
 
         this.name = name;
-        configOperateExecutor = new ThreadPoolExecutor(CORE_CONFIG_OPERATE_THREAD, MAX_CONFIG_OPERATE_THREAD,
-            Integer.MAX_VALUE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
-            new NamedThreadFactory("configOperate", MAX_CONFIG_OPERATE_THREAD));
+        this.snapshot = new Snapshot(fileConfig);
+        if (this.allowDynamicRefresh) {
+            startWatcher();
+        }
     }
 
     @Override
@@ -144,30 +153,41 @@ public class FileConfiguration extends AbstractConfiguration {
         if ((value = getConfigFromSysPro(dataId)) != null) {
             return value;
         }
-        ConfigFuture configFuture = new ConfigFuture(dataId, defaultValue, ConfigOperation.GET, timeoutMills);
-        configOperateExecutor.submit(new ConfigOperateRunnable(configFuture));
-        return (String)configFuture.get();
+        value = snapshot.get(dataId);
+        if (value == null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Could not found property {}, try to use default value instead.", dataId);
+            }
+            return defaultValue;
+        }
+        return value;
     }
 
     @Override
     public boolean putConfig(String dataId, String content, long timeoutMills) {
-        ConfigFuture configFuture = new ConfigFuture(dataId, content, ConfigOperation.PUT, timeoutMills);
-        configOperateExecutor.submit(new ConfigOperateRunnable(configFuture));
-        return (Boolean)configFuture.get();
+        synchronized (this) {
+            snapshot = new Snapshot(snapshot.config.withValue(dataId, ConfigValueFactory.fromAnyRef(content)));
+        }
+        return true;
     }
 
     @Override
     public boolean putConfigIfAbsent(String dataId, String content, long timeoutMills) {
-        ConfigFuture configFuture = new ConfigFuture(dataId, content, ConfigOperation.PUTIFABSENT, timeoutMills);
-        configOperateExecutor.submit(new ConfigOperateRunnable(configFuture));
-        return (Boolean)configFuture.get();
+        synchronized (this) {
+            if (snapshot.get(dataId) != null) {
+                return false;
+            }
+            snapshot = new Snapshot(snapshot.config.withValue(dataId, ConfigValueFactory.fromAnyRef(content)));
+        }
+        return true;
     }
 
     @Override
     public boolean removeConfig(String dataId, long timeoutMills) {
-        ConfigFuture configFuture = new ConfigFuture(dataId, null, ConfigOperation.REMOVE, timeoutMills);
-        configOperateExecutor.submit(new ConfigOperateRunnable(configFuture));
-        return (Boolean)configFuture.get();
+        synchronized (this) {
+            snapshot = new Snapshot(snapshot.config.withoutPath(dataId));
+        }
+        return true;
     }
 
     @Override
@@ -177,9 +197,11 @@ public class FileConfiguration extends AbstractConfiguration {
         }
         configListenersMap.putIfAbsent(dataId, new ConcurrentSet<>());
         configListenersMap.get(dataId).add(listener);
-        listenedConfigMap.put(dataId, ConfigurationFactory.getInstance().getConfig(dataId));
-        FileListener fileListener = new FileListener(dataId, listener);
-        fileListener.onProcessEvent(new ConfigurationChangeEvent());
+        String currentConfig = ConfigurationFactory.getInstance().getConfig(dataId);
+        if (currentConfig != null) {
+            listenedConfigMap.putIfAbsent(dataId, currentConfig);
+        }
+        startWatcher();
     }
 
     @Override
@@ -208,123 +230,143 @@ public class FileConfiguration extends AbstractConfiguration {
         return REGISTRY_TYPE;
     }
 
+    private void startWatcher() {
+        if (null != watcherExecutor || null == name) {
+            return;
+        }
+        synchronized (this) {
+            if (null == watcherExecutor) {
+                watcherExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new NamedThreadFactory("fileConfigWatcher", 1));
+                watcherExecutor.submit(new FileWatcher());
+            }
+        }
+    }
+
     /**
-     * The type Config operate runnable.
+     * Reloads the file into a new snapshot if it was modified since the last load.
      */
-    class ConfigOperateRunnable implements Runnable {
-
-        private ConfigFuture configFuture;
-
-        /**
-         * Instantiates a new Config operate runnable.
-         *
-         * @param configFuture the config future
-         */
-        public ConfigOperateRunnable(ConfigFuture configFuture) {
-            this.configFuture = configFuture;
+    private void reloadIfModified() {
+        if (!allowDynamicRefresh) {
+            return;
+        }
+        long tempLastModified = new File(targetFilePath).lastModified();
+        if (tempLastModified <= targetFileLastModified) {
+            return;
+        }
+        Config tempConfig;
+        if (name.startsWith(SYS_FILE_RESOURCE_PREFIX)) {
+            Config appConfig = ConfigFactory.parseFileAnySyntax(new File(targetFilePath));
+            tempConfig = ConfigFactory.load(appConfig);
+        } else {
+            tempConfig = ConfigFactory.load(name);
+        }
+        if (null != tempConfig) {
+            snapshot = new Snapshot(tempConfig);
+            targetFileLastModified = tempLastModified;
         }
+    }
 
-        @Override
-        public void run() {
-            if (null != configFuture) {
-                if (configFuture.isTimeout()) {
-                    setFailResult(configFuture);
-                    return;
+    /**
+     * Notifies the listeners of the keys whose value differs from the one last notified.
+     */
+    private void notifyChangedKeys() {
+        for (Map.Entry<String, Set<ConfigurationChangeListener>> entry : configListenersMap.entrySet()) {
+            String dataId = entry.getKey();
+            String currentConfig = ConfigurationFactory.getInstance().getConfig(dataId);
+            String oldConfig = listenedConfigMap.get(dataId);
+            if (ObjectUtils.notEqual(currentConfig, oldConfig)) {
+                if (currentConfig == null) {
+                    listenedConfigMap.remove(dataId);
+                } else {
+                    listenedConfigMap.put(dataId, currentConfig);
                 }
-                try {
-                    if (allowDynamicRefresh) {
-                        long tempLastModified = new File(targetFilePath).lastModified();
-                        if (tempLastModified > targetFileLastModified) {
-                            Config tempConfig;
-                            if (name.startsWith(SYS_FILE_RESOURCE_PREFIX)) {
-                                Config appConfig = ConfigFactory.parseFileAnySyntax(new File(targetFilePath));
-                                tempConfig = ConfigFactory.load(appConfig);
-                            } else {
-                                tempConfig = ConfigFactory.load(name);
-                            }
-                            if (null != tempConfig) {
-                                fileConfig = tempConfig;
-                                targetFileLastModified = tempLastModified;
-                            }
-                        }
-                    }
-                    if (configFuture.getOperation() == ConfigOperation.GET) {
-                        String result = fileConfig.getString(configFuture.getDataId());
-                        configFuture.setResult(result);
-                    } else if (configFuture.getOperation() == ConfigOperation.PUT) {
-                        //todo
-                        configFuture.setResult(Boolean.TRUE);
-                    } else if (configFuture.getOperation() == ConfigOperation.PUTIFABSENT) {
-                        //todo
-                        configFuture.setResult(Boolean.TRUE);
-                    } else if (configFuture.getOperation() == ConfigOperation.REMOVE) {
-                        //todo
-                        configFuture.setResult(Boolean.TRUE);
-                    }
-                } catch (Exception e) {
-                    setFailResult(configFuture);
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("Could not found property {}, try to use default value instead.",
-                            configFuture.getDataId());
-                    }
+                for (ConfigurationChangeListener listener : entry.getValue()) {
+                    listener.onProcessEvent(new ConfigurationChangeEvent().setDataId(dataId)
+                        .setNewValue(currentConfig).setOldValue(oldConfig));
                 }
             }
         }
+    }
 
-        private void setFailResult(ConfigFuture configFuture) {
-            if (configFuture.getOperation() == ConfigOperation.GET) {
-                String result = configFuture.getContent();
-                configFuture.setResult(result);
-            } else {
-                configFuture.setResult(Boolean.FALSE);
+    /**
+     * Immutable parsed configuration, with the values read so far memoized.
+     */
+    private static final class Snapshot {
+
+        private final Config config;
+
+        private final ConcurrentMap<String, Optional<String>> values = new ConcurrentHashMap<>();
+
+        private Snapshot(Config config) {
+            this.config = config;
+        }
+
+        private String get(String dataId) {
+            Optional<String> value = values.get(dataId);
+            if (value == null) {
+                value = read(dataId);
+                values.putIfAbsent(dataId, value);
             }
+            return value.orElse(null);
         }
 
+        private Optional<String> read(String dataId) {
+            try {
+                return config.hasPath(dataId) ? Optional.of(config.getString(dataId)) : Optional.empty();
+            } catch (ConfigException e) {
+                return Optional.empty();
+            }
+        }
     }
 
     /**
-     * The type FileListener.
+     * Watches the directory of the file, reloads the file when it is modified and notifies the changed keys.
+     * The wait is bounded so that system property overrides and files which cannot be watched are still checked.
      */
-    class FileListener implements ConfigurationChangeListener {
-
-        private final String dataId;
-        private final ConfigurationChangeListener listener;
-        private final ExecutorService executor = new ThreadPoolExecutor(CORE_LISTENER_THREAD, MAX_LISTENER_THREAD, 0L,
-            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
-            new NamedThreadFactory("fileListener", MAX_LISTENER_THREAD));
-
-        /**
-         * Instantiates a new FileListener.
-         *
-         * @param dataId   the data id
-         * @param listener the listener
-         */
-        public FileListener(String dataId, ConfigurationChangeListener listener) {
-            this.dataId = dataId;
-            this.listener = listener;
-        }
+    class FileWatcher implements Runnable {
 
         @Override
-        public void onChangeEvent(ConfigurationChangeEvent event) {
-            while (true) {
+        public void run() {
+            WatchService watchService = newWatchService();
+            while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    String currentConfig = ConfigurationFactory.getInstance().getConfig(dataId);
-                    String oldConfig = listenedConfigMap.get(dataId);
-                    if (ObjectUtils.notEqual(currentConfig, oldConfig)) {
-                        listenedConfigMap.put(dataId, currentConfig);
-                        event.setDataId(dataId).setNewValue(currentConfig).setOldValue(oldConfig);
-                        listener.onChangeEvent(event);
+                    if (null != watchService) {
+                        WatchKey watchKey = watchService.poll(LISTENER_CONFIG_INTERNAL, TimeUnit.MILLISECONDS);
+                        if (null != watchKey) {
+                            watchKey.pollEvents();
+                            watchKey.reset();
+                        }
+                    } else {
+                        Thread.sleep(LISTENER_CONFIG_INTERNAL);
                     }
-                    Thread.sleep(LISTENER_CONFIG_INTERNAL);
+                    reloadIfModified();
+                    notifyChangedKeys();
+                } catch (InterruptedException exx) {
+                    Thread.currentThread().interrupt();
                 } catch (Exception exx) {
-                    LOGGER.error("fileListener execute error:{}", exx.getMessage(), exx);
+                    LOGGER.error("fileWatcher execute error:{}", exx.getMessage(), exx);
                 }
             }
         }
 
-        @Override
-        public ExecutorService getExecutorService() {
-            return executor;
+        private WatchService newWatchService() {
+            if (!allowDynamicRefresh) {
+                return null;
+            }
+            File directory = new File(targetFilePath).getAbsoluteFile().getParentFile();
+            if (null == directory || !directory.isDirectory()) {
+                return null;
+            }
+            try {
+                WatchService watchService = FileSystems.getDefault().newWatchService();
+                Path path = directory.toPath();
+                path.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+                return watchService;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Could not watch {}, fall back to check it periodically: {}", directory, e.getMessage());
+                return null;
+            }
         }
     }
 
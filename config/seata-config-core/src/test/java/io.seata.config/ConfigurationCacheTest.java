@@ -0,0 +1,96 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Configuration cache test.
+ */
+class ConfigurationCacheTest {
+
+    @Test
+    void getFromCache() {
+        FileConfiguration delegate = new FileConfiguration("file.conf", false);
+        delegate.putConfig("client.test.timeout", "5");
+        ConfigurationCache cache = new ConfigurationCache(delegate);
+
+        Assertions.assertEquals(5, cache.getInt("client.test.timeout"));
+        Assertions.assertEquals(5L, cache.getLong("client.test.timeout"));
+        Assertions.assertEquals(7, cache.getInt("client.test.absent", 7));
+        Assertions.assertEquals(2, cache.getMissCount());
+
+        delegate.putConfig("client.test.timeout", "6");
+        Assertions.assertEquals(5, cache.getInt("client.test.timeout"));
+        cache.onChangeEvent(new ConfigurationChangeEvent("client.test.timeout", "10s"));
+        Assertions.assertEquals(Duration.ofSeconds(10), cache.getDuration("client.test.timeout"));
+        Assertions.assertEquals("10s", cache.getConfig("client.test.timeout"));
+
+        cache.onChangeEvent(new ConfigurationChangeEvent("client.test.timeout", "default", null, null,
+            ConfigurationChangeType.DELETE));
+        Assertions.assertTrue(cache.getBoolean("client.test.timeout", true));
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertTrue(cache.getHitCount() > 0);
+    }
+
+    @Test
+    void prefetchDoesNotSubscribe() throws InterruptedException {
+        Set<String> subscribed = ConcurrentHashMap.newKeySet();
+        AtomicInteger fetchCount = new AtomicInteger();
+        FileConfiguration delegate = new FileConfiguration("file.conf", false) {
+            @Override
+            public String getConfig(String dataId, String defaultValue, long timeoutMills) {
+                fetchCount.incrementAndGet();
+                return super.getConfig(dataId, defaultValue, timeoutMills);
+            }
+
+            @Override
+            public void addConfigListener(String dataId, ConfigurationChangeListener listener) {
+                subscribed.add(dataId);
+            }
+        };
+        delegate.putConfig("client.prefetch.read", "1");
+        delegate.putConfig("client.prefetch.unread", "2");
+        ConfigurationCache cache = new ConfigurationCache(delegate);
+        cache.prefetch(Arrays.asList("client.prefetch.read", "client.prefetch.unread"));
+        for (int i = 0; i < 100 && fetchCount.get() < 2; i++) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(2, fetchCount.get());
+        Assertions.assertTrue(subscribed.isEmpty());
+
+        // the first read is served from the prefetched value and subscribes the key only
+        delegate.putConfig("client.prefetch.read", "3");
+        Assertions.assertEquals(1, cache.getInt("client.prefetch.read"));
+        Assertions.assertEquals(0, cache.getMissCount());
+        Assertions.assertEquals(1, subscribed.size());
+        Assertions.assertTrue(subscribed.contains("client.prefetch.read"));
+
+        // the change made before the subscription is caught up in the background
+        for (int i = 0; i < 100 && cache.getInt("client.prefetch.read") != 3; i++) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(3, cache.getInt("client.prefetch.read"));
+        Assertions.assertEquals(1, subscribed.size());
+    }
+}
@@ -50,4 +50,15 @@ class FileConfigurationTest {
         Assertions.assertTrue(countDownLatch.await(2000, TimeUnit.MILLISECONDS));
     }
 
+    @Test
+    void putAndRemoveConfig() {
+        Configuration config = new FileConfiguration("file.conf", false);
+        Assertions.assertNull(config.getConfig("service.notExist"));
+        Assertions.assertTrue(config.putConfig("service.notExist", "value"));
+        Assertions.assertEquals("value", config.getConfig("service.notExist"));
+        Assertions.assertFalse(config.putConfigIfAbsent("service.notExist", "other"));
+        Assertions.assertTrue(config.removeConfig("service.notExist"));
+        Assertions.assertEquals("default", config.getConfig("service.notExist", "default"));
+    }
+
 }
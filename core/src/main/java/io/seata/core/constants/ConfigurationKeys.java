@@ -128,6 +128,21 @@ public class ConfigurationKeys {
      */
     public static final String CLIENT_TABLE_META_CHECK_ENABLE = CLIENT_RM_PREFIX + "tableMetaCheckEnable";
 
+    /**
+     * The constant CLIENT_PIPELINE_COMMIT_ENABLE.
+     */
+    public static final String CLIENT_PIPELINE_COMMIT_ENABLE = CLIENT_RM_PREFIX + "pipelineCommitEnable";
+
+    /**
+     * The constant CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE.
+     */
+    public static final String CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE = CLIENT_RM_PREFIX + "tccActionContextBinaryEnable";
+
+    /**
+     * The constant CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD.
+     */
+    public static final String CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD = CLIENT_RM_PREFIX + "tccActionContextCompressThreshold";
+
     /**
      * The constant CLIENT_TM_PREFIX.
      */
@@ -324,6 +339,16 @@ public class ConfigurationKeys {
      */
     public static final String ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE = SERVER_PREFIX + "rollbackRetryTimeoutUnlockEnable";
 
+    /**
+     * The constant EVENT_BUS_BUFFER_SIZE.
+     */
+    public static final String EVENT_BUS_BUFFER_SIZE = SERVER_PREFIX + "eventBus.bufferSize";
+
+    /**
+     * The constant EVENT_BUS_BLOCK_WHEN_FULL.
+     */
+    public static final String EVENT_BUS_BLOCK_WHEN_FULL = SERVER_PREFIX + "eventBus.blockWhenFull";
+
     /**
      * The constant TRANSPORT_TYPE
      */
@@ -404,6 +429,11 @@ public class ConfigurationKeys {
      */
     public static final String ENABLE_CLIENT_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableClientBatchSendRequest";
 
+    /**
+     * The constant ENABLE_CLIENT_MULTIPLEX, TM and RM share one connection to each server
+     */
+    public static final String ENABLE_CLIENT_MULTIPLEX = TRANSPORT_PREFIX + "enableClientMultiplex";
+
     /**
      * The constant DISABLE_GLOBAL_TRANSACTION.
      */
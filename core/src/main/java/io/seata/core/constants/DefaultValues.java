@@ -27,6 +27,9 @@ public class DefaultValues {
     public static final int DEFAULT_CLIENT_REPORT_RETRY_COUNT = 5;
     public static final boolean DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE = false;
     public static final boolean DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE = false;
+    public static final boolean DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE = false;
+    public static final boolean DEFAULT_CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE = false;
+    public static final int DEFAULT_CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD = 1024;
     /**
      * Shutdown timeout default 3s
      */
@@ -38,6 +41,7 @@ public class DefaultValues {
     public static final String DEFAULT_SELECTOR_THREAD_PREFIX = "NettyClientSelector";
     public static final String DEFAULT_WORKER_THREAD_PREFIX = "NettyClientWorkerThread";
     public static final boolean DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST = true;
+    public static final boolean DEFAULT_ENABLE_CLIENT_MULTIPLEX = false;
 
 
     public static final String DEFAULT_BOSS_THREAD_PREFIX = "NettyBoss";
@@ -75,5 +79,10 @@ public class DefaultValues {
 
     public static final boolean DEFAULT_DISABLE_GLOBAL_TRANSACTION = false;
 
+    public static final boolean DEFAULT_METRICS_ENABLED = false;
+    public static final String DEFAULT_METRICS_REGISTRY_TYPE = "compact";
+    public static final String DEFAULT_METRICS_EXPORTER_LIST = "prometheus";
+    public static final int DEFAULT_METRICS_EXPORTER_PROMETHEUS_PORT = 9898;
+
 
 }
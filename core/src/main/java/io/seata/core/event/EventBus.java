@@ -15,6 +15,8 @@
  */
 package io.seata.core.event;
 
+import io.seata.core.model.GlobalStatus;
+
 /**
  * The interface fot event bus.
  *
@@ -26,4 +28,21 @@ public interface EventBus {
     void unregister(Object subscriber);
 
     void post(Event event);
+
+    /**
+     * Post a global transaction event. Implementations may fill a preallocated event instead of creating one,
+     * so subscribers must not keep the event after handling it.
+     *
+     * @param id        the transaction id
+     * @param role      the source role
+     * @param name      the transaction name
+     * @param beginTime the begin time
+     * @param endTime   the end time, GlobalTransactionEvent.NOT_ENDED if not committed or rollbacked
+     * @param status    the transaction status
+     */
+    default void postGlobalTransactionEvent(long id, String role, String name, long beginTime, long endTime,
+                                            GlobalStatus status) {
+        post(new GlobalTransactionEvent(id, role, name, beginTime,
+            endTime == GlobalTransactionEvent.NOT_ENDED ? null : endTime, status));
+    }
 }
@@ -29,6 +29,11 @@ public class GlobalTransactionEvent implements Event {
 
     public static final String ROLE_RM = "rm";
 
+    /**
+     * Time value standing for a transaction which is not committed or rollbacked
+     */
+    public static final long NOT_ENDED = -1L;
+
     /**
      * Transaction Id
      */
@@ -37,27 +42,27 @@ public class GlobalTransactionEvent implements Event {
     /**
      * Source Role
      */
-    private final String role;
+    private String role;
 
     /**
      * Transaction Name
      */
-    private final String name;
+    private String name;
 
     /**
      * Transaction Begin Time
      */
-    private final Long beginTime;
+    private long beginTime;
 
     /**
-     * Transaction End Time (If Transaction do not committed or rollbacked, null)
+     * Transaction End Time (NOT_ENDED if Transaction do not committed or rollbacked)
      */
-    private final Long endTime;
+    private long endTime;
 
     /**
      * Transaction Status
      */
-    private final GlobalStatus status;
+    private GlobalStatus status;
 
     public long getId() {
         return id;
@@ -75,8 +80,11 @@ public class GlobalTransactionEvent implements Event {
         return beginTime;
     }
 
+    /**
+     * @return the end time, null if the transaction do not committed or rollbacked
+     */
     public Long getEndTime() {
-        return endTime;
+        return endTime == NOT_ENDED ? null : endTime;
     }
 
     public GlobalStatus getStatus() {
@@ -85,6 +93,13 @@ public class GlobalTransactionEvent implements Event {
 
     public GlobalTransactionEvent(long id, String role, String name, Long beginTime, Long endTime,
                                   GlobalStatus status) {
+        set(id, role, name, beginTime, endTime == null ? NOT_ENDED : endTime, status);
+    }
+
+    /**
+     * Fill a reused event, see {@link RingBufferEventBus}.
+     */
+    void set(long id, String role, String name, long beginTime, long endTime, GlobalStatus status) {
         this.id = id;
         this.role = role;
         this.name = name;
@@ -0,0 +1,284 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.eventbus.Subscribe;
+import io.seata.core.model.GlobalStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event bus publishing into a preallocated ring buffer, consumed by one thread per subscriber.
+ * Publishers claim a slot with a CAS and never take a lock, subscribers handle the published slots in batches
+ * and never run on the publishing thread. Global transaction events are copied into events owned by the slots,
+ * so no event is allocated per transaction. When the slowest subscriber is a whole buffer behind, the publisher of
+ * a global transaction event waits, since the subscribers pair its status transitions, e.g. the metrics count the
+ * active transactions by them. Other events are dropped or their publisher waits, depending on blockWhenFull.
+ * Subscribers are found with the Guava {@link Subscribe} annotation, like {@link GuavaEventBus}.
+ */
+public class RingBufferEventBus implements EventBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RingBufferEventBus.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private static final int SPIN_TRIES = 100;
+
+    private final String identifier;
+
+    private final Slot[] slots;
+
+    private final int mask;
+
+    private final boolean blockWhenFull;
+
+    /**
+     * the last claimed sequence
+     */
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile SubscriberThread[] subscribers = new SubscriberThread[0];
+
+    /**
+     * @param identifier    the name of the bus, used in the subscriber thread names
+     * @param bufferSize    the number of slots, rounded up to a power of two
+     * @param blockWhenFull wait for free slots when the buffer is full instead of dropping the event,
+     *                      global transaction events always wait
+     */
+    public RingBufferEventBus(String identifier, int bufferSize, boolean blockWhenFull) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        int size = Integer.highestOneBit(bufferSize);
+        if (size < bufferSize) {
+            size <<= 1;
+        }
+        this.identifier = identifier;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            this.slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.blockWhenFull = blockWhenFull;
+    }
+
+    @Override
+    public synchronized void register(Object subscriber) {
+        List<Method> methods = findSubscribeMethods(subscriber.getClass());
+        if (methods.isEmpty()) {
+            throw new IllegalArgumentException(
+                "subscriber " + subscriber.getClass().getName() + " has no @Subscribe method");
+        }
+        SubscriberThread thread = new SubscriberThread(subscriber, methods.toArray(new Method[0]), cursor.get());
+        SubscriberThread[] current = subscribers;
+        SubscriberThread[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = thread;
+        subscribers = updated;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void unregister(Object subscriber) {
+        SubscriberThread[] current = subscribers;
+        List<SubscriberThread> updated = new ArrayList<>(current.length);
+        for (SubscriberThread thread : current) {
+            if (thread.subscriber == subscriber) {
+                thread.shutdown();
+            } else {
+                updated.add(thread);
+            }
+        }
+        subscribers = updated.toArray(new SubscriberThread[0]);
+    }
+
+    @Override
+    public void post(Event event) {
+        long sequence = claim(blockWhenFull);
+        if (sequence < 0) {
+            return;
+        }
+        Slot slot = slots[(int)sequence & mask];
+        slot.event = event;
+        slot.published = sequence;
+    }
+
+    @Override
+    public void postGlobalTransactionEvent(long id, String role, String name, long beginTime, long endTime,
+                                           GlobalStatus status) {
+        long sequence = claim(true);
+        Slot slot = slots[(int)sequence & mask];
+        slot.transactionEvent.set(id, role, name, beginTime, endTime, status);
+        slot.event = slot.transactionEvent;
+        slot.published = sequence;
+    }
+
+    /**
+     * @return the number of events dropped because the buffer was full, global transaction events are never dropped
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stop all subscriber threads, the events not handled yet are discarded.
+     */
+    public synchronized void shutdown() {
+        for (SubscriberThread thread : subscribers) {
+            thread.shutdown();
+        }
+        subscribers = new SubscriberThread[0];
+    }
+
+    /**
+     * @param block wait for a free slot when the buffer is full
+     * @return the claimed sequence, or -1 if the buffer is full and the event is dropped
+     */
+    private long claim(boolean block) {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (next - slots.length > minSubscriberSequence(current)) {
+                if (!block) {
+                    if ((dropped.incrementAndGet() & 0x3FF) == 1) {
+                        LOGGER.warn("event bus [{}] is full, {} events dropped", identifier, dropped.get());
+                    }
+                    return -1;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                continue;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minSubscriberSequence(long defaultValue) {
+        long min = defaultValue;
+        for (SubscriberThread thread : subscribers) {
+            min = Math.min(min, thread.sequence.get());
+        }
+        return min;
+    }
+
+    private static List<Method> findSubscribeMethods(Class<?> clazz) {
+        List<Method> methods = new ArrayList<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Subscribe.class) && method.getParameterTypes().length == 1
+                    && !method.isBridge()) {
+                    method.setAccessible(true);
+                    methods.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static final class Slot {
+        private final GlobalTransactionEvent transactionEvent = new GlobalTransactionEvent(0, null, null, 0L, null,
+            null);
+
+        private Event event;
+
+        /**
+         * the sequence of the event in this slot, written last by the publisher
+         */
+        private volatile long published = -1;
+    }
+
+    private final class SubscriberThread extends Thread {
+        private final Object subscriber;
+
+        private final Method[] methods;
+
+        private final Class<?>[] eventTypes;
+
+        /**
+         * the last handled sequence
+         */
+        private final AtomicLong sequence;
+
+        private volatile boolean running = true;
+
+        private SubscriberThread(Object subscriber, Method[] methods, long startSequence) {
+            super(identifier + "EventBus_" + subscriber.getClass().getSimpleName());
+            setDaemon(true);
+            this.subscriber = subscriber;
+            this.methods = methods;
+            this.eventTypes = new Class<?>[methods.length];
+            for (int i = 0; i < methods.length; i++) {
+                this.eventTypes[i] = methods[i].getParameterTypes()[0];
+            }
+            this.sequence = new AtomicLong(startSequence);
+        }
+
+        private void shutdown() {
+            running = false;
+            LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                long next = sequence.get() + 1;
+                if (slots[(int)next & mask].published != next) {
+                    if (++idle < SPIN_TRIES) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+                long last = next;
+                while (last - next < mask && slots[(int)(last + 1) & mask].published == last + 1) {
+                    last++;
+                }
+                for (long s = next; s <= last; s++) {
+                    dispatch(slots[(int)s & mask].event);
+                }
+                sequence.lazySet(last);
+            }
+        }
+
+        private void dispatch(Event event) {
+            for (int i = 0; i < methods.length; i++) {
+                if (eventTypes[i].isInstance(event)) {
+                    try {
+                        methods[i].invoke(subscriber, event);
+                    } catch (Throwable t) {
+                        LOGGER.error("event subscriber {} failed to handle {}: {}", subscriber.getClass().getName(),
+                            event.getClass().getSimpleName(), t.getMessage(), t);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.metrics;
+
+import java.util.function.IntSupplier;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.model.BranchType;
+import io.seata.metrics.Counter;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Summary;
+import io.seata.metrics.exporter.Exporter;
+import io.seata.metrics.registry.Registry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.seata.core.constants.DefaultValues.DEFAULT_METRICS_ENABLED;
+import static io.seata.core.constants.DefaultValues.DEFAULT_METRICS_EXPORTER_LIST;
+import static io.seata.core.constants.DefaultValues.DEFAULT_METRICS_REGISTRY_TYPE;
+import static io.seata.core.metrics.HistogramTable.RESULTS;
+import static io.seata.core.metrics.HistogramTable.histogramId;
+import static io.seata.core.metrics.HistogramTable.requestIndex;
+import static io.seata.core.metrics.HistogramTable.resultIndex;
+
+/**
+ * Hot path instrumentation of the TM and RM.
+ * The registry and exporters are loaded through the same SPI as the server, meter ids are built once
+ * and every record method is a no-op until metrics are initialized.
+ */
+public final class ClientMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientMetrics.class);
+
+    /**
+     * Requests sent by the TM and RM to the TC.
+     */
+    public enum Request {
+        /**
+         * Global begin.
+         */
+        GLOBAL_BEGIN("globalBegin", IdConstants.ROLE_VALUE_TM),
+        /**
+         * Global commit.
+         */
+        GLOBAL_COMMIT("globalCommit", IdConstants.ROLE_VALUE_TM),
+        /**
+         * Global rollback.
+         */
+        GLOBAL_ROLLBACK("globalRollback", IdConstants.ROLE_VALUE_TM),
+        /**
+         * Global status query.
+         */
+        GLOBAL_STATUS("globalStatus", IdConstants.ROLE_VALUE_TM),
+        /**
+         * Global report.
+         */
+        GLOBAL_REPORT("globalReport", IdConstants.ROLE_VALUE_TM),
+        /**
+         * Branch register.
+         */
+        BRANCH_REGISTER("branchRegister", IdConstants.ROLE_VALUE_RM),
+        /**
+         * Branch report.
+         */
+        BRANCH_REPORT("branchReport", IdConstants.ROLE_VALUE_RM),
+        /**
+         * Global lock query.
+         */
+        GLOBAL_LOCK_QUERY("globalLockQuery", IdConstants.ROLE_VALUE_RM);
+
+        private final String tag;
+
+        private final String role;
+
+        Request(String tag, String role) {
+            this.tag = tag;
+            this.role = role;
+        }
+    }
+
+    /**
+     * Branch phase two requests handled by the RM.
+     */
+    public enum BranchOperation {
+        /**
+         * Branch commit.
+         */
+        COMMIT("commit"),
+        /**
+         * Branch rollback.
+         */
+        ROLLBACK("rollback");
+
+        private final String tag;
+
+        BranchOperation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Row images queried by the AT executors.
+     */
+    public enum Image {
+        /**
+         * Before image.
+         */
+        BEFORE("beforeImage"),
+        /**
+         * After image.
+         */
+        AFTER("afterImage");
+
+        private final String tag;
+
+        Image(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final BranchType[] BRANCH_TYPES = BranchType.values();
+
+    private static final Request[] REQUESTS = Request.values();
+
+    private static final BranchOperation[] BRANCH_OPERATIONS = BranchOperation.values();
+
+    private static final Image[] IMAGES = Image.values();
+
+    private static volatile Registry registry;
+
+    private static volatile IntSupplier asyncCommitBufferDepth;
+
+    private static boolean loaded;
+
+    private static HistogramTable requests;
+
+    private static HistogramTable branches;
+
+    private static HistogramTable images;
+
+    private static Counter lockRetries;
+
+    private static Counter lockTimeouts;
+
+    private static Summary undoLogSize;
+
+    private ClientMetrics() {
+    }
+
+    /**
+     * Load the configured registry and exporters, only the first call takes effect.
+     */
+    public static synchronized void init() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Configuration config = ConfigurationFactory.getInstance();
+        if (!config.getBoolean(ConfigurationKeys.METRICS_PREFIX + ConfigurationKeys.METRICS_ENABLED,
+            DEFAULT_METRICS_ENABLED)) {
+            return;
+        }
+        String registryType = config.getConfig(ConfigurationKeys.METRICS_PREFIX
+            + ConfigurationKeys.METRICS_REGISTRY_TYPE, DEFAULT_METRICS_REGISTRY_TYPE);
+        Registry loadedRegistry;
+        try {
+            loadedRegistry = EnhancedServiceLoader.load(Registry.class, registryType);
+        } catch (Exception e) {
+            LOGGER.warn("client metrics disabled, no metrics registry of type: {}", registryType, e);
+            return;
+        }
+        String exporterList = config.getConfig(ConfigurationKeys.METRICS_PREFIX
+            + ConfigurationKeys.METRICS_EXPORTER_LIST, DEFAULT_METRICS_EXPORTER_LIST);
+        if (StringUtils.isNotBlank(exporterList)) {
+            for (String exporterType : exporterList.split(",")) {
+                try {
+                    EnhancedServiceLoader.load(Exporter.class, exporterType.trim()).setRegistry(loadedRegistry);
+                } catch (Exception e) {
+                    LOGGER.error("not support metrics exporter type: {}", exporterType, e);
+                }
+            }
+        }
+        init(loadedRegistry);
+    }
+
+    /**
+     * Build the meter ids and register the gauges.
+     *
+     * @param registry the metrics registry
+     */
+    public static synchronized void init(Registry registry) {
+        if (registry == null || ClientMetrics.registry != null) {
+            return;
+        }
+        loaded = true;
+        Id[] requestIds = new Id[REQUESTS.length];
+        for (Request request : REQUESTS) {
+            requestIds[request.ordinal()] = histogramId(IdConstants.SEATA_REQUEST, request.role)
+                .withTag(IdConstants.OPERATION_KEY, request.tag);
+        }
+        Id[] branchIds = new Id[BRANCH_OPERATIONS.length * BRANCH_TYPES.length * RESULTS.length];
+        for (BranchOperation operation : BRANCH_OPERATIONS) {
+            for (BranchType branchType : BRANCH_TYPES) {
+                for (int result = 0; result < RESULTS.length; result++) {
+                    branchIds[branchIndex(operation, branchType, result == 0)] = histogramId(
+                        IdConstants.SEATA_BRANCH, IdConstants.ROLE_VALUE_RM)
+                        .withTag(IdConstants.OPERATION_KEY, operation.tag)
+                        .withTag(IdConstants.BRANCH_TYPE_KEY, branchType.name())
+                        .withTag(IdConstants.RESULT_KEY, RESULTS[result]);
+                }
+            }
+        }
+        Id[] imageIds = new Id[IMAGES.length];
+        for (Image image : IMAGES) {
+            imageIds[image.ordinal()] = histogramId(IdConstants.SEATA_IMAGE_QUERY, IdConstants.ROLE_VALUE_RM)
+                .withTag(IdConstants.OPERATION_KEY, image.tag);
+        }
+        lockRetries = registry.getCounter(rmId(IdConstants.SEATA_LOCK_RETRY, IdConstants.METER_VALUE_COUNTER)
+            .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_CONFLICT));
+        lockTimeouts = registry.getCounter(rmId(IdConstants.SEATA_LOCK_RETRY, IdConstants.METER_VALUE_COUNTER)
+            .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_TIMEOUT));
+        undoLogSize = registry.getSummary(rmId(IdConstants.SEATA_UNDO_LOG_SIZE, IdConstants.METER_VALUE_SUMMARY));
+        registry.getGauge(rmId(IdConstants.SEATA_ASYNC_COMMIT_BUFFER, IdConstants.METER_VALUE_GAUGE), () -> {
+            IntSupplier depth = asyncCommitBufferDepth;
+            return depth == null ? 0 : depth.getAsInt();
+        });
+        requests = HistogramTable.ofRequests(registry, requestIds);
+        branches = new HistogramTable(registry, branchIds);
+        images = new HistogramTable(registry, imageIds);
+        ClientMetrics.registry = registry;
+    }
+
+    public static boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * The registry of the client meters, null if metrics are disabled.
+     * Frameworks can poll its measurements to bridge them into their own metrics system.
+     *
+     * @return the registry
+     */
+    public static Registry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Record a request sent to the TC.
+     *
+     * @param request    the request
+     * @param branchType the branch type of branch requests, null for global requests
+     * @param startNanos the System.nanoTime() when the request was built
+     * @param success    whether the TC answered with a success result code
+     */
+    public static void recordRequest(Request request, BranchType branchType, long startNanos, boolean success) {
+        if (registry == null) {
+            return;
+        }
+        requests.record(requestIndex(request.ordinal(), branchType, success), startNanos);
+    }
+
+    /**
+     * Record a branch commit or rollback handled by the RM.
+     *
+     * @param operation  commit or rollback
+     * @param branchType the branch type
+     * @param startNanos the System.nanoTime() when handling started
+     * @param success    whether the response carries a success result code
+     */
+    public static void recordBranch(BranchOperation operation, BranchType branchType, long startNanos,
+                                    boolean success) {
+        if (registry == null || branchType == null) {
+            return;
+        }
+        branches.record(branchIndex(operation, branchType, success), startNanos);
+    }
+
+    public static void recordImageQuery(Image image, long startNanos) {
+        if (registry == null) {
+            return;
+        }
+        images.record(image.ordinal(), startNanos);
+    }
+
+    /**
+     * Count a lock conflict retry, or the give-up after the last one.
+     *
+     * @param timeout true if the retries are exhausted
+     */
+    public static void recordLockRetry(boolean timeout) {
+        if (registry == null) {
+            return;
+        }
+        (timeout ? lockTimeouts : lockRetries).increase(1);
+    }
+
+    public static void recordUndoLogSize(int bytes) {
+        if (registry == null) {
+            return;
+        }
+        undoLogSize.increase(bytes);
+    }
+
+    /**
+     * Bind the depth of the async commit buffer, read when the gauge is measured.
+     *
+     * @param depth the buffer depth supplier
+     */
+    public static void bindAsyncCommitBuffer(IntSupplier depth) {
+        asyncCommitBufferDepth = depth;
+    }
+
+    private static int branchIndex(BranchOperation operation, BranchType branchType, boolean success) {
+        return resultIndex(operation.ordinal() * BRANCH_TYPES.length + branchType.ordinal(), success);
+    }
+
+    private static Id rmId(String name, String meter) {
+        return new Id(name)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM)
+            .withTag(IdConstants.METER_KEY, meter);
+    }
+}
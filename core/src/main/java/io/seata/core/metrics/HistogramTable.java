@@ -0,0 +1,125 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.model.BranchType;
+import io.seata.metrics.Histogram;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+
+/**
+ * Histograms kept in an array indexed by the caller, so recording does not allocate.
+ * The histograms are resolved lazily, so only the combinations actually used are created in the registry.
+ */
+public final class HistogramTable {
+
+    /**
+     * the result tag values, success first
+     */
+    public static final String[] RESULTS = {IdConstants.RESULT_VALUE_SUCCESS, IdConstants.RESULT_VALUE_FAILED};
+
+    private static final BranchType[] BRANCH_TYPES = BranchType.values();
+
+    /**
+     * index 0 stands for requests without branch type
+     */
+    private static final int BRANCH_TYPE_SLOTS = BRANCH_TYPES.length + 1;
+
+    private final Registry registry;
+
+    private final Id[] ids;
+
+    private final Histogram[] histograms;
+
+    public HistogramTable(Registry registry, Id[] ids) {
+        this.registry = registry;
+        this.ids = ids;
+        this.histograms = new Histogram[ids.length];
+    }
+
+    /**
+     * Build the table of the requests, one histogram per operation, branch type (or none) and result.
+     *
+     * @param registry     the metrics registry
+     * @param operationIds the ids of the operations, without the branch type and result tags
+     * @return the table, indexed by {@link #requestIndex(int, BranchType, boolean)}
+     */
+    public static HistogramTable ofRequests(Registry registry, Id[] operationIds) {
+        Id[] ids = new Id[operationIds.length * BRANCH_TYPE_SLOTS * RESULTS.length];
+        for (int operation = 0; operation < operationIds.length; operation++) {
+            for (int slot = 0; slot < BRANCH_TYPE_SLOTS; slot++) {
+                for (int result = 0; result < RESULTS.length; result++) {
+                    Id id = new Id(operationIds[operation].getName()).withTag(operationIds[operation].getTags())
+                        .withTag(IdConstants.RESULT_KEY, RESULTS[result]);
+                    if (slot > 0) {
+                        id.withTag(IdConstants.BRANCH_TYPE_KEY, BRANCH_TYPES[slot - 1].name());
+                    }
+                    ids[(operation * BRANCH_TYPE_SLOTS + slot) * RESULTS.length + result] = id;
+                }
+            }
+        }
+        return new HistogramTable(registry, ids);
+    }
+
+    /**
+     * @param operation  the index of the operation id given to {@link #ofRequests(Registry, Id[])}
+     * @param branchType the branch type of branch requests, null for global requests
+     * @param success    the result
+     * @return the index of the request histogram
+     */
+    public static int requestIndex(int operation, BranchType branchType, boolean success) {
+        int slot = branchType == null ? 0 : branchType.ordinal() + 1;
+        return resultIndex(operation * BRANCH_TYPE_SLOTS + slot, success);
+    }
+
+    /**
+     * @param index   the index of the meter without the result
+     * @param success the result
+     * @return the index of the meter tagged with the result
+     */
+    public static int resultIndex(int index, boolean success) {
+        return index * RESULTS.length + (success ? 0 : 1);
+    }
+
+    public static Id histogramId(String name, String role) {
+        return new Id(name)
+            .withTag(IdConstants.ROLE_KEY, role)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM);
+    }
+
+    public Histogram get(int index) {
+        Histogram histogram = histograms[index];
+        if (histogram == null) {
+            // the registry returns the same meter for the same id, so racing writers record into one histogram
+            histogram = registry.getHistogram(ids[index]);
+            histograms[index] = histogram;
+        }
+        return histogram;
+    }
+
+    /**
+     * Record the time elapsed since startNanos.
+     *
+     * @param index      the index of the histogram
+     * @param startNanos the System.nanoTime() when the operation started
+     */
+    public void record(int index, long startNanos) {
+        get(index).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -27,6 +27,16 @@ import java.util.Map;
  */
 public class RpcMessage {
 
+    /**
+     * The shift of the stream id carried in the high bits of the message id.
+     */
+    public static final int STREAM_ID_SHIFT = 28;
+
+    /**
+     * The mask of the sequence carried in the low bits of the message id.
+     */
+    public static final int MESSAGE_SEQUENCE_MASK = (1 << STREAM_ID_SHIFT) - 1;
+
     private int id;
     private byte messageType;
     private byte codec;
@@ -52,6 +62,27 @@ public class RpcMessage {
         this.id = id;
     }
 
+    /**
+     * Gets the stream id of a message id, the responses echo the id of their request.
+     *
+     * @param messageId the message id
+     * @return the stream id
+     */
+    public static int toStreamId(int messageId) {
+        return messageId >>> STREAM_ID_SHIFT;
+    }
+
+    /**
+     * Build the message id of a sequence in a stream.
+     *
+     * @param streamId the stream id
+     * @param sequence the sequence
+     * @return the message id
+     */
+    public static int toMessageId(int streamId, int sequence) {
+        return (streamId << STREAM_ID_SHIFT) | (sequence & MESSAGE_SEQUENCE_MASK);
+    }
+
     /**
      * Gets body.
      *
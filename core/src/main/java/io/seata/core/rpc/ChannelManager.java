@@ -124,11 +124,18 @@ public class ChannelManager {
     public static void registerTMChannel(RegisterTMRequest request, Channel channel)
         throws IncompatibleVersionException {
         Version.checkVersion(request.getVersion());
-        RpcContext rpcContext = buildChannelHolder(NettyPoolKey.TransactionRole.TMROLE, request.getVersion(),
-            request.getApplicationId(),
-            request.getTransactionServiceGroup(),
-            null, channel);
-        rpcContext.holdInIdentifiedChannels(IDENTIFIED_CHANNELS);
+        RpcContext rpcContext;
+        if (!IDENTIFIED_CHANNELS.containsKey(channel)) {
+            rpcContext = buildChannelHolder(NettyPoolKey.TransactionRole.TMROLE, request.getVersion(),
+                request.getApplicationId(),
+                request.getTransactionServiceGroup(),
+                null, channel);
+            rpcContext.holdInIdentifiedChannels(IDENTIFIED_CHANNELS);
+        } else {
+            // a multiplexed client registers its TM on the channel of its RM, the RM context holds both the roles
+            rpcContext = IDENTIFIED_CHANNELS.get(channel);
+        }
+        if (null != rpcContext.getClientTMHolderMap()) { return; }
         String clientIdentified = rpcContext.getApplicationId() + Constants.CLIENT_ID_SPLIT_CHAR
             + ChannelUtil.getClientIpFromChannel(channel);
         TM_CHANNELS.putIfAbsent(clientIdentified, new ConcurrentHashMap<Integer, RpcContext>());
@@ -233,15 +240,16 @@ public class ChannelManager {
         }
         Integer clientPort = ChannelUtil.getClientPortFromChannel(channel);
         NettyPoolKey.TransactionRole clientRole = rpcContext.getClientRole();
-        if (clientRole == NettyPoolKey.TransactionRole.TMROLE) {
+        // a multiplexed channel holds both the roles, whichever registered first
+        if (clientRole == NettyPoolKey.TransactionRole.TMROLE || null != rpcContext.getClientTMHolderMap()) {
             String clientIdentified = rpcContext.getApplicationId() + Constants.CLIENT_ID_SPLIT_CHAR
                 + ChannelUtil.getClientIpFromChannel(channel);
-            if (!TM_CHANNELS.containsKey(clientIdentified)) {
-                return null;
+            Channel sameClientChannel = getChannelFromSameClientMap(TM_CHANNELS.get(clientIdentified), clientPort);
+            if (null != sameClientChannel) {
+                return sameClientChannel;
             }
-            ConcurrentMap<Integer, RpcContext> clientRpcMap = TM_CHANNELS.get(clientIdentified);
-            return getChannelFromSameClientMap(clientRpcMap, clientPort);
-        } else if (clientRole == NettyPoolKey.TransactionRole.RMROLE) {
+        }
+        if (null != rpcContext.getClientRMHolderMap()) {
             for (Map<Integer, RpcContext> clientRmMap : rpcContext.getClientRMHolderMap().values()) {
                 Channel sameClientChannel = getChannelFromSameClientMap(clientRmMap, clientPort);
                 if (null != sameClientChannel) {
@@ -72,11 +72,11 @@ public class RpcContext {
         if (clientIDHolderMap != null) {
             clientIDHolderMap = null;
         }
-        if (clientRole == NettyPoolKey.TransactionRole.TMROLE && clientTMHolderMap != null) {
+        if (clientTMHolderMap != null) {
             clientTMHolderMap.remove(clientPort);
             clientTMHolderMap = null;
         }
-        if (clientRole == NettyPoolKey.TransactionRole.RMROLE && clientRMHolderMap != null) {
+        if (clientRMHolderMap != null) {
             for (Map<Integer, RpcContext> portMap : clientRMHolderMap.values()) {
                 portMap.remove(clientPort);
             }
@@ -144,6 +144,15 @@ public class RpcContext {
         portMap.put(clientPort, this);
     }
 
+    /**
+     * Gets get client tm holder map.
+     *
+     * @return the get client tm holder map
+     */
+    public ConcurrentMap<Integer, RpcContext> getClientTMHolderMap() {
+        return clientTMHolderMap;
+    }
+
     /**
      * Gets get client rm holder map.
      *
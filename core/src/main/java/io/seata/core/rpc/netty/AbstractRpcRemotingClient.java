@@ -16,13 +16,17 @@
 package io.seata.core.rpc.netty;
 
 import java.net.InetSocketAddress;
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import io.netty.channel.Channel;
@@ -35,16 +39,24 @@ import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.NetUtil;
+import io.seata.config.ConfigurationCache;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.MergeResultMessage;
 import io.seata.core.protocol.MergedWarpMessage;
 import io.seata.core.protocol.MessageFuture;
+import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchReportRequest;
 import io.seata.core.rpc.ClientMessageListener;
 import io.seata.core.rpc.ClientMessageSender;
 import io.seata.discovery.loadbalance.LoadBalanceFactory;
-import io.seata.discovery.registry.RegistryFactory;
+import io.seata.discovery.loadbalance.ServerStatus;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,27 +82,63 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
     private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
     private static final long SCHEDULE_DELAY_MILLS = 60 * 1000L;
     private static final long SCHEDULE_INTERVAL_MILLS = 10 * 1000L;
+    private static final long LOOKUP_INTERVAL_MILLS = 60 * 1000L;
+    private static final long RECONCILE_DEBOUNCE_MILLS = 1000L;
     private static final String MERGE_THREAD_PREFIX = "rpcMergeMessageSend";
 
+    /**
+     * The clients sharing the connections of the multiplexed mode, by their stream id.
+     * The RM client owns the connections, the TM client registers its stream on them.
+     */
+    private static final ConcurrentMap<Integer, AbstractRpcRemotingClient> STREAM_CLIENTS = new ConcurrentHashMap<>();
+
     private final RpcClientBootstrap clientBootstrap;
+    private final NettyPoolableFactory poolableFactory;
     private NettyClientChannelManager clientChannelManager;
     private ClientMessageListener clientMessageListener;
     private final NettyPoolKey.TransactionRole transactionRole;
+    private final int streamId;
     private ExecutorService mergeSendExecutorService;
+    private final AtomicBoolean reconcileScheduled = new AtomicBoolean();
+    private final ServiceAddressTable.ChangeListener addressChangeListener = this::scheduleReconcile;
+    private long lastLookupMills;
 
     public AbstractRpcRemotingClient(NettyClientConfig nettyClientConfig, EventExecutorGroup eventExecutorGroup,
                                      ThreadPoolExecutor messageExecutor, NettyPoolKey.TransactionRole transactionRole) {
+        this(nettyClientConfig, eventExecutorGroup, messageExecutor, transactionRole,
+            NettyClientConfig.isEnableClientMultiplex());
+    }
+
+    AbstractRpcRemotingClient(NettyClientConfig nettyClientConfig, EventExecutorGroup eventExecutorGroup,
+                              ThreadPoolExecutor messageExecutor, NettyPoolKey.TransactionRole transactionRole,
+                              boolean multiplex) {
         super(messageExecutor);
         this.transactionRole = transactionRole;
+        this.streamId = multiplex ? transactionRole.getValue() : 0;
         clientBootstrap = new RpcClientBootstrap(nettyClientConfig, eventExecutorGroup, transactionRole);
-        clientChannelManager = new NettyClientChannelManager(
-            new NettyPoolableFactory(this, clientBootstrap), getPoolKeyFunction(), nettyClientConfig);
+        poolableFactory = new NettyPoolableFactory(this, clientBootstrap);
+        clientChannelManager = new NettyClientChannelManager(poolableFactory, getPoolKeyFunction(), nettyClientConfig);
     }
 
     public NettyClientChannelManager getClientChannelManager() {
         return clientChannelManager;
     }
 
+    /**
+     * Gets the channel manager sending the messages of this client, the one of the connection owner when multiplexed.
+     *
+     * @return the channel manager
+     */
+    protected NettyClientChannelManager getEffectiveChannelManager() {
+        return getChannelOwner().clientChannelManager;
+    }
+
+    @Override
+    public int getNextMessageId() {
+        int sequence = super.getNextMessageId();
+        return streamId == 0 ? sequence : RpcMessage.toMessageId(streamId, sequence);
+    }
+
     /**
      * Get pool key function.
      *
@@ -107,12 +155,25 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
 
     @Override
     public void init() {
+        ConfigurationCache.prefetch(ConfigurationFactory.getInstance(), ConfigurationKeys.class);
         clientBootstrap.setChannelHandlers(new ClientHandler());
         clientBootstrap.start();
+        joinStreams();
+        ServiceAddressTable.getInstance().addChangeListener(addressChangeListener);
         timerExecutor.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
-                clientChannelManager.reconnect(getTransactionServiceGroup());
+                if (getChannelOwner() != AbstractRpcRemotingClient.this) {
+                    return;
+                }
+                // the registry changes are reconciled when reported, the full lookup is the fallback
+                long now = System.currentTimeMillis();
+                if (now - lastLookupMills >= LOOKUP_INTERVAL_MILLS) {
+                    lastLookupMills = now;
+                    clientChannelManager.reconnect(getTransactionServiceGroup());
+                } else {
+                    clientChannelManager.reconcile(getTransactionServiceGroup());
+                }
             }
         }, SCHEDULE_DELAY_MILLS, SCHEDULE_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
         if (NettyClientConfig.isEnableClientBatchSendRequest()) {
@@ -128,6 +189,8 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
 
     @Override
     public void destroy() {
+        leaveStreams();
+        ServiceAddressTable.getInstance().removeChangeListener(addressChangeListener);
         clientBootstrap.shutdown();
         if (mergeSendExecutorService != null) {
             mergeSendExecutorService.shutdown();
@@ -137,10 +200,21 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
 
     @Override
     public Object sendMsgWithResponse(Object msg, long timeout) throws TimeoutException {
-        String validAddress = loadBalance(getTransactionServiceGroup());
-        Channel channel = clientChannelManager.acquireChannel(validAddress);
-        Object result = super.sendAsyncRequestWithResponse(validAddress, channel, msg, timeout);
-        return result;
+        ServiceAddressTable.Snapshot snapshot = getAddressSnapshot(getTransactionServiceGroup());
+        InetSocketAddress address = loadBalance(snapshot, getXid(msg));
+        String validAddress = snapshot.toStringAddress(address);
+        ServerStatus serverStatus = ServerStatus.get(address);
+        serverStatus.beginRequest();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Channel channel = getEffectiveChannelManager().acquireChannel(validAddress);
+            Object result = super.sendAsyncRequestWithResponse(validAddress, channel, msg, timeout);
+            success = true;
+            return result;
+        } finally {
+            serverStatus.endRequest(System.nanoTime() - start, success);
+        }
     }
 
     @Override
@@ -151,12 +225,12 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
     @Override
     public Object sendMsgWithResponse(String serverAddress, Object msg, long timeout)
         throws TimeoutException {
-        return super.sendAsyncRequestWithResponse(serverAddress, clientChannelManager.acquireChannel(serverAddress), msg, timeout);
+        return super.sendAsyncRequestWithResponse(serverAddress, getEffectiveChannelManager().acquireChannel(serverAddress), msg, timeout);
     }
 
     @Override
     public void sendResponse(RpcMessage request, String serverAddress, Object msg) {
-        super.defaultSendResponse(request, clientChannelManager.acquireChannel(serverAddress), msg);
+        super.defaultSendResponse(request, getEffectiveChannelManager().acquireChannel(serverAddress), msg);
     }
 
     /**
@@ -179,21 +253,150 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
 
     @Override
     public void destroyChannel(String serverAddress, Channel channel) {
-        clientChannelManager.destroyChannel(serverAddress, channel);
+        getEffectiveChannelManager().destroyChannel(serverAddress, channel);
+    }
+
+    /**
+     * Join the clients sharing the connections of the multiplexed mode, and register on the connections of the owner.
+     */
+    void joinStreams() {
+        if (streamId != 0) {
+            STREAM_CLIENTS.put(streamId, this);
+            registerOnSharedChannels();
+        }
+    }
+
+    void leaveStreams() {
+        if (streamId != 0) {
+            STREAM_CLIENTS.remove(streamId, this);
+        }
     }
 
-    private String loadBalance(String transactionServiceGroup) {
+    /**
+     * Register the other clients of the multiplexed mode on a channel created by this client.
+     *
+     * @param serverAddress the server address
+     * @param channel       the channel
+     */
+    void registerStreams(String serverAddress, Channel channel) {
+        if (streamId == 0) {
+            return;
+        }
+        for (AbstractRpcRemotingClient streamClient : STREAM_CLIENTS.values()) {
+            if (streamClient != this) {
+                streamClient.registerStream(serverAddress, channel);
+            }
+        }
+    }
+
+    /**
+     * Complete the futures of a response to a request of this client.
+     *
+     * @param rpcMessage the response
+     */
+    void receiveResponse(RpcMessage rpcMessage) {
+        if (rpcMessage.getBody() instanceof MergeResultMessage) {
+            MergeResultMessage results = (MergeResultMessage) rpcMessage.getBody();
+            MergedWarpMessage mergeMessage = (MergedWarpMessage) mergeMsgMap.remove(rpcMessage.getId());
+            for (int i = 0; i < mergeMessage.msgs.size(); i++) {
+                completeFuture(mergeMessage.msgIds.get(i), results.getMsgs()[i]);
+            }
+        } else {
+            completeFuture(rpcMessage.getId(), rpcMessage.getBody());
+        }
+    }
+
+    private void completeFuture(int msgId, Object result) {
+        MessageFuture future = futures.remove(msgId);
+        if (future == null) {
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("msg: {} is not found in futures.", msgId);
+            }
+        } else {
+            future.setResultMessage(result);
+        }
+    }
+
+    /**
+     * The RM client owns the connections of the multiplexed mode, the TM client uses its own when no RM client runs.
+     */
+    private AbstractRpcRemotingClient getChannelOwner() {
+        if (streamId == 0) {
+            return this;
+        }
+        AbstractRpcRemotingClient owner = STREAM_CLIENTS.get(NettyPoolKey.TransactionRole.RMROLE.getValue());
+        return owner == null ? this : owner;
+    }
+
+    private void registerOnSharedChannels() {
+        AbstractRpcRemotingClient owner = getChannelOwner();
+        if (owner == this) {
+            return;
+        }
+        for (Map.Entry<String, Channel> entry : owner.clientChannelManager.getChannels().entrySet()) {
+            registerStream(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void registerStream(String serverAddress, Channel channel) {
+        try {
+            poolableFactory.register(getPoolKeyFunction().apply(serverAddress), channel);
+        } catch (Exception exx) {
+            LOGGER.error("register {} on shared channel {} failed: {}", transactionRole.name(), channel,
+                exx.getMessage());
+        }
+    }
+
+    /**
+     * Coalesce the address changes reported within the debounce delay into one reconciliation.
+     */
+    private void scheduleReconcile() {
+        if (!reconcileScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            timerExecutor.schedule(() -> {
+                reconcileScheduled.set(false);
+                if (getChannelOwner() == this) {
+                    clientChannelManager.reconcile(getTransactionServiceGroup());
+                }
+            }, RECONCILE_DEBOUNCE_MILLS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            reconcileScheduled.set(false);
+        }
+    }
+
+    private ServiceAddressTable.Snapshot getAddressSnapshot(String transactionServiceGroup) {
+        try {
+            return ServiceAddressTable.getInstance().get(transactionServiceGroup);
+        } catch (Exception ex) {
+            LOGGER.error(ex.getMessage());
+            throw new FrameworkException(NoAvailableService);
+        }
+    }
+
+    private InetSocketAddress loadBalance(ServiceAddressTable.Snapshot snapshot, String xid) {
         InetSocketAddress address = null;
         try {
-            List<InetSocketAddress> inetSocketAddressList = RegistryFactory.getInstance().lookup(transactionServiceGroup);
-            address = LoadBalanceFactory.getInstance().select(inetSocketAddressList);
+            address = LoadBalanceFactory.getInstance().select(snapshot.getAddresses(), xid);
         } catch (Exception ex) {
             LOGGER.error(ex.getMessage());
         }
         if (address == null) {
             throw new FrameworkException(NoAvailableService);
         }
-        return NetUtil.toStringAddress(address);
+        return address;
+    }
+
+    private String getXid(Object msg) {
+        if (msg instanceof AbstractGlobalEndRequest) {
+            return ((AbstractGlobalEndRequest)msg).getXid();
+        } else if (msg instanceof BranchRegisterRequest) {
+            return ((BranchRegisterRequest)msg).getXid();
+        } else if (msg instanceof BranchReportRequest) {
+            return ((BranchReportRequest)msg).getXid();
+        }
+        return null;
     }
 
     private String getThreadPrefix() {
@@ -232,7 +435,7 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
                     }
                     Channel sendChannel = null;
                     try {
-                        sendChannel = clientChannelManager.acquireChannel(address);
+                        sendChannel = getEffectiveChannelManager().acquireChannel(address);
                         AbstractRpcRemotingClient.super.defaultSendRequest(sendChannel, mergeMessage);
                     } catch (FrameworkException e) {
                         if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
@@ -297,25 +500,26 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
                 }
                 return;
             }
-            if (rpcMessage.getBody() instanceof MergeResultMessage) {
-                MergeResultMessage results = (MergeResultMessage) rpcMessage.getBody();
-                MergedWarpMessage mergeMessage = (MergedWarpMessage) mergeMsgMap.remove(rpcMessage.getId());
-                for (int i = 0; i < mergeMessage.msgs.size(); i++) {
-                    int msgId = mergeMessage.msgIds.get(i);
-                    MessageFuture future = futures.remove(msgId);
-                    if (future == null) {
-                        if (LOGGER.isInfoEnabled()) {
-                            LOGGER.info("msg: {} is not found in futures.", msgId);
-                        }
-                    } else {
-                        future.setResultMessage(results.getMsgs()[i]);
-                    }
+            if (streamId != 0 && isResponse(rpcMessage)) {
+                // the responses to the other clients sharing this channel go back to their stream
+                AbstractRpcRemotingClient streamClient = STREAM_CLIENTS.get(RpcMessage.toStreamId(rpcMessage.getId()));
+                if (streamClient != null && streamClient != AbstractRpcRemotingClient.this) {
+                    streamClient.receiveResponse(rpcMessage);
+                    return;
                 }
+            }
+            if (rpcMessage.getBody() instanceof MergeResultMessage) {
+                receiveResponse(rpcMessage);
                 return;
             }
             super.channelRead(ctx, msg);
         }
 
+        private boolean isResponse(RpcMessage rpcMessage) {
+            return rpcMessage.getMessageType() != ProtocolConstants.MSGTYPE_RESQUEST
+                && rpcMessage.getMessageType() != ProtocolConstants.MSGTYPE_RESQUEST_ONEWAY;
+        }
+
         @Override
         public void channelInactive(ChannelHandlerContext ctx) throws Exception {
             if (messageExecutor.isShutdown()) {
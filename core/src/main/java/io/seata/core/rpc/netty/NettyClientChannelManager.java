@@ -18,21 +18,22 @@ package io.seata.core.rpc.netty;
 import io.netty.channel.Channel;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
-import io.seata.common.util.CollectionUtils;
-import io.seata.common.util.NetUtil;
 import io.seata.core.protocol.RegisterRMRequest;
+import io.seata.discovery.loadbalance.ServerStatus;
 import io.seata.discovery.registry.RegistryFactory;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Netty client pool manager.
@@ -54,6 +55,12 @@ class NettyClientChannelManager {
     
     private Function<String, NettyPoolKey> poolKeyFunction;
     
+    private long reconciledVersion;
+    
+    private Set<String> reconciledAddresses = Collections.emptySet();
+    
+    private Set<InetSocketAddress> reconciledServers = Collections.emptySet();
+    
     NettyClientChannelManager(final NettyPoolableFactory keyPoolableFactory, final Function<String, NettyPoolKey> poolKeyFunction,
                                      final NettyClientConfig clientConfig) {
         nettyClientKeyPool = new GenericKeyedObjectPool<>(keyPoolableFactory);
@@ -152,33 +159,109 @@ class NettyClientChannelManager {
     }
     
     /**
-     * Reconnect to remote server of current transaction service group.
+     * Reconnect to remote server of current transaction service group, after looking its addresses up again.
+     * This is the slow fallback for the registries not reporting their changes.
      *
      * @param transactionServiceGroup transaction service group
      */
     void reconnect(String transactionServiceGroup) {
-        List<String> availList = null;
+        reconcile(transactionServiceGroup, true);
+    }
+    
+    /**
+     * Reconcile the channels with the current addresses of the transaction service group.
+     * The registry is only read when it reported a change since the last lookup.
+     *
+     * @param transactionServiceGroup transaction service group
+     */
+    void reconcile(String transactionServiceGroup) {
+        reconcile(transactionServiceGroup, false);
+    }
+    
+    private synchronized void reconcile(String transactionServiceGroup, boolean lookup) {
+        ServiceAddressTable.Snapshot snapshot;
         try {
-            availList = getAvailServerList(transactionServiceGroup);
+            snapshot = lookup ? ServiceAddressTable.getInstance().refresh(transactionServiceGroup)
+                : ServiceAddressTable.getInstance().get(transactionServiceGroup);
         } catch (Exception e) {
             LOGGER.error("Failed to get available servers: {}", e.getMessage(), e);
             return;
         }
-        if (CollectionUtils.isEmpty(availList)) {
+        if (snapshot.isEmpty()) {
             String serviceGroup = RegistryFactory.getInstance()
                                                  .getServiceGroup(transactionServiceGroup);
             LOGGER.error("no available service '{}' found, please make sure registry config correct", serviceGroup);
             return;
         }
-        for (String serverAddress : availList) {
+        if (snapshot.getVersion() != reconciledVersion) {
+            closeRemovedChannels(snapshot.getVersion(), snapshot.getAddressStrings());
+            removeServerStatus(snapshot.getAddresses());
+        }
+        for (InetSocketAddress address : snapshot.getAddresses()) {
+            String serverAddress = snapshot.toStringAddress(address);
             try {
                 acquireChannel(serverAddress);
+                ServerStatus.get(address).markAvailable();
             } catch (Exception e) {
+                ServerStatus.get(address).markUnavailable();
                 LOGGER.error("{} can not connect to {} cause:{}",FrameworkErrorCode.NetConnect.getErrCode(), serverAddress, e.getMessage(), e);
             }
         }
     }
     
+    /**
+     * Close the channels to the servers which are gone from the addresses of the transaction service group.
+     *
+     * @param version   the version of the addresses
+     * @param addresses the current addresses
+     */
+    synchronized void closeRemovedChannels(long version, List<String> addresses) {
+        Set<String> current = new HashSet<>(addresses);
+        for (String serverAddress : reconciledAddresses) {
+            if (!current.contains(serverAddress)) {
+                closeChannel(serverAddress);
+            }
+        }
+        reconciledAddresses = current;
+        reconciledVersion = version;
+    }
+    
+    /**
+     * Drop the request statistics of the servers which are gone, the load balancers start over if they come back.
+     *
+     * @param servers the current servers
+     */
+    private void removeServerStatus(List<InetSocketAddress> servers) {
+        Set<InetSocketAddress> current = new HashSet<>(servers);
+        for (InetSocketAddress server : reconciledServers) {
+            if (!current.contains(server)) {
+                ServerStatus.remove(server);
+            }
+        }
+        reconciledServers = current;
+    }
+    
+    private void closeChannel(String serverAddress) {
+        Object lock = channelLocks.get(serverAddress);
+        if (null == lock) { return; }
+        synchronized (lock) {
+            Channel channel = channels.remove(serverAddress);
+            NettyPoolKey poolKey = poolKeyMap.get(serverAddress);
+            if (null == poolKey) { return; }
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("server {} is removed from the registry, close channel:{}", serverAddress, channel);
+            }
+            try {
+                if (null != channel) {
+                    nettyClientKeyPool.invalidateObject(poolKey, channel);
+                }
+                nettyClientKeyPool.clear(poolKey);
+            } catch (Exception exx) {
+                LOGGER.error("close channel of {} error:{}", serverAddress, exx.getMessage());
+            }
+        }
+    }
+    
     void invalidateObject(final String serverAddress, final Channel channel) throws Exception {
         nettyClientKeyPool.invalidateObject(poolKeyMap.get(serverAddress), channel);
     }
@@ -212,18 +295,6 @@ class NettyClientChannelManager {
         return channelFromPool;
     }
     
-    private List<String> getAvailServerList(String transactionServiceGroup) throws Exception {
-        List<InetSocketAddress> availInetSocketAddressList = RegistryFactory.getInstance()
-                                                                            .lookup(transactionServiceGroup);
-        if (CollectionUtils.isEmpty(availInetSocketAddressList)) {
-            return Collections.emptyList();
-        }
-
-        return availInetSocketAddressList.stream()
-                                         .map(NetUtil::toStringAddress)
-                                         .collect(Collectors.toList());
-    }
-    
     private Channel getExistAliveChannel(Channel rmChannel, String serverAddress) {
         if (rmChannel.isActive()) {
             return rmChannel;
@@ -19,6 +19,7 @@ import io.netty.channel.Channel;
 import io.seata.core.constants.ConfigurationKeys;
 
 import static io.seata.core.constants.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
+import static io.seata.core.constants.DefaultValues.DEFAULT_ENABLE_CLIENT_MULTIPLEX;
 import static io.seata.core.constants.DefaultValues.DEFAULT_SELECTOR_THREAD_PREFIX;
 import static io.seata.core.constants.DefaultValues.DEFAULT_SELECTOR_THREAD_SIZE;
 import static io.seata.core.constants.DefaultValues.DEFAULT_WORKER_THREAD_PREFIX;
@@ -57,6 +58,8 @@ public class NettyClientConfig extends NettyBaseConfig {
     private static final boolean DEFAULT_POOL_LIFO = true;
     private static final boolean ENABLE_CLIENT_BATCH_SEND_REQUEST = CONFIG.getBoolean(ConfigurationKeys.ENABLE_CLIENT_BATCH_SEND_REQUEST, DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST);
 
+    private static final boolean ENABLE_CLIENT_MULTIPLEX = CONFIG.getBoolean(ConfigurationKeys.ENABLE_CLIENT_MULTIPLEX, DEFAULT_ENABLE_CLIENT_MULTIPLEX);
+
     /**
      * Gets connect timeout millis.
      *
@@ -451,4 +454,15 @@ public class NettyClientConfig extends NettyBaseConfig {
     public static boolean isEnableClientBatchSendRequest() {
         return ENABLE_CLIENT_BATCH_SEND_REQUEST;
     }
+
+    /**
+     * Whether the TM and the RM share one connection to each server.
+     * The servers must support it: a server without the multiplexed mode replaces the RM context of the shared
+     * connection when the TM registers on it.
+     *
+     * @return the boolean
+     */
+    public static boolean isEnableClientMultiplex() {
+        return ENABLE_CLIENT_MULTIPLEX;
+    }
 }
@@ -56,6 +56,29 @@ public class NettyPoolableFactory implements KeyedPoolableObjectFactory<NettyPoo
             LOGGER.info("NettyPool create channel to " + key);
         }
         Channel tmpChannel = clientBootstrap.getNewChannel(address);
+        Channel channelToServer;
+        try {
+            channelToServer = register(key, tmpChannel);
+        } catch (FrameworkException exx) {
+            if (tmpChannel != null) {
+                tmpChannel.close();
+            }
+            throw exx;
+        }
+        if (channelToServer != null) {
+            rpcRemotingClient.registerStreams(key.getAddress(), channelToServer);
+        }
+        return channelToServer;
+    }
+
+    /**
+     * Send the register message of the key on a channel.
+     *
+     * @param key     the pool key
+     * @param channel the channel
+     * @return the channel, null if the registration is refused
+     */
+    Channel register(NettyPoolKey key, Channel channel) {
         long start = System.currentTimeMillis();
         Object response;
         Channel channelToServer = null;
@@ -63,17 +86,14 @@ public class NettyPoolableFactory implements KeyedPoolableObjectFactory<NettyPoo
             throw new FrameworkException("register msg is null, role:" + key.getTransactionRole().name());
         }
         try {
-            response = rpcRemotingClient.sendAsyncRequestWithResponse(tmpChannel, key.getMessage());
+            response = rpcRemotingClient.sendAsyncRequestWithResponse(channel, key.getMessage());
             if (!isResponseSuccess(response, key.getTransactionRole())) {
-                rpcRemotingClient.onRegisterMsgFail(key.getAddress(), tmpChannel, response, key.getMessage());
+                rpcRemotingClient.onRegisterMsgFail(key.getAddress(), channel, response, key.getMessage());
             } else {
-                channelToServer = tmpChannel;
-                rpcRemotingClient.onRegisterMsgSuccess(key.getAddress(), tmpChannel, response, key.getMessage());
+                channelToServer = channel;
+                rpcRemotingClient.onRegisterMsgSuccess(key.getAddress(), channel, response, key.getMessage());
             }
         } catch (Exception exx) {
-            if (tmpChannel != null) {
-                tmpChannel.close();
-            }
             throw new FrameworkException(
                 "register error,role:" + key.getTransactionRole().name() + ",err:" + exx.getMessage());
         }
@@ -15,6 +15,8 @@
  */
 package io.seata.core.rpc.netty;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -30,7 +32,7 @@ import io.netty.util.concurrent.EventExecutorGroup;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.thread.NamedThreadFactory;
-import io.seata.core.model.Resource;
+import io.seata.common.util.StringUtils;
 import io.seata.core.model.ResourceManager;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.RegisterRMRequest;
@@ -167,14 +169,12 @@ public final class RmRpcClient extends AbstractRpcRemotingClient {
             LOGGER.info("register RM success. server version:{},channel:{}", ((RegisterRMResponse)response).getVersion(), channel);
         }
         getClientChannelManager().registerChannel(serverAddress, channel);
-        String dbKey = getMergedResourceKeys();
+        // only the resources managed since the register message was built are sent again
         RegisterRMRequest message = (RegisterRMRequest)requestMessage;
-        if (message.getResourceIds() != null) {
-            if (!message.getResourceIds().equals(dbKey)) {
-                sendRegisterMessage(serverAddress, channel, dbKey);
-            }
+        String unregisteredKeys = getUnregisteredResourceKeys(message.getResourceIds());
+        if (unregisteredKeys != null) {
+            sendRegisterMessage(serverAddress, channel, unregisteredKeys);
         }
-
     }
 
     @Override
@@ -230,8 +230,24 @@ public final class RmRpcClient extends AbstractRpcRemotingClient {
     }
 
     public String getMergedResourceKeys() {
-        Map<String, Resource> managedResources = resourceManager.getManagedResources();
-        Set<String> resourceIds = managedResources.keySet();
+        return mergeResourceKeys(resourceManager.getManagedResources().keySet());
+    }
+
+    /**
+     * Gets the managed resource keys missing from the registered ones.
+     *
+     * @param registeredResourceIds the registered resource ids
+     * @return the merged missing resource keys, null if none
+     */
+    String getUnregisteredResourceKeys(String registeredResourceIds) {
+        Set<String> resourceIds = new LinkedHashSet<>(resourceManager.getManagedResources().keySet());
+        if (StringUtils.isNotBlank(registeredResourceIds)) {
+            resourceIds.removeAll(Arrays.asList(registeredResourceIds.split(DBKEYS_SPLIT_CHAR)));
+        }
+        return mergeResourceKeys(resourceIds);
+    }
+
+    private String mergeResourceKeys(Set<String> resourceIds) {
         if (!resourceIds.isEmpty()) {
             StringBuilder sb = new StringBuilder();
             boolean first = true;
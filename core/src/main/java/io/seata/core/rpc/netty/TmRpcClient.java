@@ -151,7 +151,7 @@ public final class TmRpcClient extends AbstractRpcRemotingClient {
     @Override
     public void onRegisterMsgSuccess(String serverAddress, Channel channel, Object response,
                                      AbstractMessage requestMessage) {
-        getClientChannelManager().registerChannel(serverAddress, channel);
+        getEffectiveChannelManager().registerChannel(serverAddress, channel);
     }
 
     @Override
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.eventbus.Subscribe;
+import io.seata.core.model.GlobalStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test RingBufferEventBus.
+ */
+public class RingBufferEventBusTest {
+
+    @Test
+    public void testPublishFromManyThreads() throws InterruptedException {
+        RingBufferEventBus eventBus = new RingBufferEventBus("test", 64, true);
+        AtomicLong idSum = new AtomicLong();
+        AtomicLong committed = new AtomicLong();
+        CountDownLatch handled = new CountDownLatch(4 * 1000);
+
+        class TestSubscriber {
+            @Subscribe
+            public void process(GlobalTransactionEvent event) {
+                idSum.addAndGet(event.getId());
+                if (event.getStatus() == GlobalStatus.Committed && event.getEndTime() != null) {
+                    committed.incrementAndGet();
+                }
+                handled.countDown();
+            }
+        }
+
+        eventBus.register(new TestSubscriber());
+        List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread publisher = new Thread(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    if (i % 2 == 0) {
+                        eventBus.postGlobalTransactionEvent(i, GlobalTransactionEvent.ROLE_TC, "test", 1L, 2L,
+                            GlobalStatus.Committed);
+                    } else {
+                        eventBus.postGlobalTransactionEvent(i, GlobalTransactionEvent.ROLE_TC, "test", 1L,
+                            GlobalTransactionEvent.NOT_ENDED, GlobalStatus.Begin);
+                    }
+                }
+            });
+            publishers.add(publisher);
+            publisher.start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        Assertions.assertTrue(handled.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(4 * 1000 * 1001 / 2, idSum.get());
+        Assertions.assertEquals(4 * 500, committed.get());
+        Assertions.assertEquals(0, eventBus.getDroppedCount());
+        eventBus.shutdown();
+    }
+
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        RingBufferEventBus eventBus = new RingBufferEventBus("test", 4, false);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong handled = new AtomicLong();
+
+        class BlockedSubscriber {
+            @Subscribe
+            public void process(Event event) throws InterruptedException {
+                release.await();
+                handled.incrementAndGet();
+            }
+        }
+
+        eventBus.register(new BlockedSubscriber());
+        for (int i = 0; i < 10; i++) {
+            eventBus.post(new Event() { });
+        }
+
+        Assertions.assertEquals(6, eventBus.getDroppedCount());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (handled.get() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(4, handled.get());
+        eventBus.shutdown();
+    }
+
+    @Test
+    public void testTransactionEventsAreNeverDropped() throws InterruptedException {
+        RingBufferEventBus eventBus = new RingBufferEventBus("test", 4, false);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(10);
+
+        class BlockedSubscriber {
+            @Subscribe
+            public void process(GlobalTransactionEvent event) throws InterruptedException {
+                release.await();
+                handled.countDown();
+            }
+        }
+
+        eventBus.register(new BlockedSubscriber());
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                eventBus.postGlobalTransactionEvent(i, GlobalTransactionEvent.ROLE_TC, "test", 0L, 0L,
+                    GlobalStatus.Begin);
+            }
+        });
+        publisher.start();
+
+        // the publisher waits for free slots instead of dropping
+        publisher.join(200);
+        Assertions.assertTrue(publisher.isAlive());
+        release.countDown();
+        publisher.join(5000);
+        Assertions.assertFalse(publisher.isAlive());
+        Assertions.assertTrue(handled.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, eventBus.getDroppedCount());
+        eventBus.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.model.BranchType;
+import io.seata.metrics.Counter;
+import io.seata.metrics.Gauge;
+import io.seata.metrics.Histogram;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Summary;
+import io.seata.metrics.registry.compact.CompactRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The client metrics test.
+ */
+public class ClientMetricsTest {
+
+    private static TestRegistry registry;
+
+    @BeforeAll
+    public static void init() {
+        registry = new TestRegistry();
+        ClientMetrics.init(registry);
+    }
+
+    @Test
+    public void testInitOnlyOnce() {
+        Assertions.assertTrue(ClientMetrics.isEnabled());
+        ClientMetrics.init(new CompactRegistry());
+        Assertions.assertSame(registry, ClientMetrics.getRegistry());
+    }
+
+    @Test
+    public void testRecordGlobalRequest() {
+        ClientMetrics.recordRequest(ClientMetrics.Request.GLOBAL_BEGIN, null,
+            System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5), true);
+        Histogram histogram = registry.find(IdConstants.SEATA_REQUEST,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM,
+            IdConstants.OPERATION_KEY, "globalBegin",
+            IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_SUCCESS);
+        Assertions.assertNotNull(histogram);
+        Assertions.assertEquals(1, histogram.count());
+        Assertions.assertTrue(histogram.max() >= TimeUnit.MILLISECONDS.toMicros(5));
+    }
+
+    @Test
+    public void testRecordBranchRequest() {
+        ClientMetrics.recordRequest(ClientMetrics.Request.BRANCH_REGISTER, BranchType.AT, System.nanoTime(), false);
+        Histogram histogram = registry.find(IdConstants.SEATA_REQUEST,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM,
+            IdConstants.OPERATION_KEY, "branchRegister",
+            IdConstants.BRANCH_TYPE_KEY, BranchType.AT.name(),
+            IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_FAILED);
+        Assertions.assertNotNull(histogram);
+        Assertions.assertEquals(1, histogram.count());
+        // the other combinations are not created
+        Assertions.assertNull(registry.find(IdConstants.SEATA_REQUEST,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM,
+            IdConstants.OPERATION_KEY, "branchRegister",
+            IdConstants.BRANCH_TYPE_KEY, BranchType.TCC.name(),
+            IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_FAILED));
+    }
+
+    @Test
+    public void testRecordBranch() {
+        ClientMetrics.recordBranch(ClientMetrics.BranchOperation.ROLLBACK, BranchType.TCC, System.nanoTime(), true);
+        ClientMetrics.recordBranch(ClientMetrics.BranchOperation.ROLLBACK, null, System.nanoTime(), true);
+        Histogram histogram = registry.find(IdConstants.SEATA_BRANCH,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM,
+            IdConstants.OPERATION_KEY, "rollback",
+            IdConstants.BRANCH_TYPE_KEY, BranchType.TCC.name(),
+            IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_SUCCESS);
+        Assertions.assertNotNull(histogram);
+        Assertions.assertEquals(1, histogram.count());
+    }
+
+    @Test
+    public void testRecordImageQuery() {
+        ClientMetrics.recordImageQuery(ClientMetrics.Image.AFTER, System.nanoTime());
+        Histogram histogram = registry.find(IdConstants.SEATA_IMAGE_QUERY,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM,
+            IdConstants.OPERATION_KEY, "afterImage");
+        Assertions.assertNotNull(histogram);
+        Assertions.assertEquals(1, histogram.count());
+    }
+
+    @Test
+    public void testRecordLockRetry() {
+        Counter conflicts = registry.find(IdConstants.SEATA_LOCK_RETRY,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER,
+            IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_CONFLICT);
+        Counter timeouts = registry.find(IdConstants.SEATA_LOCK_RETRY,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER,
+            IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_TIMEOUT);
+        long conflictsBefore = conflicts.get();
+        long timeoutsBefore = timeouts.get();
+        ClientMetrics.recordLockRetry(false);
+        ClientMetrics.recordLockRetry(false);
+        ClientMetrics.recordLockRetry(true);
+        Assertions.assertEquals(2, conflicts.get() - conflictsBefore);
+        Assertions.assertEquals(1, timeouts.get() - timeoutsBefore);
+    }
+
+    @Test
+    public void testRecordUndoLogSize() {
+        Summary summary = registry.find(IdConstants.SEATA_UNDO_LOG_SIZE,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY);
+        long totalBefore = summary.total();
+        long countBefore = summary.count();
+        ClientMetrics.recordUndoLogSize(100);
+        ClientMetrics.recordUndoLogSize(28);
+        Assertions.assertEquals(128, summary.total() - totalBefore);
+        Assertions.assertEquals(2, summary.count() - countBefore);
+    }
+
+    @Test
+    public void testAsyncCommitBufferGauge() {
+        Gauge<Integer> gauge = registry.find(IdConstants.SEATA_ASYNC_COMMIT_BUFFER,
+            IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM,
+            IdConstants.METER_KEY, IdConstants.METER_VALUE_GAUGE);
+        Assertions.assertEquals(0, gauge.get().intValue());
+        ClientMetrics.bindAsyncCommitBuffer(() -> 7);
+        try {
+            Assertions.assertEquals(7, gauge.get().intValue());
+        } finally {
+            ClientMetrics.bindAsyncCommitBuffer(null);
+        }
+    }
+}
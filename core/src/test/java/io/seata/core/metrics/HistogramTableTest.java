@@ -0,0 +1,89 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.metrics;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.model.BranchType;
+import io.seata.metrics.Histogram;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.compact.CompactRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The histogram table test.
+ */
+public class HistogramTableTest {
+
+    @Test
+    public void testRequestIndexes() {
+        Id[] operationIds = {
+            HistogramTable.histogramId("test.request", IdConstants.ROLE_VALUE_TM).withTag(
+                IdConstants.OPERATION_KEY, "begin"),
+            HistogramTable.histogramId("test.request", IdConstants.ROLE_VALUE_RM).withTag(
+                IdConstants.OPERATION_KEY, "register")};
+        HistogramTable table = HistogramTable.ofRequests(new CompactRegistry(), operationIds);
+        BranchType[] branchTypes = new BranchType[BranchType.values().length + 1];
+        System.arraycopy(BranchType.values(), 0, branchTypes, 1, BranchType.values().length);
+        Set<Integer> indexes = new HashSet<>();
+        for (int operation = 0; operation < operationIds.length; operation++) {
+            for (BranchType branchType : branchTypes) {
+                for (boolean success : new boolean[] {true, false}) {
+                    int index = HistogramTable.requestIndex(operation, branchType, success);
+                    Assertions.assertTrue(indexes.add(index));
+                    Map<String, String> tags = TestRegistry.tags(table.get(index).getId());
+                    Assertions.assertEquals(operation == 0 ? "begin" : "register",
+                        tags.get(IdConstants.OPERATION_KEY));
+                    Assertions.assertEquals(operation == 0 ? IdConstants.ROLE_VALUE_TM : IdConstants.ROLE_VALUE_RM,
+                        tags.get(IdConstants.ROLE_KEY));
+                    Assertions.assertEquals(branchType == null ? null : branchType.name(),
+                        tags.get(IdConstants.BRANCH_TYPE_KEY));
+                    Assertions.assertEquals(success ? IdConstants.RESULT_VALUE_SUCCESS
+                        : IdConstants.RESULT_VALUE_FAILED, tags.get(IdConstants.RESULT_KEY));
+                }
+            }
+        }
+        Assertions.assertEquals(operationIds.length * branchTypes.length * 2, indexes.size());
+    }
+
+    @Test
+    public void testHistogramsAreResolvedLazily() {
+        AtomicInteger resolved = new AtomicInteger();
+        CompactRegistry registry = new CompactRegistry() {
+            @Override
+            public Histogram getHistogram(Id id) {
+                resolved.incrementAndGet();
+                return super.getHistogram(id);
+            }
+        };
+        Id[] ids = {HistogramTable.histogramId("test.lazy", IdConstants.ROLE_VALUE_TC),
+            HistogramTable.histogramId("test.lazy", IdConstants.ROLE_VALUE_TC)};
+        HistogramTable table = new HistogramTable(registry, ids);
+        Assertions.assertEquals(0, resolved.get());
+
+        table.record(1, System.nanoTime());
+        table.record(1, System.nanoTime());
+        Assertions.assertEquals(1, resolved.get());
+        Assertions.assertSame(table.get(1), table.get(1));
+        Assertions.assertEquals(2, table.get(1).count());
+        Assertions.assertEquals(1, resolved.get());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.seata.metrics.Counter;
+import io.seata.metrics.Gauge;
+import io.seata.metrics.Histogram;
+import io.seata.metrics.Id;
+import io.seata.metrics.Meter;
+import io.seata.metrics.Summary;
+import io.seata.metrics.registry.compact.CompactRegistry;
+
+/**
+ * A compact registry which keeps its meters by name and tags, so tests can look them up.
+ */
+public class TestRegistry extends CompactRegistry {
+
+    private final Map<String, Meter> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public <T extends Number> Gauge<T> getGauge(Id id, Supplier<T> supplier) {
+        return keep(super.getGauge(id, supplier));
+    }
+
+    @Override
+    public Counter getCounter(Id id) {
+        return keep(super.getCounter(id));
+    }
+
+    @Override
+    public Summary getSummary(Id id) {
+        return keep(super.getSummary(id));
+    }
+
+    @Override
+    public Histogram getHistogram(Id id) {
+        return keep(super.getHistogram(id));
+    }
+
+    /**
+     * Find a meter.
+     *
+     * @param name the meter name
+     * @param tags the tag names and values
+     * @return the meter, null if it was never created
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Meter> T find(String name, String... tags) {
+        Id id = new Id(name);
+        for (int i = 0; i < tags.length; i += 2) {
+            id.withTag(tags[i], tags[i + 1]);
+        }
+        return (T)meters.get(id.toString());
+    }
+
+    static Map<String, String> tags(Id id) {
+        Map<String, String> tags = new HashMap<>(id.getTagCount());
+        id.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        return tags;
+    }
+
+    private <T extends Meter> T keep(T meter) {
+        meters.put(meter.getId().toString(), meter);
+        return meter;
+    }
+}
@@ -63,4 +63,16 @@ public class RpcMessageTest {
         String toJson = JSON.toJSONString(toJsonMessage, true);
         assertThat(fromJson).isEqualTo(toJson);
     }
+
+    /**
+     * Test the stream id carried in the message id.
+     */
+    @Test
+    public void testStreamId() {
+        int messageId = RpcMessage.toMessageId(2, ID_FIELD);
+        assertThat(RpcMessage.toStreamId(messageId)).isEqualTo(2);
+        assertThat(messageId & RpcMessage.MESSAGE_SEQUENCE_MASK).isEqualTo(ID_FIELD);
+        assertThat(RpcMessage.toStreamId(RpcMessage.toMessageId(1, Integer.MAX_VALUE))).isEqualTo(1);
+        assertThat(RpcMessage.toMessageId(3, Integer.MAX_VALUE)).isPositive();
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentMap;
+
+import io.netty.channel.Channel;
+import io.seata.core.protocol.RegisterRMRequest;
+import io.seata.core.protocol.RegisterTMRequest;
+import io.seata.core.rpc.netty.NettyPoolKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * The type Channel manager test.
+ */
+public class ChannelManagerTest {
+
+    private static final String APPLICATION_ID = "multiplexed-app";
+
+    private static final String TX_SERVICE_GROUP = "my_test_tx_group";
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/multiplexed";
+
+    private static final int CLIENT_PORT = 30001;
+
+    @Test
+    public void testRegisterTMOnRmChannel() throws Exception {
+        Channel channel = mockChannel(CLIENT_PORT);
+        ChannelManager.registerRMChannel(rmRequest(), channel);
+        RpcContext rmContext = ChannelManager.getContextFromIdentified(channel);
+
+        ChannelManager.registerTMChannel(new RegisterTMRequest(APPLICATION_ID, TX_SERVICE_GROUP), channel);
+
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(channel);
+        Assertions.assertSame(rmContext, rpcContext);
+        Assertions.assertEquals(NettyPoolKey.TransactionRole.RMROLE, rpcContext.getClientRole());
+        Assertions.assertTrue(rpcContext.getResourceSets().contains(RESOURCE_ID));
+        Assertions.assertSame(rpcContext, rpcContext.getClientTMHolderMap().get(CLIENT_PORT));
+        Assertions.assertSame(rpcContext, rpcContext.getClientRMHolderMap().get(RESOURCE_ID).get(CLIENT_PORT));
+        Assertions.assertSame(channel, ChannelManager.getChannel(RESOURCE_ID, rpcContext.getClientId()));
+
+        ChannelManager.releaseRpcContext(channel);
+    }
+
+    @Test
+    public void testReleaseClearsBothRoles() throws Exception {
+        Channel channel = mockChannel(CLIENT_PORT + 1);
+        ChannelManager.registerRMChannel(rmRequest(), channel);
+        ChannelManager.registerTMChannel(new RegisterTMRequest(APPLICATION_ID, TX_SERVICE_GROUP), channel);
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(channel);
+        ConcurrentMap<Integer, RpcContext> tmPortMap = rpcContext.getClientTMHolderMap();
+        ConcurrentMap<Integer, RpcContext> rmPortMap = rpcContext.getClientRMHolderMap().get(RESOURCE_ID);
+
+        ChannelManager.releaseRpcContext(channel);
+
+        Assertions.assertNull(rpcContext.getClientTMHolderMap());
+        Assertions.assertNull(rpcContext.getClientRMHolderMap());
+        Assertions.assertFalse(tmPortMap.containsKey(CLIENT_PORT + 1));
+        Assertions.assertFalse(rmPortMap.containsKey(CLIENT_PORT + 1));
+    }
+
+    private static RegisterRMRequest rmRequest() {
+        RegisterRMRequest request = new RegisterRMRequest(APPLICATION_ID, TX_SERVICE_GROUP);
+        request.setResourceIds(RESOURCE_ID);
+        return request;
+    }
+
+    private static Channel mockChannel(int port) {
+        Channel channel = Mockito.mock(Channel.class);
+        Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", port));
+        Mockito.when(channel.isActive()).thenReturn(true);
+        return channel;
+    }
+}
@@ -18,7 +18,13 @@ package io.seata.core.rpc;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import java.net.InetSocketAddress;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.netty.channel.Channel;
+import org.mockito.Mockito;
 
 /**
  * RpcContext Test
@@ -165,6 +171,32 @@ public class RpcContextTest {
 		Assertions.assertEquals(resourceSets, rpcContext.getResourceSets());
 	}
 
+	/**
+	 * Test release clearing the TM and the RM roles held by one context
+	 */
+	@Test
+	public void testReleaseBothRoles() {
+		Channel channel = Mockito.mock(Channel.class);
+		Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8091));
+		RpcContext context = new RpcContext();
+		context.setChannel(channel);
+		ConcurrentMap<Channel, RpcContext> identifiedMap = new ConcurrentHashMap<>();
+		ConcurrentMap<Integer, RpcContext> tmPortMap = new ConcurrentHashMap<>();
+		ConcurrentMap<Integer, RpcContext> rmPortMap = new ConcurrentHashMap<>();
+		context.holdInIdentifiedChannels(identifiedMap);
+		context.holdInClientChannels(tmPortMap);
+		context.holdInResourceManagerChannels(RV, rmPortMap);
+		HashSet<String> resourceSet = new HashSet<String>();
+		resourceSet.add(RV);
+		context.addResources(resourceSet);
+		context.release();
+		Assertions.assertNull(context.getClientTMHolderMap());
+		Assertions.assertNull(context.getClientRMHolderMap());
+		Assertions.assertTrue(tmPortMap.isEmpty());
+		Assertions.assertTrue(rmPortMap.isEmpty());
+		Assertions.assertTrue(context.getResourceSets().isEmpty());
+	}
+
 	/**
 	 * Test toString having all the parameters initialized to null
 	 */
@@ -0,0 +1,185 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.MessageFuture;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalBeginResponse;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * The routing of the responses of the multiplexed mode test.
+ */
+public class MultiplexedClientTest {
+
+    private StreamClient rmClient;
+
+    private StreamClient tmClient;
+
+    private AbstractRpcRemotingClient.ClientHandler sharedHandler;
+
+    private ChannelHandlerContext ctx;
+
+    @BeforeEach
+    public void setUp() {
+        rmClient = new StreamClient(NettyPoolKey.TransactionRole.RMROLE);
+        tmClient = new StreamClient(NettyPoolKey.TransactionRole.TMROLE);
+        rmClient.joinStreams();
+        tmClient.joinStreams();
+        // the RM client owns the connections, so their handler is the one of the RM
+        sharedHandler = rmClient.new ClientHandler();
+        ctx = Mockito.mock(ChannelHandlerContext.class);
+        Mockito.when(ctx.channel()).thenReturn(Mockito.mock(Channel.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tmClient.leaveStreams();
+        rmClient.leaveStreams();
+        tmClient.destroy();
+        rmClient.destroy();
+    }
+
+    @Test
+    public void testMessageIdsCarryTheStream() {
+        Assertions.assertEquals(NettyPoolKey.TransactionRole.TMROLE.getValue(),
+            RpcMessage.toStreamId(tmClient.getNextMessageId()));
+        Assertions.assertEquals(NettyPoolKey.TransactionRole.RMROLE.getValue(),
+            RpcMessage.toStreamId(rmClient.getNextMessageId()));
+    }
+
+    @Test
+    public void testResponseIsRoutedByStream() throws Exception {
+        int tmId = tmClient.getNextMessageId();
+        int rmId = rmClient.getNextMessageId();
+        MessageFuture tmFuture = await(tmClient, tmId, new GlobalBeginRequest());
+        MessageFuture rmFuture = await(rmClient, rmId, new BranchRegisterRequest());
+
+        GlobalBeginResponse tmResponse = new GlobalBeginResponse();
+        sharedHandler.channelRead(ctx, response(tmId, tmResponse));
+        Assertions.assertSame(tmResponse, tmFuture.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(tmClient.futures.isEmpty());
+        Assertions.assertTrue(rmClient.futures.containsKey(rmId));
+
+        BranchRegisterResponse rmResponse = new BranchRegisterResponse();
+        sharedHandler.channelRead(ctx, response(rmId, rmResponse));
+        Assertions.assertSame(rmResponse, rmFuture.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(rmClient.futures.isEmpty());
+    }
+
+    @Test
+    public void testMergedResultIsRoutedByStream() throws Exception {
+        int firstId = tmClient.getNextMessageId();
+        int secondId = tmClient.getNextMessageId();
+        MessageFuture first = await(tmClient, firstId, new GlobalBeginRequest());
+        MessageFuture second = await(tmClient, secondId, new GlobalCommitRequest());
+        MergedWarpMessage mergeMessage = new MergedWarpMessage();
+        mergeMessage.msgs.add(new GlobalBeginRequest());
+        mergeMessage.msgs.add(new GlobalCommitRequest());
+        mergeMessage.msgIds.add(firstId);
+        mergeMessage.msgIds.add(secondId);
+        int mergeId = tmClient.getNextMessageId();
+        tmClient.mergeMsgMap.put(mergeId, mergeMessage);
+
+        GlobalBeginResponse beginResponse = new GlobalBeginResponse();
+        GlobalCommitResponse commitResponse = new GlobalCommitResponse();
+        MergeResultMessage results = new MergeResultMessage();
+        results.setMsgs(new AbstractResultMessage[] {beginResponse, commitResponse});
+        sharedHandler.channelRead(ctx, response(mergeId, results));
+
+        Assertions.assertSame(beginResponse, first.get(1, TimeUnit.SECONDS));
+        Assertions.assertSame(commitResponse, second.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(tmClient.mergeMsgMap.isEmpty());
+        Assertions.assertTrue(tmClient.futures.isEmpty());
+    }
+
+    @Test
+    public void testOwnerIsTheRmClient() {
+        Assertions.assertSame(rmClient.getClientChannelManager(), tmClient.getEffectiveChannelManager());
+        Assertions.assertSame(rmClient.getClientChannelManager(), rmClient.getEffectiveChannelManager());
+        rmClient.leaveStreams();
+        // the TM client falls back to its own connections when no RM client runs
+        Assertions.assertSame(tmClient.getClientChannelManager(), tmClient.getEffectiveChannelManager());
+    }
+
+    private static MessageFuture await(StreamClient client, int id, AbstractMessage request) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(id);
+        rpcMessage.setBody(request);
+        MessageFuture future = new MessageFuture();
+        future.setRequestMessage(rpcMessage);
+        future.setTimeout(TimeUnit.SECONDS.toMillis(1));
+        client.futures.put(id, future);
+        return future;
+    }
+
+    private static RpcMessage response(int id, Object body) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(id);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESPONSE);
+        rpcMessage.setBody(body);
+        return rpcMessage;
+    }
+
+    private static final class StreamClient extends AbstractRpcRemotingClient {
+
+        private StreamClient(NettyPoolKey.TransactionRole transactionRole) {
+            super(new NettyClientConfig(), null, new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>()), transactionRole, true);
+        }
+
+        @Override
+        protected Function<String, NettyPoolKey> getPoolKeyFunction() {
+            return serverAddress -> new NettyPoolKey(NettyPoolKey.TransactionRole.RMROLE, serverAddress);
+        }
+
+        @Override
+        protected String getTransactionServiceGroup() {
+            return "my_test_tx_group";
+        }
+
+        @Override
+        public void onRegisterMsgSuccess(String serverAddress, Channel channel, Object response,
+                                         AbstractMessage requestMessage) {
+        }
+
+        @Override
+        public void onRegisterMsgFail(String serverAddress, Channel channel, Object response,
+                                      AbstractMessage requestMessage) {
+        }
+    }
+}
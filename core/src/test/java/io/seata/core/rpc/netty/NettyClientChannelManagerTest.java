@@ -26,6 +26,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
@@ -116,6 +118,21 @@ class NettyClientChannelManagerTest {
         verify(channel).isActive();
     }
     
+    @Test
+    @SuppressWarnings("unchecked")
+    void assertCloseRemovedChannels() throws Exception {
+        setNettyClientKeyPool();
+        setUpReleaseChannel();
+        channelManager.getChannels().putIfAbsent("127.0.0.1:8091", channel);
+        channelManager.getChannels().putIfAbsent("127.0.0.1:8092", newChannel);
+        channelManager.closeRemovedChannels(1, Arrays.asList("127.0.0.1:8091", "127.0.0.1:8092"));
+        assertEquals(2, channelManager.getChannels().size());
+        channelManager.closeRemovedChannels(2, Collections.singletonList("127.0.0.1:8092"));
+        assertEquals(Collections.singleton("127.0.0.1:8092"), channelManager.getChannels().keySet());
+        verify(keyedObjectPool).invalidateObject(nettyPoolKey, channel);
+        verify(keyedObjectPool).clear(nettyPoolKey);
+    }
+    
     @Test
     @SuppressWarnings("unchecked")
     void assertReleaseChannelWhichCacheIsEmpty() throws Exception {
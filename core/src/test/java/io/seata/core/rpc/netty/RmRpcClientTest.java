@@ -15,10 +15,15 @@
  */
 package io.seata.core.rpc.netty;
 
+import io.seata.core.model.Resource;
+import io.seata.core.model.ResourceManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -48,6 +53,26 @@ class RmRpcClientTest {
         newClient.destroy();
     }
     
+    @Test
+    public void assertGetUnregisteredResourceKeys() {
+        Map<String, Resource> managedResources = new LinkedHashMap<>();
+        managedResources.put("db1", Mockito.mock(Resource.class));
+        managedResources.put("db2", Mockito.mock(Resource.class));
+        managedResources.put("db3", Mockito.mock(Resource.class));
+        ResourceManager resourceManager = Mockito.mock(ResourceManager.class);
+        Mockito.when(resourceManager.getManagedResources()).thenReturn(managedResources);
+        RmRpcClient client = RmRpcClient.getInstance("ap", "group");
+        client.setResourceManager(resourceManager);
+        try {
+            Assertions.assertEquals("db1,db3", client.getUnregisteredResourceKeys("db2"));
+            Assertions.assertEquals("db1,db2,db3", client.getUnregisteredResourceKeys(null));
+            Assertions.assertEquals("db1,db2,db3", client.getUnregisteredResourceKeys(""));
+            Assertions.assertNull(client.getUnregisteredResourceKeys("db3,db1,db2"));
+        } finally {
+            client.destroy();
+        }
+    }
+
     private AtomicBoolean getInitializeStatus(final RmRpcClient rmRpcClient) {
         try {
             Field field = rmRpcClient.getClass().getDeclaredField("initialized");
@@ -28,12 +28,29 @@ public abstract class AbstractLoadBalance implements LoadBalance {
 
     @Override
     public <T> T select(List<T> invokers) {
+        return select(invokers, null);
+    }
+
+    @Override
+    public <T> T select(List<T> invokers, String xid) {
         if (CollectionUtils.isEmpty(invokers)) {
             return null;
         }
         if (invokers.size() == 1) {
             return invokers.get(0);
         }
+        return doSelect(invokers, xid);
+    }
+
+    /**
+     * Do select t for a message of a global transaction.
+     *
+     * @param <T>      the type parameter
+     * @param invokers the invokers
+     * @param xid      the xid of the message, null if it has none
+     * @return the t
+     */
+    protected <T> T doSelect(List<T> invokers, String xid) {
         return doSelect(invokers);
     }
 
@@ -0,0 +1,207 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.discovery.loadbalance;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.config.ConfigurationFactory;
+
+/**
+ * Keeps the messages of a global transaction on the server which began it.
+ * The xid starts with the ip:port of that server, a message with xid goes there while it is one of the available
+ * candidates. Otherwise, e.g. the server is down or known under another address, the xid is hashed onto a ring of
+ * the candidates, so that the messages of the transaction still reach one server. Messages without xid, e.g. the
+ * global begin, go to a random available server.
+ */
+@LoadLevel(name = "ConsistentHashLoadBalance", order = 0)
+public class ConsistentHashLoadBalance extends AbstractLoadBalance {
+
+    /**
+     * max address lists whose ring is kept, a list is replaced by a new one when the servers change
+     */
+    private static final int MAX_HASH_RINGS = 16;
+
+    private final int virtualNodes;
+
+    /**
+     * the rings by their address list, every transaction service group has its own list
+     */
+    private final Map<List<?>, HashRing<?>> hashRings = new ConcurrentHashMap<>();
+
+    public ConsistentHashLoadBalance() {
+        this(ConfigurationFactory.getInstance().getInt(LoadBalanceFactory.LOAD_BALANCE_VIRTUAL_NODES,
+            LoadBalanceFactory.DEFAULT_VIRTUAL_NODES));
+    }
+
+    ConsistentHashLoadBalance(int virtualNodes) {
+        this.virtualNodes = Math.max(1, virtualNodes);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T doSelect(List<T> invokers, String xid) {
+        if (xid == null) {
+            return doSelect(invokers);
+        }
+        T owner = findOwner(invokers, xid);
+        if (owner != null && ServerStatus.isAvailable(owner)) {
+            return owner;
+        }
+        HashRing<?> ring = hashRings.get(invokers);
+        if (ring == null) {
+            ring = new HashRing<>(invokers, virtualNodes);
+            if (hashRings.size() >= MAX_HASH_RINGS) {
+                evictLeastRecentlyUsed();
+            }
+            hashRings.put(ring.invokers, ring);
+        }
+        return ((HashRing<T>)ring).select(hash(xid.hashCode()));
+    }
+
+    /**
+     * Finds the server which began the transaction, the xid is ip:port:transactionId.
+     */
+    private static <T> T findOwner(List<T> invokers, String xid) {
+        int end = xid.lastIndexOf(':');
+        int portStart = end > 0 ? xid.lastIndexOf(':', end - 1) : -1;
+        if (portStart <= 0) {
+            return null;
+        }
+        String ip = xid.substring(0, portStart);
+        String address = xid.substring(0, end);
+        int port;
+        try {
+            port = Integer.parseInt(xid.substring(portStart + 1, end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        for (T invoker : invokers) {
+            if (invoker instanceof InetSocketAddress) {
+                InetSocketAddress socketAddress = (InetSocketAddress)invoker;
+                if (socketAddress.getPort() == port && (ip.equals(socketAddress.getHostString())
+                    || socketAddress.getAddress() != null && ip.equals(socketAddress.getAddress().getHostAddress()))) {
+                    return invoker;
+                }
+            } else if (address.equals(String.valueOf(invoker))) {
+                return invoker;
+            }
+        }
+        return null;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        List<?> eldest = null;
+        long eldestUse = Long.MAX_VALUE;
+        for (HashRing<?> ring : hashRings.values()) {
+            if (ring.lastUse < eldestUse) {
+                eldestUse = ring.lastUse;
+                eldest = ring.invokers;
+            }
+        }
+        if (eldest != null) {
+            hashRings.remove(eldest);
+        }
+    }
+
+    int getHashRingCount() {
+        return hashRings.size();
+    }
+
+    @Override
+    protected <T> T doSelect(List<T> invokers) {
+        int length = invokers.size();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            T invoker = invokers.get((start + i) % length);
+            if (ServerStatus.isAvailable(invoker)) {
+                return invoker;
+            }
+        }
+        return invokers.get(start);
+    }
+
+    /**
+     * Spreads the bits of a String hash code, the xids of a server differ only in their last digits.
+     */
+    private static long hash(int hashCode) {
+        long h = hashCode;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class HashRing<T> {
+
+        private final List<T> invokers;
+
+        private final long[] hashes;
+
+        private final Object[] nodes;
+
+        private volatile long lastUse = System.nanoTime();
+
+        private HashRing(List<T> invokers, int virtualNodes) {
+            this.invokers = new ArrayList<>(invokers);
+            int size = invokers.size() * virtualNodes;
+            long[] unsorted = new long[size];
+            for (int i = 0; i < invokers.size(); i++) {
+                String key = String.valueOf(invokers.get(i));
+                for (int j = 0; j < virtualNodes; j++) {
+                    unsorted[i * virtualNodes + j] = hash((key + "#" + j).hashCode());
+                }
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> unsorted[i]));
+            this.hashes = new long[size];
+            this.nodes = new Object[size];
+            for (int i = 0; i < size; i++) {
+                this.hashes[i] = unsorted[order[i]];
+                this.nodes[i] = invokers.get(order[i] / virtualNodes);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T select(long hash) {
+            lastUse = System.nanoTime();
+            int position = Arrays.binarySearch(hashes, hash);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            // fail over to the next distinct node on the ring while the owner is not available
+            for (int i = 0; i < nodes.length; i++) {
+                T node = (T)nodes[(position + i) % nodes.length];
+                if (ServerStatus.isAvailable(node)) {
+                    return node;
+                }
+            }
+            return (T)nodes[position % nodes.length];
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.discovery.loadbalance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.seata.common.loader.LoadLevel;
+
+/**
+ * Selects the available server with the lowest score, the score being the requests in flight weighted by the
+ * moving average of the latency. Servers without any completed request score lowest so that they get tried.
+ */
+@LoadLevel(name = "LeastActiveLoadBalance", order = 0)
+public class LeastActiveLoadBalance extends AbstractLoadBalance {
+
+    @Override
+    protected <T> T doSelect(List<T> invokers) {
+        T selected = doSelect(invokers, true);
+        return selected != null ? selected : doSelect(invokers, false);
+    }
+
+    private <T> T doSelect(List<T> invokers, boolean availableOnly) {
+        T selected = null;
+        long lowestScore = Long.MAX_VALUE;
+        int lowestCount = 0;
+        for (int i = 0; i < invokers.size(); i++) {
+            T invoker = invokers.get(i);
+            ServerStatus status = ServerStatus.get(invoker);
+            if (availableOnly && !status.isAvailable()) {
+                continue;
+            }
+            long score = (status.getActive() + 1L) * Math.max(status.getEwmaLatencyNanos(), 1L);
+            if (score < lowestScore) {
+                selected = invoker;
+                lowestScore = score;
+                lowestCount = 1;
+            } else if (score == lowestScore && ThreadLocalRandom.current().nextInt(++lowestCount) == 0) {
+                // pick one of the servers with the same score uniformly
+                selected = invoker;
+            }
+        }
+        return selected;
+    }
+}
@@ -33,4 +33,17 @@ public interface LoadBalance {
      * @throws Exception the exception
      */
     <T> T select(List<T> invokers) throws Exception;
+
+    /**
+     * Select t for a message of a global transaction.
+     *
+     * @param <T>      the type parameter
+     * @param invokers the invokers
+     * @param xid      the xid of the message, null if it has none
+     * @return the t
+     * @throws Exception the exception
+     */
+    default <T> T select(List<T> invokers, String xid) throws Exception {
+        return select(invokers);
+    }
 }
@@ -16,6 +16,7 @@
 package io.seata.discovery.loadbalance;
 
 import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.config.ConfigurationFactory;
 
 /**
  * The type Load balance factory.
@@ -24,12 +25,48 @@ import io.seata.common.loader.EnhancedServiceLoader;
  */
 public class LoadBalanceFactory {
 
+    /**
+     * The constant LOAD_BALANCE_PREFIX.
+     */
+    public static final String LOAD_BALANCE_PREFIX = "client.loadBalance.";
+
+    /**
+     * The constant LOAD_BALANCE_TYPE.
+     */
+    public static final String LOAD_BALANCE_TYPE = LOAD_BALANCE_PREFIX + "type";
+
+    /**
+     * The constant DEFAULT_LOAD_BALANCE.
+     */
+    public static final String DEFAULT_LOAD_BALANCE = "RandomLoadBalance";
+
+    /**
+     * The constant LOAD_BALANCE_VIRTUAL_NODES.
+     */
+    public static final String LOAD_BALANCE_VIRTUAL_NODES = LOAD_BALANCE_PREFIX + "virtualNodes";
+
+    /**
+     * The constant DEFAULT_VIRTUAL_NODES.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 10;
+
+    private static volatile LoadBalance instance;
+
     /**
      * Gets instance.
      *
      * @return the instance
      */
     public static LoadBalance getInstance() {
-        return EnhancedServiceLoader.load(LoadBalance.class);
+        if (null == instance) {
+            synchronized (LoadBalanceFactory.class) {
+                if (null == instance) {
+                    String loadBalanceType = ConfigurationFactory.getInstance().getConfig(LOAD_BALANCE_TYPE,
+                        DEFAULT_LOAD_BALANCE);
+                    instance = EnhancedServiceLoader.load(LoadBalance.class, loadBalanceType);
+                }
+            }
+        }
+        return instance;
     }
 }
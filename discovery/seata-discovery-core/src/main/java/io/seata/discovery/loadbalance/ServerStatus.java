@@ -0,0 +1,141 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.discovery.loadbalance;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request statistics of a server, fed by the client when a request completes and read by the load balancers.
+ */
+public final class ServerStatus {
+
+    private static final ConcurrentMap<Object, ServerStatus> SERVER_STATUS_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * Weight of the latest sample in the moving average of the latency.
+     */
+    private static final double EWMA_ALPHA = 0.2d;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private volatile long ewmaLatencyNanos;
+
+    private volatile boolean available = true;
+
+    private ServerStatus() {
+    }
+
+    /**
+     * Gets the status of a server.
+     *
+     * @param server the server, as passed to the load balancers
+     * @return the status
+     */
+    public static ServerStatus get(Object server) {
+        ServerStatus status = SERVER_STATUS_MAP.get(server);
+        if (status == null) {
+            status = SERVER_STATUS_MAP.computeIfAbsent(server, key -> new ServerStatus());
+        }
+        return status;
+    }
+
+    /**
+     * Removes the status of a server which is gone from the registry.
+     *
+     * @param server the server
+     */
+    public static void remove(Object server) {
+        SERVER_STATUS_MAP.remove(server);
+    }
+
+    /**
+     * Whether a server is available, servers never seen are.
+     *
+     * @param server the server
+     * @return the boolean
+     */
+    public static boolean isAvailable(Object server) {
+        ServerStatus status = SERVER_STATUS_MAP.get(server);
+        return status == null || status.available;
+    }
+
+    /**
+     * Called before a request is sent to the server.
+     */
+    public void beginRequest() {
+        active.incrementAndGet();
+    }
+
+    /**
+     * Called when a request to the server completed.
+     *
+     * @param elapsedNanos the time from sending the request to its completion
+     * @param success      whether a response was received
+     */
+    public void endRequest(long elapsedNanos, boolean success) {
+        active.decrementAndGet();
+        if (success) {
+            long ewma = ewmaLatencyNanos;
+            ewmaLatencyNanos = ewma == 0 ? elapsedNanos : (long)(ewma + EWMA_ALPHA * (elapsedNanos - ewma));
+            available = true;
+        } else {
+            available = false;
+        }
+    }
+
+    /**
+     * Marks the server reachable, e.g. after a channel was connected.
+     */
+    public void markAvailable() {
+        available = true;
+    }
+
+    /**
+     * Marks the server unreachable, e.g. after connecting to it failed.
+     */
+    public void markUnavailable() {
+        available = false;
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return the active
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Gets the moving average of the latency, 0 until a request completed.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getEwmaLatencyNanos() {
+        return ewmaLatencyNanos;
+    }
+
+    /**
+     * Whether the server is available.
+     *
+     * @return the boolean
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+}
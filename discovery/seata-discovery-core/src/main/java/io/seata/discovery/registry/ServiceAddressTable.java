@@ -0,0 +1,287 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.discovery.registry;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.NetUtil;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationChangeEvent;
+import io.seata.config.ConfigurationChangeListener;
+import io.seata.config.ConfigurationFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client side address table of the transaction service groups.
+ * <p>
+ * The addresses of a group are looked up once and kept as an immutable {@link Snapshot}, so that the load
+ * balancing on every request reads them without touching the registry or the configuration. A snapshot is
+ * rebuilt after the registry reported a change through {@link #registryChanged()}, after a change of the
+ * group mapping (or of the grouplist in file mode), or when the periodic reconnect task refreshes it.
+ * The {@link ChangeListener}s are told about every such change, so that the clients reconcile their channels
+ * when it happens instead of looking the addresses up on every reconnect round.
+ */
+public class ServiceAddressTable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceAddressTable.class);
+
+    private static final String POSTFIX_GROUPLIST = ".grouplist";
+
+    private static final ServiceAddressTable INSTANCE = new ServiceAddressTable();
+
+    private final AtomicLong registryVersion = new AtomicLong();
+
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Set<String> listenedKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    private final ConfigurationChangeListener changeListener = new ConfigurationChangeListener() {
+        @Override
+        public void onChangeEvent(ConfigurationChangeEvent event) {
+            registryChanged();
+        }
+    };
+
+    ServiceAddressTable() {
+    }
+
+    /**
+     * Gets instance.
+     *
+     * @return the instance
+     */
+    public static ServiceAddressTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks every snapshot as stale, called by the registries when their subscription reports a change.
+     */
+    public static void registryChanged() {
+        INSTANCE.registryVersion.incrementAndGet();
+        for (ChangeListener listener : INSTANCE.changeListeners) {
+            try {
+                listener.onAddressChanged();
+            } catch (Exception e) {
+                LOGGER.warn("Failed to notify the address change: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener told about the changes reported by the registry or the configuration.
+     *
+     * @param listener the listener
+     */
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a change listener.
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Gets the current addresses of a transaction service group, refreshing them when they are stale or empty.
+     *
+     * @param transactionServiceGroup the transaction service group
+     * @return the snapshot
+     * @throws Exception the exception
+     */
+    public Snapshot get(String transactionServiceGroup) throws Exception {
+        Snapshot snapshot = snapshots.get(transactionServiceGroup);
+        if (snapshot != null && !snapshot.isEmpty() && snapshot.registryVersion == registryVersion.get()) {
+            return snapshot;
+        }
+        return refresh(transactionServiceGroup);
+    }
+
+    /**
+     * Looks up the addresses of a transaction service group from the registry.
+     *
+     * @param transactionServiceGroup the transaction service group
+     * @return the snapshot
+     * @throws Exception the exception
+     */
+    public Snapshot refresh(String transactionServiceGroup) throws Exception {
+        // read before the lookup, a change reported meanwhile leaves the new snapshot stale
+        long currentRegistryVersion = registryVersion.get();
+        RegistryService registryService = RegistryFactory.getInstance();
+        listen(registryService, transactionServiceGroup);
+        @SuppressWarnings("unchecked")
+        List<InetSocketAddress> addresses = registryService.lookup(transactionServiceGroup);
+        Snapshot old = snapshots.get(transactionServiceGroup);
+        Snapshot snapshot;
+        if (old != null && old.sameAddresses(addresses)) {
+            snapshot = new Snapshot(old, currentRegistryVersion);
+        } else {
+            snapshot = new Snapshot(old == null ? 1 : old.version + 1, currentRegistryVersion, addresses);
+        }
+        snapshots.put(transactionServiceGroup, snapshot);
+        return snapshot;
+    }
+
+    private void listen(RegistryService registryService, String transactionServiceGroup) {
+        Configuration config = ConfigurationFactory.getInstance();
+        listen(config, RegistryService.PREFIX_SERVICE_ROOT + RegistryService.CONFIG_SPLIT_CHAR
+            + RegistryService.PREFIX_SERVICE_MAPPING + transactionServiceGroup);
+        if (registryService instanceof FileRegistryServiceImpl) {
+            String clusterName = registryService.getServiceGroup(transactionServiceGroup);
+            if (clusterName != null) {
+                listen(config, RegistryService.PREFIX_SERVICE_ROOT + RegistryService.CONFIG_SPLIT_CHAR + clusterName
+                    + POSTFIX_GROUPLIST);
+            }
+        }
+    }
+
+    private void listen(Configuration config, String dataId) {
+        if (!listenedKeys.add(dataId)) {
+            return;
+        }
+        try {
+            config.addConfigListener(dataId, changeListener);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to listen the config of {}: {}", dataId, e.getMessage());
+        }
+    }
+
+    /**
+     * Listener of the address changes.
+     * It is called on the thread of the registry or configuration subscription, so it should only schedule the work.
+     */
+    public interface ChangeListener {
+
+        /**
+         * Called when the addresses of some transaction service group may have changed.
+         */
+        void onAddressChanged();
+    }
+
+    /**
+     * Immutable addresses of a transaction service group.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+
+        private final long registryVersion;
+
+        private final List<InetSocketAddress> addresses;
+
+        private final Map<InetSocketAddress, String> addressStrings;
+
+        private final List<String> addressStringList;
+
+        Snapshot(long version, long registryVersion, List<InetSocketAddress> addresses) {
+            this.version = version;
+            this.registryVersion = registryVersion;
+            if (CollectionUtils.isEmpty(addresses)) {
+                this.addresses = Collections.emptyList();
+                this.addressStrings = Collections.emptyMap();
+                this.addressStringList = Collections.emptyList();
+                return;
+            }
+            InetSocketAddress[] addressArray = addresses.toArray(new InetSocketAddress[0]);
+            String[] stringArray = new String[addressArray.length];
+            Map<InetSocketAddress, String> strings = new HashMap<>(addressArray.length * 2);
+            for (int i = 0; i < addressArray.length; i++) {
+                stringArray[i] = NetUtil.toStringAddress(addressArray[i]);
+                strings.put(addressArray[i], stringArray[i]);
+            }
+            this.addresses = Collections.unmodifiableList(Arrays.asList(addressArray));
+            this.addressStrings = strings;
+            this.addressStringList = Collections.unmodifiableList(Arrays.asList(stringArray));
+        }
+
+        private Snapshot(Snapshot same, long registryVersion) {
+            this.version = same.version;
+            this.registryVersion = registryVersion;
+            this.addresses = same.addresses;
+            this.addressStrings = same.addressStrings;
+            this.addressStringList = same.addressStringList;
+        }
+
+        private boolean sameAddresses(List<InetSocketAddress> other) {
+            return CollectionUtils.isEmpty(other) ? addresses.isEmpty() : addresses.equals(other);
+        }
+
+        /**
+         * The version, increased whenever the addresses change.
+         *
+         * @return the version
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the addresses.
+         *
+         * @return the unmodifiable addresses
+         */
+        public List<InetSocketAddress> getAddresses() {
+            return addresses;
+        }
+
+        /**
+         * Gets the addresses in the form of ip:port.
+         *
+         * @return the unmodifiable address strings
+         */
+        public List<String> getAddressStrings() {
+            return addressStringList;
+        }
+
+        /**
+         * Gets the ip:port form of an address of this snapshot.
+         *
+         * @param address the address
+         * @return the address string
+         */
+        public String toStringAddress(InetSocketAddress address) {
+            String addressString = addressStrings.get(address);
+            return addressString != null ? addressString : NetUtil.toStringAddress(address);
+        }
+
+        /**
+         * Whether there is no address.
+         *
+         * @return the boolean
+         */
+        public boolean isEmpty() {
+            return addresses.isEmpty();
+        }
+    }
+}
@@ -16,10 +16,12 @@
 package io.seata.discovery.loadbalance;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +66,110 @@ public class LoadBalanceTest {
         }
     }
 
+    /**
+     * Test least active load balance select.
+     *
+     * @param addresses the addresses
+     */
+    @ParameterizedTest
+    @MethodSource("addressProvider")
+    public void testLeastActiveLoadBalance_select(List<InetSocketAddress> addresses) {
+        InetSocketAddress busy = addresses.get(0);
+        ServerStatus.get(busy).beginRequest();
+        Map<InetSocketAddress, AtomicLong> counter = getSelectedCounter(100, addresses, new LeastActiveLoadBalance());
+        ServerStatus.get(busy).endRequest(0, true);
+        Assertions.assertEquals(0, counter.get(busy).get(), "the server with a request in flight is not selected");
+    }
+
+    /**
+     * Test consistent hash load balance select.
+     *
+     * @param addresses the addresses
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("addressProvider")
+    public void testConsistentHashLoadBalance_select(List<InetSocketAddress> addresses) throws Exception {
+        LoadBalance loadBalance = new ConsistentHashLoadBalance(10);
+        String xid = "127.0.0.1:8091:2000042948";
+        InetSocketAddress selected = loadBalance.select(addresses, xid);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(selected, loadBalance.select(addresses, xid), "same xid goes to the same server");
+        }
+
+        ServerStatus.get(selected).markUnavailable();
+        try {
+            InetSocketAddress failover = loadBalance.select(addresses, xid);
+            Assertions.assertNotEquals(selected, failover, "fail over while the server is unavailable");
+            Assertions.assertEquals(failover, loadBalance.select(addresses, xid));
+        } finally {
+            ServerStatus.get(selected).markAvailable();
+        }
+        Assertions.assertEquals(selected, loadBalance.select(addresses, xid));
+    }
+
+    /**
+     * Test the consistent hash load balance sends the messages of a transaction to the server which began it.
+     *
+     * @param addresses the addresses
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("addressProvider")
+    public void testConsistentHashLoadBalance_selectOwner(List<InetSocketAddress> addresses) throws Exception {
+        LoadBalance loadBalance = new ConsistentHashLoadBalance(10);
+        for (InetSocketAddress address : addresses) {
+            String xid = "127.0.0.1:" + address.getPort() + ":2000042948";
+            Assertions.assertEquals(address, loadBalance.select(addresses, xid), "the server which began the xid");
+        }
+
+        String foreignXid = "10.0.0.1:8091:2000042948";
+        InetSocketAddress selected = loadBalance.select(addresses, foreignXid);
+        Assertions.assertTrue(addresses.contains(selected));
+        Assertions.assertEquals(selected, loadBalance.select(addresses, foreignXid), "a foreign xid uses the ring");
+    }
+
+    /**
+     * Test the consistent hash load balance keeps one ring per address list.
+     *
+     * @param addresses the addresses
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("addressProvider")
+    public void testConsistentHashLoadBalance_ringPerAddressList(List<InetSocketAddress> addresses) throws Exception {
+        ConsistentHashLoadBalance loadBalance = new ConsistentHashLoadBalance(10);
+        List<InetSocketAddress> others = addresses.subList(1, addresses.size());
+        String xid = "10.0.0.1:8091:2000042948";
+        InetSocketAddress selected = loadBalance.select(addresses, xid);
+        InetSocketAddress otherSelected = loadBalance.select(others, xid);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(selected, loadBalance.select(new ArrayList<>(addresses), xid));
+            Assertions.assertEquals(otherSelected, loadBalance.select(others, xid));
+        }
+        Assertions.assertEquals(2, loadBalance.getHashRingCount());
+
+        for (int i = 1; i < 40; i++) {
+            loadBalance.select(addresses.subList(0, 1 + i % addresses.size()), "10.0.0." + i + ":8091:1");
+            loadBalance.select(Arrays.asList(new InetSocketAddress("10.0.1.1", 8000 + i)), "10.0.0.1:8091:1");
+        }
+        Assertions.assertTrue(loadBalance.getHashRingCount() <= 16, "the rings are bounded");
+    }
+
+    /**
+     * Test the status of a removed server is dropped.
+     */
+    @Test
+    public void testServerStatusRemove() {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 18091);
+        ServerStatus.get(address).markUnavailable();
+        Assertions.assertFalse(ServerStatus.isAvailable(address));
+        ServerStatus.remove(address);
+        Assertions.assertTrue(ServerStatus.isAvailable(address));
+        Assertions.assertEquals(0, ServerStatus.get(address).getActive());
+        ServerStatus.remove(address);
+    }
+
     /**
      * Gets selected counter.
      *
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.discovery.registry;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.discovery.loadbalance.RoundRobinLoadBalance;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Service address table test.
+ */
+public class ServiceAddressTableTest {
+
+    @Test
+    public void testSnapshot() throws Exception {
+        List<InetSocketAddress> addresses = Arrays.asList(new InetSocketAddress("127.0.0.1", 8091),
+            new InetSocketAddress("127.0.0.1", 8092));
+        ServiceAddressTable.Snapshot snapshot = new ServiceAddressTable.Snapshot(1, 0, addresses);
+
+        Assertions.assertFalse(snapshot.isEmpty());
+        Assertions.assertEquals(addresses, snapshot.getAddresses());
+        Assertions.assertEquals(Arrays.asList("127.0.0.1:8091", "127.0.0.1:8092"), snapshot.getAddressStrings());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.getAddresses().clear());
+
+        InetSocketAddress selected = new RoundRobinLoadBalance().select(snapshot.getAddresses());
+        Assertions.assertTrue(addresses.contains(selected));
+        Assertions.assertEquals(selected.getPort() == 8091 ? "127.0.0.1:8091" : "127.0.0.1:8092",
+            snapshot.toStringAddress(selected));
+    }
+
+    @Test
+    public void testChangeListener() {
+        AtomicInteger changes = new AtomicInteger();
+        ServiceAddressTable.ChangeListener listener = changes::incrementAndGet;
+        ServiceAddressTable.getInstance().addChangeListener(listener);
+        try {
+            ServiceAddressTable.registryChanged();
+            ServiceAddressTable.registryChanged();
+            Assertions.assertEquals(2, changes.get());
+        } finally {
+            ServiceAddressTable.getInstance().removeChangeListener(listener);
+        }
+        ServiceAddressTable.registryChanged();
+        Assertions.assertEquals(2, changes.get());
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        ServiceAddressTable.Snapshot snapshot = new ServiceAddressTable.Snapshot(1, 0, null);
+        Assertions.assertTrue(snapshot.isEmpty());
+        Assertions.assertTrue(snapshot.getAddressStrings().isEmpty());
+    }
+}
@@ -34,6 +34,7 @@ import io.seata.common.util.StringUtils;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.discovery.registry.RegistryService;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -192,6 +193,7 @@ public class EtcdRegistryServiceImpl implements RegistryService<Watch.Listener>
                 public void onNext(WatchResponse response) {
                     try {
                         refreshCluster(cluster);
+                        ServiceAddressTable.registryChanged();
                     } catch (Exception e) {
                         LOGGER.error("etcd watch listener", e);
                         throw new RuntimeException(e.getMessage());
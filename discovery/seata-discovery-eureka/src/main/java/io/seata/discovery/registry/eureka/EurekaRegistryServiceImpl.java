@@ -31,6 +31,7 @@ import io.seata.common.util.StringUtils;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.discovery.registry.RegistryService;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -133,6 +134,7 @@ public class EurekaRegistryServiceImpl implements RegistryService<EurekaEventLis
             subscribe(null, event -> {
                 try {
                     refreshCluster();
+                    ServiceAddressTable.registryChanged();
                 } catch (Exception e) {
                     LOGGER.error("Eureka event listener refreshCluster error:{}", e.getMessage(), e);
                 }
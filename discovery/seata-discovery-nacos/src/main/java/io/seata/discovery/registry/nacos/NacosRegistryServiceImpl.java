@@ -34,6 +34,7 @@ import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.config.ConfigurationKeys;
 import io.seata.discovery.registry.RegistryService;
+import io.seata.discovery.registry.ServiceAddressTable;
 
 /**
  * The type Nacos registry service.
@@ -138,6 +139,7 @@ public class NacosRegistryServiceImpl implements RegistryService<EventListener>
                                     .collect(Collectors.toList());
                             CLUSTER_ADDRESS_MAP.put(clusterName, newAddressList);
                         }
+                        ServiceAddressTable.registryChanged();
                     });
                 }
             }
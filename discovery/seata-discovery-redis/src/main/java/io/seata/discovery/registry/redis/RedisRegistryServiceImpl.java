@@ -35,6 +35,7 @@ import io.seata.common.util.StringUtils;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.discovery.registry.RegistryService;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -208,6 +209,7 @@ public class RedisRegistryServiceImpl implements RegistryService<RedisListener>
                     default:
                         throw new ShouldNeverHappenException("unknown redis msg:" + msg);
                 }
+                ServiceAddressTable.registryChanged();
             });
         }
         return new ArrayList<>(CLUSTER_ADDRESS_MAP.getOrDefault(clusterName, Collections.emptySet()));
@@ -38,6 +38,7 @@ import io.seata.common.util.NetUtil;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.discovery.registry.RegistryService;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.apache.commons.lang.StringUtils;
 
 import static io.seata.config.ConfigurationKeys.FILE_CONFIG_SPLIT_CHAR;
@@ -172,6 +173,7 @@ public class SofaRegistryServiceImpl implements RegistryService<SubscriberDataOb
                     List<InetSocketAddress> newAddressList = new ArrayList<>(tranformData);
                     CLUSTER_ADDRESS_MAP.put(clusterName, newAddressList);
                 }
+                ServiceAddressTable.registryChanged();
                 respondRegistries.countDown();
             });
 
@@ -34,6 +34,7 @@ import io.seata.common.util.StringUtils;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.discovery.registry.RegistryService;
+import io.seata.discovery.registry.ServiceAddressTable;
 import org.I0Itec.zkclient.IZkChildListener;
 import org.I0Itec.zkclient.IZkStateListener;
 import org.I0Itec.zkclient.ZkClient;
@@ -278,6 +279,7 @@ public class ZookeeperRegisterServiceImpl implements RegistryService<IZkChildLis
             } else if (!CollectionUtils.isEmpty(currentChilds)) {
                 refreshClusterAddressMap(clusterName, currentChilds);
             }
+            ServiceAddressTable.registryChanged();
         });
     }
 
@@ -0,0 +1,37 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of recorded durations, able to answer percentile queries
+ */
+public interface Histogram extends Meter {
+    void record(long value, TimeUnit unit);
+
+    long count();
+
+    long total();
+
+    long max();
+
+    /**
+     * @param quantile the quantile in [0, 1], e.g. 0.99
+     * @return the recorded value (in microseconds) at the quantile since creation
+     */
+    long percentile(double quantile);
+}
@@ -23,6 +23,30 @@ package io.seata.metrics;
 public class IdConstants {
     public static final String SEATA_TRANSACTION = "seata.transaction";
 
+    public static final String SEATA_TRANSACTION_DURATION = "seata.transaction.duration";
+
+    public static final String SEATA_REQUEST = "seata.request";
+
+    public static final String SEATA_REQUEST_QUEUE = "seata.request.queue";
+
+    public static final String SEATA_STORE_WRITE = "seata.store.write";
+
+    public static final String SEATA_STORE_FLUSH = "seata.store.flush";
+
+    public static final String SEATA_LOCK_ACQUIRE = "seata.lock.acquire";
+
+    public static final String SEATA_BRANCH = "seata.branch";
+
+    public static final String SEATA_RETRY_QUEUE = "seata.retry.queue";
+
+    public static final String SEATA_LOCK_RETRY = "seata.lock.retry";
+
+    public static final String SEATA_UNDO_LOG_SIZE = "seata.undo.log.size";
+
+    public static final String SEATA_IMAGE_QUERY = "seata.image.query";
+
+    public static final String SEATA_ASYNC_COMMIT_BUFFER = "seata.async.commit.buffer";
+
     public static final String NAME_KEY = "name";
 
     public static final String ROLE_KEY = "role";
@@ -33,6 +57,14 @@ public class IdConstants {
 
     public static final String STATUS_KEY = "status";
 
+    public static final String OPERATION_KEY = "operation";
+
+    public static final String BRANCH_TYPE_KEY = "branchType";
+
+    public static final String RESOURCE_KEY = "resource";
+
+    public static final String RESULT_KEY = "result";
+
     public static final String ROLE_VALUE_TC = "tc";
 
     public static final String ROLE_VALUE_TM = "tm";
@@ -47,6 +79,8 @@ public class IdConstants {
 
     public static final String METER_VALUE_TIMER = "timer";
 
+    public static final String METER_VALUE_HISTOGRAM = "histogram";
+
     public static final String STATISTIC_VALUE_COUNT = "count";
 
     public static final String STATISTIC_VALUE_TOTAL = "total";
@@ -57,9 +91,39 @@ public class IdConstants {
 
     public static final String STATISTIC_VALUE_AVERAGE = "average";
 
+    public static final String STATISTIC_VALUE_P50 = "p50";
+
+    public static final String STATISTIC_VALUE_P90 = "p90";
+
+    public static final String STATISTIC_VALUE_P99 = "p99";
+
+    public static final String STATISTIC_VALUE_P999 = "p999";
+
+    public static final String STATISTIC_VALUE_BUCKET = "bucket";
+
+    public static final String STATISTIC_VALUE_SUM = "sum";
+
+    public static final String BUCKET_BOUND_KEY = "le";
+
+    public static final String BUCKET_BOUND_VALUE_INF = "+Inf";
+
     public static final String STATUS_VALUE_ACTIVE = "active";
 
     public static final String STATUS_VALUE_COMMITTED = "committed";
 
     public static final String STATUS_VALUE_ROLLBACKED = "rollbacked";
+
+    public static final String STATUS_VALUE_RETRY_COMMITTING = "retryCommitting";
+
+    public static final String STATUS_VALUE_RETRY_ROLLBACKING = "retryRollbacking";
+
+    public static final String STATUS_VALUE_ASYNC_COMMITTING = "asyncCommitting";
+
+    public static final String RESULT_VALUE_SUCCESS = "success";
+
+    public static final String RESULT_VALUE_FAILED = "failed";
+
+    public static final String RESULT_VALUE_CONFLICT = "conflict";
+
+    public static final String RESULT_VALUE_TIMEOUT = "timeout";
 }
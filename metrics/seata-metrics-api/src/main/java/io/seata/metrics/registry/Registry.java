@@ -19,6 +19,7 @@ import java.util.function.Supplier;
 
 import io.seata.metrics.Counter;
 import io.seata.metrics.Gauge;
+import io.seata.metrics.Histogram;
 import io.seata.metrics.Id;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.Summary;
@@ -38,5 +39,7 @@ public interface Registry {
 
     Timer getTimer(Id id);
 
+    Histogram getHistogram(Id id);
+
     Iterable<Measurement> measure();
 }
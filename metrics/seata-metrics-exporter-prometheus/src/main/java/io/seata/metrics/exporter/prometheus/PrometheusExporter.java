@@ -17,7 +17,9 @@ package io.seata.metrics.exporter.prometheus;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import io.prometheus.client.Collector;
@@ -26,6 +28,7 @@ import io.prometheus.client.exporter.HTTPServer;
 import io.seata.common.loader.LoadLevel;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.metrics.IdConstants;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.exporter.Exporter;
 import io.seata.metrics.registry.Registry;
@@ -62,11 +65,18 @@ public class PrometheusExporter extends Collector implements Collector.Describab
         if (registry != null) {
             Iterable<Measurement> measurements = registry.measure();
             List<Sample> samples = new ArrayList<>();
-            measurements.forEach(measurement -> samples.add(convertMeasurementToSample(measurement)));
+            Map<String, List<Sample>> histogramSamples = new LinkedHashMap<>();
+            measurements.forEach(measurement -> {
+                if (!convertHistogramMeasurement(measurement, histogramSamples)) {
+                    samples.add(convertMeasurementToSample(measurement));
+                }
+            });
 
             if (!samples.isEmpty()) {
                 familySamples.add(new MetricFamilySamples("seata", Type.UNTYPED, "seata", samples));
             }
+            histogramSamples.forEach((name, histogram) ->
+                familySamples.add(new MetricFamilySamples(name, Type.HISTOGRAM, name, histogram)));
         }
         return familySamples;
     }
@@ -83,6 +93,49 @@ public class PrometheusExporter extends Collector implements Collector.Describab
             (long)measurement.getTimestamp());
     }
 
+    /**
+     * Histogram buckets and sum are cumulative, so they are exported as a histogram family
+     * (name_bucket{le}, name_count and name_sum) instead of untyped samples.
+     */
+    private boolean convertHistogramMeasurement(Measurement measurement, Map<String, List<Sample>> histogramSamples) {
+        String statistic = null;
+        String bound = null;
+        List<String> labelNames = new ArrayList<>();
+        List<String> labelValues = new ArrayList<>();
+        for (Entry<String, String> tag : measurement.getId().getTags()) {
+            if (IdConstants.STATISTIC_KEY.equals(tag.getKey())) {
+                statistic = tag.getValue();
+            } else if (IdConstants.BUCKET_BOUND_KEY.equals(tag.getKey())) {
+                bound = tag.getValue();
+            } else {
+                labelNames.add(tag.getKey());
+                labelValues.add(tag.getValue());
+            }
+        }
+        String prometheusName = measurement.getId().getName().replace(".", "_");
+        long timestamp = (long)measurement.getTimestamp();
+        if (IdConstants.STATISTIC_VALUE_SUM.equals(statistic)) {
+            histogramSamples.computeIfAbsent(prometheusName, key -> new ArrayList<>()).add(
+                new Sample(prometheusName + "_sum", labelNames, labelValues, measurement.getValue(), timestamp));
+            return true;
+        }
+        if (IdConstants.STATISTIC_VALUE_BUCKET.equals(statistic) && bound != null) {
+            List<Sample> histogram = histogramSamples.computeIfAbsent(prometheusName, key -> new ArrayList<>());
+            if (IdConstants.BUCKET_BOUND_VALUE_INF.equals(bound)) {
+                histogram.add(
+                    new Sample(prometheusName + "_count", labelNames, labelValues, measurement.getValue(), timestamp));
+            }
+            List<String> bucketLabelNames = new ArrayList<>(labelNames);
+            List<String> bucketLabelValues = new ArrayList<>(labelValues);
+            bucketLabelNames.add(IdConstants.BUCKET_BOUND_KEY);
+            bucketLabelValues.add(bound);
+            histogram.add(new Sample(prometheusName + "_bucket", bucketLabelNames, bucketLabelValues,
+                measurement.getValue(), timestamp));
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public List<MetricFamilySamples> describe() {
         return collect();
@@ -0,0 +1,180 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.metrics.Clock;
+import io.seata.metrics.Histogram;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Measurement;
+import io.seata.metrics.SystemClock;
+
+/**
+ * Compact Histogram implement with two HistogramValue.
+ * Writers record into the active value, measure swaps the values and drains the inactive one: the drained counts
+ * give the percentiles of the interval and are merged into the cumulative buckets exported with le bounds.
+ */
+public class CompactHistogram implements Histogram {
+    /**
+     * exported bucket bounds are the powers of two between 128us and 64s
+     */
+    private static final int MIN_EXPORTED_BITS = 7;
+
+    private static final int MAX_EXPORTED_BITS = 26;
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final String[] QUANTILE_STATISTICS = {IdConstants.STATISTIC_VALUE_P50,
+        IdConstants.STATISTIC_VALUE_P90, IdConstants.STATISTIC_VALUE_P99, IdConstants.STATISTIC_VALUE_P999};
+
+    private final Id id;
+
+    private final Id[] quantileIds;
+
+    private final Id maxId;
+
+    private final Id sumId;
+
+    private final Id[] bucketIds;
+
+    private final int[] bucketIndexes;
+
+    private final Id infBucketId;
+
+    private final HistogramValue[] values;
+
+    private volatile int active;
+
+    private final long[] cumulative;
+
+    private long cumulativeCount;
+
+    private long cumulativeTotal;
+
+    private long cumulativeMax;
+
+    private final Clock clock;
+
+    public CompactHistogram(Id id) {
+        this(id, SystemClock.INSTANCE);
+    }
+
+    public CompactHistogram(Id id, Clock clock) {
+        this.id = id;
+        this.quantileIds = new Id[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            this.quantileIds[i] = new Id(id.getName()).withTag(id.getTags())
+                .withTag(IdConstants.STATISTIC_KEY, QUANTILE_STATISTICS[i]);
+        }
+        this.maxId = new Id(id.getName()).withTag(id.getTags())
+            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_MAX);
+        this.sumId = new Id(id.getName()).withTag(id.getTags())
+            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_SUM);
+        int bucketCount = MAX_EXPORTED_BITS - MIN_EXPORTED_BITS + 1;
+        this.bucketIds = new Id[bucketCount];
+        this.bucketIndexes = new int[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            long bound = 1L << (MIN_EXPORTED_BITS + i);
+            this.bucketIndexes[i] = HistogramValue.indexOf(bound - 1);
+            this.bucketIds[i] = new Id(id.getName()).withTag(id.getTags())
+                .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_BUCKET)
+                .withTag(IdConstants.BUCKET_BOUND_KEY, BigDecimal.valueOf(bound).movePointLeft(3).toPlainString());
+        }
+        this.infBucketId = new Id(id.getName()).withTag(id.getTags())
+            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_BUCKET)
+            .withTag(IdConstants.BUCKET_BOUND_KEY, IdConstants.BUCKET_BOUND_VALUE_INF);
+        this.values = new HistogramValue[] {new HistogramValue(), new HistogramValue()};
+        this.cumulative = new long[HistogramValue.BUCKET_COUNT];
+        this.clock = clock;
+    }
+
+    @Override
+    public Id getId() {
+        return id;
+    }
+
+    @Override
+    public void record(long value, TimeUnit unit) {
+        this.values[active].record(value, unit);
+    }
+
+    @Override
+    public synchronized long count() {
+        return snapshot(new long[HistogramValue.BUCKET_COUNT]);
+    }
+
+    @Override
+    public synchronized long total() {
+        return cumulativeTotal + values[0].getTotal() + values[1].getTotal();
+    }
+
+    @Override
+    public synchronized long max() {
+        return Math.max(cumulativeMax, Math.max(values[0].getMax(), values[1].getMax()));
+    }
+
+    @Override
+    public synchronized long percentile(double quantile) {
+        long[] counts = new long[HistogramValue.BUCKET_COUNT];
+        long count = snapshot(counts);
+        return HistogramValue.percentile(counts, count, quantile);
+    }
+
+    private long snapshot(long[] counts) {
+        System.arraycopy(cumulative, 0, counts, 0, cumulative.length);
+        return cumulativeCount + values[0].addTo(counts) + values[1].addTo(counts);
+    }
+
+    @Override
+    public synchronized Iterable<Measurement> measure() {
+        double time = clock.getCurrentMilliseconds();
+        HistogramValue value = this.values[active];
+        this.active = active ^ 1;
+
+        long[] interval = new long[HistogramValue.BUCKET_COUNT];
+        long intervalCount = value.drainTo(interval);
+        long intervalMax = value.drainMax();
+        cumulativeTotal += value.drainTotal();
+        cumulativeCount += intervalCount;
+        cumulativeMax = Math.max(cumulativeMax, intervalMax);
+        for (int i = 0; i < interval.length; i++) {
+            cumulative[i] += interval[i];
+        }
+
+        List<Measurement> measurements = new ArrayList<>(QUANTILES.length + bucketIds.length + 3);
+        for (int i = 0; i < QUANTILES.length; i++) {
+            measurements.add(new Measurement(quantileIds[i], time,
+                HistogramValue.percentile(interval, intervalCount, QUANTILES[i]) * 0.001));
+        }
+        measurements.add(new Measurement(maxId, time, intervalMax * 0.001));
+        measurements.add(new Measurement(sumId, time, cumulativeTotal * 0.001));
+        long bucketCount = 0;
+        int index = 0;
+        for (int i = 0; i < bucketIds.length; i++) {
+            for (; index <= bucketIndexes[i]; index++) {
+                bucketCount += cumulative[index];
+            }
+            measurements.add(new Measurement(bucketIds[i], time, bucketCount));
+        }
+        measurements.add(new Measurement(infBucketId, time, cumulativeCount));
+        return measurements;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.function.Supplier;
 import io.seata.common.loader.LoadLevel;
 import io.seata.metrics.Counter;
 import io.seata.metrics.Gauge;
+import io.seata.metrics.Histogram;
 import io.seata.metrics.Id;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.Meter;
@@ -61,6 +62,11 @@ public class CompactRegistry implements Registry {
         return (Timer)CompactRegistry.METERS.computeIfAbsent(id.getId(), key -> new CompactTimer(id));
     }
 
+    @Override
+    public Histogram getHistogram(Id id) {
+        return (Histogram)CompactRegistry.METERS.computeIfAbsent(id.getId(), key -> new CompactHistogram(id));
+    }
+
     @Override
     public Iterable<Measurement> measure() {
         List<Measurement> measurements = new ArrayList<>();
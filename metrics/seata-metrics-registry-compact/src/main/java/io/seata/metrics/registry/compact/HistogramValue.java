@@ -0,0 +1,146 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Record container for CompactHistogram.
+ * Values are kept in microseconds in a fixed set of log-linear buckets: every power of two is split into
+ * 16 linear sub buckets, so a bucket bound is never more than 1/16 above the values it holds.
+ */
+public class HistogramValue {
+    static final int SUB_BUCKET_BITS = 4;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 2^36 microseconds is about 19 hours, larger values are clamped
+     */
+    static final int MAX_VALUE_BITS = 36;
+
+    static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts;
+
+    private final AtomicLong total;
+
+    private final AtomicLong max;
+
+    public HistogramValue() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.total = new AtomicLong(0);
+        this.max = new AtomicLong(0);
+    }
+
+    public void record(long value, TimeUnit unit) {
+        if (value < 0) {
+            return;
+        }
+        long changeValue = unit == TimeUnit.MICROSECONDS ? value : TimeUnit.MICROSECONDS.convert(value, unit);
+        changeValue = Math.min(changeValue, MAX_VALUE);
+        this.counts.incrementAndGet(indexOf(changeValue));
+        this.total.addAndGet(changeValue);
+        this.max.accumulateAndGet(changeValue, Math::max);
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Add the bucket counts to target without resetting them.
+     *
+     * @return the number of values added
+     */
+    long addTo(long[] target) {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = counts.get(i);
+            target[i] += c;
+            count += c;
+        }
+        return count;
+    }
+
+    /**
+     * Move the bucket counts to target. A writer racing with the drain is kept for the next drain, never lost.
+     *
+     * @return the number of values moved
+     */
+    long drainTo(long[] target) {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts.get(i) != 0) {
+                long c = counts.getAndSet(i, 0);
+                target[i] += c;
+                count += c;
+            }
+        }
+        return count;
+    }
+
+    long drainTotal() {
+        return total.getAndSet(0);
+    }
+
+    long drainMax() {
+        return max.getAndSet(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int)((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * @return the largest value falling into the bucket
+     */
+    static long upperBoundOf(int index) {
+        int block = index >>> SUB_BUCKET_BITS;
+        int sub = index & (SUB_BUCKET_COUNT - 1);
+        if (block == 0) {
+            return sub;
+        }
+        return ((long)(SUB_BUCKET_COUNT + sub + 1) << (block - 1)) - 1;
+    }
+
+    static long percentile(long[] counts, long count, double quantile) {
+        if (count <= 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+}
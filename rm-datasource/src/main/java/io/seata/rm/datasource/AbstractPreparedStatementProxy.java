@@ -51,7 +51,12 @@ public abstract class AbstractPreparedStatementProxy extends StatementProxy<Prep
      */
     protected ArrayList<Object>[] parameters;
 
-    private void initParameterHolder() throws SQLException {
+    /**
+     * Init parameter holder.
+     *
+     * @throws SQLException the sql exception
+     */
+    protected void initParameterHolder() throws SQLException {
         int paramCount = targetStatement.getParameterMetaData().getParameterCount();
         this.parameters = new ArrayList[paramCount];
         for (int i = 0; i < paramCount; i++) {
@@ -248,6 +253,12 @@ public abstract class AbstractPreparedStatementProxy extends StatementProxy<Prep
         targetStatement.addBatch();
     }
 
+    @Override
+    public void clearBatch() throws SQLException {
+        initParameterHolder();
+        targetStatement.clearBatch();
+    }
+
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
         setParamByIndex(parameterIndex, reader);
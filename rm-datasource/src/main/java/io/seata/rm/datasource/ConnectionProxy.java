@@ -18,7 +18,13 @@ package io.seata.rm.datasource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
@@ -27,14 +33,17 @@ import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.rm.DefaultResourceManager;
+import io.seata.rm.datasource.exec.LockConflictCache;
 import io.seata.rm.datasource.exec.LockConflictException;
 import io.seata.rm.datasource.exec.LockRetryController;
 import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogManager;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
+import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE;
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 
@@ -57,6 +66,28 @@ public class ConnectionProxy extends AbstractConnectionProxy {
 
     private final static LockRetryPolicy LOCK_RETRY_POLICY = new LockRetryPolicy();
 
+    /**
+     * Send the branch registration asynchronously and encode the undo logs while it is in flight.
+     */
+    private static final boolean IS_PIPELINE_COMMIT_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.CLIENT_PIPELINE_COMMIT_ENABLE, DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE);
+
+    private static final int MAX_BRANCH_REGISTER_THREAD = Runtime.getRuntime().availableProcessors() * 4;
+
+    private static final long KEEP_ALIVE_TIME = 60L;
+
+    /**
+     * the threads are created on demand, when all of them are busy the registration runs in the committing thread
+     */
+    private static final ThreadPoolExecutor BRANCH_REGISTER_EXECUTOR = new ThreadPoolExecutor(
+        MAX_BRANCH_REGISTER_THREAD, MAX_BRANCH_REGISTER_THREAD, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), new NamedThreadFactory("branchRegister", MAX_BRANCH_REGISTER_THREAD),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+
+    static {
+        BRANCH_REGISTER_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     /**
      * Instantiates a new Connection proxy.
      *
@@ -113,7 +144,8 @@ public class ConnectionProxy extends AbstractConnectionProxy {
             boolean lockable = DefaultResourceManager.get().lockQuery(BranchType.AT,
                 getDataSourceProxy().getResourceId(), context.getXid(), lockKeys);
             if (!lockable) {
-                throw new LockConflictException();
+                throw new LockConflictException("get global lock fail, xid:" + context.getXid(),
+                    LockConflictCache.recordConflict(getDataSourceProxy().getResourceId(), context.getXid(), lockKeys));
             }
         } catch (TransactionException e) {
             recognizeLockKeyConflictException(e, lockKeys);
@@ -148,7 +180,8 @@ public class ConnectionProxy extends AbstractConnectionProxy {
             if (StringUtils.isNotBlank(lockKeys)) {
                 reasonBuilder.append(", lockKeys:").append(lockKeys);
             }
-            throw new LockConflictException(reasonBuilder.toString());
+            throw new LockConflictException(reasonBuilder.toString(),
+                LockConflictCache.recordConflict(getDataSourceProxy().getResourceId(), context.getXid(), lockKeys));
         } else {
             throw new SQLException(te);
         }
@@ -209,15 +242,33 @@ public class ConnectionProxy extends AbstractConnectionProxy {
     }
 
     private void processGlobalTransactionCommit() throws SQLException {
-        try {
-            register();
-        } catch (TransactionException e) {
-            recognizeLockKeyConflictException(e, context.buildLockKeys());
+        byte[] undoLogContent = null;
+        if (IS_PIPELINE_COMMIT_ENABLE && context.hasUndoLog()) {
+            UndoLogManager undoLogManager = UndoLogManagerFactory.getUndoLogManager(this.getDbType());
+            Future<Long> branchIdFuture = BRANCH_REGISTER_EXECUTOR.submit(this::doRegister);
+            try {
+                undoLogContent = undoLogManager.encodeUndoLogs(context);
+            } catch (Throwable ex) {
+                // encode again after the registration, so that the failure is reported as usual
+                LOGGER.warn("encode undo logs error: {}", ex.getMessage(), ex);
+            }
+            waitForRegister(branchIdFuture);
+        } else {
+            try {
+                register();
+            } catch (TransactionException e) {
+                recognizeLockKeyConflictException(e, context.buildLockKeys());
+            }
         }
 
         try {
             if (context.hasUndoLog()) {
-                UndoLogManagerFactory.getUndoLogManager(this.getDbType()).flushUndoLogs(this);
+                UndoLogManager undoLogManager = UndoLogManagerFactory.getUndoLogManager(this.getDbType());
+                if (undoLogContent != null) {
+                    undoLogManager.flushUndoLogs(this, undoLogContent);
+                } else {
+                    undoLogManager.flushUndoLogs(this);
+                }
             }
             targetConnection.commit();
         } catch (Throwable ex) {
@@ -231,10 +282,31 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         context.reset();
     }
 
+    private void waitForRegister(Future<Long> branchIdFuture) throws SQLException {
+        try {
+            context.setBranchId(branchIdFuture.get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                recognizeLockKeyConflictException((TransactionException) cause, context.buildLockKeys());
+            }
+            throw new SQLException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        }
+    }
+
     private void register() throws TransactionException {
-        Long branchId = DefaultResourceManager.get().branchRegister(BranchType.AT, getDataSourceProxy().getResourceId(),
-            null, context.getXid(), null, context.buildLockKeys());
-        context.setBranchId(branchId);
+        context.setBranchId(doRegister());
+    }
+
+    private Long doRegister() throws TransactionException {
+        String lockKeys = context.buildLockKeys();
+        Long branchId = DefaultResourceManager.get().branchRegister(BranchType.AT,
+            getDataSourceProxy().getResourceId(), null, context.getXid(), null, lockKeys);
+        LockConflictCache.registerHolder(getDataSourceProxy().getResourceId(), context.getXid(), lockKeys);
+        return branchId;
     }
 
     @Override
@@ -152,24 +152,31 @@ public class DataCompareUtils {
     }
 
     private static Result<Boolean> compareRows(TableMeta tableMetaData, List<Row> oldRows, List<Row> newRows) {
-        // old row to map
-        Map<String, Map<String, Field>> oldRowsMap = rowListToMap(oldRows, tableMetaData.getPkName());
-        // new row to map
-        Map<String, Map<String, Field>> newRowsMap = rowListToMap(newRows, tableMetaData.getPkName());
+        String pkName = tableMetaData.getPkName();
+        // new row to map {value of primaryKey : row}
+        Map<String, Row> newRowsMap = rowListToMap(newRows, pkName);
         // compare data
-        for (Map.Entry<String, Map<String, Field>> oldEntry : oldRowsMap.entrySet()) {
-            String key = oldEntry.getKey();
-            Map<String, Field> oldRow = oldEntry.getValue();
-            Map<String, Field> newRow = newRowsMap.get(key);
+        for (Row oldRow : oldRows) {
+            String key = getPkValue(oldRow, pkName);
+            Row newRow = newRowsMap.get(key);
             if (newRow == null) {
                 return Result.buildWithParams(false, "compare row failed, rowKey {}, reason [newRow is null]", key);
             }
-            for (Map.Entry<String, Field> oldRowEntry : oldRow.entrySet()) {
-                String fieldName = oldRowEntry.getKey();
-                Field oldField = oldRowEntry.getValue();
-                Field newField = newRow.get(fieldName);
+            List<Field> oldFields = oldRow.getFields();
+            List<Field> newFields = newRow.getFields();
+            // built only when the column order of the two rows differs
+            Map<String, Field> newFieldsMap = null;
+            for (int i = 0, size = oldFields.size(); i < size; i++) {
+                Field oldField = oldFields.get(i);
+                Field newField = i < newFields.size() ? newFields.get(i) : null;
+                if (newField == null || !isSameFieldName(oldField, newField)) {
+                    if (newFieldsMap == null) {
+                        newFieldsMap = fieldListToMap(newFields);
+                    }
+                    newField = newFieldsMap.get(oldField.getName().trim().toUpperCase());
+                }
                 if (newField == null) {
-                    return Result.buildWithParams(false, "compare row failed, rowKey {}, fieldName {}, reason [newField is null]", key, fieldName);
+                    return Result.buildWithParams(false, "compare row failed, rowKey {}, fieldName {}, reason [newField is null]", key, oldField.getName());
                 }
                 Result<Boolean> oldEqualsNewFieldResult = isFieldEquals(oldField, newField);
                 if (!oldEqualsNewFieldResult.getResult()) {
@@ -180,23 +187,36 @@ public class DataCompareUtils {
         return Result.ok();
     }
 
-    private static Map<String, Map<String, Field>> rowListToMap(List<Row> rowList, String primaryKey) {
-        // {value of primaryKey, value of all columns}
-        Map<String, Map<String, Field>> rowMap = new HashMap<>();
-        for (Row row : rowList) {
-            // {uppercase fieldName : field}
-            Map<String, Field> colsMap = new HashMap<>();
-            String rowKey = null;
-            for (int j = 0; j < row.getFields().size(); j++) {
-                Field field = row.getFields().get(j);
-                if (field.getName().equalsIgnoreCase(primaryKey)) {
-                    rowKey = String.valueOf(field.getValue());
-                }
-                colsMap.put(field.getName().trim().toUpperCase(), field);
+    private static boolean isSameFieldName(Field f0, Field f1) {
+        return f0.getName().trim().equalsIgnoreCase(f1.getName().trim());
+    }
+
+    private static String getPkValue(Row row, String primaryKey) {
+        String rowKey = null;
+        for (Field field : row.getFields()) {
+            if (field.getName().equalsIgnoreCase(primaryKey)) {
+                rowKey = String.valueOf(field.getValue());
             }
-            rowMap.put(rowKey, colsMap);
+        }
+        return rowKey;
+    }
+
+    private static Map<String, Row> rowListToMap(List<Row> rowList, String primaryKey) {
+        // {value of primaryKey, row}
+        Map<String, Row> rowMap = new HashMap<>(rowList.size() * 4 / 3 + 1);
+        for (Row row : rowList) {
+            rowMap.put(getPkValue(row, primaryKey), row);
         }
         return rowMap;
     }
 
+    private static Map<String, Field> fieldListToMap(List<Field> fields) {
+        // {uppercase fieldName : field}
+        Map<String, Field> colsMap = new HashMap<>(fields.size() * 4 / 3 + 1);
+        for (Field field : fields) {
+            colsMap.put(field.getName().trim().toUpperCase(), field);
+        }
+        return colsMap;
+    }
+
 }
@@ -31,6 +31,7 @@ import io.seata.core.exception.RmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.logger.StackTraceLogger;
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
@@ -44,6 +45,7 @@ import io.seata.core.rpc.netty.TmRpcClient;
 import io.seata.discovery.loadbalance.LoadBalanceFactory;
 import io.seata.discovery.registry.RegistryFactory;
 import io.seata.rm.AbstractResourceManager;
+import io.seata.rm.datasource.exec.LockConflictCache;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +77,8 @@ public class DataSourceManager extends AbstractResourceManager implements Initia
     @Override
     public boolean lockQuery(BranchType branchType, String resourceId, String xid, String lockKeys)
         throws TransactionException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             GlobalLockQueryRequest request = new GlobalLockQueryRequest();
             request.setXid(xid);
@@ -95,11 +99,14 @@ public class DataSourceManager extends AbstractResourceManager implements Initia
                 throw new TransactionException(response.getTransactionExceptionCode(),
                     "Response[" + response.getMsg() + "]");
             }
+            success = true;
             return response.isLockable();
         } catch (TimeoutException toe) {
             throw new RmTransactionException(TransactionExceptionCode.IO, "RPC Timeout", toe);
         } catch (RuntimeException rex) {
             throw new RmTransactionException(TransactionExceptionCode.LockableCheckFailed, "Runtime", rex);
+        } finally {
+            ClientMetrics.recordRequest(ClientMetrics.Request.GLOBAL_LOCK_QUERY, branchType, start, success);
         }
 
     }
@@ -167,6 +174,8 @@ public class DataSourceManager extends AbstractResourceManager implements Initia
     @Override
     public BranchStatus branchCommit(BranchType branchType, String xid, long branchId, String resourceId,
                                      String applicationData) throws TransactionException {
+        // the TC releases all the global locks of the transaction before delivering the phase two commit
+        LockConflictCache.onLockReleased(xid);
         return asyncWorker.branchCommit(branchType, xid, branchId, resourceId, applicationData);
     }
 
@@ -189,6 +198,8 @@ public class DataSourceManager extends AbstractResourceManager implements Initia
                 return BranchStatus.PhaseTwo_RollbackFailed_Retryable;
             }
         }
+        // the TC releases the global locks of the branch only after it receives the result
+        LockConflictCache.onBranchRollbacked(xid);
         return BranchStatus.PhaseTwo_Rollbacked;
 
     }
@@ -18,10 +18,12 @@ package io.seata.rm.datasource;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 
 import io.seata.rm.datasource.exec.ExecuteTemplate;
 import io.seata.sqlparser.ParametersHolder;
+import io.seata.sqlparser.struct.Null;
 
 /**
  * The type Prepared statement proxy.
@@ -63,4 +65,40 @@ public class PreparedStatementProxy extends AbstractPreparedStatementProxy
     public int executeUpdate() throws SQLException {
         return ExecuteTemplate.execute(this, (statement, args) -> statement.executeUpdate());
     }
+
+    /**
+     * The parameters of all the batched rows are kept by index, so the whole batch is executed
+     * as one statement with one undo item and one set of lock keys.
+     */
+    @Override
+    public int[] executeBatch() throws SQLException {
+        final int[] attempts = {0};
+        try {
+            return ExecuteTemplate.execute(this, (statement, args) -> {
+                if (attempts[0]++ > 0) {
+                    // retrying on lock conflict, the driver has already cleared the batch
+                    rebindBatch(statement);
+                }
+                return statement.executeBatch();
+            });
+        } finally {
+            // the batch is cleared by the driver after the execution
+            initParameterHolder();
+        }
+    }
+
+    private void rebindBatch(PreparedStatement statement) throws SQLException {
+        int rowCount = parameters.length == 0 ? 0 : parameters[0].size();
+        for (int row = 0; row < rowCount; row++) {
+            for (int i = 0; i < parameters.length; i++) {
+                Object value = parameters[i].get(row);
+                if (value instanceof Null) {
+                    statement.setNull(i + 1, Types.NULL);
+                } else {
+                    statement.setObject(i + 1, value);
+                }
+            }
+            statement.addBatch();
+        }
+    }
 }
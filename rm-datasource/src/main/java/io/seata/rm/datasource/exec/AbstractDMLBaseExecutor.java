@@ -19,6 +19,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.concurrent.Callable;
 
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.rm.datasource.AbstractConnectionProxy;
 import io.seata.rm.datasource.ConnectionContext;
 import io.seata.rm.datasource.ConnectionProxy;
@@ -69,9 +70,13 @@ public abstract class AbstractDMLBaseExecutor<T, S extends Statement> extends Ba
      * @throws Exception the exception
      */
     protected T executeAutoCommitFalse(Object[] args) throws Exception {
+        long start = System.nanoTime();
         TableRecords beforeImage = beforeImage();
+        ClientMetrics.recordImageQuery(ClientMetrics.Image.BEFORE, start);
         T result = statementCallback.execute(statementProxy.getTargetStatement(), args);
+        start = System.nanoTime();
         TableRecords afterImage = afterImage(beforeImage);
+        ClientMetrics.recordImageQuery(ClientMetrics.Image.AFTER, start);
         prepareUndoLog(beforeImage, afterImage);
         return result;
     }
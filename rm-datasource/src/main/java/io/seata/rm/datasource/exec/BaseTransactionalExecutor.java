@@ -23,10 +23,12 @@ import io.seata.rm.datasource.ColumnUtils;
 import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.StatementProxy;
 import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.Row;
 import io.seata.rm.datasource.sql.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
 import io.seata.rm.datasource.sql.struct.TableRecords;
 import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.util.JdbcUtils;
 import io.seata.sqlparser.ParametersHolder;
 import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLType;
@@ -50,6 +52,11 @@ import java.util.StringJoiner;
  */
 public abstract class BaseTransactionalExecutor<T, S extends Statement> implements Executor<T> {
 
+    /**
+     * The max size of the IN list of an image query, oracle limits an IN list to 1000 expressions
+     */
+    protected static final int MAX_IN_SIZE = 1000;
+
     /**
      * The Statement proxy.
      */
@@ -303,23 +310,45 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
             }
             rs = ps.executeQuery();
             return TableRecords.buildRecords(tableMeta, rs);
+        } catch (SQLException e) {
+            invalidateTableMetaIfNeeded(e);
+            throw e;
         } finally {
             IOUtil.close(rs);
         }
     }
 
     /**
-     * build TableRecords
+     * build TableRecords, the pk values are queried in chunks of at most {@link #MAX_IN_SIZE}
      *
      * @param pkValues the pkValues
      * @return return TableRecords;
      * @throws SQLException
      */
     protected TableRecords buildTableRecords(List<Object> pkValues) throws SQLException {
+        int size = pkValues.size();
+        if (size <= MAX_IN_SIZE) {
+            return buildTableRecordsInChunk(pkValues);
+        }
+        TableRecords records = null;
+        for (int from = 0; from < size; from += MAX_IN_SIZE) {
+            TableRecords chunk = buildTableRecordsInChunk(pkValues.subList(from, Math.min(size, from + MAX_IN_SIZE)));
+            if (records == null) {
+                records = chunk;
+            } else {
+                for (Row row : chunk.getRows()) {
+                    records.add(row);
+                }
+            }
+        }
+        return records;
+    }
+
+    private TableRecords buildTableRecordsInChunk(List<Object> pkValues) throws SQLException {
         String pk = getTableMeta().getEscapePkName(getDbType());
         StringJoiner pkValuesJoiner = new StringJoiner(" , ",
                 "SELECT * FROM " + getFromTableInSQL() + " WHERE " + pk + " in (", ")");
-        for (Object pkValue : pkValues) {
+        for (int i = 0, s = pkValues.size(); i < s; i++) {
             pkValuesJoiner.add("?");
         }
 
@@ -330,11 +359,31 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
             }
             rs = ps.executeQuery();
             return TableRecords.buildRecords(getTableMeta(), rs);
+        } catch (SQLException e) {
+            invalidateTableMetaIfNeeded(e);
+            throw e;
         } finally {
             IOUtil.close(rs);
         }
     }
 
+    /**
+     * invalidate the cached table meta when the image query failed because of a changed table structure,
+     * so that the retry of the business sql will fetch the table meta again.
+     *
+     * @param e the sql exception
+     */
+    protected void invalidateTableMetaIfNeeded(SQLException e) {
+        if (!JdbcUtils.isUnknownColumnException(e)) {
+            return;
+        }
+        ConnectionProxy connectionProxy = statementProxy.getConnectionProxy();
+        TableMetaCacheFactory.getTableMetaCache(connectionProxy.getDbType()).invalidate(
+            connectionProxy.getTargetConnection(), sqlRecognizer.getTableName(),
+            connectionProxy.getDataSourceProxy().getResourceId());
+        tableMeta = null;
+    }
+
     /**
      * get db type
      * @return
@@ -0,0 +1,238 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.util.StringUtils;
+
+/**
+ * The client side cache of the global lock holders, row key to holder xid.
+ * <p>
+ * The row keys of the branches registered by this client are indexed by their global transaction.
+ * A local transaction which failed to acquire the global lock looks up the holder of its conflicting keys
+ * and waits for the phase two commit of that holder instead of sleeping for a fixed interval,
+ * so it does not issue a BranchRegister which is bound to fail again.
+ * <p>
+ * Only the phase two commit wakes up the waiters: the TC releases all the locks of a global transaction
+ * before it delivers the branch commits. On rollback the TC releases the locks of a branch only after
+ * it receives the result, so the keys are just forgotten and the waiters keep their backoff.
+ */
+public final class LockConflictCache {
+
+    /**
+     * the holders which are neither committed nor rolled back on this client in time
+     * most likely completed on another client of the same resource
+     */
+    private static final long HOLDER_EXPIRE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * the released holders are kept a while so that a waiter which recorded the conflict
+     * right before the release does not miss it
+     */
+    private static final long RELEASED_EXPIRE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long CLEAN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final ConcurrentMap<String/* resourceId^rowKey */, String/* xid */> ROW_KEY_HOLDERS =
+        new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String/* xid */, LockHolder> LOCK_HOLDERS = new ConcurrentHashMap<>();
+
+    private static volatile long lastCleanTime = System.currentTimeMillis();
+
+    private LockConflictCache() {
+    }
+
+    /**
+     * Record the lock keys of a branch registered by this client.
+     *
+     * @param resourceId the resource id
+     * @param xid        the xid of the branch
+     * @param lockKeys   the lock keys of the branch
+     */
+    public static void registerHolder(String resourceId, String xid, String lockKeys) {
+        if (StringUtils.isBlank(xid) || StringUtils.isBlank(lockKeys)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LockHolder holder = LOCK_HOLDERS.computeIfAbsent(xid, k -> new LockHolder(now));
+        List<String> rowKeys = toRowKeys(resourceId, lockKeys);
+        synchronized (holder) {
+            if (holder.released) {
+                return;
+            }
+            holder.rowKeys.addAll(rowKeys);
+            for (String rowKey : rowKeys) {
+                ROW_KEY_HOLDERS.put(rowKey, xid);
+            }
+        }
+        if (now - lastCleanTime > CLEAN_INTERVAL_MILLIS) {
+            lastCleanTime = now;
+            cleanExpiredHolders(now);
+        }
+    }
+
+    /**
+     * Find the holder of the conflicting lock keys.
+     *
+     * @param resourceId the resource id
+     * @param xid        the xid which failed to acquire the locks
+     * @param lockKeys   the conflicting lock keys
+     * @return the xid of the holder, or null if none of the keys is held by a branch of this client
+     */
+    public static String recordConflict(String resourceId, String xid, String lockKeys) {
+        if (StringUtils.isBlank(lockKeys) || ROW_KEY_HOLDERS.isEmpty()) {
+            return null;
+        }
+        for (String rowKey : toRowKeys(resourceId, lockKeys)) {
+            String holderXid = ROW_KEY_HOLDERS.get(rowKey);
+            if (holderXid != null && !holderXid.equals(xid)) {
+                return holderXid;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Notify that the phase two commit of the global transaction was delivered, its global locks are released
+     * and the waiters on its keys are woken up.
+     *
+     * @param xid the xid
+     */
+    public static void onLockReleased(String xid) {
+        LockHolder holder = LOCK_HOLDERS.get(xid);
+        if (holder == null) {
+            return;
+        }
+        synchronized (holder) {
+            if (holder.released) {
+                return;
+            }
+            holder.released = true;
+            holder.releaseTime = System.currentTimeMillis();
+            holder.notifyAll();
+        }
+        removeRowKeys(xid, holder);
+    }
+
+    /**
+     * Forget the keys of a rolled back branch of the global transaction. The waiters are not woken up since
+     * the TC has not released the locks yet.
+     *
+     * @param xid the xid
+     */
+    public static void onBranchRollbacked(String xid) {
+        LockHolder holder = LOCK_HOLDERS.remove(xid);
+        if (holder != null) {
+            removeRowKeys(xid, holder);
+        }
+    }
+
+    /**
+     * Wait until the holder releases its locks, or the timeout elapses.
+     *
+     * @param holderXid     the xid returned by {@link #recordConflict(String, String, String)}
+     * @param timeoutMillis the max time to wait
+     * @return true if the release was observed
+     * @throws InterruptedException the interrupted exception
+     */
+    public static boolean awaitLockRelease(String holderXid, long timeoutMillis) throws InterruptedException {
+        LockHolder holder = LOCK_HOLDERS.get(holderXid);
+        if (holder == null) {
+            Thread.sleep(timeoutMillis);
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (holder) {
+            while (!holder.released) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                holder.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    private static void removeRowKeys(String xid, LockHolder holder) {
+        synchronized (holder) {
+            for (String rowKey : holder.rowKeys) {
+                ROW_KEY_HOLDERS.remove(rowKey, xid);
+            }
+            holder.rowKeys.clear();
+        }
+    }
+
+    private static void cleanExpiredHolders(long now) {
+        Iterator<Map.Entry<String, LockHolder>> it = LOCK_HOLDERS.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, LockHolder> entry = it.next();
+            LockHolder holder = entry.getValue();
+            boolean expired;
+            synchronized (holder) {
+                expired = holder.released ? now - holder.releaseTime > RELEASED_EXPIRE_MILLIS
+                    : now - holder.registerTime > HOLDER_EXPIRE_MILLIS;
+            }
+            if (expired) {
+                it.remove();
+                removeRowKeys(entry.getKey(), holder);
+            }
+        }
+    }
+
+    /**
+     * lock keys are formatted as table1:pk1,pk2;table2:pk3
+     */
+    private static List<String> toRowKeys(String resourceId, String lockKeys) {
+        List<String> rowKeys = new ArrayList<>();
+        for (String tableKeys : lockKeys.split(";")) {
+            int idx = tableKeys.indexOf(':');
+            if (idx < 0) {
+                continue;
+            }
+            String prefix = resourceId + "^" + tableKeys.substring(0, idx) + ":";
+            for (String pk : tableKeys.substring(idx + 1).split(",")) {
+                rowKeys.add(prefix + pk);
+            }
+        }
+        return rowKeys;
+    }
+
+    private static class LockHolder {
+        private final long registerTime;
+        /**
+         * the row keys of the branches on this client, guarded by this
+         */
+        private final List<String> rowKeys = new ArrayList<>();
+        /**
+         * guarded by this
+         */
+        private boolean released;
+        private long releaseTime;
+
+        LockHolder(long registerTime) {
+            this.registerTime = registerTime;
+        }
+    }
+}
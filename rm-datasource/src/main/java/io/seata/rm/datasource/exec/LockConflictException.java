@@ -24,6 +24,8 @@ import java.sql.SQLException;
  */
 public class LockConflictException extends SQLException {
 
+    private String holderXid;
+
     /**
      * Instantiates a new Lock conflict exception.
      */
@@ -33,4 +35,19 @@ public class LockConflictException extends SQLException {
     public LockConflictException(String message) {
         super(message);
     }
+
+    /**
+     * Instantiates a new Lock conflict exception with the holder of the locks.
+     *
+     * @param message   the message
+     * @param holderXid the xid holding the conflicting locks, null if unknown on this client
+     */
+    public LockConflictException(String message, String holderXid) {
+        super(message);
+        this.holderXid = holderXid;
+    }
+
+    public String getHolderXid() {
+        return holderXid;
+    }
 }
@@ -15,8 +15,12 @@
  */
 package io.seata.rm.datasource.exec;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.metrics.ClientMetrics;
 
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_TIMES;
@@ -42,19 +46,41 @@ public class LockRetryController {
     }
 
     /**
-     * Sleep.
+     * Sleep before the next retry.
+     * <p>
+     * The wait time is jittered around the retry interval so that competing transactions do not retry in lockstep,
+     * and a lock conflict wakes up early when the holder of its locks is committed on this client.
      *
      * @param e the e
      * @throws LockWaitTimeoutException the lock wait timeout exception
      */
     public void sleep(Exception e) throws LockWaitTimeoutException {
         if (--lockRetryTimes < 0) {
+            ClientMetrics.recordLockRetry(true);
             throw new LockWaitTimeoutException("Global lock wait timeout", e);
         }
+        ClientMetrics.recordLockRetry(false);
 
         try {
-            Thread.sleep(lockRetryInternal);
+            long waitMillis = nextWaitMillis();
+            if (e instanceof LockConflictException && StringUtils.isNotBlank(((LockConflictException)e).getHolderXid())) {
+                if (LockConflictCache.awaitLockRelease(((LockConflictException)e).getHolderXid(), waitMillis)) {
+                    // spread the waiters woken up by the same release
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(lockRetryInternal / 4 + 1));
+                }
+            } else {
+                Thread.sleep(waitMillis);
+            }
         } catch (InterruptedException ignore) {
         }
     }
+
+    private long nextWaitMillis() {
+        if (lockRetryInternal <= 1) {
+            return lockRetryInternal;
+        }
+        // uniform in [interval / 2, interval * 3 / 2], the expected total wait is the same as the fixed interval
+        int half = lockRetryInternal / 2;
+        return half + ThreadLocalRandom.current().nextInt(lockRetryInternal + 1);
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package io.seata.rm.datasource.sql.struct;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.seata.common.exception.NotSupportYetException;
@@ -29,6 +30,10 @@ public class Row {
 
     private List<Field> fields = new ArrayList<Field>();
 
+    private transient List<Field> pkFieldsCache;
+
+    private transient List<Field> nonPkFieldsCache;
+
     /**
      * Instantiates a new Row.
      */
@@ -51,6 +56,7 @@ public class Row {
      */
     public void setFields(List<Field> fields) {
         this.fields = fields;
+        resetKeyCache();
     }
 
     /**
@@ -60,15 +66,20 @@ public class Row {
      */
     public void add(Field field) {
         fields.add(field);
+        resetKeyCache();
     }
 
     /**
      * Primary keys list.
+     * The result is computed once and cached until the fields are changed.
      *
-     * @return the Primary keys list
+     * @return the unmodifiable Primary keys list
      */
     public List<Field> primaryKeys() {
-        List<Field> pkFields = new ArrayList<>();
+        if (pkFieldsCache != null) {
+            return pkFieldsCache;
+        }
+        List<Field> pkFields = new ArrayList<>(1);
         for (Field field : fields) {
             if (KeyType.PRIMARY_KEY == field.getKeyType()) {
                 pkFields.add(field);
@@ -77,21 +88,32 @@ public class Row {
         if (pkFields.size() > 1) {
             throw new NotSupportYetException("Multi-PK");
         }
-        return pkFields;
+        pkFieldsCache = Collections.unmodifiableList(pkFields);
+        return pkFieldsCache;
     }
 
     /**
      * Non-primary keys list.
+     * The result is computed once and cached until the fields are changed.
      *
-     * @return the non-primary list
+     * @return the unmodifiable non-primary list
      */
     public List<Field> nonPrimaryKeys() {
-        List<Field> nonPkFields = new ArrayList<>();
+        if (nonPkFieldsCache != null) {
+            return nonPkFieldsCache;
+        }
+        List<Field> nonPkFields = new ArrayList<>(fields.size());
         for (Field field : fields) {
             if (KeyType.PRIMARY_KEY != field.getKeyType()) {
                 nonPkFields.add(field);
             }
         }
-        return nonPkFields;
+        nonPkFieldsCache = Collections.unmodifiableList(nonPkFields);
+        return nonPkFieldsCache;
+    }
+
+    private void resetKeyCache() {
+        pkFieldsCache = null;
+        nonPkFieldsCache = null;
     }
 }
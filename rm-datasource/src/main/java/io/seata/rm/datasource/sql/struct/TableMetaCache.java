@@ -43,4 +43,16 @@ public interface TableMetaCache {
      */
     void refresh(Connection connection, String resourceId);
 
+    /**
+     * Invalidate the cached table meta, it will be fetched again on next access.
+     * The default implementation refreshes the whole cache of the resource.
+     *
+     * @param connection
+     * @param tableName       the table name
+     * @param resourceId
+     */
+    default void invalidate(Connection connection, String tableName, String resourceId) {
+        refresh(connection, resourceId);
+    }
+
 }
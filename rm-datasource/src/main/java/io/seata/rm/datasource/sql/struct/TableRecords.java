@@ -16,6 +16,7 @@
 package io.seata.rm.datasource.sql.struct;
 
 import io.seata.common.exception.ShouldNeverHappenException;
+import io.seata.rm.datasource.util.JdbcUtils;
 
 import javax.sql.rowset.serial.SerialBlob;
 import javax.sql.rowset.serial.SerialClob;
@@ -26,6 +27,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -41,6 +43,13 @@ public class TableRecords {
 
     private List<Row> rows = new ArrayList<Row>();
 
+    /**
+     * the position of the primary key column inside each row, -1 if unknown
+     */
+    private transient int pkIndex = -1;
+
+    private transient List<Field> pkRowsCache;
+
     /**
      * Gets table name.
      *
@@ -75,6 +84,7 @@ public class TableRecords {
      */
     public void setRows(List<Row> rows) {
         this.rows = rows;
+        resetPkCache();
     }
 
     /**
@@ -122,26 +132,52 @@ public class TableRecords {
      */
     public void add(Row row) {
         rows.add(row);
+        resetPkCache();
     }
 
     /**
      * Pk rows list.
+     * The result is computed once and cached until the rows are changed.
      *
-     * @return the list
+     * @return the unmodifiable list of primary key fields
      */
     public List<Field> pkRows() {
+        if (pkRowsCache != null) {
+            return pkRowsCache;
+        }
         final String pkName = getTableMeta().getPkName();
-        List<Field> pkRows = new ArrayList<>();
+        List<Field> pkRows = new ArrayList<>(rows.size());
         for (Row row : rows) {
-            List<Field> fields = row.getFields();
-            for (Field field : fields) {
-                if (field.getName().equalsIgnoreCase(pkName)) {
-                    pkRows.add(field);
-                    break;
-                }
+            Field pkField = findPkField(row, pkName);
+            if (pkField != null) {
+                pkRows.add(pkField);
+            }
+        }
+        pkRowsCache = Collections.unmodifiableList(pkRows);
+        return pkRowsCache;
+    }
+
+    private Field findPkField(Row row, String pkName) {
+        List<Field> fields = row.getFields();
+        // fast path: all rows built from the same result set share the column order
+        if (pkIndex >= 0 && pkIndex < fields.size()) {
+            Field field = fields.get(pkIndex);
+            if (field.getName().equalsIgnoreCase(pkName)) {
+                return field;
+            }
+        }
+        for (int i = 0, size = fields.size(); i < size; i++) {
+            Field field = fields.get(i);
+            if (field.getName().equalsIgnoreCase(pkName)) {
+                pkIndex = i;
+                return field;
             }
         }
-        return pkRows;
+        return null;
+    }
+
+    private void resetPkCache() {
+        pkRowsCache = null;
     }
 
     /**
@@ -176,14 +212,28 @@ public class TableRecords {
         ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
         int columnCount = resultSetMetaData.getColumnCount();
 
+        // resolve the column metas and the pk position once per result set instead of once per cell
+        ColumnMeta[] columnMetas = new ColumnMeta[columnCount];
+        String pkName = tmeta.getPkName();
+        for (int i = 1; i <= columnCount; i++) {
+            String colName = resultSetMetaData.getColumnName(i);
+            columnMetas[i - 1] = tmeta.getColumnMeta(colName);
+            if (columnMetas[i - 1] == null) {
+                throw new SQLException(String.format("Unknown column '%s' in the table meta of %s", colName,
+                    tmeta.getTableName()), JdbcUtils.SQL_STATE_COLUMN_NOT_FOUND);
+            }
+            if (pkName.equalsIgnoreCase(columnMetas[i - 1].getColumnName())) {
+                records.pkIndex = i - 1;
+            }
+        }
+
         while (resultSet.next()) {
             List<Field> fields = new ArrayList<>(columnCount);
             for (int i = 1; i <= columnCount; i++) {
-                String colName = resultSetMetaData.getColumnName(i);
-                ColumnMeta col = tmeta.getColumnMeta(colName);
+                ColumnMeta col = columnMetas[i - 1];
                 Field field = new Field();
                 field.setName(col.getColumnName());
-                if (tmeta.getPkName().equalsIgnoreCase(field.getName())) {
+                if (i - 1 == records.pkIndex) {
                     field.setKeyType(KeyType.PRIMARY_KEY);
                 }
                 field.setType(col.getDataType());
@@ -230,7 +280,7 @@ public class TableRecords {
 
         @Override
         public List<Field> pkRows() {
-            return new ArrayList<>();
+            return Collections.emptyList();
         }
 
         @Override
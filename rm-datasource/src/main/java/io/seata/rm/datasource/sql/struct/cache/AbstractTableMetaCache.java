@@ -17,7 +17,13 @@ package io.seata.rm.datasource.sql.struct.cache;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
@@ -47,6 +53,10 @@ public abstract class AbstractTableMetaCache implements TableMetaCache {
     private static final Cache<String, TableMeta> TABLE_META_CACHE = Caffeine.newBuilder().maximumSize(CACHE_SIZE)
             .expireAfterWrite(EXPIRE_TIME, TimeUnit.MILLISECONDS).softValues().build();
 
+    /**
+     * the schema version seen by the last refresh, {cache key : schema version}
+     */
+    private static final ConcurrentMap<String, String> TABLE_SCHEMA_VERSION = new ConcurrentHashMap<>();
 
     @Override
     public TableMeta getTableMeta(final Connection connection, final String tableName, String resourceId) {
@@ -82,22 +92,70 @@ public abstract class AbstractTableMetaCache implements TableMetaCache {
     @Override
     public void refresh(final Connection connection, String resourceId) {
         ConcurrentMap<String, TableMeta> tableMetaMap = TABLE_META_CACHE.asMap();
+        Map<String, TableMeta> resourceTableMetas = new HashMap<>();
         for (Map.Entry<String, TableMeta> entry : tableMetaMap.entrySet()) {
             String key = getCacheKey(connection, entry.getValue().getTableName(), resourceId);
             if (entry.getKey().equals(key)) {
-                try {
-                    TableMeta tableMeta = fetchSchema(connection, entry.getValue().getTableName());
-                    if (!tableMeta.equals(entry.getValue())) {
-                        TABLE_META_CACHE.put(entry.getKey(), tableMeta);
-                        LOGGER.info("table meta change was found, update table meta cache automatically.");
-                    }
-                } catch (SQLException e) {
-                    LOGGER.error("get table meta error:{}", e.getMessage(), e);
+                resourceTableMetas.put(key, entry.getValue());
+            }
+        }
+        Map<String, String> schemaVersions = Collections.emptyMap();
+        if (!resourceTableMetas.isEmpty()) {
+            Set<String> tableNames = new HashSet<>();
+            for (TableMeta tableMeta : resourceTableMetas.values()) {
+                tableNames.add(tableMeta.getTableName());
+            }
+            try {
+                schemaVersions = fetchSchemaVersions(connection, tableNames);
+            } catch (SQLException e) {
+                LOGGER.warn("get schema versions error:{}, fetch the whole table metas", e.getMessage());
+            }
+        }
+        for (Map.Entry<String, TableMeta> entry : resourceTableMetas.entrySet()) {
+            String key = entry.getKey();
+            String tableName = entry.getValue().getTableName();
+            String schemaVersion = schemaVersions.get(tableName);
+            // only the tables whose schema version changed (or is unknown) are fetched again
+            if (schemaVersion != null && Objects.equals(schemaVersion, TABLE_SCHEMA_VERSION.get(key))) {
+                continue;
+            }
+            try {
+                TableMeta tableMeta = fetchSchema(connection, tableName);
+                if (!tableMeta.equals(entry.getValue())) {
+                    TABLE_META_CACHE.put(key, tableMeta);
+                    LOGGER.info("table meta change was found, update table meta cache automatically.");
                 }
+                if (schemaVersion != null) {
+                    TABLE_SCHEMA_VERSION.put(key, schemaVersion);
+                }
+            } catch (SQLException e) {
+                LOGGER.error("get table meta error:{}", e.getMessage(), e);
             }
         }
+        // drop the versions of the table metas which were evicted from the cache
+        TABLE_SCHEMA_VERSION.keySet().retainAll(tableMetaMap.keySet());
     }
 
+    @Override
+    public void invalidate(final Connection connection, String tableName, String resourceId) {
+        if (StringUtils.isNullOrEmpty(tableName)) {
+            return;
+        }
+        String key = getCacheKey(connection, tableName, resourceId);
+        TABLE_META_CACHE.invalidate(key);
+        TABLE_SCHEMA_VERSION.remove(key);
+        LOGGER.info("table meta of {} was invalidated, it will be fetched again on next access.", tableName);
+    }
+
+    /**
+     * Gets the schema version seen by the last refresh.
+     *
+     * @param key the cache key
+     * @return the schema version, null if unknown
+     */
+    static String getSchemaVersion(String key) {
+        return TABLE_SCHEMA_VERSION.get(key);
+    }
 
     /**
      * generate cache key
@@ -119,4 +177,43 @@ public abstract class AbstractTableMetaCache implements TableMetaCache {
      */
     protected abstract TableMeta fetchSchema(Connection connection, String tableName) throws SQLException;
 
+    /**
+     * get a cheap signal which changes when the table structure changes, such as the DDL time.
+     * the default implementation returns null, which means the table meta will always be fetched again on refresh
+     *
+     * @param connection
+     * @param tableName
+     * @return the schema version, null if unknown
+     * @throws SQLException
+     */
+    protected String fetchSchemaVersion(Connection connection, String tableName) throws SQLException {
+        return null;
+    }
+
+    /**
+     * get the schema versions of the cached tables of a resource on refresh.
+     * the default implementation calls {@link #fetchSchemaVersion(Connection, String)} for each table,
+     * override it if the versions of all the tables can be fetched by one query
+     *
+     * @param connection
+     * @param tableNames the table names
+     * @return {table name : schema version}, a table without a known version is left out
+     * @throws SQLException
+     */
+    protected Map<String, String> fetchSchemaVersions(Connection connection, Set<String> tableNames)
+        throws SQLException {
+        Map<String, String> schemaVersions = new HashMap<>(tableNames.size());
+        for (String tableName : tableNames) {
+            try {
+                String schemaVersion = fetchSchemaVersion(connection, tableName);
+                if (schemaVersion != null) {
+                    schemaVersions.put(tableName, schemaVersion);
+                }
+            } catch (SQLException e) {
+                LOGGER.warn("get schema version of {} error:{}, fetch the whole table meta", tableName, e.getMessage());
+            }
+        }
+        return schemaVersions;
+    }
+
 }
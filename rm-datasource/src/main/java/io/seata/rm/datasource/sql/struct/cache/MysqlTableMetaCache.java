@@ -15,12 +15,22 @@
  */
 package io.seata.rm.datasource.sql.struct.cache;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import io.seata.common.exception.ShouldNeverHappenException;
 import io.seata.common.loader.LoadLevel;
@@ -92,6 +102,113 @@ public class MysqlTableMetaCache extends AbstractTableMetaCache {
         }
     }
 
+    @Override
+    protected Map<String, String> fetchSchemaVersions(Connection connection, Set<String> tableNames)
+        throws SQLException {
+        // {schema, null for the current database : {lower case table name : cached table name}}
+        Map<String, Map<String, String>> schemaTables = new HashMap<>();
+        for (String tableName : tableNames) {
+            String[] tableNameWithCatalog = tableName.replace("`", "").split("\\.");
+            String schema = tableNameWithCatalog.length > 1 ? tableNameWithCatalog[0] : null;
+            String pureTableName = tableNameWithCatalog.length > 1 ? tableNameWithCatalog[1] : tableNameWithCatalog[0];
+            schemaTables.computeIfAbsent(schema, k -> new HashMap<>()).put(pureTableName.toLowerCase(), tableName);
+        }
+        Map<String, String> schemaVersions = new HashMap<>(tableNames.size());
+        List<String> withoutCreateTime = new ArrayList<>();
+        for (Map.Entry<String, Map<String, String>> entry : schemaTables.entrySet()) {
+            String schema = entry.getKey();
+            Map<String, String> tables = entry.getValue();
+            // the DDL time of all the cached tables by one query, UPDATE_TIME is left out since it follows the DML
+            StringBuilder sql = new StringBuilder("SELECT TABLE_NAME, CREATE_TIME FROM information_schema.TABLES")
+                .append(" WHERE TABLE_SCHEMA = ").append(schema != null ? "?" : "DATABASE()")
+                .append(" AND TABLE_NAME IN (");
+            for (int i = 0; i < tables.size(); i++) {
+                sql.append(i == 0 ? "?" : ",?");
+            }
+            sql.append(")");
+            try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+                int index = 1;
+                if (schema != null) {
+                    ps.setString(index++, schema);
+                }
+                for (String tableName : tables.values()) {
+                    String[] tableNameWithCatalog = tableName.replace("`", "").split("\\.");
+                    ps.setString(index++, tableNameWithCatalog[tableNameWithCatalog.length - 1]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String tableName = tables.get(rs.getString(1).toLowerCase());
+                        if (tableName == null) {
+                            continue;
+                        }
+                        String createTime = rs.getString(2);
+                        if (createTime != null) {
+                            schemaVersions.put(tableName, createTime);
+                        } else {
+                            withoutCreateTime.add(tableName);
+                        }
+                    }
+                }
+            }
+        }
+        for (String tableName : withoutCreateTime) {
+            try {
+                String schemaVersion = fetchSchemaVersion(connection, tableName);
+                if (schemaVersion != null) {
+                    schemaVersions.put(tableName, schemaVersion);
+                }
+            } catch (SQLException e) {
+                LOGGER.warn("get schema version of {} error:{}, fetch the whole table meta", tableName, e.getMessage());
+            }
+        }
+        return schemaVersions;
+    }
+
+    /**
+     * the fallback of the tables without a CREATE_TIME, a digest of the column and index definitions
+     */
+    @Override
+    protected String fetchSchemaVersion(Connection connection, String tableName) throws SQLException {
+        String[] tableNameWithCatalog = tableName.replace("`", "").split("\\.");
+        String schemaCondition = tableNameWithCatalog.length > 1 ? "?" : "DATABASE()";
+        String sql = "SELECT 'C', c.COLUMN_NAME, c.ORDINAL_POSITION, c.COLUMN_TYPE, c.IS_NULLABLE, c.COLUMN_DEFAULT,"
+            + " c.EXTRA FROM information_schema.COLUMNS c WHERE c.TABLE_NAME = ? AND c.TABLE_SCHEMA = " + schemaCondition
+            + " UNION ALL SELECT 'I', s.INDEX_NAME, s.SEQ_IN_INDEX, s.COLUMN_NAME, s.NON_UNIQUE, NULL, NULL"
+            + " FROM information_schema.STATISTICS s WHERE s.TABLE_NAME = ? AND s.TABLE_SCHEMA = " + schemaCondition
+            + " ORDER BY 1, 2, 3";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int i = 0; i < 2; i++) {
+                ps.setString(index++, tableNameWithCatalog.length > 1 ? tableNameWithCatalog[1] : tableNameWithCatalog[0]);
+                if (tableNameWithCatalog.length > 1) {
+                    ps.setString(index++, tableNameWithCatalog[0]);
+                }
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                int columnCount = rs.getMetaData().getColumnCount();
+                MessageDigest digest = newDigest();
+                boolean found = false;
+                while (rs.next()) {
+                    found = true;
+                    for (int i = 1; i <= columnCount; i++) {
+                        String value = rs.getString(i);
+                        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                        digest.update((byte)0);
+                    }
+                }
+                return found ? new BigInteger(1, digest.digest()).toString(16) : null;
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() throws SQLException {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new SQLException("MD5 is not supported", e);
+        }
+    }
+
     private TableMeta resultSetMetaToSchema(ResultSetMetaData rsmd, DatabaseMetaData dbmd)
         throws SQLException {
         //always "" for mysql
@@ -17,6 +17,7 @@ package io.seata.rm.datasource.sql.struct.cache;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -70,6 +71,24 @@ public class OracleTableMetaCache extends AbstractTableMetaCache {
         }
     }
 
+    @Override
+    protected String fetchSchemaVersion(Connection connection, String tableName) throws SQLException {
+        String[] schemaTable = tableName.split("\\.");
+        String schemaName = schemaTable.length > 1 ? schemaTable[0] : connection.getMetaData().getUserName();
+        String pureTableName = schemaTable.length > 1 ? schemaTable[1] : tableName;
+        schemaName = schemaName.contains("\"") ? schemaName.replace("\"", "") : schemaName.toUpperCase();
+        pureTableName = pureTableName.contains("\"") ? pureTableName.replace("\"", "") : pureTableName.toUpperCase();
+        String sql = "SELECT TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') FROM ALL_OBJECTS"
+            + " WHERE OWNER = ? AND OBJECT_NAME = ? AND OBJECT_TYPE = 'TABLE'";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, schemaName);
+            ps.setString(2, pureTableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
     private TableMeta resultSetMetaToSchema(DatabaseMetaData dbmd, String tableName) throws SQLException {
         TableMeta tm = new TableMeta();
         tm.setTableName(tableName);
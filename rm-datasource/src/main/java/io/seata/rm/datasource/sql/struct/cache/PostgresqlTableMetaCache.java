@@ -28,6 +28,7 @@ import io.seata.sqlparser.util.JdbcConstants;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -82,6 +83,17 @@ public class PostgresqlTableMetaCache extends AbstractTableMetaCache {
         }
     }
 
+    @Override
+    protected String fetchSchemaVersion(Connection connection, String tableName) throws SQLException {
+        // the xmin of the pg_class row changes with every DDL on the table
+        try (PreparedStatement ps = connection.prepareStatement("SELECT xmin FROM pg_class WHERE oid = ?::regclass")) {
+            ps.setString(1, keywordChecker.checkAndReplace(tableName));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
     private TableMeta resultSetMetaToSchema(DatabaseMetaData dbmd, String tableName) throws SQLException {
         TableMeta tm = new TableMeta();
         tm.setTableName(tableName);
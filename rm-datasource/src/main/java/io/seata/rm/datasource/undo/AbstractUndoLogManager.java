@@ -33,6 +33,7 @@ import io.seata.core.constants.ClientTableColumnsName;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.rm.datasource.ConnectionContext;
 import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.DataSourceProxy;
@@ -197,24 +198,37 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
      */
     @Override
     public void flushUndoLogs(ConnectionProxy cp) throws SQLException {
-        ConnectionContext connectionContext = cp.getContext();
-        String xid = connectionContext.getXid();
-        long branchId = connectionContext.getBranchId();
+        flushUndoLogs(cp, encodeUndoLogs(cp.getContext()));
+    }
 
+    @Override
+    public byte[] encodeUndoLogs(ConnectionContext connectionContext) {
         BranchUndoLog branchUndoLog = new BranchUndoLog();
-        branchUndoLog.setXid(xid);
-        branchUndoLog.setBranchId(branchId);
+        branchUndoLog.setXid(connectionContext.getXid());
+        // the branch id is unknown yet when the undo logs are encoded during a pipelined commit,
+        // it is not used by the rollback which finds the undo log by the branch_id column.
+        if (connectionContext.isBranchRegistered()) {
+            branchUndoLog.setBranchId(connectionContext.getBranchId());
+        }
         branchUndoLog.setSqlUndoLogs(connectionContext.getUndoItems());
 
         UndoLogParser parser = UndoLogParserFactory.getInstance();
-        byte[] undoLogContent = parser.encode(branchUndoLog);
+        return parser.encode(branchUndoLog);
+    }
+
+    @Override
+    public void flushUndoLogs(ConnectionProxy cp, byte[] undoLogContent) throws SQLException {
+        ConnectionContext connectionContext = cp.getContext();
+        String xid = connectionContext.getXid();
+        long branchId = connectionContext.getBranchId();
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Flushing UNDO LOG: {}", new String(undoLogContent, Constants.DEFAULT_CHARSET));
         }
 
-        insertUndoLogWithNormal(xid, branchId, buildContext(parser.getName()), undoLogContent,
-            cp.getTargetConnection());
+        insertUndoLogWithNormal(xid, branchId, buildContext(UndoLogParserFactory.getInstance().getName()),
+            undoLogContent, cp.getTargetConnection());
+        ClientMetrics.recordUndoLogSize(undoLogContent.length);
     }
 
     /**
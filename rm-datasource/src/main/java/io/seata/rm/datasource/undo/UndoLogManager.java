@@ -21,6 +21,7 @@ import java.util.Date;
 import java.util.Set;
 
 import io.seata.core.exception.TransactionException;
+import io.seata.rm.datasource.ConnectionContext;
 import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.DataSourceProxy;
 
@@ -39,6 +40,29 @@ public interface UndoLogManager {
      */
     void flushUndoLogs(ConnectionProxy cp) throws SQLException;
 
+    /**
+     * Encode the undo logs of the connection context.
+     * The branch id is not required, so the encoding can be done while the branch registration is in flight.
+     *
+     * @param connectionContext the connection context
+     * @return the undo log content, or null if the undo logs can only be encoded by {@link #flushUndoLogs(ConnectionProxy)}
+     */
+    default byte[] encodeUndoLogs(ConnectionContext connectionContext) {
+        return null;
+    }
+
+    /**
+     * Flush the undo logs which are encoded by {@link #encodeUndoLogs(ConnectionContext)}.
+     * By default the undo logs are encoded again by {@link #flushUndoLogs(ConnectionProxy)}.
+     *
+     * @param cp             the cp
+     * @param undoLogContent the undo log content
+     * @throws SQLException the sql exception
+     */
+    default void flushUndoLogs(ConnectionProxy cp, byte[] undoLogContent) throws SQLException {
+        flushUndoLogs(cp);
+    }
+
     /**
      * Undo.
      *
@@ -15,6 +15,8 @@
  */
 package io.seata.rm.datasource.util;
 
+import java.sql.SQLException;
+
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
@@ -25,6 +27,21 @@ import io.seata.sqlparser.util.DbTypeParser;
  * @author ggndnn
  */
 public final class JdbcUtils {
+    /**
+     * SQLState of column not found (mysql, ansi)
+     */
+    public static final String SQL_STATE_COLUMN_NOT_FOUND = "42S22";
+
+    /**
+     * SQLState of undefined column (postgresql)
+     */
+    private static final String SQL_STATE_UNDEFINED_COLUMN = "42703";
+
+    /**
+     * ORA-00904: invalid identifier
+     */
+    private static final int ORACLE_INVALID_IDENTIFIER = 904;
+
     private static volatile DbTypeParser dbTypeParser;
 
     private JdbcUtils() {
@@ -34,6 +51,18 @@ public final class JdbcUtils {
         return getDbTypeParser().parseFromJdbcUrl(jdbcUrl).toLowerCase();
     }
 
+    /**
+     * Whether the exception is caused by a column which is not known by the database or by the table meta,
+     * which usually means the table structure was changed.
+     *
+     * @param e the sql exception
+     * @return true if it is an unknown column error
+     */
+    public static boolean isUnknownColumnException(SQLException e) {
+        return SQL_STATE_COLUMN_NOT_FOUND.equals(e.getSQLState()) || SQL_STATE_UNDEFINED_COLUMN.equals(e.getSQLState())
+            || ORACLE_INVALID_IDENTIFIER == e.getErrorCode();
+    }
+
     static DbTypeParser getDbTypeParser() {
         if (dbTypeParser == null) {
             synchronized (JdbcUtils.class) {
@@ -22,6 +22,9 @@ import io.seata.core.model.ResourceManager;
 import io.seata.rm.DefaultResourceManager;
 import io.seata.rm.datasource.exec.LockConflictException;
 import io.seata.rm.datasource.exec.LockWaitTimeoutException;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.sqlparser.SQLType;
+import io.seata.sqlparser.util.JdbcConstants;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +60,8 @@ public class ConnectionProxyTest {
         dataSourceProxy = Mockito.mock(DataSourceProxy.class);
         Mockito.when(dataSourceProxy.getResourceId())
                 .thenReturn(TEST_RESOURCE_ID);
+        Mockito.when(dataSourceProxy.getDbType())
+                .thenReturn(JdbcConstants.MYSQL);
         ResourceManager rm = Mockito.mock(ResourceManager.class);
         Mockito.when(rm.branchRegister(BranchType.AT, dataSourceProxy.getResourceId(), null, TEST_XID, null, null))
                 .thenThrow(new TransactionException(TransactionExceptionCode.LockKeyConflict));
@@ -84,4 +89,27 @@ public class ConnectionProxyTest {
         Assertions.assertThrows(LockWaitTimeoutException.class, connectionProxy::commit);
         branchRollbackFlagField.set(null, oldBranchRollbackFlag);
     }
+
+    @Test
+    public void testPipelineCommitOnConflict() throws Exception {
+        Field pipelineFlagField = ConnectionProxy.class.getDeclaredField("IS_PIPELINE_COMMIT_ENABLE");
+        Field modifiersField = Field.class.getDeclaredField("modifiers");
+        modifiersField.setAccessible(true);
+        modifiersField.setInt(pipelineFlagField, pipelineFlagField.getModifiers() & ~Modifier.FINAL);
+        pipelineFlagField.setAccessible(true);
+        boolean oldPipelineFlag = (boolean) pipelineFlagField.get(null);
+        pipelineFlagField.set(null, true);
+        try {
+            ConnectionProxy connectionProxy = new ConnectionProxy(dataSourceProxy, null);
+            connectionProxy.bind(TEST_XID);
+            SQLUndoLog sqlUndoLog = new SQLUndoLog();
+            sqlUndoLog.setSqlType(SQLType.UPDATE);
+            sqlUndoLog.setTableName("t1");
+            connectionProxy.appendUndoLog(sqlUndoLog);
+            Assertions.assertThrows(LockConflictException.class, connectionProxy::commit);
+            Assertions.assertFalse(connectionProxy.getContext().isBranchRegistered());
+        } finally {
+            pipelineFlagField.set(null, oldPipelineFlag);
+        }
+    }
 }
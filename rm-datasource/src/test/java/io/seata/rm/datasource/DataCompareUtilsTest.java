@@ -155,5 +155,16 @@ public class DataCompareUtilsTest {
         row3.add(field3);
         rows2.add(row3);
         Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+
+        // same columns in a different order
+        row.add(new Field("name", 12, "Tom"));
+        Row row4 = new Row();
+        row4.add(new Field("NAME", 12, "Tom"));
+        row4.add(new Field("pk", 1, "12345"));
+        List<Row> rows4 = new ArrayList<>();
+        rows4.add(row4);
+        Assertions.assertTrue(DataCompareUtils.isRowsEquals(tableMeta, rows, rows4).getResult());
+        row4.getFields().get(0).setValue("Jack");
+        Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows4).getResult());
     }
 }
\ No newline at end of file
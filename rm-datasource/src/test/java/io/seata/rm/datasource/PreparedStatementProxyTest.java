@@ -114,6 +114,18 @@ public class PreparedStatementProxyTest {
         Assertions.assertNotNull(preparedStatementProxy.executeQuery());
     }
 
+    @Test
+    public void testExecuteBatch() throws SQLException {
+        preparedStatementProxy.clearParameters();
+        preparedStatementProxy.setString(1, "Tom");
+        preparedStatementProxy.addBatch();
+        preparedStatementProxy.setString(1, "Jack");
+        preparedStatementProxy.addBatch();
+        Assertions.assertEquals(2, preparedStatementProxy.getParamsByIndex(0).size());
+        preparedStatementProxy.executeBatch();
+        Assertions.assertTrue(preparedStatementProxy.getParamsByIndex(0).isEmpty());
+    }
+
     @Test
     public void testGetSetParamsByIndex() {
         preparedStatementProxy.setParamByIndex(1, "xxx");
@@ -32,8 +32,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -109,6 +111,31 @@ public class InsertExecutorTest {
         Assertions.assertEquals(resultTableRecords, tableRecords);
     }
 
+    @Test
+    public void testBuildTableRecordsInChunks() throws SQLException {
+        doReturn(tableMeta).when(insertExecutor).getTableMeta();
+        when(tableMeta.getPkName()).thenReturn(ID_COLUMN);
+        when(tableMeta.getEscapePkName(JdbcConstants.MYSQL)).thenReturn(ID_COLUMN);
+        when(sqlInsertRecognizer.getTableName()).thenReturn("table_insert_executor_test");
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(statementProxy.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.getMetaData()).thenReturn(metaData);
+
+        List<Object> pkValues = new ArrayList<>();
+        for (int i = 0; i < InsertExecutor.MAX_IN_SIZE * 2 + 1; i++) {
+            pkValues.add(i);
+        }
+        TableRecords tableRecords = insertExecutor.buildTableRecords(pkValues);
+        Assertions.assertNotNull(tableRecords);
+        verify(connection, Mockito.times(3)).prepareStatement(anyString());
+        verify(ps, Mockito.times(pkValues.size())).setObject(Mockito.anyInt(), Mockito.any());
+    }
+
     @Test
     public void testAfterImage_ByAuto() throws SQLException {
         doReturn(false).when(insertExecutor).containsPK();
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LockConflictCacheTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    @Test
+    public void testHolderOfConflictingKeys() {
+        LockConflictCache.registerHolder(RESOURCE_ID, "xid-holder", "t1:1,2;t2:3");
+        Assertions.assertEquals("xid-holder", LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t1:5,2"));
+        Assertions.assertEquals("xid-holder", LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t2:3"));
+        // other rows, other resources and the holder itself have no holder
+        Assertions.assertNull(LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t1:3"));
+        Assertions.assertNull(LockConflictCache.recordConflict("jdbc:mysql://127.0.0.1:3306/other", "xid-waiter", "t1:1"));
+        Assertions.assertNull(LockConflictCache.recordConflict(RESOURCE_ID, "xid-holder", "t1:1"));
+        LockConflictCache.onLockReleased("xid-holder");
+        Assertions.assertNull(LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t1:1"));
+    }
+
+    @Test
+    public void testAwaitTimeoutWithoutRelease() throws InterruptedException {
+        LockConflictCache.registerHolder(RESOURCE_ID, "xid-timeout", "t3:1");
+        String holderXid = LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t3:1");
+        Assertions.assertFalse(LockConflictCache.awaitLockRelease(holderXid, 10));
+        LockConflictCache.onLockReleased(holderXid);
+    }
+
+    @Test
+    public void testReleaseBeforeAwait() throws InterruptedException {
+        LockConflictCache.registerHolder(RESOURCE_ID, "xid-released", "t4:1");
+        String holderXid = LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t4:1");
+        LockConflictCache.onLockReleased(holderXid);
+        Assertions.assertTrue(LockConflictCache.awaitLockRelease(holderXid, 10));
+    }
+
+    @Test
+    public void testRollbackDoesNotWakeUp() throws InterruptedException {
+        LockConflictCache.registerHolder(RESOURCE_ID, "xid-rollbacked", "t5:1");
+        String holderXid = LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t5:1");
+        Assertions.assertEquals("xid-rollbacked", holderXid);
+        LockConflictCache.onBranchRollbacked(holderXid);
+        Assertions.assertFalse(LockConflictCache.awaitLockRelease(holderXid, 10));
+        Assertions.assertNull(LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t5:1"));
+    }
+
+    @Test
+    public void testWakeUpOnRelease() throws InterruptedException {
+        LockConflictCache.registerHolder(RESOURCE_ID, "xid-wakeup", "t6:1");
+        String holderXid = LockConflictCache.recordConflict(RESOURCE_ID, "xid-waiter", "t6:1");
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean released = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                waiting.countDown();
+                released.set(LockConflictCache.awaitLockRelease(holderXid, TimeUnit.SECONDS.toMillis(30)));
+            } catch (InterruptedException ignore) {
+            } finally {
+                done.countDown();
+            }
+        });
+        waiter.start();
+        waiting.await();
+        // the commit of an unrelated transaction does not wake up the waiter
+        LockConflictCache.registerHolder(RESOURCE_ID, "xid-unrelated", "t6:2");
+        LockConflictCache.onLockReleased("xid-unrelated");
+        Assertions.assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+        LockConflictCache.onLockReleased(holderXid);
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(released.get());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.Map;
+
+import io.seata.core.metrics.ClientMetrics;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Measurement;
+import io.seata.metrics.registry.compact.CompactRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The lock retry controller test.
+ */
+public class LockRetryControllerTest {
+
+    @Test
+    public void testRetriesAreCounted() {
+        ClientMetrics.init(new CompactRegistry());
+        long conflicts = lockRetries(IdConstants.RESULT_VALUE_CONFLICT);
+        long timeouts = lockRetries(IdConstants.RESULT_VALUE_TIMEOUT);
+
+        LockRetryController controller = new LockRetryController();
+        LockConflictException conflict = new LockConflictException();
+        int retries = 0;
+        try {
+            while (true) {
+                controller.sleep(conflict);
+                retries++;
+            }
+        } catch (LockWaitTimeoutException e) {
+            Assertions.assertSame(conflict, e.getCause());
+        }
+
+        Assertions.assertTrue(retries > 0);
+        Assertions.assertEquals(retries, lockRetries(IdConstants.RESULT_VALUE_CONFLICT) - conflicts);
+        Assertions.assertEquals(1, lockRetries(IdConstants.RESULT_VALUE_TIMEOUT) - timeouts);
+    }
+
+    private static long lockRetries(String result) {
+        for (Measurement measurement : ClientMetrics.getRegistry().measure()) {
+            Id id = measurement.getId();
+            if (IdConstants.SEATA_LOCK_RETRY.equals(id.getName())) {
+                for (Map.Entry<String, String> tag : id.getTags()) {
+                    if (IdConstants.RESULT_KEY.equals(tag.getKey()) && result.equals(tag.getValue())) {
+                        return (long)measurement.getValue();
+                    }
+                }
+            }
+        }
+        throw new AssertionError("no lock retry counter of result " + result);
+    }
+}
@@ -93,6 +93,18 @@ public class TableRecordsTest {
         TableRecords tableRecords = TableRecords.buildRecords(tableMeta, resultSet);
 
         Assertions.assertEquals(returnValue.length, tableRecords.pkRows().size());
+        Assertions.assertSame(tableRecords.pkRows(), tableRecords.pkRows());
+        Assertions.assertEquals(1, tableRecords.getRows().get(0).primaryKeys().size());
+        Assertions.assertEquals(3, tableRecords.getRows().get(0).nonPrimaryKeys().size());
+
+        Row row = new Row();
+        Field pkField = new Field("id", Types.INTEGER, 3);
+        pkField.setKeyType(KeyType.PRIMARY_KEY);
+        row.add(new Field("name", Types.VARCHAR, "Lily"));
+        row.add(pkField);
+        tableRecords.add(row);
+        Assertions.assertEquals(returnValue.length + 1, tableRecords.pkRows().size());
+        Assertions.assertSame(pkField, tableRecords.pkRows().get(returnValue.length));
     }
 
     @Test
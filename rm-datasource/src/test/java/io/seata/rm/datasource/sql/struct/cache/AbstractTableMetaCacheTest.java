@@ -0,0 +1,130 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.sql.struct.cache;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The refresh of the table meta cache test.
+ */
+public class AbstractTableMetaCacheTest {
+
+    @Test
+    public void testRefreshSkipsUnchangedSchemaVersion() {
+        VersionedTableMetaCache cache = new VersionedTableMetaCache();
+        String resourceId = "jdbc:test:skip_unchanged";
+        cache.getTableMeta(null, "t1", resourceId);
+        Assertions.assertEquals(1, cache.fetched.get());
+
+        // the version is unknown before the first refresh
+        cache.version = "v1";
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals(2, cache.fetched.get());
+        Assertions.assertEquals("v1", AbstractTableMetaCache.getSchemaVersion(resourceId + ".t1"));
+
+        cache.refresh(null, resourceId);
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals(2, cache.fetched.get());
+        Assertions.assertEquals(3, cache.versionFetched.get());
+
+        cache.version = "v2";
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals(3, cache.fetched.get());
+        Assertions.assertEquals("v2", AbstractTableMetaCache.getSchemaVersion(resourceId + ".t1"));
+
+        // without a version signal the table meta is always fetched again
+        cache.version = null;
+        cache.refresh(null, resourceId);
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals(5, cache.fetched.get());
+    }
+
+    @Test
+    public void testVersionIsDroppedWithTableMeta() {
+        VersionedTableMetaCache cache = new VersionedTableMetaCache();
+        String resourceId = "jdbc:test:drop_version";
+        cache.version = "v1";
+        cache.getTableMeta(null, "t1", resourceId);
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals("v1", AbstractTableMetaCache.getSchemaVersion(resourceId + ".t1"));
+
+        cache.invalidate(null, "t1", resourceId);
+        Assertions.assertNull(AbstractTableMetaCache.getSchemaVersion(resourceId + ".t1"));
+
+        cache.getTableMeta(null, "t1", resourceId);
+        Assertions.assertEquals(3, cache.fetched.get());
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals(4, cache.fetched.get());
+    }
+
+    @Test
+    public void testVersionsOfAllTablesAreFetchedTogether() throws Exception {
+        AtomicInteger batches = new AtomicInteger();
+        VersionedTableMetaCache cache = new VersionedTableMetaCache() {
+            @Override
+            protected Map<String, String> fetchSchemaVersions(Connection connection, Set<String> tableNames)
+                throws SQLException {
+                batches.incrementAndGet();
+                Assertions.assertEquals(2, tableNames.size());
+                return super.fetchSchemaVersions(connection, tableNames);
+            }
+        };
+        String resourceId = "jdbc:test:batch_version";
+        cache.version = "v1";
+        cache.getTableMeta(null, "t1", resourceId);
+        cache.getTableMeta(null, "t2", resourceId);
+        cache.refresh(null, resourceId);
+        cache.refresh(null, resourceId);
+        Assertions.assertEquals(2, batches.get());
+        Assertions.assertEquals(4, cache.fetched.get());
+    }
+
+    private static class VersionedTableMetaCache extends AbstractTableMetaCache {
+
+        private final AtomicInteger fetched = new AtomicInteger();
+
+        private final AtomicInteger versionFetched = new AtomicInteger();
+
+        private volatile String version;
+
+        @Override
+        protected String getCacheKey(Connection connection, String tableName, String resourceId) {
+            return resourceId + "." + tableName;
+        }
+
+        @Override
+        protected TableMeta fetchSchema(Connection connection, String tableName) {
+            fetched.incrementAndGet();
+            TableMeta tableMeta = new TableMeta();
+            tableMeta.setTableName(tableName);
+            return tableMeta;
+        }
+
+        @Override
+        protected String fetchSchemaVersion(Connection connection, String tableName) {
+            versionFetched.incrementAndGet();
+            return version;
+        }
+    }
+}
@@ -29,9 +29,18 @@ import io.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 
 /**
  * The table meta fetch test.
@@ -150,6 +159,50 @@ public class MysqlTableMetaCacheTest {
         getTableMetaCache().refresh(dataSourceProxy.getPlainConnection(), dataSourceProxy.getResourceId());
     }
 
+    @Test
+    public void invalidateTest_0() throws SQLException {
+        MockDriver mockDriver = new MockDriver(columnMetas, indexMetas);
+
+        DruidDataSource druidDataSource = new DruidDataSource();
+        druidDataSource.setUrl("jdbc:mock:xxx");
+        druidDataSource.setDriver(mockDriver);
+
+        DataSourceProxy dataSourceProxy = new DataSourceProxy(druidDataSource);
+
+        TableMeta tableMeta = getTableMetaCache().getTableMeta(dataSourceProxy.getPlainConnection(), "t1",
+            dataSourceProxy.getResourceId());
+        Assertions.assertSame(tableMeta, getTableMetaCache().getTableMeta(dataSourceProxy.getPlainConnection(), "t1",
+            dataSourceProxy.getResourceId()));
+
+        getTableMetaCache().invalidate(dataSourceProxy.getPlainConnection(), "t1", dataSourceProxy.getResourceId());
+        Assertions.assertNotSame(tableMeta, getTableMetaCache().getTableMeta(dataSourceProxy.getPlainConnection(), "t1",
+            dataSourceProxy.getResourceId()));
+    }
+
+    @Test
+    public void fetchSchemaVersionsTest() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        Mockito.when(connection.prepareStatement(sql.capture())).thenReturn(ps)
+            .thenThrow(new SQLException("digest unavailable"));
+        Mockito.when(ps.executeQuery()).thenReturn(rs);
+        Mockito.when(rs.next()).thenReturn(true, true, false);
+        Mockito.when(rs.getString(1)).thenReturn("T1", "t2");
+        Mockito.when(rs.getString(2)).thenReturn("2020-01-01 00:00:00", null);
+
+        Map<String, String> versions = ((MysqlTableMetaCache)getTableMetaCache()).fetchSchemaVersions(connection,
+            new HashSet<>(Arrays.asList("t1", "t2")));
+
+        // one query for all the tables, the table without a CREATE_TIME falls back to the digest
+        Assertions.assertEquals(Collections.singletonMap("t1", "2020-01-01 00:00:00"), versions);
+        Assertions.assertEquals(2, sql.getAllValues().size());
+        Assertions.assertTrue(sql.getAllValues().get(0).contains("information_schema.TABLES"));
+        Assertions.assertTrue(sql.getAllValues().get(0).endsWith("TABLE_NAME IN (?,?)"));
+        Assertions.assertTrue(sql.getAllValues().get(1).contains("information_schema.COLUMNS"));
+    }
+
     private void assertColumnMetaEquals(Object[] expected, ColumnMeta actual) {
         Assertions.assertEquals(expected[0], actual.getTableCat());
         Assertions.assertEquals(expected[3], actual.getColumnName());
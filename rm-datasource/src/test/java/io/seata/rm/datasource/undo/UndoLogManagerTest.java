@@ -15,6 +15,8 @@
  */
 package io.seata.rm.datasource.undo;
 
+import io.seata.rm.datasource.ConnectionContext;
+import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.sqlparser.util.JdbcConstants;
 import org.junit.jupiter.api.Test;
 
@@ -28,6 +30,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -70,6 +73,15 @@ public class UndoLogManagerTest {
         verify(preparedStatement).executeUpdate();
     }
 
+    @Test
+    public void testDefaultEncodeFallsBackToFlush() throws Exception {
+        UndoLogManager undoLogManager = mock(UndoLogManager.class, CALLS_REAL_METHODS);
+        ConnectionProxy connectionProxy = mock(ConnectionProxy.class);
+        assertThat(undoLogManager.encodeUndoLogs(new ConnectionContext())).isNull();
+        undoLogManager.flushUndoLogs(connectionProxy, new byte[0]);
+        verify(undoLogManager).flushUndoLogs(connectionProxy);
+    }
+
     @Test
     public void testToBatchDeleteUndoLogSql() {
         String expectedSqlString="DELETE FROM undo_log WHERE  branch_id IN " +
@@ -15,6 +15,8 @@
  */
 package io.seata.rm.datasource.util;
 
+import java.sql.SQLException;
+
 import io.seata.sqlparser.util.DbTypeParser;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -25,4 +27,12 @@ public class JdbcUtilsTest {
         DbTypeParser dbTypeParser = JdbcUtils.getDbTypeParser();
         Assertions.assertNotNull(dbTypeParser);
     }
+
+    @Test
+    public void testIsUnknownColumnException() {
+        Assertions.assertTrue(JdbcUtils.isUnknownColumnException(new SQLException("Unknown column", "42S22", 1054)));
+        Assertions.assertTrue(JdbcUtils.isUnknownColumnException(new SQLException("column does not exist", "42703")));
+        Assertions.assertTrue(JdbcUtils.isUnknownColumnException(new SQLException("invalid identifier", "42000", 904)));
+        Assertions.assertFalse(JdbcUtils.isUnknownColumnException(new SQLException("Duplicate entry", "23000", 1062)));
+    }
 }
@@ -18,11 +18,13 @@ package io.seata.rm;
 import io.seata.common.exception.ShouldNeverHappenException;
 import io.seata.core.exception.AbstractExceptionHandler;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.ResourceManager;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.ResultCode;
 import io.seata.core.protocol.transaction.AbstractTransactionRequestToRM;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
@@ -47,6 +49,7 @@ public abstract class AbstractRMHandler extends AbstractExceptionHandler
 
     @Override
     public BranchCommitResponse handle(BranchCommitRequest request) {
+        long start = System.nanoTime();
         BranchCommitResponse response = new BranchCommitResponse();
         exceptionHandleTemplate(new AbstractCallback<BranchCommitRequest, BranchCommitResponse>() {
             @Override
@@ -55,11 +58,14 @@ public abstract class AbstractRMHandler extends AbstractExceptionHandler
                 doBranchCommit(request, response);
             }
         }, request, response);
+        ClientMetrics.recordBranch(ClientMetrics.BranchOperation.COMMIT, request.getBranchType(), start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
     @Override
     public BranchRollbackResponse handle(BranchRollbackRequest request) {
+        long start = System.nanoTime();
         BranchRollbackResponse response = new BranchRollbackResponse();
         exceptionHandleTemplate(new AbstractCallback<BranchRollbackRequest, BranchRollbackResponse>() {
             @Override
@@ -68,6 +74,8 @@ public abstract class AbstractRMHandler extends AbstractExceptionHandler
                 doBranchRollback(request, response);
             }
         }, request, response);
+        ClientMetrics.recordBranch(ClientMetrics.BranchOperation.ROLLBACK, request.getBranchType(), start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -21,6 +21,7 @@ import io.seata.common.exception.NotSupportYetException;
 import io.seata.core.exception.RmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
@@ -56,6 +57,8 @@ public abstract class AbstractResourceManager implements ResourceManager {
      */
     @Override
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid, String applicationData, String lockKeys) throws TransactionException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             BranchRegisterRequest request = new BranchRegisterRequest();
             request.setXid(xid);
@@ -68,11 +71,14 @@ public abstract class AbstractResourceManager implements ResourceManager {
             if (response.getResultCode() == ResultCode.Failed) {
                 throw new RmTransactionException(response.getTransactionExceptionCode(), String.format("Response[ %s ]", response.getMsg()));
             }
+            success = true;
             return response.getBranchId();
         } catch (TimeoutException toe) {
             throw new RmTransactionException(TransactionExceptionCode.IO, "RPC Timeout", toe);
         } catch (RuntimeException rex) {
             throw new RmTransactionException(TransactionExceptionCode.BranchRegisterFailed, "Runtime", rex);
+        } finally {
+            ClientMetrics.recordRequest(ClientMetrics.Request.BRANCH_REGISTER, branchType, start, success);
         }
     }
 
@@ -87,6 +93,8 @@ public abstract class AbstractResourceManager implements ResourceManager {
      */
     @Override
     public void branchReport(BranchType branchType, String xid, long branchId, BranchStatus status, String applicationData) throws TransactionException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             BranchReportRequest request = new BranchReportRequest();
             request.setXid(xid);
@@ -98,10 +106,13 @@ public abstract class AbstractResourceManager implements ResourceManager {
             if (response.getResultCode() == ResultCode.Failed) {
                 throw new RmTransactionException(response.getTransactionExceptionCode(), String.format("Response[ %s ]", response.getMsg()));
             }
+            success = true;
         } catch (TimeoutException toe) {
             throw new RmTransactionException(TransactionExceptionCode.IO, "RPC Timeout", toe);
         } catch (RuntimeException rex) {
             throw new RmTransactionException(TransactionExceptionCode.BranchReportFailed, "Runtime", rex);
+        } finally {
+            ClientMetrics.recordRequest(ClientMetrics.Request.BRANCH_REPORT, branchType, start, success);
         }
     }
 
@@ -15,6 +15,7 @@
  */
 package io.seata.rm;
 
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.core.rpc.netty.RmMessageListener;
 import io.seata.core.rpc.netty.RmRpcClient;
 
@@ -36,6 +37,7 @@ public class RMClient {
         rmRpcClient.setResourceManager(DefaultResourceManager.get());
         rmRpcClient.setClientMessageListener(new RmMessageListener(DefaultRMHandler.get(), rmRpcClient));
         rmRpcClient.init();
+        ClientMetrics.init();
     }
 
 }
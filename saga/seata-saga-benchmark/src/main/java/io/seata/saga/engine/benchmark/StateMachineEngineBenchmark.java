@@ -0,0 +1,126 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.saga.engine.evaluation.Evaluator;
+import io.seata.saga.engine.evaluation.expression.ExpressionEvaluatorFactory;
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.expression.seq.SequenceExpressionFactory;
+import io.seata.saga.engine.expression.spel.SpringELExpressionFactory;
+import io.seata.saga.engine.impl.DefaultStateMachineConfig;
+import io.seata.saga.engine.impl.ProcessCtrlStateMachineEngine;
+import io.seata.saga.engine.sequence.SpringJvmUUIDSeqGenerator;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+/**
+ * Engine overhead of a state machine with input/output mappings and a choice, the service itself does nothing.
+ * Run it with compilerMode OFF to measure the interpreted expressions, or against an older build as baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateMachineEngineBenchmark {
+
+    @Param({"OFF", "MIXED"})
+    private String compilerMode;
+
+    private GenericApplicationContext applicationContext;
+    private ProcessCtrlStateMachineEngine stateMachineEngine;
+    private Evaluator choiceEvaluator;
+    private Map<String, Object> startParams;
+    private Map<String, Object> choiceVariables;
+
+    @Setup
+    public void setUp() throws Exception {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.getBeanFactory().registerSingleton("benchmarkService", new BenchmarkService());
+        applicationContext.refresh();
+
+        SpringELExpressionFactory springELExpressionFactory = new SpringELExpressionFactory();
+        springELExpressionFactory.setApplicationContext(applicationContext);
+        springELExpressionFactory.setCompilerMode(SpelCompilerMode.valueOf(compilerMode));
+        SpringJvmUUIDSeqGenerator seqGenerator = new SpringJvmUUIDSeqGenerator();
+        SequenceExpressionFactory sequenceExpressionFactory = new SequenceExpressionFactory();
+        sequenceExpressionFactory.setSeqGenerator(seqGenerator);
+        ExpressionFactoryManager expressionFactoryManager = new ExpressionFactoryManager();
+        expressionFactoryManager.putExpressionFactory(ExpressionFactoryManager.DEFAULT_EXPRESSION_TYPE,
+            springELExpressionFactory);
+        expressionFactoryManager.putExpressionFactory(DomainConstants.EXPRESSION_TYPE_SEQUENCE,
+            sequenceExpressionFactory);
+
+        DefaultStateMachineConfig stateMachineConfig = new DefaultStateMachineConfig();
+        stateMachineConfig.setApplicationContext(applicationContext);
+        stateMachineConfig.setExpressionFactoryManager(expressionFactoryManager);
+        stateMachineConfig.setSeqGenerator(seqGenerator);
+        stateMachineConfig.setResources(new Resource[] {new ClassPathResource("statelang/benchmark_statelang.json")});
+        stateMachineConfig.afterPropertiesSet();
+
+        stateMachineEngine = new ProcessCtrlStateMachineEngine();
+        stateMachineEngine.setStateMachineConfig(stateMachineConfig);
+
+        Map<String, Object> people = new HashMap<>();
+        people.put("name", "lilei");
+        people.put("age", 18);
+        startParams = new HashMap<>();
+        startParams.put("a", 1);
+        startParams.put("people", people);
+
+        ExpressionEvaluatorFactory evaluatorFactory = new ExpressionEvaluatorFactory();
+        evaluatorFactory.setExpressionFactory(springELExpressionFactory);
+        choiceEvaluator = evaluatorFactory.createEvaluator("[a] == 1 and [people][age] > 10");
+        choiceVariables = new HashMap<>();
+        choiceVariables.put(DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT, startParams);
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public StateMachineInstance startStateMachine() {
+        return stateMachineEngine.start("benchmarkStateMachine", null, new HashMap<>(startParams));
+    }
+
+    @Benchmark
+    public boolean evaluateChoice() {
+        return choiceEvaluator.evaluate(choiceVariables);
+    }
+}
@@ -23,6 +23,8 @@ import java.sql.SQLException;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.saga.engine.impl.DefaultStateMachineConfig;
+import io.seata.saga.engine.serializer.Serializer;
+import io.seata.saga.engine.store.db.BatchStateLogWriter;
 import io.seata.saga.engine.store.db.DbAndReportTcStateLogStore;
 import io.seata.saga.engine.store.db.DbStateLangStore;
 import io.seata.saga.tm.DefaultSagaTransactionalTemplate;
@@ -45,6 +47,10 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     private String dbType;
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private boolean rmReportSuccessEnable = ConfigurationFactory.getInstance().getBoolean(ConfigurationKeys.CLIENT_REPORT_SUCCESS_ENABLE, DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE);
+    private boolean stateLogWriteBehindEnable = false;
+    private int stateLogWriteBatchSize = 100;
+    private BatchStateLogWriter stateLogWriter;
+    private Serializer<Object, String> paramsSerializer;
 
     public static String getDbTypeFromDataSource(DataSource dataSource) throws SQLException {
         try (Connection con = dataSource.getConnection()) {
@@ -65,6 +71,13 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
             dbStateLogStore.setDbType(dbType);
             dbStateLogStore.setDefaultTenantId(getDefaultTenantId());
             dbStateLogStore.setSeqGenerator(getSeqGenerator());
+            if (paramsSerializer != null) {
+                dbStateLogStore.setParamsSerializer(paramsSerializer);
+            }
+            if (stateLogWriteBehindEnable) {
+                stateLogWriter = new BatchStateLogWriter(dataSource, stateLogWriteBatchSize);
+                dbStateLogStore.setStateLogWriter(stateLogWriter);
+            }
 
             if (sagaTransactionalTemplate == null) {
                 DefaultSagaTransactionalTemplate defaultSagaTransactionalTemplate
@@ -95,6 +108,12 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
 
     @Override
     public void destroy() throws Exception {
+        if (stateLogWriter != null) {
+            stateLogWriter.shutdown();
+        }
+        if (getServiceRetryScheduler() != null) {
+            getServiceRetryScheduler().shutdown();
+        }
         if ((sagaTransactionalTemplate != null) && (sagaTransactionalTemplate instanceof DisposableBean)) {
             ((DisposableBean) sagaTransactionalTemplate).destroy();
         }
@@ -151,4 +170,31 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     public void setRmReportSuccessEnable(boolean rmReportSuccessEnable) {
         this.rmReportSuccessEnable = rmReportSuccessEnable;
     }
+
+    public boolean isStateLogWriteBehindEnable() {
+        return stateLogWriteBehindEnable;
+    }
+
+    public void setStateLogWriteBehindEnable(boolean stateLogWriteBehindEnable) {
+        this.stateLogWriteBehindEnable = stateLogWriteBehindEnable;
+    }
+
+    public int getStateLogWriteBatchSize() {
+        return stateLogWriteBatchSize;
+    }
+
+    public void setStateLogWriteBatchSize(int stateLogWriteBatchSize) {
+        this.stateLogWriteBatchSize = stateLogWriteBatchSize;
+    }
+
+    public Serializer<Object, String> getParamsSerializer() {
+        return paramsSerializer;
+    }
+
+    /**
+     * the serializer of the state machine and state params, e.g. ParamsBinarySerializer, default is Fastjson
+     */
+    public void setParamsSerializer(Serializer<Object, String> paramsSerializer) {
+        this.paramsSerializer = paramsSerializer;
+    }
 }
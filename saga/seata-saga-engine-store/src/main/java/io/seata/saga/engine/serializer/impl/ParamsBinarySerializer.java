@@ -0,0 +1,679 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.serializer.impl;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import io.seata.saga.engine.serializer.Serializer;
+
+/**
+ * Compact binary parameter serializer.
+ * Values are written with type tags, and a bean with its class name and property names once per payload,
+ * the property accessors of a class are cached. Payloads over the compress threshold are deflated.
+ * The result is Base64 text with a prefix to fit the params columns, text without the prefix is read by
+ * {@link ParamsFastjsonSerializer}, so logs written before switching serializer stay readable.
+ * The bean classes read from a payload pass the auto type check of fastjson as they do in the JSON form,
+ * other class names are only loaded, without initialization unless it is an enum.
+ */
+public class ParamsBinarySerializer implements Serializer<Object, String> {
+
+    public static final String PREFIX = "#B1:";
+
+    private static final int DEFAULT_COMPRESS_THRESHOLD = 1024;
+
+    private static final byte FLAG_RAW = 0;
+    private static final byte FLAG_DEFLATED = 1;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte CHAR = 9;
+    private static final byte STRING = 10;
+    private static final byte BIG_DECIMAL = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte DATE = 13;
+    private static final byte SQL_DATE = 14;
+    private static final byte SQL_TIMESTAMP = 15;
+    private static final byte BYTES = 16;
+    private static final byte ENUM = 17;
+    private static final byte MAP = 18;
+    private static final byte LIST = 19;
+    private static final byte SET = 20;
+    private static final byte ARRAY = 21;
+    private static final byte BEAN_DEF = 22;
+    private static final byte BEAN = 23;
+    private static final byte JSON = 24;
+
+    private static final int MAX_VAR_LONG_SHIFT = 63;
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[] {boolean.class, byte.class, char.class, short.class, int.class,
+            long.class, float.class, double.class}) {
+            PRIMITIVE_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private static final Map<Class<?>, BeanSchema> SCHEMA_CACHE = new ConcurrentHashMap<>();
+
+    private final ParamsFastjsonSerializer fastjsonSerializer = new ParamsFastjsonSerializer();
+
+    private int compressThreshold = DEFAULT_COMPRESS_THRESHOLD;
+
+    @Override
+    public String serialize(Object params) {
+        if (params == null) {
+            return null;
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(serializeToBytes(params));
+    }
+
+    @Override
+    public Object deserialize(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (!text.startsWith(PREFIX)) {
+            return fastjsonSerializer.deserialize(text);
+        }
+        return deserializeFromBytes(Base64.getDecoder().decode(text.substring(PREFIX.length())));
+    }
+
+    /**
+     * serialize to the binary form, without the text prefix
+     */
+    public byte[] serializeToBytes(Object params) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new Writer(new DataOutputStream(bytes)).writeValue(params);
+            byte[] raw = bytes.toByteArray();
+
+            byte flag = FLAG_RAW;
+            byte[] payload = raw;
+            if (compressThreshold >= 0 && raw.length > compressThreshold) {
+                flag = FLAG_DEFLATED;
+                payload = deflate(raw);
+            }
+            byte[] data = new byte[payload.length + 1];
+            data[0] = flag;
+            System.arraycopy(payload, 0, data, 1, payload.length);
+            return data;
+        } catch (IOException e) {
+            throw new RuntimeException("IO Create Error", e);
+        }
+    }
+
+    public Object deserializeFromBytes(byte[] data) {
+        try {
+            byte[] raw = data[0] == FLAG_DEFLATED ? inflate(data) : Arrays.copyOfRange(data, 1, data.length);
+            return new Reader(new DataInputStream(new ByteArrayInputStream(raw))).readValue();
+        } catch (IOException | DataFormatException e) {
+            throw new RuntimeException("IO Create Error", e);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Cannot find specified class", e);
+        }
+    }
+
+    /**
+     * payloads bigger than this are deflated, a negative value disables compression
+     */
+    public void setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated deflated params");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static BeanSchema schemaOf(Class<?> clazz) {
+        return SCHEMA_CACHE.computeIfAbsent(clazz, BeanSchema::create);
+    }
+
+    private static Class<?> classForName(String className) throws ClassNotFoundException {
+        Class<?> primitiveType = PRIMITIVE_TYPES.get(className);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ParamsBinarySerializer.class.getClassLoader();
+        }
+        return Class.forName(className, false, classLoader);
+    }
+
+    /**
+     * a bean class is instantiated, its name is checked as fastjson checks the type names of the JSON form
+     */
+    private static Class<?> beanClassForName(String className) throws ClassNotFoundException {
+        Class<?> clazz;
+        try {
+            clazz = ParserConfig.getGlobalInstance().checkAutoType(className, null, Feature.SupportAutoType.mask);
+        } catch (JSONException e) {
+            throw new ClassNotFoundException("Class " + className + " is not allowed", e);
+        }
+        if (clazz == null) {
+            throw new ClassNotFoundException(className);
+        }
+        return clazz;
+    }
+
+    /**
+     * the readable and writable properties of a bean class
+     */
+    private static final class BeanSchema {
+
+        private static final BeanSchema NONE = new BeanSchema(null, new String[0], new Method[0], new Method[0]);
+
+        private final Constructor<?> constructor;
+        private final String[] names;
+        private final Method[] getters;
+        private final Method[] setters;
+
+        private BeanSchema(Constructor<?> constructor, String[] names, Method[] getters, Method[] setters) {
+            this.constructor = constructor;
+            this.names = names;
+            this.getters = getters;
+            this.setters = setters;
+        }
+
+        private static BeanSchema create(Class<?> clazz) {
+            if (!Modifier.isPublic(clazz.getModifiers()) || clazz.isInterface()
+                || Modifier.isAbstract(clazz.getModifiers())) {
+                return NONE;
+            }
+            try {
+                Constructor<?> constructor = clazz.getConstructor();
+                BeanInfo beanInfo = Introspector.getBeanInfo(clazz, Object.class);
+                List<PropertyDescriptor> properties = new ArrayList<>();
+                for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+                    if (property.getReadMethod() != null && property.getWriteMethod() != null) {
+                        properties.add(property);
+                    }
+                }
+                if (properties.isEmpty()) {
+                    return NONE;
+                }
+                String[] names = new String[properties.size()];
+                Method[] getters = new Method[properties.size()];
+                Method[] setters = new Method[properties.size()];
+                for (int i = 0; i < properties.size(); i++) {
+                    names[i] = properties.get(i).getName();
+                    getters[i] = properties.get(i).getReadMethod();
+                    setters[i] = properties.get(i).getWriteMethod();
+                }
+                return new BeanSchema(constructor, names, getters, setters);
+            } catch (NoSuchMethodException | IntrospectionException e) {
+                return NONE;
+            }
+        }
+
+        private Method setter(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return setters[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * the schema of a bean class as written in a payload, properties unknown to the local class are skipped
+     */
+    private static final class BeanDef {
+
+        private final BeanSchema schema;
+        private final Method[] setters;
+
+        private BeanDef(BeanSchema schema, Method[] setters) {
+            this.schema = schema;
+            this.setters = setters;
+        }
+    }
+
+    private final class Writer {
+
+        private final DataOutputStream out;
+        private final Map<Class<?>, Integer> beanIndexes = new HashMap<>();
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                writeString((String)value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INT);
+                writeVarLong(zigzag((Integer)value));
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                writeVarLong(zigzag((Long)value));
+            } else if (value instanceof Boolean) {
+                out.writeByte((Boolean)value ? TRUE : FALSE);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double)value);
+            } else if (value instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float)value);
+            } else if (value instanceof Short) {
+                out.writeByte(SHORT);
+                out.writeShort((Short)value);
+            } else if (value instanceof Byte) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte)value);
+            } else if (value instanceof Character) {
+                out.writeByte(CHAR);
+                out.writeChar((Character)value);
+            } else if (value instanceof BigDecimal) {
+                out.writeByte(BIG_DECIMAL);
+                writeString(value.toString());
+            } else if (value instanceof BigInteger) {
+                out.writeByte(BIG_INTEGER);
+                writeString(value.toString());
+            } else if (value.getClass() == Date.class) {
+                out.writeByte(DATE);
+                out.writeLong(((Date)value).getTime());
+            } else if (value.getClass() == java.sql.Date.class) {
+                out.writeByte(SQL_DATE);
+                out.writeLong(((Date)value).getTime());
+            } else if (value.getClass() == java.sql.Timestamp.class) {
+                out.writeByte(SQL_TIMESTAMP);
+                out.writeLong(((Date)value).getTime());
+                writeVarLong(((java.sql.Timestamp)value).getNanos());
+            } else if (value instanceof byte[]) {
+                out.writeByte(BYTES);
+                writeVarLong(((byte[])value).length);
+                out.write((byte[])value);
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                writeString(((Enum<?>)value).getDeclaringClass().getName());
+                writeString(((Enum<?>)value).name());
+            } else if (value instanceof Map) {
+                out.writeByte(MAP);
+                writeVarLong(((Map<?, ?>)value).size());
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Collection) {
+                out.writeByte(value instanceof Set ? SET : LIST);
+                writeVarLong(((Collection<?>)value).size());
+                for (Object item : (Collection<?>)value) {
+                    writeValue(item);
+                }
+            } else if (value.getClass().isArray()) {
+                out.writeByte(ARRAY);
+                writeString(value.getClass().getComponentType().getName());
+                int length = Array.getLength(value);
+                writeVarLong(length);
+                for (int i = 0; i < length; i++) {
+                    writeValue(Array.get(value, i));
+                }
+            } else {
+                writeBean(value);
+            }
+        }
+
+        private void writeBean(Object value) throws IOException {
+            Class<?> clazz = value.getClass();
+            BeanSchema schema = schemaOf(clazz);
+            if (schema == BeanSchema.NONE) {
+                out.writeByte(JSON);
+                writeString(fastjsonSerializer.serialize(value));
+                return;
+            }
+            Integer index = beanIndexes.get(clazz);
+            if (index == null) {
+                beanIndexes.put(clazz, beanIndexes.size());
+                out.writeByte(BEAN_DEF);
+                writeString(clazz.getName());
+                writeVarLong(schema.names.length);
+                for (String name : schema.names) {
+                    writeString(name);
+                }
+            } else {
+                out.writeByte(BEAN);
+                writeVarLong(index);
+            }
+            try {
+                for (Method getter : schema.getters) {
+                    writeValue(getter.invoke(value));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Read property of " + clazz.getName() + " failed", e);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int)((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int)value);
+        }
+
+        private long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private final class Reader {
+
+        private final DataInputStream in;
+        private final List<BeanDef> beanDefs = new ArrayList<>();
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        private Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case INT:
+                    return (int)unzigzag(readVarLong());
+                case LONG:
+                    return unzigzag(readVarLong());
+                case DOUBLE:
+                    return in.readDouble();
+                case FLOAT:
+                    return in.readFloat();
+                case SHORT:
+                    return in.readShort();
+                case BYTE:
+                    return in.readByte();
+                case CHAR:
+                    return in.readChar();
+                case STRING:
+                    return readString();
+                case BIG_DECIMAL:
+                    return new BigDecimal(readString());
+                case BIG_INTEGER:
+                    return new BigInteger(readString());
+                case DATE:
+                    return new Date(in.readLong());
+                case SQL_DATE:
+                    return new java.sql.Date(in.readLong());
+                case SQL_TIMESTAMP:
+                    java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                    timestamp.setNanos((int)readVarLong());
+                    return timestamp;
+                case BYTES:
+                    byte[] bytes = new byte[(int)readVarLong()];
+                    in.readFully(bytes);
+                    return bytes;
+                case ENUM:
+                    return readEnum();
+                case MAP:
+                    int mapSize = (int)readVarLong();
+                    Map<Object, Object> map = new LinkedHashMap<>(mapSize * 4 / 3 + 1);
+                    for (int i = 0; i < mapSize; i++) {
+                        map.put(readValue(), readValue());
+                    }
+                    return map;
+                case LIST:
+                    int listSize = (int)readVarLong();
+                    List<Object> list = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                case SET:
+                    int setSize = (int)readVarLong();
+                    Set<Object> set = new LinkedHashSet<>(setSize * 4 / 3 + 1);
+                    for (int i = 0; i < setSize; i++) {
+                        set.add(readValue());
+                    }
+                    return set;
+                case ARRAY:
+                    Class<?> componentType = classForName(readString());
+                    int length = (int)readVarLong();
+                    Object array = Array.newInstance(componentType, length);
+                    for (int i = 0; i < length; i++) {
+                        Array.set(array, i, readValue());
+                    }
+                    return array;
+                case BEAN_DEF:
+                    beanDefs.add(readBeanDef());
+                    return readBean(beanDefs.get(beanDefs.size() - 1));
+                case BEAN:
+                    return readBean(beanDefs.get((int)readVarLong()));
+                case JSON:
+                    return fastjsonSerializer.deserialize(readString());
+                default:
+                    throw new IOException("Unknown params type tag: " + tag);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() throws IOException, ClassNotFoundException {
+            Class enumClass = classForName(readString());
+            if (!enumClass.isEnum()) {
+                throw new IOException("Class " + enumClass.getName() + " is not an enum");
+            }
+            return Enum.valueOf(enumClass, readString());
+        }
+
+        private BeanDef readBeanDef() throws IOException, ClassNotFoundException {
+            Class<?> clazz = beanClassForName(readString());
+            BeanSchema schema = schemaOf(clazz);
+            if (schema == BeanSchema.NONE) {
+                throw new IOException("Class " + clazz.getName() + " cannot be instantiated as a bean");
+            }
+            Method[] setters = new Method[(int)readVarLong()];
+            for (int i = 0; i < setters.length; i++) {
+                setters[i] = schema.setter(readString());
+            }
+            return new BeanDef(schema, setters);
+        }
+
+        private Object readBean(BeanDef beanDef) throws IOException, ClassNotFoundException {
+            try {
+                Object bean = beanDef.schema.constructor.newInstance();
+                for (Method setter : beanDef.setters) {
+                    Object value = readValue();
+                    if (setter != null) {
+                        setter.invoke(bean, convert(value, setter.getParameterTypes()[0]));
+                    }
+                }
+                return bean;
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Create " + beanDef.schema.constructor.getDeclaringClass().getName() + " failed",
+                    e);
+            }
+        }
+
+        /**
+         * collections and maps are read back as ArrayList/LinkedHashSet/LinkedHashMap,
+         * convert them when the property needs an array or another collection type
+         */
+        @SuppressWarnings("unchecked")
+        private Object convert(Object value, Class<?> type) throws ReflectiveOperationException {
+            if (value == null) {
+                return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+            }
+            if (type.isInstance(value) || type.isPrimitive()) {
+                return value;
+            }
+            if (type.isArray() && value instanceof Collection) {
+                Collection<?> collection = (Collection<?>)value;
+                Object array = Array.newInstance(type.getComponentType(), collection.size());
+                int i = 0;
+                for (Object item : collection) {
+                    Array.set(array, i++, item);
+                }
+                return array;
+            }
+            if (Collection.class.isAssignableFrom(type) && value instanceof Collection) {
+                Collection<Object> collection = (Collection<Object>)newInstance(type);
+                collection.addAll((Collection<?>)value);
+                return collection;
+            }
+            if (Map.class.isAssignableFrom(type) && value instanceof Map) {
+                Map<Object, Object> map = (Map<Object, Object>)newInstance(type);
+                map.putAll((Map<?, ?>)value);
+                return map;
+            }
+            return value;
+        }
+
+        private Object newInstance(Class<?> type) throws ReflectiveOperationException {
+            if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+                return type.getConstructor().newInstance();
+            }
+            if (NavigableSet.class.isAssignableFrom(type) || SortedSet.class.isAssignableFrom(type)) {
+                return new TreeSet<>();
+            }
+            if (Queue.class.isAssignableFrom(type)) {
+                return new LinkedList<>();
+            }
+            if (Set.class.isAssignableFrom(type)) {
+                return new LinkedHashSet<>();
+            }
+            if (Collection.class.isAssignableFrom(type)) {
+                return new ArrayList<>();
+            }
+            if (ConcurrentMap.class.isAssignableFrom(type)) {
+                return new ConcurrentHashMap<>();
+            }
+            if (NavigableMap.class.isAssignableFrom(type) || SortedMap.class.isAssignableFrom(type)) {
+                return new TreeMap<>();
+            }
+            return new LinkedHashMap<>();
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[(int)readVarLong()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > MAX_VAR_LONG_SHIFT) {
+                    throw new IOException("Malformed variable length number in params");
+                }
+                b = in.readByte();
+                value |= (long)(b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.sql.DataSource;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind writer of the state logs.
+ * The writes of all running state machine instances are queued and executed in order by one worker thread,
+ * consecutive writes of the same sql are sent as one JDBC batch. {@link #flush(String)} is the durability
+ * barrier that waits until the writes of an instance queued before it have been written.
+ */
+public class BatchStateLogWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchStateLogWriter.class);
+
+    /**
+     * a failure nobody flushed within this time is dropped, the instance is then left to the recovery
+     */
+    private static final long FAILURE_RETENTION_MILLS = 10 * 60 * 1000L;
+
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentMap<String, Integer> pendingWrites = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> failedMachineInstanceIds = new ConcurrentHashMap<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public BatchStateLogWriter(DataSource dataSource, int batchSize) {
+        this.dataSource = dataSource;
+        this.batchSize = Math.max(1, batchSize);
+        this.worker = new NamedThreadFactory("SagaStateLogWriter", 1, true).newThread(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * queue an insert or update, the parameters are bound with setObject in the order of the sql placeholders,
+     * the args array is queued as is and must not be changed afterwards
+     */
+    public void write(String machineInstanceId, String sql, Object... args) {
+        if (machineInstanceId != null) {
+            pendingWrites.merge(machineInstanceId, 1, Integer::sum);
+        }
+        queue.add(new PendingWrite(machineInstanceId, sql, args));
+    }
+
+    /**
+     * queue an action which must run after the writes queued before it, e.g. a branch report
+     */
+    public void execute(Runnable action) {
+        queue.add(action);
+    }
+
+    /**
+     * wait until the queued writes of an instance are done, and consume the failure of its writes
+     *
+     * @param machineInstanceId if not null, a StoreException is thrown when a write of this instance failed,
+     *                          if null, all queued writes are waited for
+     */
+    public void flush(String machineInstanceId) {
+        await(machineInstanceId);
+        if (machineInstanceId != null && failedMachineInstanceIds.remove(machineInstanceId) != null) {
+            throw new StoreException("Write state logs of StateMachineInstance[" + machineInstanceId + "] failed");
+        }
+    }
+
+    /**
+     * wait until the queued writes of an instance are done, without checking whether they failed
+     *
+     * @param machineInstanceId the machine instance id, if null, all queued writes are waited for
+     */
+    public void await(String machineInstanceId) {
+        if (machineInstanceId != null && !pendingWrites.containsKey(machineInstanceId)) {
+            return;
+        }
+        CountDownLatch barrier = new CountDownLatch(1);
+        queue.add(barrier);
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException(e);
+        }
+    }
+
+    public void shutdown() {
+        flush(null);
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        List<Object> items = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                items.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(items, batchSize - 1);
+            process(items);
+            items.clear();
+        }
+    }
+
+    private void process(List<Object> items) {
+        int i = 0;
+        while (i < items.size()) {
+            Object item = items.get(i);
+            if (item instanceof PendingWrite) {
+                String sql = ((PendingWrite) item).sql;
+                int end = i + 1;
+                while (end < items.size() && items.get(end) instanceof PendingWrite
+                    && sql.equals(((PendingWrite) items.get(end)).sql)) {
+                    end++;
+                }
+                executeBatch(sql, items.subList(i, end));
+                i = end;
+            } else {
+                if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();
+                } else {
+                    try {
+                        ((Runnable) item).run();
+                    } catch (Throwable t) {
+                        LOGGER.error("Execute queued state log action failed", t);
+                    }
+                }
+                i++;
+            }
+        }
+    }
+
+    private void executeBatch(String sql, List<Object> writes) {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        try {
+            connection = dataSource.getConnection();
+            stmt = connection.prepareStatement(sql);
+            for (Object write : writes) {
+                Object[] args = ((PendingWrite) write).args;
+                for (int i = 0; i < args.length; i++) {
+                    stmt.setObject(i + 1, args[i]);
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (Exception e) {
+            LOGGER.error("Write state logs failed, sql: {}, size: {}", sql, writes.size(), e);
+            long now = System.currentTimeMillis();
+            failedMachineInstanceIds.values().removeIf(failedMills -> now - failedMills > FAILURE_RETENTION_MILLS);
+            for (Object write : writes) {
+                String machineInstanceId = ((PendingWrite) write).machineInstanceId;
+                if (machineInstanceId != null) {
+                    failedMachineInstanceIds.put(machineInstanceId, now);
+                }
+            }
+        } finally {
+            AbstractStore.closeSilent(stmt);
+            AbstractStore.closeSilent(connection);
+            for (Object write : writes) {
+                String machineInstanceId = ((PendingWrite) write).machineInstanceId;
+                if (machineInstanceId != null) {
+                    pendingWrites.computeIfPresent(machineInstanceId, (k, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        }
+    }
+
+    int getFailedCount() {
+        return failedMachineInstanceIds.size();
+    }
+
+    private static class PendingWrite {
+
+        private final String machineInstanceId;
+        private final String sql;
+        private final Object[] args;
+
+        PendingWrite(String machineInstanceId, String sql, Object[] args) {
+            this.machineInstanceId = machineInstanceId;
+            this.sql = sql;
+            this.args = args;
+        }
+    }
+}
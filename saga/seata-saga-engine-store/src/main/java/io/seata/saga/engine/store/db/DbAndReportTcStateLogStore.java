@@ -20,9 +20,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.core.context.RootContext;
@@ -38,6 +39,7 @@ import io.seata.saga.engine.serializer.Serializer;
 import io.seata.saga.engine.serializer.impl.ExceptionSerializer;
 import io.seata.saga.engine.serializer.impl.ParamsFastjsonSerializer;
 import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.engine.store.utils.StateLogUtils;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.ExecutionStatus;
@@ -62,16 +64,16 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     private static final Logger                                   LOGGER                       = LoggerFactory.getLogger(
             DbAndReportTcStateLogStore.class);
-    private static final StateMachineInstanceToStatementForInsert STATE_MACHINE_INSTANCE_TO_STATEMENT_FOR_INSERT
-                                                                                               = new StateMachineInstanceToStatementForInsert();
+    private static final StateMachineInstanceToArgsForInsert      STATE_MACHINE_INSTANCE_TO_ARGS_FOR_INSERT
+                                                                                               = new StateMachineInstanceToArgsForInsert();
     private static final StateMachineInstanceToStatementForUpdate STATE_MACHINE_INSTANCE_TO_STATEMENT_FOR_UPDATE
                                                                                                = new StateMachineInstanceToStatementForUpdate();
     private static final ResultSetToStateMachineInstance          RESULT_SET_TO_STATE_MACHINE_INSTANCE
                                                                                                = new ResultSetToStateMachineInstance();
-    private static final StateInstanceToStatementForInsert        STATE_INSTANCE_TO_STATEMENT_FOR_INSERT
-                                                                                               = new StateInstanceToStatementForInsert();
-    private static final StateInstanceToStatementForUpdate        STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE
-                                                                                               = new StateInstanceToStatementForUpdate();
+    private static final StateInstanceToArgsForInsert             STATE_INSTANCE_TO_ARGS_FOR_INSERT
+                                                                                               = new StateInstanceToArgsForInsert();
+    private static final StateInstanceToArgsForUpdate             STATE_INSTANCE_TO_ARGS_FOR_UPDATE
+                                                                                               = new StateInstanceToArgsForUpdate();
     private static final ResultSetToStateInstance                 RESULT_SET_TO_STATE_INSTANCE = new ResultSetToStateInstance();
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private Serializer<Object, String>    paramsSerializer    = new ParamsFastjsonSerializer();
@@ -79,6 +81,11 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     private StateLogStoreSqls stateLogStoreSqls;
     private String            defaultTenantId;
     private SeqGenerator      seqGenerator;
+    private BatchStateLogWriter stateLogWriter;
+    /**
+     * business keys of the instances whose insert is still queued on the writer, by tenant id and business key
+     */
+    private final Map<String, String> queuedBusinessKeys = new ConcurrentHashMap<>();
 
     @Override
     public void recordStateMachineStarted(StateMachineInstance machineInstance, ProcessContext context) {
@@ -102,8 +109,15 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             // save to db
             machineInstance.setSerializedStartParams(paramsSerializer.serialize(machineInstance.getStartParams()));
-            executeUpdate(stateLogStoreSqls.getRecordStateMachineStartedSql(dbType),
-                    STATE_MACHINE_INSTANCE_TO_STATEMENT_FOR_INSERT, machineInstance);
+            write(machineInstance.getId(), stateLogStoreSqls.getRecordStateMachineStartedSql(dbType),
+                    STATE_MACHINE_INSTANCE_TO_ARGS_FOR_INSERT.toArgs(machineInstance));
+            if (stateLogWriter != null && StringUtils.hasLength(machineInstance.getBusinessKey())) {
+                String businessKeyIndex = toBusinessKeyIndex(machineInstance.getBusinessKey(),
+                        machineInstance.getTenantId());
+                String machineInstanceId = machineInstance.getId();
+                queuedBusinessKeys.put(businessKeyIndex, machineInstanceId);
+                stateLogWriter.execute(() -> queuedBusinessKeys.remove(businessKeyIndex, machineInstanceId));
+            }
         }
     }
 
@@ -156,6 +170,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             machineInstance.setSerializedEndParams(paramsSerializer.serialize(machineInstance.getEndParams()));
             machineInstance.setSerializedException(exceptionSerializer.serialize(machineInstance.getException()));
+            // end state is a decision point, the state logs must be durable before the global status is reported
+            flush(machineInstance.getId());
             int effect = executeUpdate(stateLogStoreSqls.getRecordStateMachineFinishedSql(dbType),
                     STATE_MACHINE_INSTANCE_TO_STATEMENT_FOR_UPDATE, machineInstance);
             if (effect < 1) {
@@ -227,6 +243,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     public void recordStateMachineRestarted(StateMachineInstance machineInstance, ProcessContext context) {
 
         if (machineInstance != null) {
+            flush(machineInstance.getId());
             //save to db
             Date gmtUpdated = new Date();
             int effect = executeUpdate(stateLogStoreSqls.getUpdateStateMachineRunningStatusSql(dbType), machineInstance.isRunning(), new Timestamp(gmtUpdated.getTime()),
@@ -252,6 +269,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
             //if this state is for compensation, do not register branch, but generate id
             else if (StringUtils.hasLength(stateInstance.getStateIdCompensatedFor())) {
 
+                // compensation is a decision point, the forward state logs must be durable before it starts
+                flush(stateInstance.getMachineInstanceId());
                 stateInstance.setId(generateCompensateStateInstanceId(stateInstance));
             }
             else {
@@ -264,8 +283,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
             }
 
             stateInstance.setSerializedInputParams(paramsSerializer.serialize(stateInstance.getInputParams()));
-            executeUpdate(stateLogStoreSqls.getRecordStateStartedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_INSERT,
-                    stateInstance);
+            write(stateInstance.getMachineInstanceId(), stateLogStoreSqls.getRecordStateStartedSql(dbType),
+                    STATE_INSTANCE_TO_ARGS_FOR_INSERT.toArgs(stateInstance));
         }
     }
 
@@ -388,8 +407,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             stateInstance.setSerializedOutputParams(paramsSerializer.serialize(stateInstance.getOutputParams()));
             stateInstance.setSerializedException(exceptionSerializer.serialize(stateInstance.getException()));
-            executeUpdate(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
-                    stateInstance);
+            write(stateInstance.getMachineInstanceId(), stateLogStoreSqls.getRecordStateFinishedSql(dbType),
+                    STATE_INSTANCE_TO_ARGS_FOR_UPDATE.toArgs(stateInstance));
 
             //A switch to skip branch report on branch success, in order to optimize performance
             StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
@@ -397,11 +416,37 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
             if (!(stateMachineConfig instanceof DbStateMachineConfig
                     && !((DbStateMachineConfig)stateMachineConfig).isRmReportSuccessEnable()
                     && ExecutionStatus.SU.equals(stateInstance.getStatus()))) {
+                // the reported status is a decision point of the server, the state logs must be durable before
+                flush(stateInstance.getMachineInstanceId());
                 branchReport(stateInstance, context);
             }
         }
     }
 
+    private void write(String machineInstanceId, String sql, Object[] args) {
+        if (stateLogWriter != null) {
+            stateLogWriter.write(machineInstanceId, sql, args);
+        } else {
+            executeUpdate(sql, args);
+        }
+    }
+
+    private void flush(String machineInstanceId) {
+        if (stateLogWriter != null) {
+            stateLogWriter.flush(machineInstanceId);
+        }
+    }
+
+    private void awaitWrites(String machineInstanceId) {
+        if (stateLogWriter != null) {
+            stateLogWriter.await(machineInstanceId);
+        }
+    }
+
+    private String toBusinessKeyIndex(String businessKey, String tenantId) {
+        return (StringUtils.isEmpty(tenantId) ? defaultTenantId : tenantId) + "#" + businessKey;
+    }
+
     protected void branchReport(StateInstance stateInstance, ProcessContext context) {
 
         if (sagaTransactionalTemplate != null) {
@@ -512,6 +557,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     @Override
     public StateMachineInstance getStateMachineInstance(String stateMachineInstanceId) {
 
+        awaitWrites(stateMachineInstanceId);
         StateMachineInstance stateMachineInstance = selectOne(stateLogStoreSqls.getGetStateMachineInstanceByIdSql(dbType),
                 RESULT_SET_TO_STATE_MACHINE_INSTANCE, stateMachineInstanceId);
         if (stateMachineInstance == null) {
@@ -532,6 +578,10 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         if (StringUtils.isEmpty(tenantId)) {
             tenantId = defaultTenantId;
         }
+        String queuedMachineInstanceId = queuedBusinessKeys.get(toBusinessKeyIndex(businessKey, tenantId));
+        if (queuedMachineInstanceId != null) {
+            awaitWrites(queuedMachineInstanceId);
+        }
         StateMachineInstance stateMachineInstance = selectOne(
                 stateLogStoreSqls.getGetStateMachineInstanceByBusinessKeySql(dbType), RESULT_SET_TO_STATE_MACHINE_INSTANCE,
                 businessKey, tenantId);
@@ -553,6 +603,12 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
             stateMachineInstance.setException((Exception) exceptionSerializer.deserialize(serializedException));
         }
 
+        if (stateMachineInstance instanceof StateMachineInstanceImpl) {
+            // params are decoded on first access, most of them are never read during recovery
+            ((StateMachineInstanceImpl) stateMachineInstance).setParamsDeserializer(this::deserializeParams);
+            return;
+        }
+
         String serializedStartParams = (String) stateMachineInstance.getSerializedStartParams();
         if (StringUtils.hasLength(serializedStartParams)) {
             stateMachineInstance.setStartParams(
@@ -565,8 +621,16 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         }
     }
 
+    private Object deserializeParams(Object serializedParams) {
+        if (serializedParams instanceof String && StringUtils.hasLength((String) serializedParams)) {
+            return paramsSerializer.deserialize((String) serializedParams);
+        }
+        return null;
+    }
+
     @Override
     public List<StateMachineInstance> queryStateMachineInstanceByParentId(String parentId) {
+        // the sub state machines are flushed when they finish, before their parent goes on
         return selectList(stateLogStoreSqls.getQueryStateMachineInstancesByParentIdSql(dbType),
                 RESULT_SET_TO_STATE_MACHINE_INSTANCE, parentId);
     }
@@ -574,6 +638,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     @Override
     public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
 
+        awaitWrites(machineInstId);
         StateInstance stateInstance = selectOne(
                 stateLogStoreSqls.getGetStateInstanceByIdAndMachineInstanceIdSql(dbType), RESULT_SET_TO_STATE_INSTANCE,
                 machineInstId, stateInstanceId);
@@ -583,13 +648,12 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     private void deserializeParamsAndException(StateInstance stateInstance) {
         if (stateInstance != null) {
-            String inputParams = (String) stateInstance.getSerializedInputParams();
-            if (StringUtils.hasLength(inputParams)) {
-                stateInstance.setInputParams(paramsSerializer.deserialize(inputParams));
-            }
-            String outputParams = (String) stateInstance.getSerializedOutputParams();
-            if (StringUtils.hasLength(outputParams)) {
-                stateInstance.setOutputParams(paramsSerializer.deserialize(outputParams));
+            if (stateInstance instanceof StateInstanceImpl) {
+                // params are decoded on first access, most of them are never read during recovery
+                ((StateInstanceImpl) stateInstance).setParamsDeserializer(this::deserializeParams);
+            } else {
+                stateInstance.setInputParams(deserializeParams(stateInstance.getSerializedInputParams()));
+                stateInstance.setOutputParams(deserializeParams(stateInstance.getSerializedOutputParams()));
             }
             byte[] serializedException = (byte[]) stateInstance.getSerializedException();
             if (serializedException != null) {
@@ -601,6 +665,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     @Override
     public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
 
+        awaitWrites(stateMachineInstanceId);
         List<StateInstance> stateInstanceList = selectList(
                 stateLogStoreSqls.getQueryStateInstancesByMachineInstanceIdSql(dbType), RESULT_SET_TO_STATE_INSTANCE,
                 stateMachineInstanceId);
@@ -608,58 +673,96 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         if (stateInstanceList == null || stateInstanceList.size() == 0) {
             return stateInstanceList;
         }
-        StateInstance lastStateInstance = stateInstanceList.get(stateInstanceList.size() - 1);
-        if (lastStateInstance.getGmtEnd() == null) {
-            lastStateInstance.setStatus(ExecutionStatus.RU);
+        for (StateInstance stateInstance : stateInstanceList) {
+            deserializeParamsAndException(stateInstance);
         }
-        Map<String, StateInstance> originStateMap = new HashMap<>();
-        Map<String/* originStateId */, StateInstance/* compensatedState */> compensatedStateMap = new HashMap<>();
-        Map<String/* originStateId */, StateInstance/* retriedState */> retriedStateMap = new HashMap<>();
-        for (int i = 0; i < stateInstanceList.size(); i++) {
-            StateInstance tempStateInstance = stateInstanceList.get(i);
-
-            deserializeParamsAndException(tempStateInstance);
+        StateLogUtils.linkStateInstances(stateInstanceList);
+        return stateInstanceList;
+    }
 
-            if (StringUtils.hasText(tempStateInstance.getStateIdCompensatedFor())) {
-                putLastStateToMap(compensatedStateMap, tempStateInstance, tempStateInstance.getStateIdCompensatedFor());
-            } else {
-                if (StringUtils.hasText(tempStateInstance.getStateIdRetriedFor())) {
-                    putLastStateToMap(retriedStateMap, tempStateInstance, tempStateInstance.getStateIdRetriedFor());
+    @Override
+    public List<StateMachineInstance> queryRecoverableStateMachineInstances(Date gmtUpdatedBefore, String afterId,
+                                                                            int limit) {
+
+        // only the instances not updated since gmtUpdatedBefore are recoverable, their writes are long done
+        // ids are never blank, so a blank id sorts before all of them on every database
+        List<StateMachineInstance> stateMachineInstanceList = selectList(
+                stateLogStoreSqls.getQueryRecoverableStateMachineInstancesSql(dbType),
+                RESULT_SET_TO_STATE_MACHINE_INSTANCE, new Timestamp(gmtUpdatedBefore.getTime()),
+                afterId == null ? " " : afterId, limit);
+        if (stateMachineInstanceList.isEmpty()) {
+            return stateMachineInstanceList;
+        }
+
+        Map<String, StateMachineInstance> stateMachineInstanceMap = new LinkedHashMap<>(
+                stateMachineInstanceList.size() * 2);
+        for (StateMachineInstance stateMachineInstance : stateMachineInstanceList) {
+            deserializeParamsAndException(stateMachineInstance);
+            stateMachineInstanceMap.put(stateMachineInstance.getId(), stateMachineInstance);
+        }
+        // the state instances of the whole page in one query, ordered by machine instance
+        List<StateInstance> stateInstanceList = selectList(
+                stateLogStoreSqls.getQueryStateInstancesByMachineInstanceIdsSql(dbType, stateMachineInstanceMap.size()),
+                RESULT_SET_TO_STATE_INSTANCE, stateMachineInstanceMap.keySet().toArray());
+        int from = 0;
+        for (int i = 1; i <= stateInstanceList.size(); i++) {
+            if (i == stateInstanceList.size() || !stateInstanceList.get(i).getMachineInstanceId().equals(
+                    stateInstanceList.get(from).getMachineInstanceId())) {
+                List<StateInstance> machineStateInstanceList = stateInstanceList.subList(from, i);
+                StateMachineInstance stateMachineInstance = stateMachineInstanceMap.get(
+                        machineStateInstanceList.get(0).getMachineInstanceId());
+                for (StateInstance stateInstance : machineStateInstanceList) {
+                    deserializeParamsAndException(stateInstance);
+                    stateMachineInstance.putStateInstance(stateInstance.getId(), stateInstance);
                 }
-                originStateMap.put(tempStateInstance.getId(), tempStateInstance);
+                StateLogUtils.linkStateInstances(machineStateInstanceList);
+                from = i;
             }
         }
+        return stateMachineInstanceList;
+    }
 
-        if (compensatedStateMap.size() != 0) {
-            for (StateInstance origState : originStateMap.values()) {
-                origState.setCompensationState(compensatedStateMap.get(origState.getId()));
-            }
-        }
+    @Override
+    public boolean claimStateMachineInstance(StateMachineInstance stateMachineInstance) {
 
-        if (retriedStateMap.size() != 0) {
-            for (StateInstance origState : originStateMap.values()) {
-                if (retriedStateMap.containsKey(origState.getId())) {
-                    origState.setIgnoreStatus(true);
-                }
-            }
+        flush(stateMachineInstance.getId());
+        // the conditional update of a restart, it fails if the instance was updated since it was loaded
+        Date gmtUpdated = new Date();
+        int effect = executeUpdate(stateLogStoreSqls.getUpdateStateMachineRunningStatusSql(dbType), true,
+                new Timestamp(gmtUpdated.getTime()), stateMachineInstance.getId(),
+                new Timestamp(stateMachineInstance.getGmtUpdated().getTime()));
+        if (effect < 1) {
+            return false;
         }
-        return stateInstanceList;
+        stateMachineInstance.setGmtUpdated(gmtUpdated);
+        return true;
     }
 
-    private void putLastStateToMap(Map<String, StateInstance> resultMap, StateInstance newState, String key) {
-
-        if (!resultMap.containsKey(key)) {
-
-            resultMap.put(key, newState);
-        } else if (newState.getGmtEnd().after(resultMap.get(key).getGmtEnd())) {
-
-            StateInstance oldState = resultMap.remove(key);
-            oldState.setIgnoreStatus(true);
-
-            resultMap.put(key, newState);
-        } else {
+    @Override
+    public boolean isRecoveringByCoordinator(StateMachineInstance stateMachineInstance) {
 
-            newState.setIgnoreStatus(true);
+        if (sagaTransactionalTemplate == null) {
+            return false;
+        }
+        GlobalStatus globalStatus;
+        try {
+            globalStatus = sagaTransactionalTemplate.reloadTransaction(stateMachineInstance.getId()).getStatus();
+        } catch (ExecutionException | TransactionException e) {
+            LOGGER.warn("Get status of global transaction[{}] failed, leave it to the TC",
+                    stateMachineInstance.getId(), e);
+            return true;
+        }
+        switch (globalStatus) {
+            case Committing:
+            case CommitRetrying:
+            case AsyncCommitting:
+            case Rollbacking:
+            case RollbackRetrying:
+            case TimeoutRollbacking:
+            case TimeoutRollbackRetrying:
+                return true;
+            default:
+                return false;
         }
     }
 
@@ -695,26 +798,42 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         this.seqGenerator = seqGenerator;
     }
 
+    /**
+     * enable the write-behind mode, state logs are written in batches and flushed at the decision points
+     */
+    public void setStateLogWriter(BatchStateLogWriter stateLogWriter) {
+        this.stateLogWriter = stateLogWriter;
+    }
+
     @Override
     public void setTablePrefix(String tablePrefix) {
         super.setTablePrefix(tablePrefix);
         this.stateLogStoreSqls = new StateLogStoreSqls(tablePrefix);
     }
 
-    private static class StateMachineInstanceToStatementForInsert implements ObjectToStatement<StateMachineInstance> {
+    /**
+     * the parameters of a state log write, in the order of the sql placeholders,
+     * so that they can be queued by the write-behind writer as they are
+     */
+    private interface ObjectToArgs<T> {
+
+        Object[] toArgs(T o);
+    }
+
+    private static class StateMachineInstanceToArgsForInsert implements ObjectToArgs<StateMachineInstance> {
         @Override
-        public void toStatement(StateMachineInstance stateMachineInstance, PreparedStatement statement)
-                throws SQLException {
-            statement.setString(1, stateMachineInstance.getId());
-            statement.setString(2, stateMachineInstance.getMachineId());
-            statement.setString(3, stateMachineInstance.getTenantId());
-            statement.setString(4, stateMachineInstance.getParentId());
-            statement.setTimestamp(5, new Timestamp(stateMachineInstance.getGmtStarted().getTime()));
-            statement.setString(6, stateMachineInstance.getBusinessKey());
-            statement.setObject(7, stateMachineInstance.getSerializedStartParams());
-            statement.setBoolean(8, stateMachineInstance.isRunning());
-            statement.setString(9, stateMachineInstance.getStatus().name());
-            statement.setTimestamp(10, new Timestamp(stateMachineInstance.getGmtUpdated().getTime()));
+        public Object[] toArgs(StateMachineInstance stateMachineInstance) {
+            return new Object[] {
+                stateMachineInstance.getId(),
+                stateMachineInstance.getMachineId(),
+                stateMachineInstance.getTenantId(),
+                stateMachineInstance.getParentId(),
+                new Timestamp(stateMachineInstance.getGmtStarted().getTime()),
+                stateMachineInstance.getBusinessKey(),
+                stateMachineInstance.getSerializedStartParams(),
+                stateMachineInstance.isRunning(),
+                stateMachineInstance.getStatus().name(),
+                new Timestamp(stateMachineInstance.getGmtUpdated().getTime())};
         }
     }
 
@@ -737,36 +856,37 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         }
     }
 
-    private static class StateInstanceToStatementForInsert implements ObjectToStatement<StateInstance> {
+    private static class StateInstanceToArgsForInsert implements ObjectToArgs<StateInstance> {
         @Override
-        public void toStatement(StateInstance stateInstance, PreparedStatement statement) throws SQLException {
-            statement.setString(1, stateInstance.getId());
-            statement.setString(2, stateInstance.getMachineInstanceId());
-            statement.setString(3, stateInstance.getName());
-            statement.setString(4, stateInstance.getType());
-            statement.setTimestamp(5, new Timestamp(stateInstance.getGmtStarted().getTime()));
-            statement.setString(6, stateInstance.getServiceName());
-            statement.setString(7, stateInstance.getServiceMethod());
-            statement.setString(8, stateInstance.getServiceType());
-            statement.setBoolean(9, stateInstance.isForUpdate());
-            statement.setObject(10, stateInstance.getSerializedInputParams());
-            statement.setString(11, stateInstance.getStatus().name());
-            statement.setString(12, stateInstance.getBusinessKey());
-            statement.setString(13, stateInstance.getStateIdCompensatedFor());
-            statement.setString(14, stateInstance.getStateIdRetriedFor());
-        }
-    }
-
-    private static class StateInstanceToStatementForUpdate implements ObjectToStatement<StateInstance> {
+        public Object[] toArgs(StateInstance stateInstance) {
+            return new Object[] {
+                stateInstance.getId(),
+                stateInstance.getMachineInstanceId(),
+                stateInstance.getName(),
+                stateInstance.getType(),
+                new Timestamp(stateInstance.getGmtStarted().getTime()),
+                stateInstance.getServiceName(),
+                stateInstance.getServiceMethod(),
+                stateInstance.getServiceType(),
+                stateInstance.isForUpdate(),
+                stateInstance.getSerializedInputParams(),
+                stateInstance.getStatus().name(),
+                stateInstance.getBusinessKey(),
+                stateInstance.getStateIdCompensatedFor(),
+                stateInstance.getStateIdRetriedFor()};
+        }
+    }
+
+    private static class StateInstanceToArgsForUpdate implements ObjectToArgs<StateInstance> {
         @Override
-        public void toStatement(StateInstance stateInstance, PreparedStatement statement) throws SQLException {
-            statement.setTimestamp(1, new Timestamp(stateInstance.getGmtEnd().getTime()));
-            statement.setBytes(2,
-                    stateInstance.getException() != null ? (byte[]) stateInstance.getSerializedException() : null);
-            statement.setString(3, stateInstance.getStatus().name());
-            statement.setObject(4, stateInstance.getSerializedOutputParams());
-            statement.setString(5, stateInstance.getId());
-            statement.setString(6, stateInstance.getMachineInstanceId());
+        public Object[] toArgs(StateInstance stateInstance) {
+            return new Object[] {
+                new Timestamp(stateInstance.getGmtEnd().getTime()),
+                stateInstance.getException() != null ? (byte[]) stateInstance.getSerializedException() : null,
+                stateInstance.getStatus().name(),
+                stateInstance.getSerializedOutputParams(),
+                stateInstance.getId(),
+                stateInstance.getMachineInstanceId()};
         }
     }
 
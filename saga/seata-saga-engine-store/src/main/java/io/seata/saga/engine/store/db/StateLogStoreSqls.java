@@ -57,6 +57,13 @@ public class StateLogStoreSqls {
         + STATE_MACHINE_INSTANCE_FIELDS_WITHOUT_PARAMS
         + " FROM ${TABLE_PREFIX}state_machine_inst WHERE parent_id = ? ORDER BY gmt_started DESC";
 
+    private static final String QUERY_RECOVERABLE_STATE_MACHINE_INSTANCES_SQL = "SELECT "
+        + STATE_MACHINE_INSTANCE_FIELDS
+        + " FROM ${TABLE_PREFIX}state_machine_inst WHERE (parent_id IS NULL OR parent_id = '')"
+        + " AND ((compensation_status IS NULL AND status IN ('RU', 'UN')) OR compensation_status IN ('RU', 'UN'))"
+        + " AND gmt_updated < ? AND id > ?"
+        + " ORDER BY id";
+
     /**
      * state instance
      **/
@@ -84,6 +91,16 @@ public class StateLogStoreSqls {
     private static final String GET_STATE_INSTANCE_BY_ID_AND_MACHINE_INSTANCE_ID_SQL = "SELECT " + STATE_INSTANCE_FIELDS
         + " FROM ${TABLE_PREFIX}state_inst WHERE machine_inst_id = ? AND id = ?";
 
+    private static final String QUERY_STATE_INSTANCES_BY_MACHINE_INSTANCE_IDS_SQL = "SELECT " + STATE_INSTANCE_FIELDS
+        + " FROM ${TABLE_PREFIX}state_inst WHERE machine_inst_id IN (${MACHINE_INST_IDS})"
+        + " ORDER BY machine_inst_id, gmt_started, ID ASC";
+
+    private static final String MACHINE_INST_IDS_PLACEHOLDER = "${MACHINE_INST_IDS}";
+
+    private static final String DB_TYPE_ORACLE = "oracle";
+
+    private static final String DB_TYPE_DB2 = "db2";
+
     private static final String TABLE_PREFIX_REGEX = "\\$\\{TABLE_PREFIX}";
 
     private String tablePrefix;
@@ -103,6 +120,8 @@ public class StateLogStoreSqls {
 
     private String queryStateMachineInstancesByParentIdSql;
 
+    private String queryRecoverableStateMachineInstancesSql;
+
     /**
      * state instance
      **/
@@ -116,6 +135,8 @@ public class StateLogStoreSqls {
 
     private String getStateInstanceByIdAndMachineInstanceIdSql;
 
+    private String queryStateInstancesByMachineInstanceIdsSql;
+
     public StateLogStoreSqls(String tablePrefix) {
         this.tablePrefix = tablePrefix;
         init();
@@ -133,6 +154,9 @@ public class StateLogStoreSqls {
         queryStateMachineInstancesByParentIdSql = QUERY_STATE_MACHINE_INSTANCES_BY_PARENT_ID_SQL.replaceAll(
             TABLE_PREFIX_REGEX, tablePrefix);
 
+        queryRecoverableStateMachineInstancesSql = QUERY_RECOVERABLE_STATE_MACHINE_INSTANCES_SQL.replaceAll(
+            TABLE_PREFIX_REGEX, tablePrefix);
+
         recordStateStartedSql = RECORD_STATE_STARTED_SQL.replaceAll(TABLE_PREFIX_REGEX, tablePrefix);
         recordStateFinishedSql = RECORD_STATE_FINISHED_SQL.replaceAll(TABLE_PREFIX_REGEX, tablePrefix);
         updateStateExecutionStatusSql = UPDATE_STATE_EXECUTION_STATUS_SQL.replaceAll(TABLE_PREFIX_REGEX, tablePrefix);
@@ -140,6 +164,8 @@ public class StateLogStoreSqls {
             TABLE_PREFIX_REGEX, tablePrefix);
         getStateInstanceByIdAndMachineInstanceIdSql = GET_STATE_INSTANCE_BY_ID_AND_MACHINE_INSTANCE_ID_SQL.replaceAll(
             TABLE_PREFIX_REGEX, tablePrefix);
+        queryStateInstancesByMachineInstanceIdsSql = QUERY_STATE_INSTANCES_BY_MACHINE_INSTANCE_IDS_SQL.replaceAll(
+            TABLE_PREFIX_REGEX, tablePrefix);
     }
 
     public String getRecordStateMachineStartedSql(String dbType) {
@@ -166,6 +192,23 @@ public class StateLogStoreSqls {
         return queryStateMachineInstancesByParentIdSql;
     }
 
+    /**
+     * the page query of the instances to recover, the page size is the last parameter
+     *
+     * @param dbType the database product name
+     * @return the sql
+     */
+    public String getQueryRecoverableStateMachineInstancesSql(String dbType) {
+        String lowerDbType = dbType == null ? "" : dbType.toLowerCase();
+        if (lowerDbType.contains(DB_TYPE_ORACLE)) {
+            return "SELECT * FROM (" + queryRecoverableStateMachineInstancesSql + ") WHERE ROWNUM <= ?";
+        }
+        if (lowerDbType.contains(DB_TYPE_DB2)) {
+            return queryRecoverableStateMachineInstancesSql + " FETCH FIRST ? ROWS ONLY";
+        }
+        return queryRecoverableStateMachineInstancesSql + " LIMIT ?";
+    }
+
     public String getRecordStateStartedSql(String dbType) {
         return recordStateStartedSql;
     }
@@ -186,6 +229,21 @@ public class StateLogStoreSqls {
         return getStateInstanceByIdAndMachineInstanceIdSql;
     }
 
+    /**
+     * the query of the state instances of several state machine instances
+     *
+     * @param dbType           the database product name
+     * @param machineInstCount the count of the state machine instance ids
+     * @return the sql
+     */
+    public String getQueryStateInstancesByMachineInstanceIdsSql(String dbType, int machineInstCount) {
+        StringBuilder placeholders = new StringBuilder(machineInstCount * 3);
+        for (int i = 0; i < machineInstCount; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return queryStateInstancesByMachineInstanceIdsSql.replace(MACHINE_INST_IDS_PLACEHOLDER, placeholders);
+    }
+
     public String getTablePrefix() {
         return tablePrefix;
     }
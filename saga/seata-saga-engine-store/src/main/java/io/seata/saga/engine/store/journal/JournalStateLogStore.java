@@ -0,0 +1,640 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.saga.engine.exception.EngineExecutionException;
+import io.seata.saga.engine.sequence.SeqGenerator;
+import io.seata.saga.engine.sequence.SpringJvmUUIDSeqGenerator;
+import io.seata.saga.engine.serializer.Serializer;
+import io.seata.saga.engine.serializer.impl.ExceptionSerializer;
+import io.seata.saga.engine.serializer.impl.ParamsBinarySerializer;
+import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.engine.store.utils.StateLogUtils;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineInstanceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.StringUtils;
+
+/**
+ * State log store which keeps the state logs in memory and makes them durable with a local journal.
+ * It does not report branches to the TC, so it is meant for state machines running without a global transaction.
+ * Finished instances are evicted after the retention time when the journal is checkpointed.
+ */
+public class JournalStateLogStore implements StateLogStore, InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalStateLogStore.class);
+
+    private static final String KIND = "kind";
+    private static final String KIND_MACHINE = "M";
+    private static final String KIND_STATE = "S";
+    private static final String VERSION = "version";
+
+    private static final String ID = "id";
+    private static final String MACHINE_ID = "machineId";
+    private static final String TENANT_ID = "tenantId";
+    private static final String PARENT_ID = "parentId";
+    private static final String BUSINESS_KEY = "businessKey";
+    private static final String GMT_STARTED = "gmtStarted";
+    private static final String GMT_END = "gmtEnd";
+    private static final String GMT_UPDATED = "gmtUpdated";
+    private static final String STATUS = "status";
+    private static final String COMPENSATION_STATUS = "compensationStatus";
+    private static final String RUNNING = "running";
+    private static final String START_PARAMS = "startParams";
+    private static final String END_PARAMS = "endParams";
+    private static final String EXCEPTION = "exception";
+
+    private static final String MACHINE_INST_ID = "machineInstId";
+    private static final String NAME = "name";
+    private static final String TYPE = "type";
+    private static final String SERVICE_NAME = "serviceName";
+    private static final String SERVICE_METHOD = "serviceMethod";
+    private static final String SERVICE_TYPE = "serviceType";
+    private static final String FOR_UPDATE = "forUpdate";
+    private static final String STATE_ID_COMPENSATED_FOR = "stateIdCompensatedFor";
+    private static final String STATE_ID_RETRIED_FOR = "stateIdRetriedFor";
+    private static final String INPUT_PARAMS = "inputParams";
+    private static final String OUTPUT_PARAMS = "outputParams";
+
+    private static final long DESTROY_AWAIT_MILLIS = 30000;
+
+    private final Map<String, Map<String, Object>> machineRecords = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, Object>>> stateRecords = new ConcurrentHashMap<>();
+    private final Map<String, String> businessKeyIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> parentIdIndex = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private String journalDir;
+    private int journalFileSize = 64 * 1024 * 1024;
+    private long checkpointIntervalMillis = 60000;
+    private long retentionMillis = 600000;
+    private boolean forceOnWrite = false;
+    private Serializer<Object, String> paramsSerializer = new ParamsBinarySerializer();
+    private Serializer<Exception, byte[]> exceptionSerializer = new ExceptionSerializer();
+    private SeqGenerator seqGenerator = new SpringJvmUUIDSeqGenerator();
+    private String defaultTenantId;
+
+    private StateLogJournal journal;
+    private ScheduledExecutorService checkpointExecutor;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (StringUtils.isEmpty(journalDir)) {
+            throw new IllegalArgumentException("journalDir is required");
+        }
+        journal = new StateLogJournal(new File(journalDir), journalFileSize, forceOnWrite);
+        journal.open(this::apply);
+
+        checkpointExecutor = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("SagaJournalCheckpoint", 1, true));
+        checkpointExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (Throwable e) {
+                LOGGER.error("Checkpoint state log journal failed", e);
+            }
+        }, checkpointIntervalMillis, checkpointIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (checkpointExecutor != null) {
+            checkpointExecutor.shutdown();
+            // a periodic checkpoint in progress must not run alongside the final one
+            if (!checkpointExecutor.awaitTermination(DESTROY_AWAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Periodic checkpoint of state log journal is still running after {}ms",
+                    DESTROY_AWAIT_MILLIS);
+            }
+        }
+        if (journal != null) {
+            checkpoint();
+            journal.close();
+        }
+    }
+
+    @Override
+    public void recordStateMachineStarted(StateMachineInstance machineInstance, ProcessContext context) {
+
+        if (machineInstance != null) {
+            String parentId = machineInstance.getParentId();
+            if (StringUtils.hasLength(parentId) && StringUtils.isEmpty(machineInstance.getId())) {
+                machineInstance.setId(parentId);
+            }
+            if (StringUtils.isEmpty(machineInstance.getId())) {
+                machineInstance.setId(seqGenerator.generate(DomainConstants.SEQ_ENTITY_STATE_MACHINE_INST));
+            }
+            machineInstance.setSerializedStartParams(paramsSerializer.serialize(machineInstance.getStartParams()));
+            save(toRecord(machineInstance));
+        }
+    }
+
+    @Override
+    public void recordStateMachineFinished(StateMachineInstance machineInstance, ProcessContext context) {
+
+        if (machineInstance != null) {
+            Map<String, Object> endParams = machineInstance.getEndParams();
+            if (endParams != null) {
+                endParams.remove(DomainConstants.VAR_NAME_GLOBAL_TX);
+            }
+            machineInstance.setSerializedEndParams(paramsSerializer.serialize(machineInstance.getEndParams()));
+            machineInstance.setSerializedException(exceptionSerializer.serialize(machineInstance.getException()));
+            Map<String, Object> record = toRecord(machineInstance);
+            record.put(GMT_UPDATED, new Date());
+            save(record);
+        }
+    }
+
+    @Override
+    public void recordStateMachineRestarted(StateMachineInstance machineInstance, ProcessContext context) {
+
+        if (machineInstance != null && !updateRunningStatus(machineInstance, machineInstance.isRunning())) {
+            throw new EngineExecutionException(
+                "StateMachineInstance [id:" + machineInstance.getId()
+                    + "] is recovered by an other execution, restart denied", FrameworkErrorCode.OperationDenied);
+        }
+    }
+
+    @Override
+    public boolean claimStateMachineInstance(StateMachineInstance stateMachineInstance) {
+        return updateRunningStatus(stateMachineInstance, true);
+    }
+
+    /**
+     * update the running status if the instance is not updated since it was loaded
+     */
+    private boolean updateRunningStatus(StateMachineInstance machineInstance, boolean running) {
+        Date gmtUpdated = new Date();
+        synchronized (machineRecords) {
+            Map<String, Object> record = machineRecords.get(machineInstance.getId());
+            if (record == null || machineInstance.getGmtUpdated() == null || !Objects.equals(
+                ((Date)record.get(GMT_UPDATED)).getTime(), machineInstance.getGmtUpdated().getTime())) {
+                return false;
+            }
+            record = new LinkedHashMap<>(record);
+            record.put(RUNNING, running);
+            record.put(GMT_UPDATED, gmtUpdated);
+            save(record);
+        }
+        machineInstance.setGmtUpdated(gmtUpdated);
+        return true;
+    }
+
+    @Override
+    public void recordStateStarted(StateInstance stateInstance, ProcessContext context) {
+
+        if (stateInstance != null) {
+            if (StringUtils.isEmpty(stateInstance.getId())) {
+                stateInstance.setId(seqGenerator.generate(DomainConstants.SEQ_ENTITY_STATE_INST));
+            }
+            stateInstance.setSerializedInputParams(paramsSerializer.serialize(stateInstance.getInputParams()));
+            save(toRecord(stateInstance));
+        }
+    }
+
+    @Override
+    public void recordStateFinished(StateInstance stateInstance, ProcessContext context) {
+
+        if (stateInstance != null) {
+            stateInstance.setSerializedOutputParams(paramsSerializer.serialize(stateInstance.getOutputParams()));
+            stateInstance.setSerializedException(exceptionSerializer.serialize(stateInstance.getException()));
+            save(toRecord(stateInstance));
+        }
+    }
+
+    @Override
+    public StateMachineInstance getStateMachineInstance(String stateMachineInstanceId) {
+
+        Map<String, Object> record = machineRecords.get(stateMachineInstanceId);
+        if (record == null) {
+            return null;
+        }
+        StateMachineInstance stateMachineInstance = toStateMachineInstance(record);
+        for (StateInstance stateInstance : queryStateInstanceListByMachineInstanceId(stateMachineInstanceId)) {
+            stateMachineInstance.putStateInstance(stateInstance.getId(), stateInstance);
+        }
+        return stateMachineInstance;
+    }
+
+    @Override
+    public StateMachineInstance getStateMachineInstanceByBusinessKey(String businessKey, String tenantId) {
+
+        String stateMachineInstanceId = businessKeyIndex.get(businessKeyIndexKey(tenantId, businessKey));
+        return stateMachineInstanceId == null ? null : getStateMachineInstance(stateMachineInstanceId);
+    }
+
+    @Override
+    public List<StateMachineInstance> queryStateMachineInstanceByParentId(String parentId) {
+
+        List<StateMachineInstance> stateMachineInstanceList = new ArrayList<>();
+        Set<String> childIds = parentIdIndex.get(parentId);
+        if (childIds != null) {
+            for (String childId : childIds) {
+                Map<String, Object> record = machineRecords.get(childId);
+                if (record != null) {
+                    stateMachineInstanceList.add(toStateMachineInstance(record));
+                }
+            }
+        }
+        stateMachineInstanceList.sort(
+            Comparator.comparing(StateMachineInstance::getGmtStarted, Comparator.nullsLast(Comparator.reverseOrder())));
+        return stateMachineInstanceList;
+    }
+
+    @Override
+    public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
+
+        Map<String, Map<String, Object>> records = stateRecords.get(machineInstId);
+        Map<String, Object> record = records == null ? null : records.get(stateInstanceId);
+        return record == null ? null : toStateInstance(record);
+    }
+
+    @Override
+    public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
+
+        Map<String, Map<String, Object>> records = stateRecords.get(stateMachineInstanceId);
+        if (records == null) {
+            return new ArrayList<>();
+        }
+        List<Map<String, Object>> recordList;
+        synchronized (records) {
+            recordList = new ArrayList<>(records.values());
+        }
+        List<StateInstance> stateInstanceList = new ArrayList<>(recordList.size());
+        for (Map<String, Object> record : recordList) {
+            stateInstanceList.add(toStateInstance(record));
+        }
+        stateInstanceList.sort(
+            Comparator.comparing(StateInstance::getGmtStarted, Comparator.nullsLast(Comparator.naturalOrder())));
+        if (stateInstanceList.isEmpty()) {
+            return stateInstanceList;
+        }
+        StateLogUtils.linkStateInstances(stateInstanceList);
+        return stateInstanceList;
+    }
+
+    @Override
+    public List<StateMachineInstance> queryRecoverableStateMachineInstances(Date gmtUpdatedBefore, String afterId,
+                                                                            int limit) {
+
+        List<String> ids = new ArrayList<>();
+        for (Map<String, Object> record : machineRecords.values()) {
+            String id = (String)record.get(ID);
+            Date gmtUpdated = (Date)record.get(GMT_UPDATED);
+            if (StringUtils.isEmpty(record.get(PARENT_ID))
+                && StateLogUtils.isRecoverable(status(record.get(STATUS)), status(record.get(COMPENSATION_STATUS)))
+                && gmtUpdated != null && gmtUpdated.before(gmtUpdatedBefore)
+                && (afterId == null || id.compareTo(afterId) > 0)) {
+                ids.add(id);
+            }
+        }
+        Collections.sort(ids);
+        List<StateMachineInstance> stateMachineInstanceList = new ArrayList<>(Math.min(ids.size(), limit));
+        for (String id : ids) {
+            if (stateMachineInstanceList.size() >= limit) {
+                break;
+            }
+            StateMachineInstance stateMachineInstance = getStateMachineInstance(id);
+            if (stateMachineInstance != null) {
+                stateMachineInstanceList.add(stateMachineInstance);
+            }
+        }
+        return stateMachineInstanceList;
+    }
+
+    /**
+     * evict the instances finished longer than the retention time ago, then checkpoint the journal, the instances
+     * still waiting for recovery are kept whatever their age
+     */
+    protected void checkpoint() {
+        long expireTime = System.currentTimeMillis() - retentionMillis;
+        for (Map<String, Object> record : machineRecords.values()) {
+            Date gmtEnd = (Date)record.get(GMT_END);
+            if (!Boolean.TRUE.equals(record.get(RUNNING)) && gmtEnd != null && gmtEnd.getTime() <= expireTime
+                && !StateLogUtils.isRecoverable(status(record.get(STATUS)), status(record.get(COMPENSATION_STATUS)))) {
+                evict(record);
+            }
+        }
+        checkpointJournal();
+    }
+
+    private void checkpointJournal() {
+        try {
+            journal.checkpoint(this::liveRecords);
+        } catch (IOException e) {
+            throw new StoreException(e, "Checkpoint state log journal failed");
+        }
+    }
+
+    private Collection<Map<String, Object>> liveRecords() {
+        List<Map<String, Object>> records = new ArrayList<>(machineRecords.values());
+        for (Map<String, Map<String, Object>> stateRecordMap : stateRecords.values()) {
+            synchronized (stateRecordMap) {
+                records.addAll(stateRecordMap.values());
+            }
+        }
+        return records;
+    }
+
+    private void evict(Map<String, Object> record) {
+        String id = (String)record.get(ID);
+        // under the lock of the machine entry, see apply
+        machineRecords.computeIfPresent(id, (k, v) -> {
+            stateRecords.remove(id);
+            return null;
+        });
+        String businessKey = (String)record.get(BUSINESS_KEY);
+        if (StringUtils.hasLength(businessKey)) {
+            businessKeyIndex.remove(businessKeyIndexKey((String)record.get(TENANT_ID), businessKey), id);
+        }
+        String parentId = (String)record.get(PARENT_ID);
+        if (StringUtils.hasLength(parentId)) {
+            Set<String> childIds = parentIdIndex.get(parentId);
+            if (childIds != null) {
+                childIds.remove(id);
+                if (childIds.isEmpty()) {
+                    parentIdIndex.remove(parentId, childIds);
+                }
+            }
+        }
+    }
+
+    /**
+     * apply the record to memory first, so a checkpoint running concurrently either contains it
+     * or is followed by its journal entry
+     */
+    private void save(Map<String, Object> record) {
+        record.put(VERSION, version.incrementAndGet());
+        if (!apply(record)) {
+            return;
+        }
+        if (!journal.append(record)) {
+            checkpointJournal();
+            if (!journal.append(record)) {
+                throw new StoreException("State log record is larger than the journal file, id: " + record.get(ID));
+            }
+        }
+    }
+
+    /**
+     * records are immutable once applied, a newer version replaces an older one,
+     * so replaying an old journal after a checkpoint never rolls an instance back.
+     * A state record of a machine instance which was evicted is dropped.
+     *
+     * @return whether the record was applied
+     */
+    private boolean apply(Map<String, Object> record) {
+        long recordVersion = (Long)record.get(VERSION);
+        version.accumulateAndGet(recordVersion, Math::max);
+        String id = (String)record.get(ID);
+        if (KIND_MACHINE.equals(record.get(KIND))) {
+            machineRecords.merge(id, record, (oldRecord, newRecord) -> newer(oldRecord, newRecord));
+            String businessKey = (String)record.get(BUSINESS_KEY);
+            if (StringUtils.hasLength(businessKey)) {
+                businessKeyIndex.put(businessKeyIndexKey((String)record.get(TENANT_ID), businessKey), id);
+            }
+            String parentId = (String)record.get(PARENT_ID);
+            if (StringUtils.hasLength(parentId)) {
+                parentIdIndex.computeIfAbsent(parentId, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            return true;
+        }
+        String machineInstId = (String)record.get(MACHINE_INST_ID);
+        // under the lock of the machine entry, so an eviction cannot leave an orphan state record map behind
+        return machineRecords.computeIfPresent(machineInstId, (k, machineRecord) -> {
+            Map<String, Map<String, Object>> records = stateRecords.computeIfAbsent(machineInstId,
+                key -> Collections.synchronizedMap(new LinkedHashMap<>()));
+            synchronized (records) {
+                records.put(id, newer(records.get(id), record));
+            }
+            return machineRecord;
+        }) != null;
+    }
+
+    private static Map<String, Object> newer(Map<String, Object> oldRecord, Map<String, Object> newRecord) {
+        if (oldRecord == null || (Long)newRecord.get(VERSION) >= (Long)oldRecord.get(VERSION)) {
+            return newRecord;
+        }
+        return oldRecord;
+    }
+
+    private String businessKeyIndexKey(String tenantId, String businessKey) {
+        return (StringUtils.isEmpty(tenantId) ? defaultTenantId : tenantId) + "#" + businessKey;
+    }
+
+    private static Map<String, Object> toRecord(StateMachineInstance machineInstance) {
+        Map<String, Object> record = new HashMap<>(32);
+        record.put(KIND, KIND_MACHINE);
+        record.put(ID, machineInstance.getId());
+        record.put(MACHINE_ID, machineInstance.getMachineId());
+        record.put(TENANT_ID, machineInstance.getTenantId());
+        record.put(PARENT_ID, machineInstance.getParentId());
+        record.put(BUSINESS_KEY, machineInstance.getBusinessKey());
+        record.put(GMT_STARTED, machineInstance.getGmtStarted());
+        record.put(GMT_END, machineInstance.getGmtEnd());
+        record.put(GMT_UPDATED, machineInstance.getGmtUpdated() != null ? machineInstance.getGmtUpdated()
+            : machineInstance.getGmtStarted());
+        record.put(STATUS, statusName(machineInstance.getStatus()));
+        record.put(COMPENSATION_STATUS, statusName(machineInstance.getCompensationStatus()));
+        record.put(RUNNING, machineInstance.isRunning());
+        record.put(START_PARAMS, machineInstance.getSerializedStartParams());
+        record.put(END_PARAMS, machineInstance.getSerializedEndParams());
+        record.put(EXCEPTION, machineInstance.getSerializedException());
+        return record;
+    }
+
+    private static Map<String, Object> toRecord(StateInstance stateInstance) {
+        Map<String, Object> record = new HashMap<>(32);
+        record.put(KIND, KIND_STATE);
+        record.put(ID, stateInstance.getId());
+        record.put(MACHINE_INST_ID, stateInstance.getMachineInstanceId());
+        record.put(NAME, stateInstance.getName());
+        record.put(TYPE, stateInstance.getType());
+        record.put(BUSINESS_KEY, stateInstance.getBusinessKey());
+        record.put(GMT_STARTED, stateInstance.getGmtStarted());
+        record.put(GMT_END, stateInstance.getGmtEnd());
+        record.put(STATUS, statusName(stateInstance.getStatus()));
+        record.put(SERVICE_NAME, stateInstance.getServiceName());
+        record.put(SERVICE_METHOD, stateInstance.getServiceMethod());
+        record.put(SERVICE_TYPE, stateInstance.getServiceType());
+        record.put(FOR_UPDATE, stateInstance.isForUpdate());
+        record.put(STATE_ID_COMPENSATED_FOR, stateInstance.getStateIdCompensatedFor());
+        record.put(STATE_ID_RETRIED_FOR, stateInstance.getStateIdRetriedFor());
+        record.put(INPUT_PARAMS, stateInstance.getSerializedInputParams());
+        record.put(OUTPUT_PARAMS, stateInstance.getSerializedOutputParams());
+        record.put(EXCEPTION, stateInstance.getSerializedException());
+        return record;
+    }
+
+    private StateMachineInstance toStateMachineInstance(Map<String, Object> record) {
+        StateMachineInstanceImpl stateMachineInstance = new StateMachineInstanceImpl();
+        stateMachineInstance.setId((String)record.get(ID));
+        stateMachineInstance.setMachineId((String)record.get(MACHINE_ID));
+        stateMachineInstance.setTenantId((String)record.get(TENANT_ID));
+        stateMachineInstance.setParentId((String)record.get(PARENT_ID));
+        stateMachineInstance.setBusinessKey((String)record.get(BUSINESS_KEY));
+        stateMachineInstance.setGmtStarted((Date)record.get(GMT_STARTED));
+        stateMachineInstance.setGmtEnd((Date)record.get(GMT_END));
+        stateMachineInstance.setGmtUpdated((Date)record.get(GMT_UPDATED));
+        stateMachineInstance.setStatus(status(record.get(STATUS)));
+        stateMachineInstance.setCompensationStatus(status(record.get(COMPENSATION_STATUS)));
+        stateMachineInstance.setRunning(Boolean.TRUE.equals(record.get(RUNNING)));
+        stateMachineInstance.setSerializedStartParams(record.get(START_PARAMS));
+        stateMachineInstance.setSerializedEndParams(record.get(END_PARAMS));
+        stateMachineInstance.setParamsDeserializer(this::deserializeParams);
+        byte[] serializedException = (byte[])record.get(EXCEPTION);
+        if (serializedException != null) {
+            stateMachineInstance.setSerializedException(serializedException);
+            stateMachineInstance.setException((Exception)exceptionSerializer.deserialize(serializedException));
+        }
+        return stateMachineInstance;
+    }
+
+    private StateInstance toStateInstance(Map<String, Object> record) {
+        StateInstanceImpl stateInstance = new StateInstanceImpl();
+        stateInstance.setId((String)record.get(ID));
+        stateInstance.setMachineInstanceId((String)record.get(MACHINE_INST_ID));
+        stateInstance.setName((String)record.get(NAME));
+        stateInstance.setType((String)record.get(TYPE));
+        stateInstance.setBusinessKey((String)record.get(BUSINESS_KEY));
+        stateInstance.setGmtStarted((Date)record.get(GMT_STARTED));
+        stateInstance.setGmtEnd((Date)record.get(GMT_END));
+        stateInstance.setStatus(status(record.get(STATUS)));
+        stateInstance.setServiceName((String)record.get(SERVICE_NAME));
+        stateInstance.setServiceMethod((String)record.get(SERVICE_METHOD));
+        stateInstance.setServiceType((String)record.get(SERVICE_TYPE));
+        stateInstance.setForUpdate(Boolean.TRUE.equals(record.get(FOR_UPDATE)));
+        stateInstance.setStateIdCompensatedFor((String)record.get(STATE_ID_COMPENSATED_FOR));
+        stateInstance.setStateIdRetriedFor((String)record.get(STATE_ID_RETRIED_FOR));
+        stateInstance.setSerializedInputParams(record.get(INPUT_PARAMS));
+        stateInstance.setSerializedOutputParams(record.get(OUTPUT_PARAMS));
+        stateInstance.setParamsDeserializer(this::deserializeParams);
+        byte[] serializedException = (byte[])record.get(EXCEPTION);
+        if (serializedException != null) {
+            stateInstance.setSerializedException(serializedException);
+            stateInstance.setException((Exception)exceptionSerializer.deserialize(serializedException));
+        }
+        return stateInstance;
+    }
+
+    private Object deserializeParams(Object serializedParams) {
+        if (serializedParams instanceof String && StringUtils.hasLength((String)serializedParams)) {
+            return paramsSerializer.deserialize((String)serializedParams);
+        }
+        return null;
+    }
+
+    private static String statusName(ExecutionStatus status) {
+        return status == null ? null : status.name();
+    }
+
+    private static ExecutionStatus status(Object statusName) {
+        return statusName == null ? null : ExecutionStatus.valueOf((String)statusName);
+    }
+
+    public String getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public int getJournalFileSize() {
+        return journalFileSize;
+    }
+
+    public void setJournalFileSize(int journalFileSize) {
+        this.journalFileSize = journalFileSize;
+    }
+
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+
+    public void setCheckpointIntervalMillis(long checkpointIntervalMillis) {
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
+
+    public long getRetentionMillis() {
+        return retentionMillis;
+    }
+
+    public void setRetentionMillis(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    public boolean isForceOnWrite() {
+        return forceOnWrite;
+    }
+
+    public void setForceOnWrite(boolean forceOnWrite) {
+        this.forceOnWrite = forceOnWrite;
+    }
+
+    public Serializer<Object, String> getParamsSerializer() {
+        return paramsSerializer;
+    }
+
+    public void setParamsSerializer(Serializer<Object, String> paramsSerializer) {
+        this.paramsSerializer = paramsSerializer;
+    }
+
+    public void setExceptionSerializer(Serializer<Exception, byte[]> exceptionSerializer) {
+        this.exceptionSerializer = exceptionSerializer;
+    }
+
+    public void setSeqGenerator(SeqGenerator seqGenerator) {
+        this.seqGenerator = seqGenerator;
+    }
+
+    public String getDefaultTenantId() {
+        return defaultTenantId;
+    }
+
+    public void setDefaultTenantId(String defaultTenantId) {
+        this.defaultTenantId = defaultTenantId;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import io.seata.saga.engine.serializer.impl.ParamsBinarySerializer;
+
+/**
+ * Append-only, memory-mapped journal of state log records with checkpoints.
+ * A record is [length][crc32][data] and the journal always ends with a zero length, so a torn or stale
+ * record is never replayed. A checkpoint writes all live records to a new checkpoint file and restarts
+ * the journal from the beginning.
+ */
+public class StateLogJournal {
+
+    private static final String JOURNAL_FILE = "state_log.journal";
+    private static final String CHECKPOINT_FILE = "state_log.checkpoint";
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int TERMINATOR_SIZE = 4;
+
+    private final File dir;
+    private final int fileSize;
+    private final boolean forceOnWrite;
+    private final ParamsBinarySerializer serializer = new ParamsBinarySerializer();
+
+    private RandomAccessFile journalFile;
+    private MappedByteBuffer buffer;
+
+    public StateLogJournal(File dir, int fileSize, boolean forceOnWrite) {
+        this.dir = dir;
+        this.fileSize = fileSize;
+        this.forceOnWrite = forceOnWrite;
+    }
+
+    /**
+     * open the journal, the records of the last checkpoint and then of the journal are passed to the consumer
+     */
+    public synchronized void open(Consumer<Map<String, Object>> consumer) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create journal dir: " + dir);
+        }
+
+        File checkpointFile = new File(dir, CHECKPOINT_FILE);
+        if (checkpointFile.exists()) {
+            try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+                while (true) {
+                    int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    long crc = in.readInt() & 0xFFFFFFFFL;
+                    byte[] data = new byte[length];
+                    in.readFully(data);
+                    if (crc(data) != crc) {
+                        throw new IOException("Corrupted checkpoint: " + checkpointFile);
+                    }
+                    consumer.accept(decode(data));
+                }
+            }
+        }
+
+        journalFile = new RandomAccessFile(new File(dir, JOURNAL_FILE), "rw");
+        buffer = journalFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int position = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining() - TERMINATOR_SIZE - 4) {
+                buffer.position(position);
+                break;
+            }
+            long crc = buffer.getInt() & 0xFFFFFFFFL;
+            byte[] data = new byte[length];
+            buffer.get(data);
+            if (crc(data) != crc) {
+                buffer.position(position);
+                break;
+            }
+            consumer.accept(decode(data));
+        }
+        if (buffer.remaining() >= TERMINATOR_SIZE) {
+            buffer.putInt(buffer.position(), 0);
+        }
+    }
+
+    /**
+     * append a record
+     *
+     * @return false if the journal is full, a checkpoint is needed
+     */
+    public synchronized boolean append(Map<String, Object> record) {
+        byte[] data = serializer.serializeToBytes(record);
+        if (buffer.remaining() < RECORD_HEADER_SIZE + data.length + TERMINATOR_SIZE) {
+            return false;
+        }
+        int position = buffer.position();
+        // terminate after the new record before its length makes it visible
+        buffer.putInt(position + RECORD_HEADER_SIZE + data.length, 0);
+        buffer.position(position + 4);
+        buffer.putInt((int)crc(data));
+        buffer.put(data);
+        buffer.putInt(position, data.length);
+        if (forceOnWrite) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    /**
+     * write the live records to a new checkpoint and restart the journal,
+     * the records are collected under the journal lock so no appended record is lost
+     */
+    public synchronized void checkpoint(Supplier<Collection<Map<String, Object>>> liveRecords) throws IOException {
+        File tmpFile = new File(dir, CHECKPOINT_FILE + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            for (Map<String, Object> record : liveRecords.get()) {
+                byte[] data = serializer.serializeToBytes(record);
+                out.writeInt(data.length);
+                out.writeInt((int)crc(data));
+                out.write(data);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(tmpFile.toPath(), new File(dir, CHECKPOINT_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+
+        buffer.putInt(0, 0);
+        buffer.position(0);
+        buffer.force();
+    }
+
+    public synchronized void close() throws IOException {
+        if (journalFile != null) {
+            buffer.force();
+            journalFile.close();
+            journalFile = null;
+        }
+    }
+
+    private Map<String, Object> decode(byte[] data) {
+        return (Map<String, Object>)serializer.deserializeFromBytes(data);
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        return crc32.getValue();
+    }
+}
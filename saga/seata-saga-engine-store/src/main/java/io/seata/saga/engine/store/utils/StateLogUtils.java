@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateInstance;
+import org.springframework.util.StringUtils;
+
+/**
+ * State log utils shared by the state log stores
+ */
+public class StateLogUtils {
+
+    /**
+     * link the state instances of a state machine instance loaded from a store, ordered by start time:
+     * set the compensation state of the original states and ignore the status of retried and older states
+     *
+     * @param stateInstanceList
+     */
+    public static void linkStateInstances(List<StateInstance> stateInstanceList) {
+
+        StateInstance lastStateInstance = stateInstanceList.get(stateInstanceList.size() - 1);
+        if (lastStateInstance.getGmtEnd() == null) {
+            lastStateInstance.setStatus(ExecutionStatus.RU);
+        }
+        Map<String, StateInstance> originStateMap = new HashMap<>();
+        Map<String/* originStateId */, StateInstance/* compensatedState */> compensatedStateMap = new HashMap<>();
+        Map<String/* originStateId */, StateInstance/* retriedState */> retriedStateMap = new HashMap<>();
+        for (int i = 0; i < stateInstanceList.size(); i++) {
+            StateInstance tempStateInstance = stateInstanceList.get(i);
+
+            if (StringUtils.hasText(tempStateInstance.getStateIdCompensatedFor())) {
+                putLastStateToMap(compensatedStateMap, tempStateInstance, tempStateInstance.getStateIdCompensatedFor());
+            } else {
+                if (StringUtils.hasText(tempStateInstance.getStateIdRetriedFor())) {
+                    putLastStateToMap(retriedStateMap, tempStateInstance, tempStateInstance.getStateIdRetriedFor());
+                }
+                originStateMap.put(tempStateInstance.getId(), tempStateInstance);
+            }
+        }
+
+        if (compensatedStateMap.size() != 0) {
+            for (StateInstance origState : originStateMap.values()) {
+                origState.setCompensationState(compensatedStateMap.get(origState.getId()));
+            }
+        }
+
+        if (retriedStateMap.size() != 0) {
+            for (StateInstance origState : originStateMap.values()) {
+                if (retriedStateMap.containsKey(origState.getId())) {
+                    origState.setIgnoreStatus(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * whether a root state machine instance with these statuses is unfinished and must be recovered, the status of
+     * a compensated instance stays UN, so only its compensation status is considered
+     *
+     * @param status
+     * @param compensationStatus
+     * @return
+     */
+    public static boolean isRecoverable(ExecutionStatus status, ExecutionStatus compensationStatus) {
+        if (compensationStatus != null) {
+            return ExecutionStatus.RU.equals(compensationStatus) || ExecutionStatus.UN.equals(compensationStatus);
+        }
+        return ExecutionStatus.RU.equals(status) || ExecutionStatus.UN.equals(status);
+    }
+
+    private static void putLastStateToMap(Map<String, StateInstance> resultMap, StateInstance newState, String key) {
+
+        if (!resultMap.containsKey(key)) {
+
+            resultMap.put(key, newState);
+        } else if (newState.getGmtEnd().after(resultMap.get(key).getGmtEnd())) {
+
+            StateInstance oldState = resultMap.remove(key);
+            oldState.setIgnoreStatus(true);
+
+            resultMap.put(key, newState);
+        } else {
+
+            newState.setIgnoreStatus(true);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import io.seata.saga.engine.evaluation.EvaluatorFactoryManager;
 import io.seata.saga.engine.expression.ExpressionFactoryManager;
 import io.seata.saga.engine.invoker.ServiceInvokerManager;
+import io.seata.saga.engine.pcext.ServiceRetryScheduler;
 import io.seata.saga.engine.repo.StateLogRepository;
 import io.seata.saga.engine.repo.StateMachineRepository;
 import io.seata.saga.engine.sequence.SeqGenerator;
@@ -134,6 +135,16 @@ public interface StateMachineConfig {
      */
     ThreadPoolExecutor getThreadPoolExecutor();
 
+    /**
+     * Gets the scheduler of deferred service retries, used by asynchronous executions.
+     * The default implementation returns null, the retries then wait in the engine thread.
+     *
+     * @return the service retry scheduler
+     */
+    default ServiceRetryScheduler getServiceRetryScheduler() {
+        return null;
+    }
+
     /**
      * Is enable async boolean.
      *
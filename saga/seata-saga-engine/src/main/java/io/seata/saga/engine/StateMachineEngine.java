@@ -92,6 +92,21 @@ public interface StateMachineEngine {
     StateMachineInstance forward(String stateMachineInstId, Map<String, Object> replaceParams)
         throws ForwardInvalidException;
 
+    /**
+     * forward restart a failed state machine instance already loaded from the StateLogStore, without reloading it.
+     * The instance must be claimed by the caller with StateLogStore.claimStateMachineInstance, so it is not denied
+     * as running. The default implementation forwards by the instance id, which loads the instance again.
+     *
+     * @param stateMachineInstance
+     * @param replaceParams
+     * @return
+     * @throws ForwardInvalidException
+     */
+    default StateMachineInstance forward(StateMachineInstance stateMachineInstance, Map<String, Object> replaceParams)
+        throws ForwardInvalidException {
+        return forward(stateMachineInstance.getId(), replaceParams);
+    }
+
     /**
      * forward restart a failed state machine instance asynchronously
      *
@@ -115,6 +130,21 @@ public interface StateMachineEngine {
     StateMachineInstance compensate(String stateMachineInstId, Map<String, Object> replaceParams)
         throws EngineExecutionException;
 
+    /**
+     * compensate a state machine instance already loaded from the StateLogStore, without reloading it.
+     * The instance must be claimed by the caller with StateLogStore.claimStateMachineInstance, so it is not denied
+     * as running. The default implementation compensates by the instance id, which loads the instance again.
+     *
+     * @param stateMachineInstance
+     * @param replaceParams
+     * @return
+     * @throws EngineExecutionException
+     */
+    default StateMachineInstance compensate(StateMachineInstance stateMachineInstance, Map<String, Object> replaceParams)
+        throws EngineExecutionException {
+        return compensate(stateMachineInstance.getId(), replaceParams);
+    }
+
     /**
      * compensate a state machine instance asynchronously
      *
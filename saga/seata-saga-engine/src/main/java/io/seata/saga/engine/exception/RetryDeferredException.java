@@ -0,0 +1,34 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.exception;
+
+/**
+ * Thrown by a {@link io.seata.saga.engine.invoker.RetryDeferrableServiceInvoker} when a retry is due,
+ * the engine schedules the retry instead of waiting in the invoking thread
+ */
+public class RetryDeferredException extends EngineExecutionException {
+
+    private final long delayMillis;
+
+    public RetryDeferredException(Throwable cause, long delayMillis) {
+        super(cause, "Retry deferred for " + delayMillis + " millis");
+        this.delayMillis = delayMillis;
+    }
+
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+}
@@ -24,6 +24,8 @@ import org.springframework.expression.AccessException;
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -35,17 +37,40 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  */
 public class SpringELExpressionFactory implements ExpressionFactory, ApplicationContextAware {
 
-    ExpressionParser parser = new SpelExpressionParser();
+    /**
+     * MIXED runs an expression interpreted until it is hot, then compiles it to bytecode,
+     * and falls back to the interpreter when the compiled code fails, e.g. the root type changes
+     */
+    private SpelCompilerMode compilerMode = SpelCompilerMode.MIXED;
+
+    ExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(compilerMode, null));
     ApplicationContext applicationContext;
 
+    /**
+     * all expressions share one evaluation context, the root object is passed on each evaluation
+     */
+    private final StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+
+    public SpringELExpressionFactory() {
+        evaluationContext.setBeanResolver(new AppContextBeanResolver());
+    }
+
     @Override
     public Expression createExpression(String expression) {
         org.springframework.expression.Expression defaultExpression = parser.parseExpression(expression);
-        EvaluationContext evaluationContext = ((SpelExpression)defaultExpression).getEvaluationContext();
-        ((StandardEvaluationContext)evaluationContext).setBeanResolver(new AppContextBeanResolver());
+        ((SpelExpression)defaultExpression).setEvaluationContext(evaluationContext);
         return new SpringELExpression(defaultExpression);
     }
 
+    public SpelCompilerMode getCompilerMode() {
+        return compilerMode;
+    }
+
+    public void setCompilerMode(SpelCompilerMode compilerMode) {
+        this.compilerMode = compilerMode;
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(compilerMode, null));
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
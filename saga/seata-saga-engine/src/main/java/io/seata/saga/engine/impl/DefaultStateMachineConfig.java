@@ -29,6 +29,7 @@ import io.seata.saga.engine.expression.seq.SequenceExpressionFactory;
 import io.seata.saga.engine.expression.spel.SpringELExpressionFactory;
 import io.seata.saga.engine.invoker.ServiceInvokerManager;
 import io.seata.saga.engine.invoker.impl.SpringBeanServiceInvoker;
+import io.seata.saga.engine.pcext.ServiceRetryScheduler;
 import io.seata.saga.engine.pcext.StateMachineProcessHandler;
 import io.seata.saga.engine.pcext.StateMachineProcessRouter;
 import io.seata.saga.engine.repo.StateLogRepository;
@@ -89,6 +90,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
     private ApplicationContext applicationContext;
     private ThreadPoolExecutor threadPoolExecutor;
     private boolean enableAsync;
+    private ServiceRetryScheduler serviceRetryScheduler;
     private ServiceInvokerManager serviceInvokerManager;
 
     private Resource[] resources = new Resource[0];
@@ -183,6 +185,10 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             asyncProcessCtrlEventPublisher = asyncEventPublisher;
         }
 
+        if (enableAsync && serviceRetryScheduler == null) {
+            serviceRetryScheduler = new ServiceRetryScheduler();
+        }
+
         if (this.serviceInvokerManager == null) {
             this.serviceInvokerManager = new ServiceInvokerManager();
 
@@ -342,6 +348,15 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
         this.threadPoolExecutor = threadPoolExecutor;
     }
 
+    @Override
+    public ServiceRetryScheduler getServiceRetryScheduler() {
+        return serviceRetryScheduler;
+    }
+
+    public void setServiceRetryScheduler(ServiceRetryScheduler serviceRetryScheduler) {
+        this.serviceRetryScheduler = serviceRetryScheduler;
+    }
+
     @Override
     public boolean isEnableAsync() {
         return enableAsync;
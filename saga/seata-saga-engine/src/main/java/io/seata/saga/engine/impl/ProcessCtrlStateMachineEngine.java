@@ -35,6 +35,7 @@ import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.proctrl.ProcessType;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.ParallelState;
 import io.seata.saga.statelang.domain.State;
 import io.seata.saga.statelang.domain.StateInstance;
 import io.seata.saga.statelang.domain.StateMachine;
@@ -196,11 +197,27 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
         return forwardInternal(stateMachineInstId, replaceParams, false, true, callback);
     }
 
+    @Override
+    public StateMachineInstance forward(StateMachineInstance stateMachineInstance, Map<String, Object> replaceParams)
+        throws EngineExecutionException {
+        return forwardInternal(stateMachineInstance.getId(), bindStateMachine(stateMachineInstance), replaceParams,
+            false, false, null, true);
+    }
+
     protected StateMachineInstance forwardInternal(String stateMachineInstId, Map<String, Object> replaceParams,
                                                    boolean skip, boolean async, AsyncCallback callback)
         throws EngineExecutionException {
+        return forwardInternal(stateMachineInstId, reloadStateMachineInstance(stateMachineInstId), replaceParams,
+            skip, async, callback, false);
+    }
 
-        StateMachineInstance stateMachineInstance = reloadStateMachineInstance(stateMachineInstId);
+    /**
+     * forward an instance already loaded, a claimed instance is claimed by the caller and is not denied as running
+     */
+    protected StateMachineInstance forwardInternal(String stateMachineInstId, StateMachineInstance stateMachineInstance,
+                                                   Map<String, Object> replaceParams, boolean skip, boolean async,
+                                                   AsyncCallback callback, boolean claimed)
+        throws EngineExecutionException {
 
         if (stateMachineInstance == null) {
             throw new ForwardInvalidException("StateMachineInstance is not exits",
@@ -212,7 +229,8 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
         }
 
         ExecutionStatus[] acceptStatus = new ExecutionStatus[] {ExecutionStatus.FA, ExecutionStatus.UN, ExecutionStatus.RU};
-        checkStatus(stateMachineInstance, acceptStatus, null, stateMachineInstance.getStatus(), null, "forward");
+        checkStatus(stateMachineInstance, acceptStatus, null, stateMachineInstance.getStatus(), null, "forward",
+            claimed);
 
         List<StateInstance> actList = stateMachineInstance.getStateList();
         if (actList == null || actList.size() == 0) {
@@ -267,7 +285,10 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
             StateInstruction inst = new StateInstruction();
             inst.setTenantId(stateMachineInstance.getTenantId());
             inst.setStateMachineName(stateMachineInstance.getStateMachine().getName());
-            if (skip || ExecutionStatus.SU.equals(lastForwardState.getStatus())) {
+            //A branch of a parallel state is forwarded by executing the parallel state again
+            ParallelState parallelState = findParallelStateOfBranch(stateMachineInstance.getStateMachine(),
+                lastForwardState.getName());
+            if (parallelState == null && (skip || ExecutionStatus.SU.equals(lastForwardState.getStatus()))) {
 
                 String next = null;
                 State state = stateMachineInstance.getStateMachine().getState(lastForwardState.getName());
@@ -289,7 +310,7 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
                             "State [" + lastForwardState.getName() + "] is running, operation[forward] denied", FrameworkErrorCode.OperationDenied);
                 }
 
-                inst.setStateName(lastForwardState.getName());
+                inst.setStateName(parallelState != null ? parallelState.getName() : lastForwardState.getName());
             }
             context.setInstruction(inst);
 
@@ -379,6 +400,15 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
      * @param stateInstanceList
      * @return
      */
+    private ParallelState findParallelStateOfBranch(StateMachine stateMachine, String stateName) {
+        for (State state : stateMachine.getStates().values()) {
+            if (state instanceof ParallelState && ((ParallelState)state).getBranches().contains(stateName)) {
+                return (ParallelState)state;
+            }
+        }
+        return null;
+    }
+
     public StateInstance findOutLastForwardStateInstance(List<StateInstance> stateInstanceList) {
         StateInstance lastForwardStateInstance = null;
         for (int i = stateInstanceList.size() - 1; i >= 0; i--) {
@@ -441,11 +471,26 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
         return compensateInternal(stateMachineInstId, replaceParams, true, callback);
     }
 
+    @Override
+    public StateMachineInstance compensate(StateMachineInstance stateMachineInstance,
+                                           Map<String, Object> replaceParams) throws EngineExecutionException {
+        return compensateInternal(bindStateMachine(stateMachineInstance), replaceParams, false, null, true);
+    }
+
     public StateMachineInstance compensateInternal(String stateMachineInstId, Map<String, Object> replaceParams,
                                                    boolean async, AsyncCallback callback)
         throws EngineExecutionException {
+        return compensateInternal(reloadStateMachineInstance(stateMachineInstId), replaceParams, async, callback,
+            false);
+    }
 
-        StateMachineInstance stateMachineInstance = reloadStateMachineInstance(stateMachineInstId);
+    /**
+     * compensate an instance already loaded, a claimed instance is claimed by the caller and is not denied as running
+     */
+    protected StateMachineInstance compensateInternal(StateMachineInstance stateMachineInstance,
+                                                      Map<String, Object> replaceParams, boolean async,
+                                                      AsyncCallback callback, boolean claimed)
+        throws EngineExecutionException {
 
         if (stateMachineInstance == null) {
             throw new EngineExecutionException("StateMachineInstance is not exits",
@@ -459,7 +504,7 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
         if (stateMachineInstance.getCompensationStatus() != null) {
             ExecutionStatus[] denyStatus = new ExecutionStatus[] {ExecutionStatus.SU};
             checkStatus(stateMachineInstance, null, denyStatus, null, stateMachineInstance.getCompensationStatus(),
-                "compensate");
+                "compensate", claimed);
         }
 
         if (replaceParams != null) {
@@ -542,8 +587,18 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
     @Override
     public StateMachineInstance reloadStateMachineInstance(String instId) {
 
-        StateMachineInstance inst = stateMachineConfig.getStateLogStore().getStateMachineInstance(instId);
+        return bindStateMachine(stateMachineConfig.getStateLogStore().getStateMachineInstance(instId));
+    }
+
+    /**
+     * bind the state machine definition and the state instances to a state machine instance loaded from the store
+     *
+     * @param inst
+     * @return
+     */
+    protected StateMachineInstance bindStateMachine(StateMachineInstance inst) {
         if (inst != null) {
+            String instId = inst.getId();
             StateMachine stateMachine = inst.getStateMachine();
             if (stateMachine == null) {
                 stateMachine = stateMachineConfig.getStateMachineRepository().getStateMachineById(inst.getMachineId());
@@ -581,6 +636,12 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
     protected boolean checkStatus(StateMachineInstance stateMachineInstance, ExecutionStatus[] acceptStatus,
                                   ExecutionStatus[] denyStatus, ExecutionStatus status, ExecutionStatus compenStatus,
                                   String operation) {
+        return checkStatus(stateMachineInstance, acceptStatus, denyStatus, status, compenStatus, operation, false);
+    }
+
+    private boolean checkStatus(StateMachineInstance stateMachineInstance, ExecutionStatus[] acceptStatus,
+                                ExecutionStatus[] denyStatus, ExecutionStatus status, ExecutionStatus compenStatus,
+                                String operation, boolean claimed) {
         if (status != null && compenStatus != null) {
             throw new EngineExecutionException("status and compensationStatus are not supported at the same time",
                 FrameworkErrorCode.InvalidParameter);
@@ -595,7 +656,7 @@ public class ProcessCtrlStateMachineEngine implements StateMachineEngine {
             throw new EngineExecutionException(message, FrameworkErrorCode.OperationDenied);
         }
 
-        if (stateMachineInstance.isRunning() && !EngineUtils.isTimeout(stateMachineInstance.getGmtUpdated(), stateMachineConfig.getTransOperationTimeout())) {
+        if (!claimed && stateMachineInstance.isRunning() && !EngineUtils.isTimeout(stateMachineInstance.getGmtUpdated(), stateMachineConfig.getTransOperationTimeout())) {
             throw new EngineExecutionException(
                 "StateMachineInstance [id:" + stateMachineInstance.getId() + "] is running, operation[" + operation
                     + "] denied", FrameworkErrorCode.OperationDenied);
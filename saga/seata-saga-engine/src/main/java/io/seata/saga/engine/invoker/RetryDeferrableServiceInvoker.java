@@ -0,0 +1,40 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.invoker;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.saga.statelang.domain.ServiceTaskState;
+import io.seata.saga.statelang.domain.TaskState.Retry;
+
+/**
+ * Service invoker which can hand a due retry back to the engine instead of waiting in the invoking thread
+ */
+public interface RetryDeferrableServiceInvoker extends ServiceInvoker {
+
+    /**
+     * invoke service, retrying with the given retry counts
+     * @param serviceTaskState
+     * @param retryCounts the retry counts of the current state execution, kept by the caller between invocations
+     * @param deferRetry if true, throw {@link io.seata.saga.engine.exception.RetryDeferredException} when a retry is due
+     * @param input
+     * @return
+     * @throws Throwable
+     */
+    Object invokeWithRetry(ServiceTaskState serviceTaskState, Map<Retry, AtomicInteger> retryCounts, boolean deferRetry,
+                           Object... input) throws Throwable;
+}
@@ -15,7 +15,6 @@
  */
 package io.seata.saga.engine.invoker.impl;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
@@ -24,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -31,8 +31,11 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.parser.Feature;
 
 import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.util.MethodInvoker;
+import io.seata.common.util.ReflectionUtil;
 import io.seata.saga.engine.exception.EngineExecutionException;
-import io.seata.saga.engine.invoker.ServiceInvoker;
+import io.seata.saga.engine.exception.RetryDeferredException;
+import io.seata.saga.engine.invoker.RetryDeferrableServiceInvoker;
 import io.seata.saga.engine.pcext.handlers.ServiceTaskStateHandler;
 import io.seata.saga.engine.utils.ExceptionUtils;
 import io.seata.saga.statelang.domain.ServiceTaskState;
@@ -49,13 +52,18 @@ import org.springframework.context.ApplicationContextAware;
  *
  * @author lorne.cl
  */
-public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationContextAware {
+public class SpringBeanServiceInvoker implements RetryDeferrableServiceInvoker, ApplicationContextAware {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpringBeanServiceInvoker.class);
 
     private ApplicationContext applicationContext;
     private ThreadPoolExecutor threadPoolExecutor;
 
+    /**
+     * service methods bound once, a method found for a state is invoked without reflection afterwards
+     */
+    private final Map<Method, MethodInvoker> methodInvokers = new ConcurrentHashMap<>();
+
     @Override
     public Object invoke(ServiceTaskState serviceTaskState, Object... input) throws Throwable {
         ServiceTaskStateImpl state = (ServiceTaskStateImpl) serviceTaskState;
@@ -90,7 +98,22 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
         }
     }
 
+    @Override
+    public Object invokeWithRetry(ServiceTaskState serviceTaskState, Map<Retry, AtomicInteger> retryCounts,
+                                  boolean deferRetry, Object... input) throws Throwable {
+        ServiceTaskStateImpl state = (ServiceTaskStateImpl) serviceTaskState;
+        if (state.isAsync()) {
+            return invoke(state, input);
+        }
+        return doInvoke(state, input, retryCounts, deferRetry);
+    }
+
     protected Object doInvoke(ServiceTaskStateImpl state, Object[] input) throws Throwable {
+        return doInvoke(state, input, new HashMap<>(), false);
+    }
+
+    protected Object doInvoke(ServiceTaskStateImpl state, Object[] input, Map<Retry, AtomicInteger> retryCountMap,
+                              boolean deferRetry) throws Throwable {
 
         Object bean = applicationContext.getBean(state.getServiceName());
 
@@ -134,7 +157,6 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
                     FrameworkErrorCode.MethodNotPublic);
         }
 
-        Map<Retry, AtomicInteger> retryCountMap = new HashMap<>();
         while (true) {
 
             try {
@@ -164,6 +186,10 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
                     LOGGER.warn("Invoke Service[" + state.getServiceName() + "." + state.getServiceMethod() + "] failed, will retry after "
                             + currentInterval + " millis, current retry count: " + retryCount.intValue(), e);
                 }
+                if (deferRetry) {
+                    retryCount.incrementAndGet();
+                    throw new RetryDeferredException(e, currentInterval);
+                }
                 try {
                     Thread.sleep(currentInterval);
                 } catch (InterruptedException e1) {
@@ -282,16 +308,16 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
     }
 
     protected Object invokeMethod(Object serviceBean, Method method, Object... input) throws Throwable {
-        try {
-            return method.invoke(serviceBean, input);
-        } catch (InvocationTargetException e) {
-            Throwable targetExp = e.getTargetException();
-            if (targetExp == null) {
+        MethodInvoker methodInvoker = methodInvokers.get(method);
+        if (methodInvoker == null) {
+            try {
+                methodInvoker = ReflectionUtil.getMethodInvoker(method);
+            } catch (IllegalAccessException e) {
                 throw new EngineExecutionException(e, e.getMessage(), FrameworkErrorCode.MethodInvokeError);
             }
-
-            throw targetExp;
+            methodInvokers.put(method, methodInvoker);
         }
+        return methodInvoker.invoke(serviceBean, input);
     }
 
     protected Object toJavaObject(Object value, Class paramType) {
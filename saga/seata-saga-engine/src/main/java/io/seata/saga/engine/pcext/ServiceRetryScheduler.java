@@ -0,0 +1,88 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.pcext;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.proctrl.eventing.impl.ProcessCtrlEventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the deferred service retries of asynchronous executions, the process context is re-offered to the
+ * event bus when the retry is due, so no engine thread waits in between.
+ */
+public class ServiceRetryScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceRetryScheduler.class);
+
+    private final ScheduledExecutorService timer = new ScheduledThreadPoolExecutor(1,
+        new NamedThreadFactory("SagaRetryTimer", 1, true));
+
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong scheduledCount = new AtomicLong();
+    private final AtomicLong totalDelayMillis = new AtomicLong();
+    private final AtomicLong maxFireLagMillis = new AtomicLong();
+
+    public void schedule(ProcessContext context, ProcessCtrlEventPublisher eventPublisher, long delayMillis) {
+        long dueTime = System.currentTimeMillis() + delayMillis;
+        backlog.incrementAndGet();
+        scheduledCount.incrementAndGet();
+        totalDelayMillis.addAndGet(delayMillis);
+        timer.schedule(() -> {
+            backlog.decrementAndGet();
+            long lag = System.currentTimeMillis() - dueTime;
+            maxFireLagMillis.accumulateAndGet(lag, Math::max);
+            try {
+                eventPublisher.publish(context);
+            } catch (Throwable e) {
+                LOGGER.error("Re-offer deferred retry failed, context = {}", context, e);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * the number of retries waiting to be re-offered
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    public long getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    public long getTotalDelayMillis() {
+        return totalDelayMillis.get();
+    }
+
+    /**
+     * the max lag between the due time of a retry and the moment it was re-offered
+     */
+    public long getMaxFireLagMillis() {
+        return maxFireLagMillis.get();
+    }
+
+    public void shutdown() {
+        timer.shutdown();
+    }
+}
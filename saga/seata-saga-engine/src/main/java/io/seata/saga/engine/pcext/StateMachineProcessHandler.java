@@ -24,6 +24,7 @@ import io.seata.common.exception.FrameworkException;
 import io.seata.saga.engine.pcext.handlers.ChoiceStateHandler;
 import io.seata.saga.engine.pcext.handlers.CompensationTriggerStateHandler;
 import io.seata.saga.engine.pcext.handlers.FailEndStateHandler;
+import io.seata.saga.engine.pcext.handlers.ParallelStateHandler;
 import io.seata.saga.engine.pcext.handlers.ServiceTaskStateHandler;
 import io.seata.saga.engine.pcext.handlers.SubStateMachineHandler;
 import io.seata.saga.engine.pcext.handlers.SucceedEndStateHandler;
@@ -104,6 +105,7 @@ public class StateMachineProcessHandler implements ProcessHandler {
             stateHandlers.put(DomainConstants.STATE_TYPE_SUCCEED, new SucceedEndStateHandler());
             stateHandlers.put(DomainConstants.STATE_TYPE_FAIL, new FailEndStateHandler());
             stateHandlers.put(DomainConstants.STATE_TYPE_COMPENSATION_TRIGGER, new CompensationTriggerStateHandler());
+            stateHandlers.put(DomainConstants.STATE_TYPE_PARALLEL, new ParallelStateHandler(this));
         }
     }
 
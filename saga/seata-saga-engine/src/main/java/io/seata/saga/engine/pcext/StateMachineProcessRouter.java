@@ -60,6 +60,18 @@ public class StateMachineProcessRouter implements ProcessRouter {
             state = stateMachine.getStates().get(stateInstruction.getStateName());
         }
 
+        Long retryDelay = (Long)context.getVariable(DomainConstants.VAR_NAME_RETRY_DELAY);
+        if (retryDelay != null) {
+            //the current state will be executed again when the deferred retry is due,
+            // keep it on the instruction in case it is a temporary (compensation) state
+            stateInstruction.setTemporaryState(state);
+            StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
+                DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+            stateMachineConfig.getServiceRetryScheduler().schedule(context,
+                stateMachineConfig.getAsyncProcessCtrlEventPublisher(), retryDelay);
+            return null;
+        }
+
         String stateType = state.getType();
 
         StateRouter router = stateRouters.get(stateType);
@@ -113,6 +125,7 @@ public class StateMachineProcessRouter implements ProcessRouter {
             this.stateRouters.put(DomainConstants.STATE_TYPE_COMPENSATION_TRIGGER, taskStateRouter);
             this.stateRouters.put(DomainConstants.STATE_TYPE_SUB_STATE_MACHINE, taskStateRouter);
             this.stateRouters.put(DomainConstants.STATE_TYPE_SUB_MACHINE_COMPENSATION, taskStateRouter);
+            this.stateRouters.put(DomainConstants.STATE_TYPE_PARALLEL, taskStateRouter);
 
             EndStateRouter endStateRouter = new EndStateRouter();
             List<StateRouterInterceptor> stateRouterInterceptors = new ArrayList<>(1);
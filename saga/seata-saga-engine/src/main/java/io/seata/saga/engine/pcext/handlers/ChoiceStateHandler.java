@@ -65,10 +65,10 @@ public class ChoiceStateHandler implements StateHandler {
             }
         }
 
-        for (Object choiceEvaluatorObj : choiceEvaluators.keySet()) {
-            Evaluator evaluator = (Evaluator)choiceEvaluatorObj;
-            if (evaluator.evaluate(context.getVariables())) {
-                context.setVariable(DomainConstants.VAR_NAME_CURRENT_CHOICE, choiceEvaluators.get(evaluator));
+        Map<String, Object> variables = context.getVariables();
+        for (Map.Entry<Object, String> choiceEvaluator : choiceEvaluators.entrySet()) {
+            if (((Evaluator)choiceEvaluator.getKey()).evaluate(variables)) {
+                context.setVariable(DomainConstants.VAR_NAME_CURRENT_CHOICE, choiceEvaluator.getValue());
                 return;
             }
         }
@@ -0,0 +1,239 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.pcext.handlers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.saga.engine.StateMachineConfig;
+import io.seata.saga.engine.exception.EngineExecutionException;
+import io.seata.saga.engine.pcext.StateHandler;
+import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.engine.pcext.utils.CompensationHolder;
+import io.seata.saga.engine.pcext.utils.EngineUtils;
+import io.seata.saga.proctrl.HierarchicalProcessContext;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.proctrl.handler.ProcessHandler;
+import io.seata.saga.proctrl.impl.ProcessContextImpl;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.ParallelStateImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ParallelState Handler
+ * <p>
+ * Every branch is executed by the state process handler in a child context, so the branch states are
+ * intercepted, logged and registered for compensation like the sequential ones. The branches run on the
+ * thread pool of the StateMachineConfig, a branch which is not started yet when the current thread is free
+ * is executed by the current thread, so the join never waits for a queued branch.
+ * All the branches are joined before the state is routed. Every branch starts from a snapshot of the variables
+ * taken at the fork, and only the variables a branch changed against the snapshot are merged back.
+ * When the join policy is not satisfied, the Catch route of the first failed branch which matched its own Catch
+ * is followed, before the Catch of the Parallel state; when the policy is satisfied the Catch routes of the
+ * failed branches are not followed.
+ * The branch state instances are ordered by the CompensationOrder, which is the reverse order of the
+ * declaration by default.
+ */
+public class ParallelStateHandler implements StateHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelStateHandler.class);
+
+    private final ProcessHandler branchProcessHandler;
+
+    public ParallelStateHandler(ProcessHandler branchProcessHandler) {
+        this.branchProcessHandler = branchProcessHandler;
+    }
+
+    @Override
+    public void process(ProcessContext context) throws EngineExecutionException {
+
+        StateInstruction instruction = context.getInstruction(StateInstruction.class);
+        ParallelStateImpl state = (ParallelStateImpl)instruction.getState(context);
+        StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        StateMachineInstance stateMachineInstance = (StateMachineInstance)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_INST);
+        Map<String, Object> contextVariables = (Map<String, Object>)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT);
+
+        List<String> branches = state.getBranches();
+        // the variables at the fork, the changes of every branch are detected against them
+        Map<String, Object> forkVariables = new HashMap<>(contextVariables);
+        List<ProcessContextImpl> branchContexts = new ArrayList<>(branches.size());
+        List<FutureTask<Void>> branchTasks = new ArrayList<>(branches.size());
+        ThreadPoolExecutor executor = stateMachineConfig.getThreadPoolExecutor();
+        // the branches register their compensations into the holder of the parent, it must exist before the fork
+        CompensationHolder.getCurrent(context, true);
+        for (int i = 0; i < branches.size(); i++) {
+            ProcessContextImpl branchContext = createBranchContext(context, instruction, branches.get(i),
+                forkVariables);
+            FutureTask<Void> branchTask = new FutureTask<>(() -> {
+                branchProcessHandler.process(branchContext);
+                return null;
+            });
+            branchContexts.add(branchContext);
+            branchTasks.add(branchTask);
+            // the last branch is always executed by the current thread
+            if (executor != null && i < branches.size() - 1) {
+                try {
+                    executor.execute(branchTask);
+                } catch (RejectedExecutionException e) {
+                    LOGGER.warn("Branch[{}] of Parallel State[{}] is rejected by the thread pool, execute it in the "
+                        + "current thread", branches.get(i), state.getName());
+                }
+            }
+        }
+
+        // run the branches which are not started yet in the current thread, a started branch is not run again
+        for (int i = branchTasks.size() - 1; i >= 0; i--) {
+            branchTasks.get(i).run();
+        }
+
+        int successCount = 0;
+        Exception firstException = null;
+        Exception routedException = null;
+        String branchRoute = null;
+        Map<String, StateInstance> branchStateInstances = new HashMap<>(branches.size());
+        for (int i = 0; i < branchTasks.size(); i++) {
+            Exception branchException = null;
+            try {
+                branchTasks.get(i).get();
+            } catch (ExecutionException e) {
+                branchException = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                branchException = e;
+            }
+            ProcessContextImpl branchContext = branchContexts.get(i);
+            if (branchException == null) {
+                branchException = (Exception)branchContext.getVariableLocally(
+                    DomainConstants.VAR_NAME_CURRENT_EXCEPTION);
+            }
+            StateInstance branchStateInstance = (StateInstance)branchContext.getVariableLocally(
+                DomainConstants.VAR_NAME_STATE_INST);
+            if (branchStateInstance != null) {
+                branchStateInstances.put(branches.get(i), branchStateInstance);
+            }
+            if (branchException == null && branchStateInstance != null && ExecutionStatus.SU.equals(
+                branchStateInstance.getStatus())) {
+                successCount++;
+            } else {
+                if (branchException == null) {
+                    branchException = new EngineExecutionException(
+                        "Branch[" + branches.get(i) + "] execute failed with status[" + (branchStateInstance == null
+                            ? null : branchStateInstance.getStatus()) + "]", FrameworkErrorCode.ExceptionCaught);
+                }
+                if (firstException == null) {
+                    firstException = branchException;
+                }
+                String route = (String)branchContext.getVariableLocally(
+                    DomainConstants.VAR_NAME_CURRENT_EXCEPTION_ROUTE);
+                if (branchRoute == null && route != null) {
+                    branchRoute = route;
+                    routedException = branchException;
+                }
+            }
+            mergeBranchVariables(contextVariables, forkVariables, branchContext);
+        }
+        orderBranchStateInstances(stateMachineInstance, state.getCompensationOrder(), branchStateInstances);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Parallel State[{}] joined, {} of {} branches succeeded, JoinPolicy[{}]", state.getName(),
+                successCount, branches.size(), state.getJoinPolicy());
+        }
+
+        if (successCount < state.getRequiredSuccessCount()) {
+            if (branchRoute != null) {
+                ((HierarchicalProcessContext)context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION,
+                    routedException);
+                ((HierarchicalProcessContext)context).setVariableLocally(
+                    DomainConstants.VAR_NAME_CURRENT_EXCEPTION_ROUTE, branchRoute);
+                return;
+            }
+            ((HierarchicalProcessContext)context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION,
+                firstException);
+            ServiceTaskStateHandler.handleException(context, state.getCatches(), firstException);
+            if (Boolean.TRUE.equals(context.getVariable(DomainConstants.VAR_NAME_IS_EXCEPTION_NOT_CATCH))) {
+                context.removeVariable(DomainConstants.VAR_NAME_IS_EXCEPTION_NOT_CATCH);
+                EngineUtils.failStateMachine(context, firstException);
+            }
+        } else if (branchRoute != null) {
+            LOGGER.info("Parallel State[{}] satisfied JoinPolicy[{}], the Catch route[{}] of a failed branch is not "
+                + "followed", state.getName(), state.getJoinPolicy(), branchRoute);
+        }
+    }
+
+    private ProcessContextImpl createBranchContext(ProcessContext context, StateInstruction instruction,
+                                                   String branch, Map<String, Object> forkVariables) {
+        StateInstruction branchInstruction = new StateInstruction(instruction.getStateMachineName(),
+            instruction.getTenantId());
+        branchInstruction.setStateName(branch);
+
+        ProcessContextImpl branchContext = new ProcessContextImpl();
+        branchContext.setParent(context);
+        branchContext.setInstruction(branchInstruction);
+        branchContext.setVariableLocally(DomainConstants.VAR_NAME_IS_PARALLEL_BRANCH, true);
+        // every branch reads and writes its own copy of the variables, they are merged after the join
+        branchContext.setVariableLocally(DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT,
+            new HashMap<>(forkVariables));
+        return branchContext;
+    }
+
+    private void mergeBranchVariables(Map<String, Object> contextVariables, Map<String, Object> forkVariables,
+                                      ProcessContextImpl branchContext) {
+        Map<String, Object> branchVariables = (Map<String, Object>)branchContext.getVariableLocally(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT);
+        for (Map.Entry<String, Object> entry : branchVariables.entrySet()) {
+            if (!forkVariables.containsKey(entry.getKey()) || forkVariables.get(entry.getKey()) != entry.getValue()) {
+                contextVariables.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String key : forkVariables.keySet()) {
+            if (!branchVariables.containsKey(key)) {
+                contextVariables.remove(key);
+            }
+        }
+    }
+
+    private void orderBranchStateInstances(StateMachineInstance stateMachineInstance, List<String> compensationOrder,
+                                           Map<String, StateInstance> branchStateInstances) {
+        // the compensation pops the states from the end of the list, so the first compensated branch is the last
+        List<StateInstance> orderedStateInstances = new ArrayList<>(branchStateInstances.size());
+        for (int i = compensationOrder.size() - 1; i >= 0; i--) {
+            StateInstance branchStateInstance = branchStateInstances.get(compensationOrder.get(i));
+            if (branchStateInstance != null) {
+                orderedStateInstances.add(branchStateInstance);
+            }
+        }
+        List<StateInstance> stateList = stateMachineInstance.getStateList();
+        synchronized (stateList) {
+            if (stateList.removeAll(orderedStateInstances)) {
+                stateList.addAll(orderedStateInstances);
+            }
+        }
+    }
+}
@@ -19,11 +19,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.saga.engine.StateMachineConfig;
 import io.seata.saga.engine.StateMachineEngine;
 import io.seata.saga.engine.exception.EngineExecutionException;
+import io.seata.saga.engine.exception.RetryDeferredException;
+import io.seata.saga.engine.invoker.RetryDeferrableServiceInvoker;
 import io.seata.saga.engine.invoker.ServiceInvoker;
 import io.seata.saga.engine.pcext.InterceptibleStateHandler;
 import io.seata.saga.engine.pcext.StateHandler;
@@ -38,6 +41,7 @@ import io.seata.saga.statelang.domain.ServiceTaskState;
 import io.seata.saga.statelang.domain.StateInstance;
 import io.seata.saga.statelang.domain.StateMachineInstance;
 import io.seata.saga.statelang.domain.TaskState;
+import io.seata.saga.statelang.domain.TaskState.Retry;
 import io.seata.saga.statelang.domain.impl.AbstractTaskState;
 import io.seata.saga.statelang.domain.impl.ServiceTaskStateImpl;
 import org.slf4j.Logger;
@@ -57,7 +61,10 @@ public class ServiceTaskStateHandler implements StateHandler, InterceptibleState
     private List<StateHandlerInterceptor> interceptors;
 
     public static void handleException(ProcessContext context, AbstractTaskState state, Throwable e) {
-        List<TaskState.ExceptionMatch> catches = state.getCatches();
+        handleException(context, state.getCatches(), e);
+    }
+
+    public static void handleException(ProcessContext context, List<TaskState.ExceptionMatch> catches, Throwable e) {
         if (catches != null && catches.size() > 0) {
             for (TaskState.ExceptionMatch exceptionMatch : catches) {
 
@@ -160,8 +167,21 @@ public class ServiceTaskStateHandler implements StateHandler, InterceptibleState
                             stateMachineConfig.getApplicationContext());
                 }
 
-                result = serviceInvoker.invoke(state, input.toArray());
+                if (serviceInvoker instanceof RetryDeferrableServiceInvoker && canDeferRetry(context, stateMachineConfig)) {
+                    Map<Retry, AtomicInteger> retryCounts = (Map<Retry, AtomicInteger>) context.getVariable(
+                            DomainConstants.VAR_NAME_RETRY_COUNTS);
+                    if (retryCounts == null) {
+                        retryCounts = new HashMap<>();
+                        ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_RETRY_COUNTS,
+                                retryCounts);
+                    }
+                    result = ((RetryDeferrableServiceInvoker) serviceInvoker).invokeWithRetry(state, retryCounts, true,
+                            input.toArray());
+                } else {
+                    result = serviceInvoker.invoke(state, input.toArray());
+                }
             }
+            context.removeVariable(DomainConstants.VAR_NAME_RETRY_COUNTS);
 
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("<<<<<<<<<<<<<<<<<<<<<< State[{}], ServiceName[{}], Method[{}] Execute finish. result: {}",
@@ -174,8 +194,15 @@ public class ServiceTaskStateHandler implements StateHandler, InterceptibleState
                         result);
             }
 
+        } catch (RetryDeferredException e) {
+
+            //the retry is rescheduled by the router after this state's processing ends
+            ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_RETRY_DELAY,
+                    e.getDelayMillis());
         } catch (Throwable e) {
 
+            context.removeVariable(DomainConstants.VAR_NAME_RETRY_COUNTS);
+
             LOGGER.error("<<<<<<<<<<<<<<<<<<<<<< State[{}], ServiceName[{}], Method[{}] Execute failed.",
                     state.getName(), serviceName, methodName, e);
 
@@ -186,6 +213,16 @@ public class ServiceTaskStateHandler implements StateHandler, InterceptibleState
 
     }
 
+    /**
+     * only asynchronous executions driven by the event bus can give the thread back while waiting for a retry
+     */
+    private boolean canDeferRetry(ProcessContext context, StateMachineConfig stateMachineConfig) {
+        return Boolean.TRUE.equals(context.getVariable(DomainConstants.VAR_NAME_IS_ASYNC_EXECUTION))
+                && !Boolean.TRUE.equals(context.getVariable(DomainConstants.VAR_NAME_IS_PARALLEL_BRANCH))
+                && stateMachineConfig.getServiceRetryScheduler() != null
+                && stateMachineConfig.getAsyncProcessCtrlEventPublisher() != null;
+    }
+
     private Object compensateSubStateMachine(ProcessContext context, ServiceTaskState state, Object input,
                                              StateInstance stateInstance, StateMachineEngine engine) {
 
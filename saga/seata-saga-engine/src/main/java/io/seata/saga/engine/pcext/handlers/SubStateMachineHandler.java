@@ -30,6 +30,7 @@ import io.seata.saga.engine.pcext.StateHandlerInterceptor;
 import io.seata.saga.engine.pcext.StateInstruction;
 import io.seata.saga.engine.pcext.utils.EngineUtils;
 import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.ExecutionStatus;
@@ -104,7 +105,8 @@ public class SubStateMachineHandler implements StateHandler, InterceptibleStateH
             ExecutionStatus callSubMachineStatus = decideStatus(subStateMachineInstance, isForward);
             stateInstance.setStatus(callSubMachineStatus);
             outputParams.put(DomainConstants.VAR_NAME_SUB_STATEMACHINE_EXEC_STATUE, callSubMachineStatus.toString());
-            context.setVariable(DomainConstants.VAR_NAME_OUTPUT_PARAMS, outputParams);
+            ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_OUTPUT_PARAMS,
+                outputParams);
             stateInstance.setOutputParams(outputParams);
 
             if (LOGGER.isDebugEnabled()) {
@@ -134,7 +136,7 @@ public class SubStateMachineHandler implements StateHandler, InterceptibleStateH
                 }
             }
 
-            context.setVariable(DomainConstants.VAR_NAME_CURRENT_EXCEPTION, e);
+            ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION, e);
 
             ServiceTaskStateHandler.handleException(context, subStateMachine, e);
         }
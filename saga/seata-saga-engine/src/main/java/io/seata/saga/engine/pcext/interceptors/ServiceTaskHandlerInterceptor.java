@@ -28,14 +28,13 @@ import io.seata.saga.engine.evaluation.EvaluatorFactory;
 import io.seata.saga.engine.evaluation.EvaluatorFactoryManager;
 import io.seata.saga.engine.evaluation.expression.ExpressionEvaluator;
 import io.seata.saga.engine.exception.EngineExecutionException;
-import io.seata.saga.engine.expression.Expression;
-import io.seata.saga.engine.expression.ExpressionFactory;
 import io.seata.saga.engine.expression.ExpressionFactoryManager;
-import io.seata.saga.engine.expression.seq.SequenceExpression;
 import io.seata.saga.engine.pcext.StateHandlerInterceptor;
 import io.seata.saga.engine.pcext.StateInstruction;
 import io.seata.saga.engine.pcext.utils.CompensationHolder;
 import io.seata.saga.engine.pcext.utils.EngineUtils;
+import io.seata.saga.engine.pcext.utils.ParameterAssignment;
+import io.seata.saga.engine.pcext.utils.ParameterAssignments;
 import io.seata.saga.engine.utils.ExceptionUtils;
 import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
@@ -74,16 +73,15 @@ public class ServiceTaskHandlerInterceptor implements StateHandlerInterceptor {
                 if (inputExpressions == null) {
                     inputExpressions = new ArrayList<>(inputAssignments.size());
                     for (Object inputAssignment : inputAssignments) {
-                        inputExpressions.add(createValueExpression(expressionFactoryManager, inputAssignment));
+                        inputExpressions.add(ParameterAssignments.compile(expressionFactoryManager, inputAssignment));
                     }
                 }
                 serviceTaskState.setInputExpressions(inputExpressions);
             }
         }
         List<Object> inputValues = new ArrayList<>(inputExpressions.size());
-        for (Object valueExpression : inputExpressions) {
-            Object value = getValue(valueExpression, variablesFrom, stateInstance);
-            inputValues.add(value);
+        for (int i = 0; i < inputExpressions.size(); i++) {
+            inputValues.add(((ParameterAssignment)inputExpressions.get(i)).getValue(variablesFrom, stateInstance));
         }
 
         return inputValues;
@@ -103,101 +101,21 @@ public class ServiceTaskHandlerInterceptor implements StateHandlerInterceptor {
                 outputExpressions = serviceTaskState.getOutputExpressions();
                 if (outputExpressions == null) {
                     outputExpressions = new LinkedHashMap<>(outputAssignments.size());
-                    for (String paramName : outputAssignments.keySet()) {
-                        outputExpressions.put(paramName,
-                            createValueExpression(expressionFactoryManager, outputAssignments.get(paramName)));
+                    for (Map.Entry<String, Object> entry : outputAssignments.entrySet()) {
+                        outputExpressions.put(entry.getKey(),
+                            ParameterAssignments.compile(expressionFactoryManager, entry.getValue()));
                     }
                 }
                 serviceTaskState.setOutputExpressions(outputExpressions);
             }
         }
-        Map<String, Object> outputValues = new LinkedHashMap<>(outputExpressions.size());
-        for (String paramName : outputExpressions.keySet()) {
-            outputValues.put(paramName, getValue(outputExpressions.get(paramName), variablesFrom, null));
+        Map<String, Object> outputValues = new LinkedHashMap<>(outputExpressions.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : outputExpressions.entrySet()) {
+            outputValues.put(entry.getKey(), ((ParameterAssignment)entry.getValue()).getValue(variablesFrom, null));
         }
         return outputValues;
     }
 
-    private static Object getValue(Object valueExpression, Object variablesFrom, StateInstance stateInstance) {
-        if (valueExpression instanceof Expression) {
-            Object value = ((Expression)valueExpression).getValue(variablesFrom);
-            if (value != null && stateInstance != null && StringUtils.isEmpty(stateInstance.getBusinessKey())
-                && valueExpression instanceof SequenceExpression) {
-                stateInstance.setBusinessKey(String.valueOf(value));
-            }
-            return value;
-        } else if (valueExpression instanceof Map) {
-            Map<String, Object> mapValueExpression = (Map<String, Object>)valueExpression;
-            Map<String, Object> mapValue = new LinkedHashMap<>();
-            for (String paramName : mapValueExpression.keySet()) {
-                Object value = getValue(mapValueExpression.get(paramName), variablesFrom, stateInstance);
-                if (value != null) {
-                    mapValue.put(paramName, value);
-                }
-            }
-            return mapValue;
-        } else if (valueExpression instanceof List) {
-            List<Object> listValueExpression = (List<Object>)valueExpression;
-            List<Object> listValue = new ArrayList<>(listValueExpression.size());
-            for (Object aValueExpression : listValueExpression) {
-                listValue.add(getValue(aValueExpression, variablesFrom, stateInstance));
-            }
-            return listValue;
-        } else {
-            return valueExpression;
-        }
-    }
-
-    private static Object createValueExpression(ExpressionFactoryManager expressionFactoryManager,
-                                                Object paramAssignment) {
-
-        Object valueExpression;
-
-        if (paramAssignment instanceof Expression) {
-            valueExpression = paramAssignment;
-        } else if (paramAssignment instanceof Map) {
-            Map<String, Object> paramMapAssignment = (Map<String, Object>)paramAssignment;
-            Map<String, Object> paramMap = new LinkedHashMap<>(paramMapAssignment.size());
-            for (String paramName : paramMapAssignment.keySet()) {
-                Object valueAssignment = paramMapAssignment.get(paramName);
-                paramMap.put(paramName, createValueExpression(expressionFactoryManager, valueAssignment));
-            }
-            valueExpression = paramMap;
-        } else if (paramAssignment instanceof List) {
-            List<Object> paramListAssignment = (List<Object>)paramAssignment;
-            List<Object> paramList = new ArrayList<>(paramListAssignment.size());
-            for (Object aParamAssignment : paramListAssignment) {
-                paramList.add(createValueExpression(expressionFactoryManager, aParamAssignment));
-            }
-            valueExpression = paramList;
-        } else if (paramAssignment instanceof String && ((String)paramAssignment).startsWith("$")) {
-
-            String expressionStr = (String)paramAssignment;
-            int expTypeStart = expressionStr.indexOf("$");
-            int expTypeEnd = expressionStr.indexOf(".", expTypeStart);
-
-            String expressionType = null;
-            if (expTypeStart >= 0 && expTypeEnd > expTypeStart) {
-                expressionType = expressionStr.substring(expTypeStart + 1, expTypeEnd);
-            }
-
-            int expEnd = expressionStr.length();
-            String expressionContent = null;
-            if (expTypeEnd > 0 && expEnd > expTypeEnd) {
-                expressionContent = expressionStr.substring(expTypeEnd + 1, expEnd);
-            }
-
-            ExpressionFactory expressionFactory = expressionFactoryManager.getExpressionFactory(expressionType);
-            if (expressionFactory == null) {
-                throw new IllegalArgumentException("Cannot get ExpressionFactory by Type[" + expressionType + "]");
-            }
-            valueExpression = expressionFactory.createExpression(expressionContent);
-        } else {
-            valueExpression = paramAssignment;
-        }
-        return valueExpression;
-    }
-
     @Override
     public void preProcess(ProcessContext context) throws EngineExecutionException {
 
@@ -222,6 +140,12 @@ public class ServiceTaskHandlerInterceptor implements StateHandlerInterceptor {
             throw exception;
         }
 
+        if (context.hasVariable(DomainConstants.VAR_NAME_RETRY_DELAY)) {
+            //resumed by a deferred retry, the state instance has been started already
+            context.removeVariable(DomainConstants.VAR_NAME_RETRY_DELAY);
+            return;
+        }
+
         StateInstanceImpl stateInstance = new StateInstanceImpl();
 
         Map<String, Object> contextVariables = (Map<String, Object>)context.getVariable(
@@ -340,6 +264,11 @@ public class ServiceTaskHandlerInterceptor implements StateHandlerInterceptor {
 
         StateMachineInstance stateMachineInstance = (StateMachineInstance)context.getVariable(
             DomainConstants.VAR_NAME_STATEMACHINE_INST);
+        if (context.hasVariable(DomainConstants.VAR_NAME_RETRY_DELAY)) {
+            //the state is not finished, a retry of it is deferred
+            return;
+        }
+
         StateInstance stateInstance = (StateInstance)context.getVariable(DomainConstants.VAR_NAME_STATE_INST);
         if (stateInstance == null || !stateMachineInstance.isRunning()) {
             LOGGER.warn("StateMachineInstance[id:" + stateMachineInstance.getId() + "] is end. stop running");
@@ -22,6 +22,7 @@ import io.seata.saga.engine.AsyncCallback;
 import io.seata.saga.engine.StateMachineConfig;
 import io.seata.saga.engine.pcext.StateInstruction;
 import io.seata.saga.engine.utils.ExceptionUtils;
+import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.StateInstance;
@@ -102,6 +103,13 @@ public class EngineUtils {
      */
     public static void failStateMachine(ProcessContext context, Exception exp) {
 
+        if (Boolean.TRUE.equals(context.getVariable(DomainConstants.VAR_NAME_IS_PARALLEL_BRANCH))) {
+            // a failed branch is decided by the join of its parallel state, the state machine keeps running
+            ((HierarchicalProcessContext)context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION, exp);
+            context.getInstruction(StateInstruction.class).setEnd(true);
+            return;
+        }
+
         StateMachineInstance stateMachineInstance = (StateMachineInstance)context.getVariable(
             DomainConstants.VAR_NAME_STATEMACHINE_INST);
 
@@ -0,0 +1,35 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.pcext.utils;
+
+import io.seata.saga.statelang.domain.StateInstance;
+
+/**
+ * A compiled parameter assignment of a state
+ *
+ * @see ParameterAssignments#compile
+ */
+public interface ParameterAssignment {
+
+    /**
+     * evaluate the assignment
+     *
+     * @param variablesFrom root object of the expressions
+     * @param stateInstance if not null, its business key is taken from the first sequence expression
+     * @return the value
+     */
+    Object getValue(Object variablesFrom, StateInstance stateInstance);
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.pcext.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.saga.engine.expression.Expression;
+import io.seata.saga.engine.expression.ExpressionFactory;
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.expression.seq.SequenceExpression;
+import io.seata.saga.statelang.domain.StateInstance;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compiles the parameter assignments of a state once into a tree of {@link ParameterAssignment},
+ * so a step only evaluates the expressions and never re-inspects the assignment definition
+ */
+public final class ParameterAssignments {
+
+    private ParameterAssignments() {
+    }
+
+    /**
+     * compile a parameter assignment, nested maps and lists are compiled recursively
+     */
+    public static ParameterAssignment compile(ExpressionFactoryManager expressionFactoryManager,
+                                              Object paramAssignment) {
+
+        if (paramAssignment instanceof ParameterAssignment) {
+            return (ParameterAssignment)paramAssignment;
+        } else if (paramAssignment instanceof Expression) {
+            return new ExpressionAssignment((Expression)paramAssignment);
+        } else if (paramAssignment instanceof Map) {
+            Map<String, Object> paramMapAssignment = (Map<String, Object>)paramAssignment;
+            String[] names = new String[paramMapAssignment.size()];
+            ParameterAssignment[] values = new ParameterAssignment[names.length];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : paramMapAssignment.entrySet()) {
+                names[i] = entry.getKey();
+                values[i] = compile(expressionFactoryManager, entry.getValue());
+                i++;
+            }
+            return new MapAssignment(names, values);
+        } else if (paramAssignment instanceof List) {
+            List<Object> paramListAssignment = (List<Object>)paramAssignment;
+            ParameterAssignment[] values = new ParameterAssignment[paramListAssignment.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = compile(expressionFactoryManager, paramListAssignment.get(i));
+            }
+            return new ListAssignment(values);
+        } else if (paramAssignment instanceof String && ((String)paramAssignment).startsWith("$")) {
+            return new ExpressionAssignment(createExpression(expressionFactoryManager, (String)paramAssignment));
+        } else {
+            return new ConstantAssignment(paramAssignment);
+        }
+    }
+
+    private static Expression createExpression(ExpressionFactoryManager expressionFactoryManager,
+                                               String expressionStr) {
+
+        int expTypeStart = expressionStr.indexOf("$");
+        int expTypeEnd = expressionStr.indexOf(".", expTypeStart);
+
+        String expressionType = null;
+        if (expTypeStart >= 0 && expTypeEnd > expTypeStart) {
+            expressionType = expressionStr.substring(expTypeStart + 1, expTypeEnd);
+        }
+
+        int expEnd = expressionStr.length();
+        String expressionContent = null;
+        if (expTypeEnd > 0 && expEnd > expTypeEnd) {
+            expressionContent = expressionStr.substring(expTypeEnd + 1, expEnd);
+        }
+
+        ExpressionFactory expressionFactory = expressionFactoryManager.getExpressionFactory(expressionType);
+        if (expressionFactory == null) {
+            throw new IllegalArgumentException("Cannot get ExpressionFactory by Type[" + expressionType + "]");
+        }
+        return expressionFactory.createExpression(expressionContent);
+    }
+
+    private static class ConstantAssignment implements ParameterAssignment {
+
+        private final Object value;
+
+        ConstantAssignment(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object getValue(Object variablesFrom, StateInstance stateInstance) {
+            return value;
+        }
+    }
+
+    private static class ExpressionAssignment implements ParameterAssignment {
+
+        private final Expression expression;
+        private final boolean sequence;
+
+        ExpressionAssignment(Expression expression) {
+            this.expression = expression;
+            this.sequence = expression instanceof SequenceExpression;
+        }
+
+        @Override
+        public Object getValue(Object variablesFrom, StateInstance stateInstance) {
+            Object value = expression.getValue(variablesFrom);
+            if (sequence && value != null && stateInstance != null && StringUtils.isEmpty(
+                stateInstance.getBusinessKey())) {
+                stateInstance.setBusinessKey(String.valueOf(value));
+            }
+            return value;
+        }
+    }
+
+    private static class MapAssignment implements ParameterAssignment {
+
+        private final String[] names;
+        private final ParameterAssignment[] values;
+
+        MapAssignment(String[] names, ParameterAssignment[] values) {
+            this.names = names;
+            this.values = values;
+        }
+
+        @Override
+        public Object getValue(Object variablesFrom, StateInstance stateInstance) {
+            Map<String, Object> mapValue = new LinkedHashMap<>(names.length * 4 / 3 + 1);
+            for (int i = 0; i < names.length; i++) {
+                Object value = values[i].getValue(variablesFrom, stateInstance);
+                if (value != null) {
+                    mapValue.put(names[i], value);
+                }
+            }
+            return mapValue;
+        }
+    }
+
+    private static class ListAssignment implements ParameterAssignment {
+
+        private final ParameterAssignment[] values;
+
+        ListAssignment(ParameterAssignment[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object getValue(Object variablesFrom, StateInstance stateInstance) {
+            List<Object> listValue = new ArrayList<>(values.length);
+            for (ParameterAssignment value : values) {
+                listValue.add(value.getValue(variablesFrom, stateInstance));
+            }
+            return listValue;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.recovery;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.saga.engine.StateMachineConfig;
+import io.seata.saga.engine.StateMachineEngine;
+import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.RecoverStrategy;
+import io.seata.saga.statelang.domain.StateMachine;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Recovers the unfinished state machine instances in bulk, e.g. after a saga engine node stopped: the instances
+ * are scanned by pages with their state instances, and recovered on a bounded pool, taking the instances of the
+ * tenants in turn so that a large tenant does not delay the others.
+ * <p>
+ * An instance whose compensation has started is compensated, an instance of unknown status is forwarded, and an
+ * instance that stopped running follows the recover strategy of its state machine, as the TC would decide.
+ * An instance whose global transaction is committed or rolled back by the TC is left to the TC, and every other
+ * instance is claimed in the StateLogStore before it is recovered, so the nodes recovering the same store and the
+ * branch commit or rollback of the TC do not run it twice.
+ */
+public class StateMachineRecoverer implements InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateMachineRecoverer.class);
+
+    private StateMachineEngine stateMachineEngine;
+
+    private int pageSize = 100;
+
+    private int parallelism = 8;
+
+    /**
+     * only the instances not updated for this time are recovered, default is the trans operation timeout
+     */
+    private long minIdleMillis = -1;
+
+    private boolean recoverOnStartup = false;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (recoverOnStartup) {
+            Thread thread = new NamedThreadFactory("sagaRecoveryStarter", 1, true).newThread(this::recover);
+            thread.start();
+        }
+    }
+
+    /**
+     * Recover all the unfinished instances, blocks until they are recovered.
+     *
+     * @return the count of the instances recovered without error, the skipped instances are not counted
+     */
+    public int recover() {
+        StateMachineConfig stateMachineConfig = stateMachineEngine.getStateMachineConfig();
+        long idleMillis = minIdleMillis >= 0 ? minIdleMillis : stateMachineConfig.getTransOperationTimeout();
+        Date gmtUpdatedBefore = new Date(System.currentTimeMillis() - idleMillis);
+
+        AtomicInteger recovered = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(parallelism);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("sagaRecovery", parallelism));
+        long start = System.currentTimeMillis();
+        try {
+            Map<String, Deque<StateMachineInstance>> tenantQueues = new LinkedHashMap<>();
+            int queued = 0;
+            String afterId = null;
+            boolean exhausted = false;
+            while (true) {
+                if (!exhausted && queued < pageSize) {
+                    List<StateMachineInstance> page = stateMachineConfig.getStateLogStore()
+                        .queryRecoverableStateMachineInstances(gmtUpdatedBefore, afterId, pageSize);
+                    for (StateMachineInstance stateMachineInstance : page) {
+                        tenantQueues.computeIfAbsent(String.valueOf(stateMachineInstance.getTenantId()),
+                            tenantId -> new ArrayDeque<>()).add(stateMachineInstance);
+                    }
+                    queued += page.size();
+                    if (page.size() < pageSize) {
+                        exhausted = true;
+                    } else {
+                        afterId = page.get(page.size() - 1).getId();
+                    }
+                }
+                if (queued == 0) {
+                    break;
+                }
+                // one instance of each tenant per round
+                Iterator<Deque<StateMachineInstance>> iterator = tenantQueues.values().iterator();
+                while (iterator.hasNext()) {
+                    Deque<StateMachineInstance> tenantQueue = iterator.next();
+                    StateMachineInstance stateMachineInstance = tenantQueue.poll();
+                    if (tenantQueue.isEmpty()) {
+                        iterator.remove();
+                    }
+                    queued--;
+                    permits.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            if (recover(stateMachineInstance) != null) {
+                                recovered.incrementAndGet();
+                            } else {
+                                skipped.incrementAndGet();
+                            }
+                        } catch (Throwable t) {
+                            failed.incrementAndGet();
+                            LOGGER.error("Recover StateMachineInstance[{}] failed", stateMachineInstance.getId(), t);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+            permits.acquireUninterruptibly(parallelism);
+            permits.release(parallelism);
+        } finally {
+            executor.shutdown();
+        }
+        LOGGER.info("StateMachineInstances recovered: {}, skipped: {}, failed: {}, cost: {}ms", recovered.get(),
+            skipped.get(), failed.get(), System.currentTimeMillis() - start);
+        return recovered.get();
+    }
+
+    /**
+     * Recover one instance loaded with its state instances.
+     *
+     * @param stateMachineInstance the state machine instance
+     * @return the state machine instance, null if it is left to the TC or claimed by an other execution
+     */
+    protected StateMachineInstance recover(StateMachineInstance stateMachineInstance) {
+        StateLogStore stateLogStore = stateMachineEngine.getStateMachineConfig().getStateLogStore();
+        if (stateLogStore.isRecoveringByCoordinator(stateMachineInstance)) {
+            LOGGER.info("StateMachineInstance[{}] is recovered by the TC, skip it", stateMachineInstance.getId());
+            return null;
+        }
+        if (!stateLogStore.claimStateMachineInstance(stateMachineInstance)) {
+            LOGGER.info("StateMachineInstance[{}] is claimed by an other execution, skip it",
+                stateMachineInstance.getId());
+            return null;
+        }
+        if (stateMachineInstance.getCompensationStatus() != null) {
+            return stateMachineEngine.compensate(stateMachineInstance, null);
+        }
+        if (ExecutionStatus.UN.equals(stateMachineInstance.getStatus())) {
+            return stateMachineEngine.forward(stateMachineInstance, null);
+        }
+        StateMachine stateMachine = stateMachineInstance.getStateMachine();
+        if (stateMachine == null) {
+            stateMachine = stateMachineEngine.getStateMachineConfig().getStateMachineRepository().getStateMachineById(
+                stateMachineInstance.getMachineId());
+            stateMachineInstance.setStateMachine(stateMachine);
+        }
+        if (stateMachine != null && RecoverStrategy.Forward.equals(stateMachine.getRecoverStrategy())) {
+            return stateMachineEngine.forward(stateMachineInstance, null);
+        }
+        return stateMachineEngine.compensate(stateMachineInstance, null);
+    }
+
+    public StateMachineEngine getStateMachineEngine() {
+        return stateMachineEngine;
+    }
+
+    public void setStateMachineEngine(StateMachineEngine stateMachineEngine) {
+        this.stateMachineEngine = stateMachineEngine;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getMinIdleMillis() {
+        return minIdleMillis;
+    }
+
+    public void setMinIdleMillis(long minIdleMillis) {
+        this.minIdleMillis = minIdleMillis;
+    }
+
+    public boolean isRecoverOnStartup() {
+        return recoverOnStartup;
+    }
+
+    public void setRecoverOnStartup(boolean recoverOnStartup) {
+        this.recoverOnStartup = recoverOnStartup;
+    }
+}
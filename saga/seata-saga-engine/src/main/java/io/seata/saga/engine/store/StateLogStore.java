@@ -15,6 +15,8 @@
  */
 package io.seata.saga.engine.store;
 
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import io.seata.saga.proctrl.ProcessContext;
@@ -104,4 +106,45 @@ public interface StateLogStore {
      * @return
      */
     List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId);
-}
\ No newline at end of file
+
+    /**
+     * Query a page of the root state machine instances to recover, ordered by id: the instances whose compensation
+     * status is RU or UN, or which are not compensated and whose status is RU or UN, and which are not updated since
+     * gmtUpdatedBefore. The state instances of
+     * each page are loaded in bulk. The default implementation returns no instance, so the instances of a store
+     * without it are only recovered by the TC.
+     *
+     * @param gmtUpdatedBefore only the instances not updated after this time
+     * @param afterId          the last id of the previous page, null for the first page
+     * @param limit            the page size
+     * @return the state machine instances with their state instances
+     */
+    default List<StateMachineInstance> queryRecoverableStateMachineInstances(Date gmtUpdatedBefore, String afterId,
+                                                                             int limit) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Claim a state machine instance loaded from this store before recovering it: the instance is marked running
+     * only if it is not updated since it was loaded, so two executions never recover it at the same time, and the
+     * other nodes scanning the store skip it. The default implementation claims nothing and returns true.
+     *
+     * @param stateMachineInstance the loaded state machine instance, its gmtUpdated is set to the claim time
+     * @return false if the instance was updated by an other execution since it was loaded
+     */
+    default boolean claimStateMachineInstance(StateMachineInstance stateMachineInstance) {
+        return true;
+    }
+
+    /**
+     * Whether the TC is committing or rolling back the global transaction of a root state machine instance, the
+     * instance is then recovered by the branch commit or rollback the TC sends, not by a bulk recovery.
+     * The default implementation returns false.
+     *
+     * @param stateMachineInstance the root state machine instance
+     * @return
+     */
+    default boolean isRecoveringByCoordinator(StateMachineInstance stateMachineInstance) {
+        return false;
+    }
+}
@@ -25,8 +25,11 @@ import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.model.Resource;
 import io.seata.rm.AbstractResourceManager;
+import io.seata.saga.engine.StateMachineConfig;
+import io.seata.saga.engine.StateMachineEngine;
 import io.seata.saga.engine.exception.EngineExecutionException;
 import io.seata.saga.engine.exception.ForwardInvalidException;
+import io.seata.saga.engine.pcext.utils.EngineUtils;
 import io.seata.saga.statelang.domain.ExecutionStatus;
 import io.seata.saga.statelang.domain.RecoverStrategy;
 import io.seata.saga.statelang.domain.StateMachineInstance;
@@ -128,7 +131,8 @@ public class SagaResourceManager extends AbstractResourceManager {
     public BranchStatus branchRollback(BranchType branchType, String xid, long branchId, String resourceId,
                                        String applicationData) throws TransactionException {
         try {
-            StateMachineInstance stateMachineInstance = StateMachineEngineHolder.getStateMachineEngine().reloadStateMachineInstance(xid);
+            StateMachineEngine stateMachineEngine = StateMachineEngineHolder.getStateMachineEngine();
+            StateMachineInstance stateMachineInstance = stateMachineEngine.reloadStateMachineInstance(xid);
             if (stateMachineInstance == null) {
                 return BranchStatus.PhaseTwo_Rollbacked;
             }
@@ -139,8 +143,24 @@ public class SagaResourceManager extends AbstractResourceManager {
                 return BranchStatus.PhaseTwo_CommitFailed_Retryable;
             }
 
-            stateMachineInstance = StateMachineEngineHolder.getStateMachineEngine().compensate(xid,
-                null);
+            if (ExecutionStatus.SU.equals(stateMachineInstance.getCompensationStatus())) {
+                return BranchStatus.PhaseTwo_Rollbacked;
+            }
+            // an instance running or recovered by an other execution is compensated when the TC retries
+            StateMachineConfig stateMachineConfig = stateMachineEngine.getStateMachineConfig();
+            if (stateMachineInstance.isRunning() && !EngineUtils.isTimeout(stateMachineInstance.getGmtUpdated(),
+                stateMachineConfig.getTransOperationTimeout())) {
+                LOGGER.warn("StateMachineInstance[{}] is running, retry the rollback later", xid);
+                return BranchStatus.PhaseTwo_RollbackFailed_Retryable;
+            }
+            if (!stateMachineConfig.getStateLogStore().claimStateMachineInstance(stateMachineInstance)) {
+                LOGGER.warn("StateMachineInstance[{}] is claimed by an other execution, retry the rollback later",
+                    xid);
+                return BranchStatus.PhaseTwo_RollbackFailed_Retryable;
+            }
+
+            // compensate the instance just loaded instead of loading it again
+            stateMachineInstance = stateMachineEngine.compensate(stateMachineInstance, null);
             if (ExecutionStatus.SU.equals(stateMachineInstance.getCompensationStatus())) {
                 return BranchStatus.PhaseTwo_Rollbacked;
             }
@@ -32,6 +32,7 @@ public class DomainConstants {
     public static final String STATE_TYPE_COMPENSATION_TRIGGER = "CompensationTrigger";
     public static final String STATE_TYPE_SUB_STATE_MACHINE = "SubStateMachine";
     public static final String STATE_TYPE_SUB_MACHINE_COMPENSATION = "CompensateSubMachine";
+    public static final String STATE_TYPE_PARALLEL = "Parallel";
     /**
      * State Types
      **/
@@ -75,11 +76,17 @@ public class DomainConstants {
     public static final String VAR_NAME_FIRST_COMPENSATION_STATE_STARTED = "_first_compensation_state_started";
     public static final String VAR_NAME_GLOBAL_TX = "_global_transaction_";
     public static final String VAR_NAME_IS_ASYNC_EXECUTION = "_is_async_execution_";
+    public static final String VAR_NAME_IS_PARALLEL_BRANCH = "_is_parallel_branch_";
+    public static final String VAR_NAME_RETRY_COUNTS = "_retry_counts_";
+    public static final String VAR_NAME_RETRY_DELAY = "_retry_delay_";
 
     public static final String OPERATION_NAME_START = "start";
     public static final String OPERATION_NAME_FORWARD = "forward";
     public static final String OPERATION_NAME_COMPENSATE = "compensate";
 
+    public static final String JOIN_POLICY_ALL = "All";
+    public static final String JOIN_POLICY_ANY = "Any";
+
     public static final String SEQ_ENTITY_STATE_MACHINE = "STATE_MACHINE";
     public static final String SEQ_ENTITY_STATE_MACHINE_INST = "STATE_MACHINE_INST";
     public static final String SEQ_ENTITY_STATE_INST = "STATE_INST";
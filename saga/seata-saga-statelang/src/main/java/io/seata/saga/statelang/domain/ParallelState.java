@@ -0,0 +1,53 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.statelang.domain;
+
+import java.util.List;
+
+/**
+ * Parallel State, execute the branch states concurrently and join them
+ */
+public interface ParallelState extends State {
+
+    /**
+     * the names of the task states executed as the branches
+     *
+     * @return
+     */
+    List<String> getBranches();
+
+    /**
+     * join policy: All, Any, or the count of the branches which must succeed, default All
+     *
+     * @return
+     */
+    String getJoinPolicy();
+
+    /**
+     * the names of the branches in the order their compensations run, default the reverse order of the branches
+     *
+     * @return
+     */
+    List<String> getCompensationOrder();
+
+    /**
+     * exception handling strategy when the join policy is not satisfied, the Catch of a failed branch is matched
+     * before it
+     *
+     * @return
+     */
+    List<TaskState.ExceptionMatch> getCatches();
+}
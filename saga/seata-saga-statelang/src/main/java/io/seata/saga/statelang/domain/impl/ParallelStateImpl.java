@@ -0,0 +1,95 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.statelang.domain.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.ParallelState;
+import io.seata.saga.statelang.domain.TaskState;
+
+/**
+ * Parallel state
+ */
+public class ParallelStateImpl extends BaseState implements ParallelState {
+
+    private List<String> branches;
+    private String joinPolicy = DomainConstants.JOIN_POLICY_ALL;
+    private List<String> compensationOrder;
+    private List<TaskState.ExceptionMatch> catches;
+
+    public ParallelStateImpl() {
+        setType(DomainConstants.STATE_TYPE_PARALLEL);
+    }
+
+    @Override
+    public List<String> getBranches() {
+        return branches;
+    }
+
+    public void setBranches(List<String> branches) {
+        this.branches = branches;
+    }
+
+    @Override
+    public String getJoinPolicy() {
+        return joinPolicy;
+    }
+
+    public void setJoinPolicy(String joinPolicy) {
+        this.joinPolicy = joinPolicy;
+    }
+
+    @Override
+    public List<String> getCompensationOrder() {
+        if (compensationOrder == null && branches != null) {
+            List<String> reverseBranches = new ArrayList<>(branches);
+            Collections.reverse(reverseBranches);
+            return reverseBranches;
+        }
+        return compensationOrder;
+    }
+
+    public void setCompensationOrder(List<String> compensationOrder) {
+        this.compensationOrder = compensationOrder;
+    }
+
+    /**
+     * the count of the branches which must succeed for the join
+     *
+     * @return
+     */
+    public int getRequiredSuccessCount() {
+        if (DomainConstants.JOIN_POLICY_ANY.equalsIgnoreCase(joinPolicy)) {
+            return 1;
+        }
+        if (DomainConstants.JOIN_POLICY_ALL.equalsIgnoreCase(joinPolicy)) {
+            return branches.size();
+        }
+        return Integer.parseInt(joinPolicy);
+    }
+
+    @Override
+    public List<TaskState.ExceptionMatch> getCatches() {
+        return catches;
+    }
+
+    public void setCatches(List<TaskState.ExceptionMatch> catches) {
+        this.catches = catches;
+    }
+}
@@ -16,6 +16,7 @@
 package io.seata.saga.statelang.domain.impl;
 
 import java.util.Date;
+import java.util.function.Function;
 
 import io.seata.common.util.StringUtils;
 import io.seata.saga.statelang.domain.ExecutionStatus;
@@ -46,6 +47,9 @@ public class StateInstanceImpl implements StateInstance {
     private Object serializedInputParams;
     private Object outputParams;
     private Object serializedOutputParams;
+    private volatile boolean inputParamsDecoded = true;
+    private volatile boolean outputParamsDecoded = true;
+    private Function<Object, Object> paramsDeserializer;
     private ExecutionStatus status;
     private String stateIdCompensatedFor;
     private String stateIdRetriedFor;
@@ -195,22 +199,55 @@ public class StateInstanceImpl implements StateInstance {
 
     @Override
     public Object getInputParams() {
+        if (!inputParamsDecoded) {
+            decodeInputParams();
+        }
         return inputParams;
     }
 
     @Override
     public void setInputParams(Object inputParams) {
         this.inputParams = inputParams;
+        this.inputParamsDecoded = true;
     }
 
     @Override
     public Object getOutputParams() {
+        if (!outputParamsDecoded) {
+            decodeOutputParams();
+        }
         return outputParams;
     }
 
     @Override
     public void setOutputParams(Object outputParams) {
         this.outputParams = outputParams;
+        this.outputParamsDecoded = true;
+    }
+
+    /**
+     * decode the serialized input and output params on first access instead of when loaded
+     *
+     * @param paramsDeserializer the deserializer of the serialized params
+     */
+    public synchronized void setParamsDeserializer(Function<Object, Object> paramsDeserializer) {
+        this.paramsDeserializer = paramsDeserializer;
+        this.inputParamsDecoded = serializedInputParams == null;
+        this.outputParamsDecoded = serializedOutputParams == null;
+    }
+
+    private synchronized void decodeInputParams() {
+        if (!inputParamsDecoded) {
+            inputParams = paramsDeserializer.apply(serializedInputParams);
+            inputParamsDecoded = true;
+        }
+    }
+
+    private synchronized void decodeOutputParams() {
+        if (!outputParamsDecoded) {
+            outputParams = paramsDeserializer.apply(serializedOutputParams);
+            outputParamsDecoded = true;
+        }
     }
 
     @Override
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import io.seata.saga.statelang.domain.ExecutionStatus;
 import io.seata.saga.statelang.domain.StateInstance;
@@ -48,6 +49,9 @@ public class StateMachineInstanceImpl implements StateMachineInstance {
     private Object serializedException;
     private Map<String, Object> endParams = new HashMap<>();
     private Object serializedEndParams;
+    private volatile boolean startParamsDecoded = true;
+    private volatile boolean endParamsDecoded = true;
+    private Function<Object, Object> paramsDeserializer;
     private ExecutionStatus status;
     private ExecutionStatus compensationStatus;
     private boolean isRunning;
@@ -187,22 +191,61 @@ public class StateMachineInstanceImpl implements StateMachineInstance {
 
     @Override
     public Map<String, Object> getStartParams() {
+        if (!startParamsDecoded) {
+            decodeStartParams();
+        }
         return startParams;
     }
 
     @Override
     public void setStartParams(Map<String, Object> startParams) {
         this.startParams = startParams;
+        this.startParamsDecoded = true;
     }
 
     @Override
     public Map<String, Object> getEndParams() {
+        if (!endParamsDecoded) {
+            decodeEndParams();
+        }
         return endParams;
     }
 
     @Override
     public void setEndParams(Map<String, Object> endParams) {
         this.endParams = endParams;
+        this.endParamsDecoded = true;
+    }
+
+    /**
+     * decode the serialized start and end params on first access instead of when loaded
+     *
+     * @param paramsDeserializer the deserializer of the serialized params, null results keep the current params
+     */
+    public synchronized void setParamsDeserializer(Function<Object, Object> paramsDeserializer) {
+        this.paramsDeserializer = paramsDeserializer;
+        this.startParamsDecoded = serializedStartParams == null;
+        this.endParamsDecoded = serializedEndParams == null;
+    }
+
+    private synchronized void decodeStartParams() {
+        if (!startParamsDecoded) {
+            Map<String, Object> params = (Map<String, Object>)paramsDeserializer.apply(serializedStartParams);
+            if (params != null) {
+                startParams = params;
+            }
+            startParamsDecoded = true;
+        }
+    }
+
+    private synchronized void decodeEndParams() {
+        if (!endParamsDecoded) {
+            Map<String, Object> params = (Map<String, Object>)paramsDeserializer.apply(serializedEndParams);
+            if (params != null) {
+                endParams = params;
+            }
+            endParamsDecoded = true;
+        }
     }
 
     @Override
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.statelang.parser.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.saga.statelang.domain.ParallelState;
+import io.seata.saga.statelang.domain.impl.ParallelStateImpl;
+import io.seata.saga.statelang.parser.StateParser;
+
+/**
+ * Parallel state parser
+ */
+public class ParallelStateParser extends AbstractTaskStateParser implements StateParser<ParallelState> {
+
+    @Override
+    public ParallelState parse(Object node) {
+
+        ParallelStateImpl parallelState = new ParallelStateImpl();
+        parseBaseAttributes(parallelState, node);
+
+        Map<String, Object> nodeMap = (Map<String, Object>)node;
+        List<String> branches = (List<String>)nodeMap.get("Branches");
+        if (branches == null || branches.isEmpty()) {
+            throw new IllegalArgumentException("Parallel state requires at least one branch");
+        }
+        parallelState.setBranches(branches);
+
+        Object joinPolicy = nodeMap.get("JoinPolicy");
+        if (joinPolicy != null) {
+            parallelState.setJoinPolicy(String.valueOf(joinPolicy));
+        }
+        int requiredSuccessCount;
+        try {
+            requiredSuccessCount = parallelState.getRequiredSuccessCount();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("JoinPolicy [" + joinPolicy + "] is not support", e);
+        }
+        if (requiredSuccessCount < 1 || requiredSuccessCount > branches.size()) {
+            throw new IllegalArgumentException(
+                "JoinPolicy [" + joinPolicy + "] is out of the range of branches count " + branches.size());
+        }
+
+        List<String> compensationOrder = (List<String>)nodeMap.get("CompensationOrder");
+        if (compensationOrder != null) {
+            if (compensationOrder.size() != branches.size() || !new HashSet<>(compensationOrder).equals(
+                new HashSet<>(branches))) {
+                throw new IllegalArgumentException(
+                    "CompensationOrder " + compensationOrder + " must list every branch of " + branches + " once");
+            }
+            parallelState.setCompensationOrder(compensationOrder);
+        }
+
+        List<Object> catchList = (List<Object>)nodeMap.get("Catch");
+        if (catchList != null) {
+            parallelState.setCatches(parseCatch(catchList));
+        }
+        return parallelState;
+    }
+}
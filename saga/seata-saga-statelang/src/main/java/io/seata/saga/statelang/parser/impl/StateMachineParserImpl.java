@@ -22,6 +22,7 @@ import com.alibaba.fastjson.parser.Feature;
 
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import io.seata.common.util.StringUtils;
+import io.seata.saga.statelang.domain.ParallelState;
 import io.seata.saga.statelang.domain.RecoverStrategy;
 import io.seata.saga.statelang.domain.State;
 import io.seata.saga.statelang.domain.StateMachine;
@@ -100,6 +101,13 @@ public class StateMachineParserImpl implements StateMachineParser {
                         ((AbstractTaskState) compState).setForCompensation(true);
                     }
                 }
+            } else if (state instanceof ParallelState) {
+                for (String branch : ((ParallelState) state).getBranches()) {
+                    if (!(stateMap.get(branch) instanceof AbstractTaskState)) {
+                        throw new IllegalArgumentException("Branch[" + branch + "] of Parallel State[name:" + name
+                            + "] must be a ServiceTask or a SubStateMachine");
+                    }
+                }
             }
         }
         return stateMachine;
@@ -16,13 +16,17 @@
 package io.seata.saga.statelang.parser;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 
+import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.StateMachine;
+import io.seata.saga.statelang.domain.impl.ParallelStateImpl;
 import io.seata.saga.statelang.parser.utils.DesignerJsonTransformer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -61,4 +65,71 @@ public class StateParserTests {
         String outputJson = JSON.toJSONString(parsedObj, SerializerFeature.PrettyFormat);
         System.out.println(outputJson);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParallelParser() throws IOException {
+
+        ClassPathResource resource = new ClassPathResource("statelang/simple_statemachine_with_parallel.json");
+        String json = io.seata.saga.statelang.parser.utils.IOUtils.toString(resource.getInputStream(), "UTF-8");
+        StateMachine stateMachine = StateMachineParserFactory.getStateMachineParser().parse(json);
+        Assertions.assertNotNull(stateMachine);
+
+        ParallelStateImpl parallelState = (ParallelStateImpl) stateMachine.getState("ParallelState");
+        Assertions.assertEquals(Arrays.asList("FooState", "BarState", "BazState"), parallelState.getBranches());
+        Assertions.assertEquals(2, parallelState.getRequiredSuccessCount());
+        Assertions.assertEquals(1, parallelState.getCatches().size());
+        Assertions.assertEquals("Succeed", parallelState.getNext());
+    }
+
+    @Test
+    public void testParallelJoinPolicy() {
+
+        Assertions.assertEquals(3, parseParallelState("All").getRequiredSuccessCount());
+        Assertions.assertEquals(3, parseParallelState(null).getRequiredSuccessCount());
+        Assertions.assertEquals(1, parseParallelState("any").getRequiredSuccessCount());
+        Assertions.assertEquals(3, parseParallelState("3").getRequiredSuccessCount());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parseParallelState("0"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parseParallelState("4"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parseParallelState("Some"));
+    }
+
+    @Test
+    public void testParallelCompensationOrder() {
+
+        Assertions.assertEquals(Arrays.asList("BazState", "BarState", "FooState"),
+            parseParallelState(null).getCompensationOrder());
+
+        Map<String, Object> node = new HashMap<>(4);
+        node.put("Type", DomainConstants.STATE_TYPE_PARALLEL);
+        node.put("Branches", Arrays.asList("FooState", "BarState", "BazState"));
+        node.put("CompensationOrder", Arrays.asList("BarState", "FooState", "BazState"));
+        ParallelStateImpl parallelState = (ParallelStateImpl) StateParserFactory.getStateParser(
+            DomainConstants.STATE_TYPE_PARALLEL).parse(node);
+        Assertions.assertEquals(Arrays.asList("BarState", "FooState", "BazState"),
+            parallelState.getCompensationOrder());
+
+        node.put("CompensationOrder", Arrays.asList("BarState", "FooState", "FooState"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> StateParserFactory.getStateParser(DomainConstants.STATE_TYPE_PARALLEL).parse(node));
+    }
+
+    @Test
+    public void testParallelWithoutBranches() {
+
+        Map<String, Object> node = new HashMap<>(2);
+        node.put("Type", DomainConstants.STATE_TYPE_PARALLEL);
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> StateParserFactory.getStateParser(DomainConstants.STATE_TYPE_PARALLEL).parse(node));
+    }
+
+    private ParallelStateImpl parseParallelState(String joinPolicy) {
+        Map<String, Object> node = new HashMap<>(4);
+        node.put("Type", DomainConstants.STATE_TYPE_PARALLEL);
+        node.put("Branches", Arrays.asList("FooState", "BarState", "BazState"));
+        if (joinPolicy != null) {
+            node.put("JoinPolicy", joinPolicy);
+        }
+        return (ParallelStateImpl) StateParserFactory.getStateParser(DomainConstants.STATE_TYPE_PARALLEL).parse(node);
+    }
+}
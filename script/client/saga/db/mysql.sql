@@ -33,7 +33,8 @@ CREATE TABLE IF NOT EXISTS `seata_state_machine_inst`
     `is_running`          TINYINT(1) COMMENT 'is running(0 no|1 yes)',
     `gmt_updated`         TIMESTAMP DEFAULT now() NOT NULL,
     PRIMARY KEY (`id`),
-    UNIQUE KEY `unikey_buz_tenant` (`business_key`, `tenant_id`)
+    UNIQUE KEY `unikey_buz_tenant` (`business_key`, `tenant_id`),
+    KEY `idx_recover` (`compensation_status`, `status`, `gmt_updated`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
 
@@ -39,6 +39,7 @@ CREATE TABLE seata_state_machine_inst
     PRIMARY KEY (id)
 );
 CREATE UNIQUE INDEX state_machine_inst_unibuzkey ON seata_state_machine_inst (uni_business_key, tenant_id);
+CREATE INDEX state_machine_inst_recover ON seata_state_machine_inst (compensation_status, status, gmt_updated);
 
 CREATE TABLE seata_state_inst
 (
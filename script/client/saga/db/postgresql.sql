@@ -35,6 +35,7 @@ CREATE TABLE IF NOT EXISTS public.seata_state_machine_inst
     CONSTRAINT unikey_buz_tenant UNIQUE (business_key, tenant_id)
 )
 ;
+CREATE INDEX IF NOT EXISTS idx_recover ON public.seata_state_machine_inst (compensation_status, status, gmt_updated);
 CREATE TABLE IF NOT EXISTS public.seata_state_inst
 (
     id                       VARCHAR(32)  NOT NULL,
@@ -0,0 +1,13 @@
+-- for TCC mode with useTCCFence you must to init this sql for you business database. the seata server not need it.
+CREATE TABLE IF NOT EXISTS `tcc_fence_log`
+(
+    `xid`          VARCHAR(128) NOT NULL COMMENT 'global transaction id',
+    `branch_id`    BIGINT(20)   NOT NULL COMMENT 'branch transaction id',
+    `action_name`  VARCHAR(64)  NOT NULL COMMENT 'action name',
+    `status`       TINYINT      NOT NULL COMMENT '1:tried,2:committed,3:rollbacked,4:suspended',
+    `gmt_create`   DATETIME(3)  NOT NULL COMMENT 'create datetime',
+    `gmt_modified` DATETIME(3)  NOT NULL COMMENT 'modify datetime',
+    PRIMARY KEY (`xid`, `branch_id`),
+    KEY `idx_status_gmt_modified` (`status`, `gmt_modified`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8 COMMENT ='TCC transaction mode fence table';
\ No newline at end of file
@@ -0,0 +1,15 @@
+-- for TCC mode with useTCCFence you must to init this sql for you business database. the seata server not need it.
+CREATE TABLE tcc_fence_log
+(
+    xid          VARCHAR2(128) NOT NULL,
+    branch_id    NUMBER(19)    NOT NULL,
+    action_name  VARCHAR2(64)  NOT NULL,
+    status       NUMBER(3)     NOT NULL,
+    gmt_create   TIMESTAMP(3)  NOT NULL,
+    gmt_modified TIMESTAMP(3)  NOT NULL,
+    PRIMARY KEY (xid, branch_id)
+);
+
+CREATE INDEX idx_status_gmt_modified ON tcc_fence_log (status, gmt_modified);
+
+COMMENT ON TABLE tcc_fence_log IS 'TCC transaction mode fence table';
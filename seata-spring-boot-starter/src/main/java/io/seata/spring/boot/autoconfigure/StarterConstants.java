@@ -17,8 +17,10 @@ package io.seata.spring.boot.autoconfigure;
 
 import java.util.HashMap;
 
+import io.seata.spring.boot.autoconfigure.properties.file.LoadBalanceProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.LockProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.LogProperties;
+import io.seata.spring.boot.autoconfigure.properties.file.MetricsProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.RmProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.ServiceProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.ShutdownProperties;
@@ -60,6 +62,9 @@ public class StarterConstants {
     public static final String LOCK_PREFIX = CLIENT_RM_PREFIX + ".lock";
     public static final String UNDO_PREFIX = CLIENT_PREFIX + ".undo";
     public static final String LOG_PREFIX = CLIENT_PREFIX + ".log";
+    public static final String LOAD_BALANCE_PREFIX_KEBAB_STYLE = CLIENT_PREFIX + ".load-balance";
+    public static final String LOAD_BALANCE_PREFIX = CLIENT_PREFIX + ".loadBalance";
+    public static final String METRICS_PREFIX = SEATA_PREFIX + ".metrics";
 
     public static final String REGISTRY_PREFIX = SEATA_PREFIX + ".registry";
     public static final String REGISTRY_NACOS_PREFIX = REGISTRY_PREFIX + ".nacos";
@@ -90,6 +95,8 @@ public class StarterConstants {
             put(THREAD_FACTORY_PREFIX, ThreadFactoryProperties.class);
             put(UNDO_PREFIX, UndoProperties.class);
             put(LOG_PREFIX, LogProperties.class);
+            put(LOAD_BALANCE_PREFIX, LoadBalanceProperties.class);
+            put(METRICS_PREFIX, MetricsProperties.class);
             put(TRANSPORT_PREFIX, TransportProperties.class);
             put(CONFIG_PREFIX, ConfigProperties.class);
             put(CONFIG_FILE_PREFIX, ConfigFileProperties.class);
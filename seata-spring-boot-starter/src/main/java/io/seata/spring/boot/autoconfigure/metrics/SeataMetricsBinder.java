@@ -0,0 +1,126 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.spring.boot.autoconfigure.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.seata.metrics.Id;
+import io.seata.metrics.Measurement;
+import io.seata.metrics.registry.Registry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bridges the measurements of the seata client registry into micrometer.
+ * Every measurement becomes a gauge. The seata registry is measured at most once per refresh interval, when the
+ * gauges are read, and the gauges of new measurements are registered at that time.
+ */
+public class SeataMetricsBinder implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeataMetricsBinder.class);
+
+    /**
+     * the gauge of the number of bridged measurements, reading it discovers the new measurements
+     */
+    public static final String METER_NAME_MEASUREMENTS = "seata.metrics.measurements";
+
+    private static final long DEFAULT_REFRESH_MILLIS = 1000;
+
+    private final Supplier<Registry> registrySupplier;
+
+    private final long refreshMillis;
+
+    private final List<MeterRegistry> meterRegistries = new CopyOnWriteArrayList<>();
+
+    private final Map<UUID, Double> values = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Id> ids = new ConcurrentHashMap<>();
+
+    private long lastRefreshMillis;
+
+    public SeataMetricsBinder(Supplier<Registry> registrySupplier) {
+        this(registrySupplier, DEFAULT_REFRESH_MILLIS);
+    }
+
+    public SeataMetricsBinder(Supplier<Registry> registrySupplier, long refreshMillis) {
+        this.registrySupplier = registrySupplier;
+        this.refreshMillis = refreshMillis;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry meterRegistry) {
+        meterRegistries.add(meterRegistry);
+        Gauge.builder(METER_NAME_MEASUREMENTS, this, binder -> {
+            binder.refresh();
+            return binder.values.size();
+        }).description("the number of seata measurements bridged").register(meterRegistry);
+        for (Id id : ids.values()) {
+            bind(id, meterRegistry);
+        }
+    }
+
+    private double value(UUID key) {
+        refresh();
+        Double value = values.get(key);
+        return value == null ? Double.NaN : value;
+    }
+
+    private synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        if (now - lastRefreshMillis < refreshMillis) {
+            return;
+        }
+        Registry registry = registrySupplier.get();
+        if (registry == null) {
+            return;
+        }
+        lastRefreshMillis = now;
+        for (Measurement measurement : registry.measure()) {
+            Id id = measurement.getId();
+            values.put(id.getId(), measurement.getValue());
+            if (ids.putIfAbsent(id.getId(), id) == null) {
+                for (MeterRegistry meterRegistry : meterRegistries) {
+                    bind(id, meterRegistry);
+                }
+            }
+        }
+    }
+
+    private void bind(Id id, MeterRegistry meterRegistry) {
+        UUID key = id.getId();
+        Tags tags = Tags.empty();
+        for (Map.Entry<String, String> tag : id.getTags()) {
+            tags = tags.and(Tag.of(tag.getKey(), tag.getValue()));
+        }
+        try {
+            Gauge.builder(id.getName(), this, binder -> binder.value(key)).tags(tags).strongReference(true)
+                .register(meterRegistry);
+        } catch (IllegalArgumentException e) {
+            // e.g. prometheus requires the same tag keys for all the meters of a name
+            LOGGER.warn("the seata measurement {} can not be bridged: {}", id, e.getMessage());
+        }
+    }
+}
@@ -19,9 +19,12 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE;
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
+import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE;
+import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.CLIENT_RM_PREFIX;
 
 /**
@@ -34,6 +37,9 @@ public class RmProperties {
     private int reportRetryCount = DEFAULT_CLIENT_REPORT_RETRY_COUNT;
     private boolean tableMetaCheckEnable = DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
     private boolean reportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
+    private boolean pipelineCommitEnable = DEFAULT_CLIENT_PIPELINE_COMMIT_ENABLE;
+    private boolean tccActionContextBinaryEnable = DEFAULT_CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE;
+    private int tccActionContextCompressThreshold = DEFAULT_CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD;
 
     public int getAsyncCommitBufferLimit() {
         return asyncCommitBufferLimit;
@@ -70,4 +76,31 @@ public class RmProperties {
         this.reportSuccessEnable = reportSuccessEnable;
         return this;
     }
+
+    public boolean isPipelineCommitEnable() {
+        return pipelineCommitEnable;
+    }
+
+    public RmProperties setPipelineCommitEnable(boolean pipelineCommitEnable) {
+        this.pipelineCommitEnable = pipelineCommitEnable;
+        return this;
+    }
+
+    public boolean isTccActionContextBinaryEnable() {
+        return tccActionContextBinaryEnable;
+    }
+
+    public RmProperties setTccActionContextBinaryEnable(boolean tccActionContextBinaryEnable) {
+        this.tccActionContextBinaryEnable = tccActionContextBinaryEnable;
+        return this;
+    }
+
+    public int getTccActionContextCompressThreshold() {
+        return tccActionContextCompressThreshold;
+    }
+
+    public RmProperties setTccActionContextCompressThreshold(int tccActionContextCompressThreshold) {
+        this.tccActionContextCompressThreshold = tccActionContextCompressThreshold;
+        return this;
+    }
 }
@@ -19,6 +19,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import static io.seata.core.constants.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
+import static io.seata.core.constants.DefaultValues.DEFAULT_ENABLE_CLIENT_MULTIPLEX;
 import static io.seata.core.constants.DefaultValues.DEFAULT_TRANSPORT_HEARTBEAT;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.TRANSPORT_PREFIX;
 
@@ -53,6 +54,7 @@ public class TransportProperties {
      * enable client batch send request
      */
     private boolean enableClientBatchSendRequest = DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
+    private boolean enableClientMultiplex = DEFAULT_ENABLE_CLIENT_MULTIPLEX;
 
     public String getType() {
         return type;
@@ -107,4 +109,13 @@ public class TransportProperties {
         this.enableClientBatchSendRequest = enableClientBatchSendRequest;
         return this;
     }
+
+    public boolean isEnableClientMultiplex() {
+        return enableClientMultiplex;
+    }
+
+    public TransportProperties setEnableClientMultiplex(boolean enableClientMultiplex) {
+        this.enableClientMultiplex = enableClientMultiplex;
+        return this;
+    }
 }
@@ -20,7 +20,9 @@ import java.util.Map;
 import io.seata.spring.boot.autoconfigure.properties.SeataProperties;
 import io.seata.spring.boot.autoconfigure.properties.SpringCloudAlibabaConfiguration;
 import io.seata.spring.boot.autoconfigure.properties.file.LockProperties;
+import io.seata.spring.boot.autoconfigure.properties.file.LoadBalanceProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.LogProperties;
+import io.seata.spring.boot.autoconfigure.properties.file.MetricsProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.RmProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.ServiceProperties;
 import io.seata.spring.boot.autoconfigure.properties.file.ShutdownProperties;
@@ -82,12 +84,29 @@ public class PropertiesTest {
         assertEquals(100, context.getBean(LogProperties.class).getExceptionRate());
     }
 
+    @Test
+    public void testLoadBalanceProperties() {
+        assertEquals("RandomLoadBalance", context.getBean(LoadBalanceProperties.class).getType());
+        assertEquals(10, context.getBean(LoadBalanceProperties.class).getVirtualNodes());
+    }
+
+    @Test
+    public void testMetricsProperties() {
+        assertFalse(context.getBean(MetricsProperties.class).isEnabled());
+        assertEquals("compact", context.getBean(MetricsProperties.class).getRegistryType());
+        assertEquals("prometheus", context.getBean(MetricsProperties.class).getExporterList());
+        assertEquals(9898, context.getBean(MetricsProperties.class).getExporterPrometheusPort());
+    }
+
     @Test
     public void testRmProperties() {
         assertEquals(10000, context.getBean(RmProperties.class).getAsyncCommitBufferLimit());
         assertEquals(5, context.getBean(RmProperties.class).getReportRetryCount());
         assertFalse(context.getBean(RmProperties.class).isTableMetaCheckEnable());
         assertFalse(context.getBean(RmProperties.class).isReportSuccessEnable());
+        assertFalse(context.getBean(RmProperties.class).isPipelineCommitEnable());
+        assertFalse(context.getBean(RmProperties.class).isTccActionContextBinaryEnable());
+        assertEquals(1024, context.getBean(RmProperties.class).getTccActionContextCompressThreshold());
     }
 
     @Test
@@ -131,6 +150,7 @@ public class PropertiesTest {
         assertEquals("seata", context.getBean(TransportProperties.class).getSerialization());
         assertEquals("none", context.getBean(TransportProperties.class).getCompressor());
         assertTrue(context.getBean(TransportProperties.class).isEnableClientBatchSendRequest());
+        assertFalse(context.getBean(TransportProperties.class).isEnableClientMultiplex());
     }
 
     @Test
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.spring.boot.autoconfigure.metrics;
+
+import java.util.Collections;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.seata.metrics.Counter;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+import io.seata.metrics.registry.compact.CompactRegistry;
+import io.seata.spring.boot.autoconfigure.SeataMetricsAutoConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * The micrometer bridge test.
+ */
+public class SeataMetricsBinderTest {
+
+    @Test
+    public void testMeasurementsAreBridged() {
+        Registry registry = new CompactRegistry();
+        Counter counter = registry.getCounter(new Id("seata.test.bridge")
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER));
+        counter.increase(3);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new SeataMetricsBinder(() -> registry, 0).bindTo(meterRegistry);
+        // reading the measurement gauge discovers the seata meters
+        Assertions.assertTrue(meterRegistry.get(SeataMetricsBinder.METER_NAME_MEASUREMENTS).gauge().value() > 0);
+
+        Assertions.assertEquals(3, meterRegistry.get("seata.test.bridge")
+            .tag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_RM).gauge().value());
+        counter.increase(2);
+        Assertions.assertEquals(5, meterRegistry.get("seata.test.bridge").gauge().value());
+    }
+
+    @Test
+    public void testLateMeterRegistryGetsTheKnownMeters() {
+        Registry registry = new CompactRegistry();
+        registry.getCounter(new Id("seata.test.late")).increase(1);
+        SeataMetricsBinder binder = new SeataMetricsBinder(() -> registry, 0);
+        MeterRegistry first = new SimpleMeterRegistry();
+        binder.bindTo(first);
+        first.get(SeataMetricsBinder.METER_NAME_MEASUREMENTS).gauge().value();
+
+        MeterRegistry second = new SimpleMeterRegistry();
+        binder.bindTo(second);
+        Assertions.assertEquals(1, second.get("seata.test.late").gauge().value());
+    }
+
+    @Test
+    public void testNothingIsBridgedWhileMetricsAreDisabled() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new SeataMetricsBinder(() -> null, 0).bindTo(meterRegistry);
+        Assertions.assertEquals(0, meterRegistry.get(SeataMetricsBinder.METER_NAME_MEASUREMENTS).gauge().value());
+        Assertions.assertEquals(1, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    public void testAutoConfiguration() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(SeataMetricsAutoConfiguration.class);
+            context.refresh();
+            Assertions.assertTrue(context.getBeansOfType(SeataMetricsBinder.class).isEmpty());
+        }
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Collections.singletonMap("seata.metrics.enabled", "true")));
+            context.register(SeataMetricsAutoConfiguration.class);
+            context.refresh();
+            Assertions.assertEquals(1, context.getBeansOfType(SeataMetricsBinder.class).size());
+        }
+    }
+}
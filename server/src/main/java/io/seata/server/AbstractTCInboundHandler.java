@@ -20,6 +20,7 @@ import io.seata.core.exception.AbstractExceptionHandler;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.ResultCode;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -38,6 +39,7 @@ import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
 import io.seata.core.protocol.transaction.TCInboundHandler;
 import io.seata.core.rpc.RpcContext;
+import io.seata.server.metrics.ServerMetrics;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHolder;
 
@@ -50,6 +52,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public GlobalBeginResponse handle(GlobalBeginRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         GlobalBeginResponse response = new GlobalBeginResponse();
         exceptionHandleTemplate(new AbstractCallback<GlobalBeginRequest, GlobalBeginResponse>() {
             @Override
@@ -63,6 +66,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.GLOBAL_BEGIN, null, start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -79,6 +84,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public GlobalCommitResponse handle(GlobalCommitRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         GlobalCommitResponse response = new GlobalCommitResponse();
         exceptionHandleTemplate(new AbstractCallback<GlobalCommitRequest, GlobalCommitResponse>() {
             @Override
@@ -93,6 +99,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.GLOBAL_COMMIT, null, start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -109,6 +117,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public GlobalRollbackResponse handle(GlobalRollbackRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         GlobalRollbackResponse response = new GlobalRollbackResponse();
         exceptionHandleTemplate(new AbstractCallback<GlobalRollbackRequest, GlobalRollbackResponse>() {
             @Override
@@ -147,6 +156,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.GLOBAL_ROLLBACK, null, start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -163,6 +174,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public BranchRegisterResponse handle(BranchRegisterRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         BranchRegisterResponse response = new BranchRegisterResponse();
         exceptionHandleTemplate(new AbstractCallback<BranchRegisterRequest, BranchRegisterResponse>() {
             @Override
@@ -176,6 +188,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.BRANCH_REGISTER, request.getBranchType(), start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -192,6 +206,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public BranchReportResponse handle(BranchReportRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         BranchReportResponse response = new BranchReportResponse();
         exceptionHandleTemplate(new AbstractCallback<BranchReportRequest, BranchReportResponse>() {
             @Override
@@ -206,6 +221,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.BRANCH_REPORT, request.getBranchType(), start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -221,6 +238,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public GlobalLockQueryResponse handle(GlobalLockQueryRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         GlobalLockQueryResponse response = new GlobalLockQueryResponse();
         exceptionHandleTemplate(new AbstractCallback<GlobalLockQueryRequest, GlobalLockQueryResponse>() {
             @Override
@@ -235,6 +253,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.GLOBAL_LOCK_QUERY, request.getBranchType(), start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -251,6 +271,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public GlobalStatusResponse handle(GlobalStatusRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         GlobalStatusResponse response = new GlobalStatusResponse();
         exceptionHandleTemplate(new AbstractCallback<GlobalStatusRequest, GlobalStatusResponse>() {
             @Override
@@ -265,6 +286,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 }
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.GLOBAL_STATUS, null, start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -281,6 +304,7 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
 
     @Override
     public GlobalReportResponse handle(GlobalReportRequest request, final RpcContext rpcContext) {
+        long start = System.nanoTime();
         GlobalReportResponse response = new GlobalReportResponse();
         exceptionHandleTemplate(new AbstractCallback<GlobalReportRequest, GlobalReportResponse>() {
             @Override
@@ -289,6 +313,8 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 doGlobalReport(request, response, rpcContext);
             }
         }, request, response);
+        ServerMetrics.recordRequest(ServerMetrics.Request.GLOBAL_REPORT, null, start,
+            response.getResultCode() == ResultCode.Success);
         return response;
     }
 
@@ -32,6 +32,7 @@ import io.seata.core.protocol.transaction.BranchRollbackResponse;
 import io.seata.core.rpc.ServerMessageSender;
 import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerFactory;
+import io.seata.server.metrics.ServerMetrics;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
@@ -144,6 +145,8 @@ public abstract class AbstractCore implements Core {
 
     @Override
     public BranchStatus branchCommit(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             BranchCommitRequest request = new BranchCommitRequest();
             request.setXid(branchSession.getXid());
@@ -151,11 +154,16 @@ public abstract class AbstractCore implements Core {
             request.setResourceId(branchSession.getResourceId());
             request.setApplicationData(branchSession.getApplicationData());
             request.setBranchType(branchSession.getBranchType());
-            return branchCommitSend(request, globalSession, branchSession);
+            BranchStatus branchStatus = branchCommitSend(request, globalSession, branchSession);
+            success = true;
+            return branchStatus;
         } catch (IOException | TimeoutException e) {
             throw new BranchTransactionException(FailedToSendBranchCommitRequest,
                     String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
                             branchSession.getBranchId()), e);
+        } finally {
+            ServerMetrics.recordBranch(ServerMetrics.BranchOperation.COMMIT, branchSession.getResourceId(),
+                branchSession.getBranchType(), start, success);
         }
     }
 
@@ -168,6 +176,8 @@ public abstract class AbstractCore implements Core {
 
     @Override
     public BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             BranchRollbackRequest request = new BranchRollbackRequest();
             request.setXid(branchSession.getXid());
@@ -175,11 +185,16 @@ public abstract class AbstractCore implements Core {
             request.setResourceId(branchSession.getResourceId());
             request.setApplicationData(branchSession.getApplicationData());
             request.setBranchType(branchSession.getBranchType());
-            return branchRollbackSend(request, globalSession, branchSession);
+            BranchStatus branchStatus = branchRollbackSend(request, globalSession, branchSession);
+            success = true;
+            return branchStatus;
         } catch (IOException | TimeoutException e) {
             throw new BranchTransactionException(FailedToSendBranchRollbackRequest,
                     String.format("Send branch rollback failed, xid = %s branchId = %s",
                             branchSession.getXid(), branchSession.getBranchId()), e);
+        } finally {
+            ServerMetrics.recordBranch(ServerMetrics.BranchOperation.ROLLBACK, branchSession.getResourceId(),
+                branchSession.getBranchType(), start, success);
         }
     }
 
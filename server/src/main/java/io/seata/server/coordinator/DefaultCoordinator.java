@@ -60,6 +60,7 @@ import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.netty.RpcServer;
 import io.seata.server.AbstractTCInboundHandler;
 import io.seata.server.event.EventBusManager;
+import io.seata.server.metrics.ServerMetrics;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHolder;
 import org.slf4j.Logger;
@@ -231,10 +232,9 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                 globalSession.changeStatus(GlobalStatus.TimeoutRollbacking);
 
                 // transaction timeout and start rollbacking event
-                eventBus.post(
-                    new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-                        globalSession.getTransactionName(), globalSession.getBeginTime(), null,
-                        globalSession.getStatus()));
+                eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+                    globalSession.getTransactionName(), globalSession.getBeginTime(), GlobalTransactionEvent.NOT_ENDED,
+                    globalSession.getStatus());
 
                 return true;
             });
@@ -258,6 +258,8 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      */
     protected void handleRetryRollbacking() {
         Collection<GlobalSession> rollbackingSessions = SessionHolder.getRetryRollbackingSessionManager().allSessions();
+        ServerMetrics.setRetryQueueDepth(ServerMetrics.RetryQueue.RETRY_ROLLBACKING,
+            CollectionUtils.isEmpty(rollbackingSessions) ? 0 : rollbackingSessions.size());
         if (CollectionUtils.isEmpty(rollbackingSessions)) {
             return;
         }
@@ -293,6 +295,8 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      */
     protected void handleRetryCommitting() {
         Collection<GlobalSession> committingSessions = SessionHolder.getRetryCommittingSessionManager().allSessions();
+        ServerMetrics.setRetryQueueDepth(ServerMetrics.RetryQueue.RETRY_COMMITTING,
+            CollectionUtils.isEmpty(committingSessions) ? 0 : committingSessions.size());
         if (CollectionUtils.isEmpty(committingSessions)) {
             return;
         }
@@ -332,6 +336,8 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     protected void handleAsyncCommitting() {
         Collection<GlobalSession> asyncCommittingSessions = SessionHolder.getAsyncCommittingSessionManager()
             .allSessions();
+        ServerMetrics.setRetryQueueDepth(ServerMetrics.RetryQueue.ASYNC_COMMITTING,
+            CollectionUtils.isEmpty(asyncCommittingSessions) ? 0 : asyncCommittingSessions.size());
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
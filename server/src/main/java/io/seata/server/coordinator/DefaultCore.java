@@ -128,8 +128,9 @@ public class DefaultCore implements Core {
         session.begin();
 
         // transaction start event
-        eventBus.post(new GlobalTransactionEvent(session.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-                session.getTransactionName(), session.getBeginTime(), null, session.getStatus()));
+        eventBus.postGlobalTransactionEvent(session.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+                session.getTransactionName(), session.getBeginTime(), GlobalTransactionEvent.NOT_ENDED,
+                session.getStatus());
 
         LOGGER.info("Successfully begin global transaction xid = {}", session.getXid());
         return session.getXid();
@@ -170,8 +171,9 @@ public class DefaultCore implements Core {
     public boolean doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
         boolean success = true;
         // start committing event
-        eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-                globalSession.getTransactionName(), globalSession.getBeginTime(), null, globalSession.getStatus()));
+        eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+                globalSession.getTransactionName(), globalSession.getBeginTime(), GlobalTransactionEvent.NOT_ENDED,
+                globalSession.getStatus());
 
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying);
@@ -231,9 +233,9 @@ public class DefaultCore implements Core {
             SessionHelper.endCommitted(globalSession);
 
             // committed event
-            eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+            eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
                     globalSession.getTransactionName(), globalSession.getBeginTime(), System.currentTimeMillis(),
-                    globalSession.getStatus()));
+                    globalSession.getStatus());
 
             LOGGER.info("Global[{}] committing is successfully done.", globalSession.getXid());
         }
@@ -268,8 +270,9 @@ public class DefaultCore implements Core {
     public boolean doGlobalRollback(GlobalSession globalSession, boolean retrying) throws TransactionException {
         boolean success = true;
         // start rollback event
-        eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-                globalSession.getTransactionName(), globalSession.getBeginTime(), null, globalSession.getStatus()));
+        eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+                globalSession.getTransactionName(), globalSession.getBeginTime(), GlobalTransactionEvent.NOT_ENDED,
+                globalSession.getStatus());
 
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying);
@@ -327,9 +330,9 @@ public class DefaultCore implements Core {
             SessionHelper.endRollbacked(globalSession);
 
             // rollbacked event
-            eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+            eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
                     globalSession.getTransactionName(), globalSession.getBeginTime(), System.currentTimeMillis(),
-                    globalSession.getStatus()));
+                    globalSession.getStatus());
 
             LOGGER.info("Successfully rollback global, xid = {}", globalSession.getXid());
         }
@@ -15,8 +15,11 @@
  */
 package io.seata.server.event;
 
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.event.EventBus;
-import io.seata.core.event.GuavaEventBus;
+import io.seata.core.event.RingBufferEventBus;
 
 /**
  * Manager hold the singleton event bus instance.
@@ -24,8 +27,16 @@ import io.seata.core.event.GuavaEventBus;
  * @author zhengyangyong
  */
 public class EventBusManager {
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
     private static class SingletonHolder {
-        private static EventBus INSTANCE = new GuavaEventBus("tc");
+        private static EventBus INSTANCE = newEventBus();
+    }
+
+    private static EventBus newEventBus() {
+        Configuration config = ConfigurationFactory.getInstance();
+        return new RingBufferEventBus("tc", config.getInt(ConfigurationKeys.EVENT_BUS_BUFFER_SIZE, DEFAULT_BUFFER_SIZE),
+            config.getBoolean(ConfigurationKeys.EVENT_BUS_BLOCK_WHEN_FULL, false));
     }
 
     public static EventBus get() {
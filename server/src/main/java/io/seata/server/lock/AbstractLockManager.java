@@ -24,6 +24,7 @@ import io.seata.common.util.StringUtils;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
 import io.seata.core.lock.RowLock;
+import io.seata.server.metrics.ServerMetrics;
 import io.seata.server.session.BranchSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,7 +57,15 @@ public abstract class AbstractLockManager implements LockManager {
             //no lock
             return true;
         }
-        return getLocker(branchSession).acquireLock(locks);
+        long start = System.nanoTime();
+        ServerMetrics.LockResult result = ServerMetrics.LockResult.FAILED;
+        try {
+            boolean acquired = getLocker(branchSession).acquireLock(locks);
+            result = acquired ? ServerMetrics.LockResult.SUCCESS : ServerMetrics.LockResult.CONFLICT;
+            return acquired;
+        } finally {
+            ServerMetrics.recordLockAcquire(branchSession.getBranchType(), start, result);
+        }
     }
 
     @Override
@@ -58,4 +58,14 @@ public class MeterIdConstants {
         .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
         .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
         .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ROLLBACKED);
+
+    public static final Id HISTOGRAM_COMMITTED = new Id(IdConstants.SEATA_TRANSACTION_DURATION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_COMMITTED);
+
+    public static final Id HISTOGRAM_ROLLBACKED = new Id(IdConstants.SEATA_TRANSACTION_DURATION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_HISTOGRAM)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ROLLBACKED);
 }
@@ -56,6 +56,7 @@ public class MetricsManager {
                 if (exporters.size() != 0) {
                     exporters.forEach(exporter -> exporter.setRegistry(registry));
                     EventBusManager.get().register(new MetricsSubscriber(registry));
+                    ServerMetrics.init(registry);
                 }
             }
         }
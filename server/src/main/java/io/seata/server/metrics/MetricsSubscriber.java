@@ -58,6 +58,8 @@ public class MetricsSubscriber {
         registry.getSummary(MeterIdConstants.SUMMARY_COMMITTED).increase(1);
         registry.getTimer(MeterIdConstants.TIMER_COMMITTED).record(event.getEndTime() - event.getBeginTime(),
             TimeUnit.MILLISECONDS);
+        registry.getHistogram(MeterIdConstants.HISTOGRAM_COMMITTED).record(
+            event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
     private void processGlobalStatusRollbacked(GlobalTransactionEvent event) {
@@ -66,6 +68,8 @@ public class MetricsSubscriber {
         registry.getSummary(MeterIdConstants.SUMMARY_ROLLBACKED).increase(1);
         registry.getTimer(MeterIdConstants.TIMER_ROLLBACK).record(event.getEndTime() - event.getBeginTime(),
             TimeUnit.MILLISECONDS);
+        registry.getHistogram(MeterIdConstants.HISTOGRAM_ROLLBACKED).record(
+            event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
     private void processGlobalStatusCommitFailed(GlobalTransactionEvent event) {
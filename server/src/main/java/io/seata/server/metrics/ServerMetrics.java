@@ -0,0 +1,341 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.core.metrics.HistogramTable;
+import io.seata.core.model.BranchType;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+
+import static io.seata.core.metrics.HistogramTable.RESULTS;
+import static io.seata.core.metrics.HistogramTable.requestIndex;
+import static io.seata.core.metrics.HistogramTable.resultIndex;
+
+/**
+ * Hot path instrumentation of the TC.
+ * Meter ids are built once and the histograms are kept in {@link HistogramTable}s indexed by operation, branch
+ * type and result. Every record method is a no-op until metrics are initialized.
+ */
+public final class ServerMetrics {
+
+    /**
+     * Requests handled by the TC inbound handler.
+     */
+    public enum Request {
+        /**
+         * Global begin.
+         */
+        GLOBAL_BEGIN("globalBegin"),
+        /**
+         * Global commit.
+         */
+        GLOBAL_COMMIT("globalCommit"),
+        /**
+         * Global rollback.
+         */
+        GLOBAL_ROLLBACK("globalRollback"),
+        /**
+         * Global status query.
+         */
+        GLOBAL_STATUS("globalStatus"),
+        /**
+         * Global report.
+         */
+        GLOBAL_REPORT("globalReport"),
+        /**
+         * Branch register.
+         */
+        BRANCH_REGISTER("branchRegister"),
+        /**
+         * Branch report.
+         */
+        BRANCH_REPORT("branchReport"),
+        /**
+         * Global lock query.
+         */
+        GLOBAL_LOCK_QUERY("globalLockQuery");
+
+        private final String tag;
+
+        Request(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Branch RPCs sent by the TC to the RM.
+     */
+    public enum BranchOperation {
+        /**
+         * Branch commit.
+         */
+        COMMIT("commit"),
+        /**
+         * Branch rollback.
+         */
+        ROLLBACK("rollback");
+
+        private final String tag;
+
+        BranchOperation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Outcome of a lock acquire.
+     */
+    public enum LockResult {
+        /**
+         * The locks are acquired.
+         */
+        SUCCESS(IdConstants.RESULT_VALUE_SUCCESS),
+        /**
+         * The locks are held by another transaction.
+         */
+        CONFLICT(IdConstants.RESULT_VALUE_CONFLICT),
+        /**
+         * The locker failed with an exception.
+         */
+        FAILED(IdConstants.RESULT_VALUE_FAILED);
+
+        private final String tag;
+
+        LockResult(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Session queues polled by the retry tasks of the coordinator.
+     */
+    public enum RetryQueue {
+        /**
+         * Sessions waiting for commit retry.
+         */
+        RETRY_COMMITTING(IdConstants.STATUS_VALUE_RETRY_COMMITTING),
+        /**
+         * Sessions waiting for rollback retry.
+         */
+        RETRY_ROLLBACKING(IdConstants.STATUS_VALUE_RETRY_ROLLBACKING),
+        /**
+         * Sessions waiting for async commit.
+         */
+        ASYNC_COMMITTING(IdConstants.STATUS_VALUE_ASYNC_COMMITTING);
+
+        private final String tag;
+
+        RetryQueue(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final BranchType[] BRANCH_TYPES = BranchType.values();
+
+    private static final Request[] REQUESTS = Request.values();
+
+    private static final BranchOperation[] BRANCH_OPERATIONS = BranchOperation.values();
+
+    private static final LockResult[] LOCK_RESULTS = LockResult.values();
+
+    private static final LogOperation[] LOG_OPERATIONS = LogOperation.values();
+
+    private static final RetryQueue[] RETRY_QUEUES = RetryQueue.values();
+
+    private static final AtomicLong[] RETRY_QUEUE_DEPTHS = new AtomicLong[RETRY_QUEUES.length];
+
+    private static final ConcurrentMap<String, HistogramTable> BRANCH_RESOURCES = new ConcurrentHashMap<>();
+
+    private static volatile Registry registry;
+
+    private static HistogramTable requests;
+
+    private static HistogramTable queueWait;
+
+    private static HistogramTable storeWrites;
+
+    private static HistogramTable storeFlush;
+
+    private static HistogramTable lockAcquires;
+
+    static {
+        for (int i = 0; i < RETRY_QUEUE_DEPTHS.length; i++) {
+            RETRY_QUEUE_DEPTHS[i] = new AtomicLong();
+        }
+    }
+
+    private ServerMetrics() {
+    }
+
+    /**
+     * Build the meter ids and register the retry queue gauges.
+     *
+     * @param registry the metrics registry
+     */
+    public static synchronized void init(Registry registry) {
+        if (registry == null || ServerMetrics.registry != null) {
+            return;
+        }
+        Id[] requestIds = new Id[REQUESTS.length];
+        for (Request request : REQUESTS) {
+            requestIds[request.ordinal()] = histogramId(IdConstants.SEATA_REQUEST)
+                .withTag(IdConstants.OPERATION_KEY, request.tag);
+        }
+        Id[] storeWriteIds = new Id[LOG_OPERATIONS.length * RESULTS.length];
+        for (LogOperation operation : LOG_OPERATIONS) {
+            for (int result = 0; result < RESULTS.length; result++) {
+                storeWriteIds[resultIndex(operation.ordinal(), result == 0)] = histogramId(
+                    IdConstants.SEATA_STORE_WRITE)
+                    .withTag(IdConstants.OPERATION_KEY, operation.name())
+                    .withTag(IdConstants.RESULT_KEY, RESULTS[result]);
+            }
+        }
+        Id[] lockIds = new Id[BRANCH_TYPES.length * LOCK_RESULTS.length];
+        for (BranchType branchType : BRANCH_TYPES) {
+            for (LockResult result : LOCK_RESULTS) {
+                lockIds[branchType.ordinal() * LOCK_RESULTS.length + result.ordinal()] = histogramId(
+                    IdConstants.SEATA_LOCK_ACQUIRE)
+                    .withTag(IdConstants.BRANCH_TYPE_KEY, branchType.name())
+                    .withTag(IdConstants.RESULT_KEY, result.tag);
+            }
+        }
+        for (RetryQueue queue : RETRY_QUEUES) {
+            AtomicLong depth = RETRY_QUEUE_DEPTHS[queue.ordinal()];
+            registry.getGauge(new Id(IdConstants.SEATA_RETRY_QUEUE)
+                .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+                .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_GAUGE)
+                .withTag(IdConstants.STATUS_KEY, queue.tag), depth::get);
+        }
+        requests = HistogramTable.ofRequests(registry, requestIds);
+        queueWait = new HistogramTable(registry, new Id[] {histogramId(IdConstants.SEATA_REQUEST_QUEUE)});
+        storeWrites = new HistogramTable(registry, storeWriteIds);
+        storeFlush = new HistogramTable(registry, new Id[] {histogramId(IdConstants.SEATA_STORE_FLUSH)});
+        lockAcquires = new HistogramTable(registry, lockIds);
+        ServerMetrics.registry = registry;
+    }
+
+    public static boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * Record a request handled by the TC.
+     *
+     * @param request    the request
+     * @param branchType the branch type of branch requests, null for global requests
+     * @param startNanos the System.nanoTime() when handling started
+     * @param success    whether the response carries a success result code
+     */
+    public static void recordRequest(Request request, BranchType branchType, long startNanos, boolean success) {
+        if (registry == null) {
+            return;
+        }
+        requests.record(requestIndex(request.ordinal(), branchType, success), startNanos);
+    }
+
+    /**
+     * Record the time a request waited in the queue of the working threads.
+     *
+     * @param waitNanos the waiting time in nanoseconds
+     */
+    public static void recordQueueWait(long waitNanos) {
+        if (registry == null) {
+            return;
+        }
+        queueWait.get(0).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordStoreWrite(LogOperation operation, long startNanos, boolean success) {
+        if (registry == null) {
+            return;
+        }
+        storeWrites.record(resultIndex(operation.ordinal(), success), startNanos);
+    }
+
+    public static void recordStoreFlush(long startNanos) {
+        if (registry == null) {
+            return;
+        }
+        storeFlush.record(0, startNanos);
+    }
+
+    public static void recordLockAcquire(BranchType branchType, long startNanos, LockResult result) {
+        if (registry == null || branchType == null) {
+            return;
+        }
+        lockAcquires.record(branchType.ordinal() * LOCK_RESULTS.length + result.ordinal(), startNanos);
+    }
+
+    /**
+     * Record a branch commit or rollback RPC, tagged by the resource of the branch.
+     *
+     * @param operation  commit or rollback
+     * @param resourceId the resource id of the branch
+     * @param branchType the branch type
+     * @param startNanos the System.nanoTime() when the request was sent
+     * @param success    false if the RPC failed to complete
+     */
+    public static void recordBranch(BranchOperation operation, String resourceId, BranchType branchType,
+                                    long startNanos, boolean success) {
+        if (registry == null || resourceId == null || branchType == null) {
+            return;
+        }
+        HistogramTable table = BRANCH_RESOURCES.get(resourceId);
+        if (table == null) {
+            table = BRANCH_RESOURCES.computeIfAbsent(resourceId, ServerMetrics::newBranchTable);
+        }
+        table.record(resultIndex(operation.ordinal() * BRANCH_TYPES.length + branchType.ordinal(), success),
+            startNanos);
+    }
+
+    /**
+     * Publish the number of sessions found in a retry queue by the last retry round.
+     *
+     * @param queue the retry queue
+     * @param depth the number of sessions
+     */
+    public static void setRetryQueueDepth(RetryQueue queue, int depth) {
+        RETRY_QUEUE_DEPTHS[queue.ordinal()].set(depth);
+    }
+
+    private static HistogramTable newBranchTable(String resourceId) {
+        Id[] ids = new Id[BRANCH_OPERATIONS.length * BRANCH_TYPES.length * RESULTS.length];
+        for (BranchOperation operation : BRANCH_OPERATIONS) {
+            for (BranchType branchType : BRANCH_TYPES) {
+                for (int result = 0; result < RESULTS.length; result++) {
+                    ids[resultIndex(operation.ordinal() * BRANCH_TYPES.length + branchType.ordinal(), result == 0)]
+                        = histogramId(IdConstants.SEATA_BRANCH)
+                        .withTag(IdConstants.OPERATION_KEY, operation.tag)
+                        .withTag(IdConstants.BRANCH_TYPE_KEY, branchType.name())
+                        .withTag(IdConstants.RESOURCE_KEY, resourceId)
+                        .withTag(IdConstants.RESULT_KEY, RESULTS[result]);
+                }
+            }
+        }
+        return new HistogramTable(registry, ids);
+    }
+
+    private static Id histogramId(String name) {
+        return HistogramTable.histogramId(name, IdConstants.ROLE_VALUE_TC);
+    }
+}
@@ -42,6 +42,7 @@ import io.seata.core.store.LogStore;
 import io.seata.core.store.StoreMode;
 import io.seata.core.store.db.DataSourceGenerator;
 import io.seata.server.UUIDGenerator;
+import io.seata.server.metrics.ServerMetrics;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
@@ -106,6 +107,17 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = doWriteSession(logOperation, session);
+            return success;
+        } finally {
+            ServerMetrics.recordStoreWrite(logOperation, start, success);
+        }
+    }
+
+    private boolean doWriteSession(LogOperation logOperation, SessionStorable session) {
         if (LogOperation.GLOBAL_ADD.equals(logOperation)) {
             return logStore.insertGlobalTransactionDO(convertGlobalTransactionDO(session));
         } else if (LogOperation.GLOBAL_UPDATE.equals(logOperation)) {
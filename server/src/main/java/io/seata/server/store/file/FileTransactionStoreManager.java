@@ -37,6 +37,7 @@ import io.seata.common.exception.StoreException;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
+import io.seata.server.metrics.ServerMetrics;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
@@ -171,6 +172,17 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = doWriteSession(logOperation, session);
+            return success;
+        } finally {
+            ServerMetrics.recordStoreWrite(logOperation, start, success);
+        }
+    }
+
+    private boolean doWriteSession(LogOperation logOperation, SessionStorable session) {
         writeSessionLock.lock();
         long curFileTrxNum;
         try {
@@ -651,11 +663,13 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
 
         private void flush(FileChannel fileChannel) {
+            long start = System.nanoTime();
             try {
                 fileChannel.force(false);
             } catch (IOException exx) {
                 LOGGER.error("flush error: {}", exx.getMessage(), exx);
             }
+            ServerMetrics.recordStoreFlush(start);
         }
     }
 }
@@ -18,6 +18,7 @@ package io.seata.server.coordinator;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import io.seata.core.exception.TransactionException;
 import io.seata.core.protocol.transaction.GlobalBeginRequest;
@@ -27,7 +28,9 @@ import io.seata.core.protocol.transaction.GlobalCommitResponse;
 import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.rpc.RpcContext;
+import io.seata.metrics.IdConstants;
 import io.seata.metrics.Measurement;
+import io.seata.server.metrics.MeterIdConstants;
 import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.SessionHolder;
 import org.junit.jupiter.api.Assertions;
@@ -53,11 +56,14 @@ public class DefaultCoordinatorMetricsTest {
             GlobalBeginResponse response = new GlobalBeginResponse();
             coordinator.doGlobalBegin(request, response, new RpcContext());
 
+            //events are handled by the subscriber threads of the event bus
+            awaitUntil(() -> MetricsManager.get().getRegistry().getCounter(MeterIdConstants.COUNTER_ACTIVE).get() == 1);
+
             Map<String, Measurement> measurements = new HashMap<>();
             MetricsManager.get().getRegistry().measure().forEach(
                     measurement -> measurements.put(measurement.getId().toString(), measurement));
 
-            Assertions.assertEquals(1, measurements.size());
+            Assertions.assertEquals(1, countTransactionMeasurements(measurements));
             Assertions.assertEquals(1,
                     measurements.get("seata.transaction(meter=counter,role=tc,status=active)").getValue(), 0);
 
@@ -68,11 +74,14 @@ public class DefaultCoordinatorMetricsTest {
 
             //we need sleep for a short while because default canBeCommittedAsync() is true
             Thread.sleep(200);
+            //the histogram is the last meter updated for the event
+            awaitUntil(() -> MetricsManager.get().getRegistry().getHistogram(MeterIdConstants.HISTOGRAM_COMMITTED)
+                    .count() == 1);
 
             measurements.clear();
             MetricsManager.get().getRegistry().measure().forEach(
                     measurement -> measurements.put(measurement.getId().toString(), measurement));
-            Assertions.assertEquals(9, measurements.size());
+            Assertions.assertEquals(36, countTransactionMeasurements(measurements));
             Assertions.assertEquals(0,
                     measurements.get("seata.transaction(meter=counter,role=tc,status=active)").getValue(), 0);
             Assertions
@@ -86,6 +95,14 @@ public class DefaultCoordinatorMetricsTest {
                     0);
             Assertions.assertEquals(1,
                     measurements.get("seata.transaction(meter=timer,role=tc,statistic=count,status=committed)").getValue(), 0);
+            Assertions.assertEquals(1, measurements.get(
+                    "seata.transaction.duration(le=+Inf,meter=histogram,role=tc,statistic=bucket,status=committed)")
+                    .getValue(), 0);
+            Assertions.assertEquals(1, measurements.get(
+                    "seata.store.write(le=+Inf,meter=histogram,operation=GLOBAL_ADD,result=success,role=tc,statistic=bucket)")
+                    .getValue(), 0);
+            Assertions.assertTrue(
+                    measurements.containsKey("seata.retry.queue(meter=gauge,role=tc,status=asyncCommitting)"));
 
             //start another new transaction
             request = new GlobalBeginRequest();
@@ -99,11 +116,13 @@ public class DefaultCoordinatorMetricsTest {
             coordinator.doGlobalRollback(rollbackRequest, new GlobalRollbackResponse(), new RpcContext());
 
             Thread.sleep(200);
+            awaitUntil(() -> MetricsManager.get().getRegistry().getHistogram(MeterIdConstants.HISTOGRAM_ROLLBACKED)
+                    .count() == 1);
 
             measurements.clear();
             MetricsManager.get().getRegistry().measure().forEach(
                     measurement -> measurements.put(measurement.getId().toString(), measurement));
-            Assertions.assertEquals(17, measurements.size());
+            Assertions.assertEquals(71, countTransactionMeasurements(measurements));
             Assertions.assertEquals(0,
                     measurements.get("seata.transaction(meter=counter,role=tc,status=active)").getValue(), 0);
 
@@ -129,10 +148,34 @@ public class DefaultCoordinatorMetricsTest {
                     0);
             Assertions.assertEquals(1,
                     measurements.get("seata.transaction(meter=timer,role=tc,statistic=count,status=rollbacked)").getValue(), 0);
+
+            //histogram buckets are cumulative
+            Assertions.assertEquals(1, measurements.get(
+                    "seata.transaction.duration(le=+Inf,meter=histogram,role=tc,statistic=bucket,status=committed)")
+                    .getValue(), 0);
+            Assertions.assertEquals(1, measurements.get(
+                    "seata.transaction.duration(le=+Inf,meter=histogram,role=tc,statistic=bucket,status=rollbacked)")
+                    .getValue(), 0);
         } finally {
             coordinator.destroy();
             SessionHolder.destroy();
         }
     }
 
+    /**
+     * the meters are read directly, measuring the registry would reset the summaries and timers
+     */
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (System.currentTimeMillis() < deadline && !condition.getAsBoolean()) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static long countTransactionMeasurements(Map<String, Measurement> measurements) {
+        return measurements.values().stream()
+                .filter(measurement -> measurement.getId().getName().startsWith(IdConstants.SEATA_TRANSACTION))
+                .count();
+    }
+
 }
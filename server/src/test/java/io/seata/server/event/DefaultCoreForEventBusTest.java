@@ -69,6 +69,8 @@ public class DefaultCoreForEventBusTest {
             //start a transaction
             String xid = core.begin("test_app_id", "default_group", "test_tran_name", 30000);
 
+            //events are handled by the subscriber threads of the event bus
+            awaitEventCount(subscriber.getEventCounters(), GlobalStatus.Begin, 1);
             Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Begin).get());
 
             //commit this transaction
@@ -84,11 +86,13 @@ public class DefaultCoreForEventBusTest {
             //start another new transaction
             xid = core.begin("test_app_id", "default_group", "test_tran_name2", 30000);
 
+            awaitEventCount(subscriber.getEventCounters(), GlobalStatus.Begin, 2);
             Assertions.assertEquals(2, subscriber.getEventCounters().get(GlobalStatus.Begin).get());
 
             core.rollback(xid);
 
             //check
+            awaitEventCount(subscriber.getEventCounters(), GlobalStatus.Rollbacked, 1);
             Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Rollbacking).get());
             Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Rollbacked).get());
 
@@ -105,4 +109,16 @@ public class DefaultCoreForEventBusTest {
             SessionHolder.destroy();
         }
     }
+
+    private static void awaitEventCount(Map<GlobalStatus, AtomicInteger> eventCounters, GlobalStatus status,
+                                        int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (System.currentTimeMillis() < deadline) {
+            AtomicInteger counter = eventCounters.get(status);
+            if (counter != null && counter.get() >= count) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
 }
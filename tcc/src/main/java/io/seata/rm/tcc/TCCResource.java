@@ -17,6 +17,7 @@ package io.seata.rm.tcc;
 
 import java.lang.reflect.Method;
 
+import io.seata.common.util.MethodInvoker;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
 
@@ -45,6 +46,12 @@ public class TCCResource implements Resource {
 
     private Method rollbackMethod;
 
+    private MethodInvoker commitInvoker;
+
+    private MethodInvoker rollbackInvoker;
+
+    private boolean useTCCFence;
+
     @Override
     public String getResourceGroupId() {
         return resourceGroupId;
@@ -213,6 +220,42 @@ public class TCCResource implements Resource {
         this.rollbackMethodName = rollbackMethodName;
     }
 
+    /**
+     * Gets commit invoker, bound once from the commit method.
+     *
+     * @return the commit invoker
+     */
+    public MethodInvoker getCommitInvoker() {
+        return commitInvoker;
+    }
+
+    /**
+     * Sets commit invoker.
+     *
+     * @param commitInvoker the commit invoker
+     */
+    public void setCommitInvoker(MethodInvoker commitInvoker) {
+        this.commitInvoker = commitInvoker;
+    }
+
+    /**
+     * Gets rollback invoker, bound once from the rollback method.
+     *
+     * @return the rollback invoker
+     */
+    public MethodInvoker getRollbackInvoker() {
+        return rollbackInvoker;
+    }
+
+    /**
+     * Sets rollback invoker.
+     *
+     * @param rollbackInvoker the rollback invoker
+     */
+    public void setRollbackInvoker(MethodInvoker rollbackInvoker) {
+        this.rollbackInvoker = rollbackInvoker;
+    }
+
     @Override
     public int hashCode() {
         return actionName.hashCode();
@@ -225,4 +268,22 @@ public class TCCResource implements Resource {
         }
         return this.actionName.equals(((TCCResource)obj).actionName);
     }
+
+    /**
+     * Is use tcc fence boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isUseTCCFence() {
+        return useTCCFence;
+    }
+
+    /**
+     * Sets use tcc fence.
+     *
+     * @param useTCCFence the use tcc fence
+     */
+    public void setUseTCCFence(boolean useTCCFence) {
+        this.useTCCFence = useTCCFence;
+    }
 }
@@ -15,16 +15,25 @@
  */
 package io.seata.rm.tcc;
 
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import io.seata.common.Constants;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.exception.ShouldNeverHappenException;
+import io.seata.common.executor.Callback;
+import io.seata.common.util.ReflectionUtil;
 import io.seata.common.util.StringUtils;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
@@ -32,6 +41,8 @@ import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
 import io.seata.rm.AbstractResourceManager;
 import io.seata.rm.tcc.api.BusinessActionContext;
+import io.seata.rm.tcc.fence.TCCFenceHandler;
+import io.seata.rm.tcc.interceptor.ActionContextCodec;
 
 /**
  * TCC resource manager
@@ -45,6 +56,23 @@ public class TCCResourceManager extends AbstractResourceManager {
      */
     private Map<String, Resource> tccResourceCache = new ConcurrentHashMap<>();
 
+    /**
+     * max branches whose decoded action context is kept for a retry of phase two
+     */
+    private static final long MAX_CACHED_ACTION_CONTEXT = 1024;
+
+    /**
+     * a retry may be sent to another RM, the entry of such a branch expires
+     */
+    private static final long ACTION_CONTEXT_EXPIRE_MILLS = 5 * 60 * 1000;
+
+    /**
+     * decoded action context of the branches whose phase two failed, by branch id
+     */
+    private final Cache<Long, CachedActionContext> actionContextCache = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHED_ACTION_CONTEXT).expireAfterWrite(ACTION_CONTEXT_EXPIRE_MILLS, TimeUnit.MILLISECONDS)
+        .build();
+
     /**
      * Instantiates a new Tcc resource manager.
      */
@@ -59,6 +87,7 @@ public class TCCResourceManager extends AbstractResourceManager {
     @Override
     public void registerResource(Resource resource) {
         TCCResource tccResource = (TCCResource)resource;
+        bindInvokers(tccResource);
         tccResourceCache.put(tccResource.getResourceId(), tccResource);
         super.registerResource(tccResource);
     }
@@ -87,26 +116,37 @@ public class TCCResourceManager extends AbstractResourceManager {
             throw new ShouldNeverHappenException(String.format("TCC resource is not exist, resourceId: %s", resourceId));
         }
         Object targetTCCBean = tccResource.getTargetBean();
-        Method commitMethod = tccResource.getCommitMethod();
-        if (targetTCCBean == null || commitMethod == null) {
+        if (targetTCCBean == null || tccResource.getCommitMethod() == null) {
             throw new ShouldNeverHappenException(String.format("TCC resource is not available, resourceId: %s", resourceId));
         }
+        if (tccResource.getCommitInvoker() == null) {
+            bindInvokers(tccResource);
+        }
+        Map<String, Object> actionContextMap = null;
         try {
-            boolean result = false;
+            boolean result;
             //BusinessActionContext
-            BusinessActionContext businessActionContext = getBusinessActionContext(xid, branchId, resourceId,
-                applicationData);
-            Object ret = commitMethod.invoke(targetTCCBean, businessActionContext);
-            LOGGER.info("TCC resource commit result : {}, xid: {}, branchId: {}, resourceId: {}", ret, xid, branchId, resourceId);
-            if (ret != null) {
-                if (ret instanceof TwoPhaseResult) {
-                    result = ((TwoPhaseResult)ret).isSuccess();
-                } else {
-                    result = (boolean)ret;
-                }
+            actionContextMap = getActionContextMap(xid, branchId, applicationData);
+            BusinessActionContext businessActionContext = newBusinessActionContext(xid, branchId, resourceId,
+                actionContextMap);
+            Callback<Boolean> commitCallback = () -> {
+                Object ret = tccResource.getCommitInvoker().invoke(targetTCCBean, businessActionContext);
+                LOGGER.info("TCC resource commit result : {}, xid: {}, branchId: {}, resourceId: {}", ret, xid, branchId, resourceId);
+                return isPhaseTwoSuccess(ret);
+            };
+            if (tccResource.isUseTCCFence()) {
+                result = TCCFenceHandler.commitFence(commitCallback, xid, branchId);
+            } else {
+                result = commitCallback.execute();
+            }
+            if (result) {
+                actionContextCache.invalidate(branchId);
+            } else {
+                cacheActionContextMap(xid, branchId, applicationData, actionContextMap);
             }
             return result ? BranchStatus.PhaseTwo_Committed : BranchStatus.PhaseTwo_CommitFailed_Retryable;
         } catch (Throwable t) {
+            cacheActionContextMap(xid, branchId, applicationData, actionContextMap);
             String msg = String.format("commit TCC resource error, resourceId: %s, xid: %s.", resourceId, xid);
             LOGGER.error(msg, t);
             throw new FrameworkException(t, msg);
@@ -132,32 +172,122 @@ public class TCCResourceManager extends AbstractResourceManager {
             throw new ShouldNeverHappenException(String.format("TCC resource is not exist, resourceId: %s", resourceId));
         }
         Object targetTCCBean = tccResource.getTargetBean();
-        Method rollbackMethod = tccResource.getRollbackMethod();
-        if (targetTCCBean == null || rollbackMethod == null) {
+        if (targetTCCBean == null || tccResource.getRollbackMethod() == null) {
             throw new ShouldNeverHappenException(String.format("TCC resource is not available, resourceId: %s", resourceId));
         }
+        if (tccResource.getRollbackInvoker() == null) {
+            bindInvokers(tccResource);
+        }
+        Map<String, Object> actionContextMap = null;
         try {
-            boolean result = false;
+            boolean result;
             //BusinessActionContext
-            BusinessActionContext businessActionContext = getBusinessActionContext(xid, branchId, resourceId,
-                applicationData);
-            Object ret = rollbackMethod.invoke(targetTCCBean, businessActionContext);
-            LOGGER.info("TCC resource rollback result : {}, xid: {}, branchId: {}, resourceId: {}", ret, xid, branchId, resourceId);
-            if (ret != null) {
-                if (ret instanceof TwoPhaseResult) {
-                    result = ((TwoPhaseResult)ret).isSuccess();
-                } else {
-                    result = (boolean)ret;
-                }
+            actionContextMap = getActionContextMap(xid, branchId, applicationData);
+            BusinessActionContext businessActionContext = newBusinessActionContext(xid, branchId, resourceId,
+                actionContextMap);
+            Callback<Boolean> rollbackCallback = () -> {
+                Object ret = tccResource.getRollbackInvoker().invoke(targetTCCBean, businessActionContext);
+                LOGGER.info("TCC resource rollback result : {}, xid: {}, branchId: {}, resourceId: {}", ret, xid, branchId, resourceId);
+                return isPhaseTwoSuccess(ret);
+            };
+            if (tccResource.isUseTCCFence()) {
+                result = TCCFenceHandler.rollbackFence(rollbackCallback, xid, branchId, resourceId);
+            } else {
+                result = rollbackCallback.execute();
+            }
+            if (result) {
+                actionContextCache.invalidate(branchId);
+            } else {
+                cacheActionContextMap(xid, branchId, applicationData, actionContextMap);
             }
             return result ? BranchStatus.PhaseTwo_Rollbacked : BranchStatus.PhaseTwo_RollbackFailed_Retryable;
         } catch (Throwable t) {
+            cacheActionContextMap(xid, branchId, applicationData, actionContextMap);
             String msg = String.format("rollback TCC resource error, resourceId: %s, xid: %s.", resourceId, xid);
             LOGGER.error(msg, t);
             throw new FrameworkException(t, msg);
         }
     }
 
+    private static boolean isPhaseTwoSuccess(Object ret) {
+        if (ret == null) {
+            return false;
+        }
+        if (ret instanceof TwoPhaseResult) {
+            return ((TwoPhaseResult)ret).isSuccess();
+        }
+        return (boolean)ret;
+    }
+
+    private void bindInvokers(TCCResource tccResource) {
+        try {
+            if (tccResource.getCommitMethod() != null) {
+                tccResource.setCommitInvoker(ReflectionUtil.getMethodInvoker(tccResource.getCommitMethod()));
+            }
+            if (tccResource.getRollbackMethod() != null) {
+                tccResource.setRollbackInvoker(ReflectionUtil.getMethodInvoker(tccResource.getRollbackMethod()));
+            }
+        } catch (IllegalAccessException e) {
+            throw new FrameworkException(e, String.format("bind TCC resource methods error, resourceId: %s",
+                tccResource.getResourceId()));
+        }
+    }
+
+    /**
+     * the action context of a branch is decoded once and reused while the TC retries its failed phase two
+     */
+    private Map<String, Object> getActionContextMap(String xid, long branchId, String applicationData) {
+        CachedActionContext cached = actionContextCache.getIfPresent(branchId);
+        if (cached != null && StringUtils.equals(cached.applicationData, applicationData)
+            && StringUtils.equals(cached.xid, xid)) {
+            return cached.actionContextMap;
+        }
+        Map<String, Object> actionContextMap = decodeActionContextMap(applicationData);
+        return actionContextMap == null ? null : Collections.unmodifiableMap(actionContextMap);
+    }
+
+    private static Map<String, Object> decodeActionContextMap(String applicationData) {
+        return (Map<String, Object>)ActionContextCodec.decode(applicationData).get(Constants.TCC_ACTION_CONTEXT);
+    }
+
+    private void cacheActionContextMap(String xid, long branchId, String applicationData,
+                                       Map<String, Object> actionContextMap) {
+        if (actionContextMap != null) {
+            actionContextCache.put(branchId, new CachedActionContext(xid, applicationData, actionContextMap));
+        }
+    }
+
+    /**
+     * every attempt gets its own copy, changes made by the user code of a failed attempt do not reach the next one
+     */
+    private BusinessActionContext newBusinessActionContext(String xid, long branchId, String resourceId,
+                                                           Map<String, Object> actionContextMap) {
+        BusinessActionContext businessActionContext = new BusinessActionContext(xid, String.valueOf(branchId),
+            actionContextMap == null ? null : (Map<String, Object>)copy(actionContextMap));
+        businessActionContext.setActionName(resourceId);
+        return businessActionContext;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>)value;
+            JSONObject copy = new JSONObject(new HashMap<>(map.size() * 4 / 3 + 1));
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), copy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>)value;
+            List<Object> copy = new JSONArray(new ArrayList<>(collection.size()));
+            for (Object element : collection) {
+                copy.add(copy(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     /**
      * transfer tcc applicationData to BusinessActionContext
      *
@@ -170,16 +300,24 @@ public class TCCResourceManager extends AbstractResourceManager {
     protected BusinessActionContext getBusinessActionContext(String xid, long branchId, String resourceId,
                                                              String applicationData) {
         //transfer tcc applicationData to Context
-        Map tccContext = StringUtils.isBlank(applicationData) ? new HashMap() : (Map)JSON.parse(applicationData);
-        Map actionContextMap = (Map)tccContext.get(Constants.TCC_ACTION_CONTEXT);
-        BusinessActionContext businessActionContext = new BusinessActionContext(
-            xid, String.valueOf(branchId), actionContextMap);
-        businessActionContext.setActionName(resourceId);
-        return businessActionContext;
+        return newBusinessActionContext(xid, branchId, resourceId, decodeActionContextMap(applicationData));
     }
 
     @Override
     public BranchType getBranchType() {
         return BranchType.TCC;
     }
+
+    private static class CachedActionContext {
+
+        private final String xid;
+        private final String applicationData;
+        private final Map<String, Object> actionContextMap;
+
+        CachedActionContext(String xid, String applicationData, Map<String, Object> actionContextMap) {
+            this.xid = xid;
+            this.applicationData = applicationData;
+            this.actionContextMap = actionContextMap;
+        }
+    }
 }
@@ -52,4 +52,12 @@ public @interface TwoPhaseBusinessAction {
      */
     String rollbackMethod() default "rollback";
 
+    /**
+     * whether the branch is guarded by the TCC fence, which handles idempotency, empty rollback and suspension
+     * through the fence log table. the try method must run in a local transaction of the fence datasource
+     *
+     * @return the boolean
+     */
+    boolean useTCCFence() default false;
+
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.exception.FrameworkException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.rm.tcc.fence.store.db.TCCFenceStoreDataBaseDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * TCC fence config, defined as a spring bean on the datasource of the TCC participants. It initializes the
+ * TCCFenceHandler and periodically deletes the finished fence records in bounded batches.
+ */
+public class TCCFenceConfig implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TCCFenceConfig.class);
+
+    private DataSource dataSource;
+
+    private PlatformTransactionManager transactionManager;
+
+    private String logTableName = TCCFenceConstant.DEFAULT_LOG_TABLE_NAME;
+
+    /**
+     * the finished records are kept for this time, it must be longer than the global transaction timeout
+     */
+    private long cleanAfterMillis = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * the clean period, no clean task if not positive
+     */
+    private long cleanPeriodMillis = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * the max records deleted by one statement
+     */
+    private int cleanBatchSize = 1000;
+
+    private ScheduledThreadPoolExecutor cleanExecutor;
+
+    public TCCFenceConfig() {
+    }
+
+    public TCCFenceConfig(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (dataSource == null || transactionManager == null) {
+            throw new FrameworkException("dataSource and transactionManager of TCCFenceConfig are required",
+                FrameworkErrorCode.InvalidConfiguration);
+        }
+        TCCFenceHandler.init(dataSource, new TransactionTemplate(transactionManager),
+            new TCCFenceStoreDataBaseDAO(logTableName));
+        if (cleanPeriodMillis > 0) {
+            cleanExecutor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("tccFenceClean", 1, true));
+            cleanExecutor.scheduleAtFixedRate(this::cleanFence, cleanPeriodMillis, cleanPeriodMillis,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Delete the fence records finished before the retention time.
+     */
+    public void cleanFence() {
+        try {
+            int deleted = TCCFenceHandler.deleteFenceByDate(new Date(System.currentTimeMillis() - cleanAfterMillis),
+                cleanBatchSize);
+            if (LOGGER.isInfoEnabled() && deleted > 0) {
+                LOGGER.info("TCC fence records cleaned: {}", deleted);
+            }
+        } catch (Throwable t) {
+            LOGGER.error("clean TCC fence records error", t);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (cleanExecutor != null) {
+            cleanExecutor.shutdownNow();
+        }
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public PlatformTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public String getLogTableName() {
+        return logTableName;
+    }
+
+    public void setLogTableName(String logTableName) {
+        this.logTableName = logTableName;
+    }
+
+    public long getCleanAfterMillis() {
+        return cleanAfterMillis;
+    }
+
+    public void setCleanAfterMillis(long cleanAfterMillis) {
+        this.cleanAfterMillis = cleanAfterMillis;
+    }
+
+    public long getCleanPeriodMillis() {
+        return cleanPeriodMillis;
+    }
+
+    public void setCleanPeriodMillis(long cleanPeriodMillis) {
+        this.cleanPeriodMillis = cleanPeriodMillis;
+    }
+
+    public int getCleanBatchSize() {
+        return cleanBatchSize;
+    }
+
+    public void setCleanBatchSize(int cleanBatchSize) {
+        this.cleanBatchSize = cleanBatchSize;
+    }
+}
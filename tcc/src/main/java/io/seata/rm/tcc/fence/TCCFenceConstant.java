@@ -0,0 +1,50 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence;
+
+/**
+ * TCC fence constant
+ */
+public final class TCCFenceConstant {
+
+    private TCCFenceConstant() {
+    }
+
+    /**
+     * the try method has been executed
+     */
+    public static final int STATUS_TRIED = 1;
+
+    /**
+     * the commit method has been executed
+     */
+    public static final int STATUS_COMMITTED = 2;
+
+    /**
+     * the rollback method has been executed
+     */
+    public static final int STATUS_ROLLBACKED = 3;
+
+    /**
+     * the branch was rolled back before its try method arrived, the try method must be rejected
+     */
+    public static final int STATUS_SUSPENDED = 4;
+
+    /**
+     * the default fence log table name
+     */
+    public static final String DEFAULT_LOG_TABLE_NAME = "tcc_fence_log";
+}
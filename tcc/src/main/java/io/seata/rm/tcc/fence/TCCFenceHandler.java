@@ -0,0 +1,256 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Date;
+
+import javax.sql.DataSource;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.exception.FrameworkException;
+import io.seata.common.exception.StoreException;
+import io.seata.common.executor.Callback;
+import io.seata.rm.tcc.fence.store.TCCFenceDO;
+import io.seata.rm.tcc.fence.store.TCCFenceStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * TCC fence handler: the try, commit and rollback methods of a fenced branch run in a local transaction
+ * together with their fence record, which makes phase two idempotent, turns a rollback without try into an
+ * empty rollback and rejects a try that arrives after its rollback.
+ */
+public final class TCCFenceHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TCCFenceHandler.class);
+
+    private static volatile DataSource dataSource;
+
+    private static volatile TransactionTemplate transactionTemplate;
+
+    private static volatile TCCFenceStore tccFenceStore;
+
+    private TCCFenceHandler() {
+    }
+
+    /**
+     * Init the handler, called by TCCFenceConfig.
+     *
+     * @param fenceDataSource          the datasource of the fence log table and the business tables
+     * @param fenceTransactionTemplate the transaction template on the datasource
+     * @param fenceStore               the fence store
+     */
+    public static void init(DataSource fenceDataSource, TransactionTemplate fenceTransactionTemplate,
+                            TCCFenceStore fenceStore) {
+        dataSource = fenceDataSource;
+        transactionTemplate = fenceTransactionTemplate;
+        tccFenceStore = fenceStore;
+    }
+
+    /**
+     * Whether the handler is initialized.
+     *
+     * @return the boolean
+     */
+    public static boolean isInitialized() {
+        return tccFenceStore != null;
+    }
+
+    /**
+     * Insert the tried record and execute the try method in the same local transaction. The insert fails if the
+     * branch has already been rolled back, so the resources are not reserved for a finished transaction.
+     *
+     * @param xid            the global transaction id
+     * @param branchId       the branch transaction id
+     * @param actionName     the action name
+     * @param targetCallback the try method
+     * @return the result of the try method
+     * @throws Throwable the throwable of the try method or the fence store
+     */
+    public static Object prepareFence(String xid, Long branchId, String actionName, Callback<Object> targetCallback)
+        throws Throwable {
+        checkInitialized();
+        return executeInTransaction(status -> {
+            Connection conn = DataSourceUtils.getConnection(dataSource);
+            insertTCCFenceLog(conn, xid, branchId, actionName, TCCFenceConstant.STATUS_TRIED);
+            return targetCallback.execute();
+        });
+    }
+
+    /**
+     * Execute the commit method once: a committed branch is not committed again.
+     *
+     * @param commitCallback the commit method
+     * @param xid            the global transaction id
+     * @param branchId       the branch transaction id
+     * @return the commit result
+     * @throws Throwable the throwable of the commit method or the fence store
+     */
+    public static boolean commitFence(Callback<Boolean> commitCallback, String xid, Long branchId) throws Throwable {
+        checkInitialized();
+        return executeInTransaction(status -> {
+            Connection conn = DataSourceUtils.getConnection(dataSource);
+            TCCFenceDO tccFenceDO = tccFenceStore.queryTCCFenceDO(conn, xid, branchId);
+            if (tccFenceDO == null) {
+                throw new StoreException(String.format("TCC fence record not exists, commit fence failed. xid: %s, "
+                    + "branchId: %s", xid, branchId), FrameworkErrorCode.TccFenceRecordNotExists);
+            }
+            if (TCCFenceConstant.STATUS_COMMITTED == tccFenceDO.getStatus()) {
+                LOGGER.info("Branch transaction has already committed before. idempotency rejected. xid: {}, "
+                    + "branchId: {}", xid, branchId);
+                return true;
+            }
+            if (TCCFenceConstant.STATUS_ROLLBACKED == tccFenceDO.getStatus()
+                || TCCFenceConstant.STATUS_SUSPENDED == tccFenceDO.getStatus()) {
+                LOGGER.warn("Branch transaction status is unexpected. xid: {}, branchId: {}, status: {}", xid,
+                    branchId, tccFenceDO.getStatus());
+                return false;
+            }
+            return updateStatusAndInvoke(conn, status, commitCallback, xid, branchId,
+                TCCFenceConstant.STATUS_COMMITTED);
+        });
+    }
+
+    /**
+     * Execute the rollback method once. A branch without fence record has not been tried: it is rolled back
+     * empty and marked suspended, so that its try arriving late is rejected.
+     *
+     * @param rollbackCallback the rollback method
+     * @param xid              the global transaction id
+     * @param branchId         the branch transaction id
+     * @param actionName       the action name
+     * @return the rollback result
+     * @throws Throwable the throwable of the rollback method or the fence store
+     */
+    public static boolean rollbackFence(Callback<Boolean> rollbackCallback, String xid, Long branchId,
+                                        String actionName) throws Throwable {
+        checkInitialized();
+        return executeInTransaction(status -> {
+            Connection conn = DataSourceUtils.getConnection(dataSource);
+            TCCFenceDO tccFenceDO = tccFenceStore.queryTCCFenceDO(conn, xid, branchId);
+            if (tccFenceDO == null) {
+                insertTCCFenceLog(conn, xid, branchId, actionName, TCCFenceConstant.STATUS_SUSPENDED);
+                LOGGER.info("Branch transaction is rolled back without try, empty rollback. xid: {}, branchId: {}",
+                    xid, branchId);
+                return true;
+            }
+            if (TCCFenceConstant.STATUS_ROLLBACKED == tccFenceDO.getStatus()
+                || TCCFenceConstant.STATUS_SUSPENDED == tccFenceDO.getStatus()) {
+                LOGGER.info("Branch transaction has already rollbacked before. idempotency rejected. xid: {}, "
+                    + "branchId: {}", xid, branchId);
+                return true;
+            }
+            if (TCCFenceConstant.STATUS_COMMITTED == tccFenceDO.getStatus()) {
+                LOGGER.warn("Branch transaction status is unexpected. xid: {}, branchId: {}, status: {}", xid,
+                    branchId, tccFenceDO.getStatus());
+                return false;
+            }
+            return updateStatusAndInvoke(conn, status, rollbackCallback, xid, branchId,
+                TCCFenceConstant.STATUS_ROLLBACKED);
+        });
+    }
+
+    /**
+     * Delete the finished fence records modified before the given time, limit records per local transaction.
+     *
+     * @param datetime the time
+     * @param limit    the max records deleted by one statement
+     * @return the deleted count
+     */
+    public static int deleteFenceByDate(Date datetime, int limit) {
+        checkInitialized();
+        int total = 0;
+        int deleted;
+        do {
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(true);
+                deleted = tccFenceStore.deleteTCCFenceDOByDate(conn, datetime, limit);
+            } catch (SQLException e) {
+                throw new StoreException(e, "get connection of tcc fence datasource error");
+            }
+            total += deleted;
+        } while (deleted >= limit);
+        return total;
+    }
+
+    private static void insertTCCFenceLog(Connection conn, String xid, Long branchId, String actionName,
+                                          int status) {
+        TCCFenceDO tccFenceDO = new TCCFenceDO();
+        tccFenceDO.setXid(xid);
+        tccFenceDO.setBranchId(branchId);
+        tccFenceDO.setActionName(actionName);
+        tccFenceDO.setStatus(status);
+        tccFenceStore.insertTCCFenceDO(conn, tccFenceDO);
+    }
+
+    private static boolean updateStatusAndInvoke(Connection conn, TransactionStatus status,
+                                                 Callback<Boolean> callback, String xid, Long branchId,
+                                                 int newStatus) throws Throwable {
+        if (!tccFenceStore.updateTCCFenceDO(conn, xid, branchId, newStatus, TCCFenceConstant.STATUS_TRIED)) {
+            return false;
+        }
+        boolean result = callback.execute();
+        if (!result) {
+            // keep the tried status, phase two will be retried
+            status.setRollbackOnly();
+        }
+        return result;
+    }
+
+    private static <T> T executeInTransaction(FenceCallback<T> callback) throws Throwable {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return callback.execute(status);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new FenceCallbackException(t);
+                }
+            });
+        } catch (FenceCallbackException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void checkInitialized() {
+        if (!isInitialized()) {
+            throw new FrameworkException("TCC fence is not initialized, please define a TCCFenceConfig bean",
+                FrameworkErrorCode.InvalidConfiguration);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FenceCallback<T> {
+
+        T execute(TransactionStatus status) throws Throwable;
+    }
+
+    /**
+     * carries a checked throwable of the business method through the transaction template, which rolls back
+     */
+    private static class FenceCallbackException extends RuntimeException {
+
+        FenceCallbackException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
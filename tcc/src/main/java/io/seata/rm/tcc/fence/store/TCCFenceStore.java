@@ -0,0 +1,68 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence.store;
+
+import java.sql.Connection;
+import java.util.Date;
+
+/**
+ * TCC fence log store, all the methods are executed on the given connection so that the fence record
+ * is written in the same local transaction as the business method
+ */
+public interface TCCFenceStore {
+
+    /**
+     * Query the fence record and lock it until the transaction of the connection ends.
+     *
+     * @param conn     the connection
+     * @param xid      the global transaction id
+     * @param branchId the branch transaction id
+     * @return the fence record, or null if not exists
+     */
+    TCCFenceDO queryTCCFenceDO(Connection conn, String xid, Long branchId);
+
+    /**
+     * Insert a fence record.
+     *
+     * @param conn       the connection
+     * @param tccFenceDO the fence record
+     * @return true if inserted
+     * @throws io.seata.common.exception.StoreException with TccFenceRecordAlreadyExists if the record exists
+     */
+    boolean insertTCCFenceDO(Connection conn, TCCFenceDO tccFenceDO);
+
+    /**
+     * Update the status of a fence record if it is still in the old status.
+     *
+     * @param conn      the connection
+     * @param xid       the global transaction id
+     * @param branchId  the branch transaction id
+     * @param newStatus the new status
+     * @param oldStatus the expected current status
+     * @return true if updated
+     */
+    boolean updateTCCFenceDO(Connection conn, String xid, Long branchId, int newStatus, int oldStatus);
+
+    /**
+     * Delete at most limit finished fence records modified before the given time.
+     *
+     * @param conn     the connection
+     * @param datetime the time
+     * @param limit    the max records to delete
+     * @return the deleted count
+     */
+    int deleteTCCFenceDOByDate(Connection conn, Date datetime, int limit);
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence.store.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.exception.StoreException;
+import io.seata.rm.tcc.fence.store.TCCFenceDO;
+import io.seata.rm.tcc.fence.store.TCCFenceStore;
+
+/**
+ * TCC fence store on the fence log table
+ */
+public class TCCFenceStoreDataBaseDAO implements TCCFenceStore {
+
+    /**
+     * the sql state class of integrity constraint violations, such as a duplicate primary key
+     */
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION_CLASS = "23";
+
+    private final TCCFenceStoreSqls tccFenceStoreSqls;
+
+    private volatile String dbType;
+
+    public TCCFenceStoreDataBaseDAO(String logTableName) {
+        this.tccFenceStoreSqls = new TCCFenceStoreSqls(logTableName);
+    }
+
+    @Override
+    public TCCFenceDO queryTCCFenceDO(Connection conn, String xid, Long branchId) {
+        try (PreparedStatement ps = conn.prepareStatement(tccFenceStoreSqls.getQueryByBranchIdForUpdateSql())) {
+            ps.setString(1, xid);
+            ps.setLong(2, branchId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                TCCFenceDO tccFenceDO = new TCCFenceDO();
+                tccFenceDO.setXid(rs.getString("xid"));
+                tccFenceDO.setBranchId(rs.getLong("branch_id"));
+                tccFenceDO.setActionName(rs.getString("action_name"));
+                tccFenceDO.setStatus(rs.getInt("status"));
+                tccFenceDO.setGmtCreate(rs.getTimestamp("gmt_create"));
+                tccFenceDO.setGmtModified(rs.getTimestamp("gmt_modified"));
+                return tccFenceDO;
+            }
+        } catch (SQLException e) {
+            throw new StoreException(e, String.format("query tcc fence record error, xid: %s, branchId: %s", xid,
+                branchId));
+        }
+    }
+
+    @Override
+    public boolean insertTCCFenceDO(Connection conn, TCCFenceDO tccFenceDO) {
+        try (PreparedStatement ps = conn.prepareStatement(tccFenceStoreSqls.getInsertTCCFenceSql())) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            ps.setString(1, tccFenceDO.getXid());
+            ps.setLong(2, tccFenceDO.getBranchId());
+            ps.setString(3, tccFenceDO.getActionName());
+            ps.setInt(4, tccFenceDO.getStatus());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            String msg = String.format("insert tcc fence record error, xid: %s, branchId: %s, status: %s",
+                tccFenceDO.getXid(), tccFenceDO.getBranchId(), tccFenceDO.getStatus());
+            if (e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION_CLASS)) {
+                throw new StoreException(e, msg, FrameworkErrorCode.TccFenceRecordAlreadyExists);
+            }
+            throw new StoreException(e, msg);
+        }
+    }
+
+    @Override
+    public boolean updateTCCFenceDO(Connection conn, String xid, Long branchId, int newStatus, int oldStatus) {
+        try (PreparedStatement ps = conn.prepareStatement(tccFenceStoreSqls.getUpdateStatusByBranchIdSql())) {
+            ps.setInt(1, newStatus);
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            ps.setString(3, xid);
+            ps.setLong(4, branchId);
+            ps.setInt(5, oldStatus);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new StoreException(e, String.format("update tcc fence record error, xid: %s, branchId: %s", xid,
+                branchId));
+        }
+    }
+
+    @Override
+    public int deleteTCCFenceDOByDate(Connection conn, Date datetime, int limit) {
+        try (PreparedStatement ps = conn.prepareStatement(tccFenceStoreSqls.getDeleteByDateSql(getDbType(conn)))) {
+            ps.setTimestamp(1, new Timestamp(datetime.getTime()));
+            ps.setInt(2, limit);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new StoreException(e, "delete tcc fence records error");
+        }
+    }
+
+    private String getDbType(Connection conn) throws SQLException {
+        if (dbType == null) {
+            dbType = conn.getMetaData().getDatabaseProductName().toLowerCase();
+        }
+        return dbType;
+    }
+}
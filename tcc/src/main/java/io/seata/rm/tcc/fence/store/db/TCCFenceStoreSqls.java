@@ -0,0 +1,108 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence.store.db;
+
+import io.seata.rm.tcc.fence.TCCFenceConstant;
+
+/**
+ * TCC fence store sqls
+ */
+public class TCCFenceStoreSqls {
+
+    private static final String TCC_FENCE_FIELDS = "xid, branch_id, action_name, status, gmt_create, gmt_modified";
+
+    private static final String QUERY_BY_BRANCH_ID_FOR_UPDATE_SQL = "SELECT " + TCC_FENCE_FIELDS
+        + " FROM ${LOG_TABLE} WHERE xid = ? AND branch_id = ? FOR UPDATE";
+
+    private static final String INSERT_TCC_FENCE_SQL = "INSERT INTO ${LOG_TABLE} (" + TCC_FENCE_FIELDS
+        + ") VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATUS_BY_BRANCH_ID_SQL = "UPDATE ${LOG_TABLE} SET status = ?, gmt_modified = ?"
+        + " WHERE xid = ? AND branch_id = ? AND status = ?";
+
+    private static final String FINISHED_BEFORE_CONDITION = "status IN (" + TCCFenceConstant.STATUS_COMMITTED + ", "
+        + TCCFenceConstant.STATUS_ROLLBACKED + ", " + TCCFenceConstant.STATUS_SUSPENDED + ") AND gmt_modified < ?";
+
+    private static final String DELETE_BY_DATE_SQL = "DELETE FROM ${LOG_TABLE} WHERE " + FINISHED_BEFORE_CONDITION
+        + " LIMIT ?";
+
+    private static final String DELETE_BY_DATE_SQL_ORACLE = "DELETE FROM ${LOG_TABLE} WHERE "
+        + FINISHED_BEFORE_CONDITION + " AND ROWNUM <= ?";
+
+    private static final String DELETE_BY_DATE_SQL_POSTGRESQL = "DELETE FROM ${LOG_TABLE} WHERE ctid IN (SELECT ctid"
+        + " FROM ${LOG_TABLE} WHERE " + FINISHED_BEFORE_CONDITION + " LIMIT ?)";
+
+    private static final String LOG_TABLE_REGEX = "\\$\\{LOG_TABLE}";
+
+    private static final String DB_TYPE_ORACLE = "oracle";
+
+    private static final String DB_TYPE_POSTGRESQL = "postgresql";
+
+    private String logTableName;
+
+    private String queryByBranchIdForUpdateSql;
+    private String insertTCCFenceSql;
+    private String updateStatusByBranchIdSql;
+    private String deleteByDateSql;
+    private String deleteByDateSqlOracle;
+    private String deleteByDateSqlPostgresql;
+
+    public TCCFenceStoreSqls(String logTableName) {
+        this.logTableName = logTableName;
+        init();
+    }
+
+    private void init() {
+        queryByBranchIdForUpdateSql = QUERY_BY_BRANCH_ID_FOR_UPDATE_SQL.replaceAll(LOG_TABLE_REGEX, logTableName);
+        insertTCCFenceSql = INSERT_TCC_FENCE_SQL.replaceAll(LOG_TABLE_REGEX, logTableName);
+        updateStatusByBranchIdSql = UPDATE_STATUS_BY_BRANCH_ID_SQL.replaceAll(LOG_TABLE_REGEX, logTableName);
+        deleteByDateSql = DELETE_BY_DATE_SQL.replaceAll(LOG_TABLE_REGEX, logTableName);
+        deleteByDateSqlOracle = DELETE_BY_DATE_SQL_ORACLE.replaceAll(LOG_TABLE_REGEX, logTableName);
+        deleteByDateSqlPostgresql = DELETE_BY_DATE_SQL_POSTGRESQL.replaceAll(LOG_TABLE_REGEX, logTableName);
+    }
+
+    public String getQueryByBranchIdForUpdateSql() {
+        return queryByBranchIdForUpdateSql;
+    }
+
+    public String getInsertTCCFenceSql() {
+        return insertTCCFenceSql;
+    }
+
+    public String getUpdateStatusByBranchIdSql() {
+        return updateStatusByBranchIdSql;
+    }
+
+    /**
+     * the bounded delete of finished records, the limit is the last parameter
+     *
+     * @param dbType the lower case database product name
+     * @return the sql
+     */
+    public String getDeleteByDateSql(String dbType) {
+        if (dbType.contains(DB_TYPE_ORACLE)) {
+            return deleteByDateSqlOracle;
+        }
+        if (dbType.contains(DB_TYPE_POSTGRESQL)) {
+            return deleteByDateSqlPostgresql;
+        }
+        return deleteByDateSql;
+    }
+
+    public String getLogTableName() {
+        return logTableName;
+    }
+}
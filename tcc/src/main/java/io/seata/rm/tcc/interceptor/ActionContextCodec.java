@@ -0,0 +1,349 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.interceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import io.seata.common.Constants;
+import io.seata.common.exception.FrameworkException;
+import io.seata.common.util.StringUtils;
+
+/**
+ * Encodes the TCC application data, which holds the action context of a branch.
+ * The binary form writes the well-known context keys as one byte and the values type-tagged,
+ * it is deflated above the compress threshold and Base64 encoded behind a prefix,
+ * since the application data is a string in the branch register request and the branch table.
+ * Values of other types are embedded as JSON.
+ * Decoding yields the types fastjson parses the JSON form into, so the commit and rollback methods see the same
+ * objects with either form: integral numbers are Integer when they fit and Long otherwise, floating point numbers
+ * are BigDecimal, maps are JSONObject, collections and arrays are JSONArray, and null map values are dropped.
+ * Application data without the prefix is decoded as JSON.
+ */
+public final class ActionContextCodec {
+
+    /**
+     * prefix of the binary form
+     */
+    public static final String BINARY_PREFIX = "#T1:";
+
+    private static final String[] KNOWN_KEYS = {Constants.TCC_ACTION_CONTEXT, Constants.ACTION_START_TIME,
+        Constants.ACTION_NAME, Constants.PREPARE_METHOD, Constants.COMMIT_METHOD, Constants.ROLLBACK_METHOD,
+        Constants.HOST_NAME};
+
+    private static final byte FLAG_PLAIN = 0;
+    private static final byte FLAG_DEFLATED = 1;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte STRING = 5;
+    private static final byte BIG_DECIMAL = 6;
+    private static final byte MAP = 7;
+    private static final byte LIST = 8;
+    private static final byte JSON_VALUE = 9;
+
+    private ActionContextCodec() {
+
+    }
+
+    /**
+     * encode the application data in the binary form
+     *
+     * @param applicationData   the application data
+     * @param compressThreshold the size in bytes above which the data is deflated, no compression if negative
+     * @return the encoded application data
+     */
+    public static String encode(Map<String, Object> applicationData, int compressThreshold) {
+        Output out = new Output();
+        out.write(FLAG_PLAIN);
+        writeMap(out, applicationData);
+        byte[] bytes = out.toByteArray();
+        if (compressThreshold >= 0 && bytes.length - 1 > compressThreshold) {
+            byte[] deflated = deflate(bytes, 1, bytes.length - 1);
+            if (deflated.length + 1 < bytes.length) {
+                bytes = new byte[deflated.length + 1];
+                bytes[0] = FLAG_DEFLATED;
+                System.arraycopy(deflated, 0, bytes, 1, deflated.length);
+            }
+        }
+        return BINARY_PREFIX + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * decode application data in the binary or the JSON form
+     *
+     * @param applicationData the application data
+     * @return the application data map, empty if the application data is blank
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> decode(String applicationData) {
+        if (StringUtils.isBlank(applicationData)) {
+            return new JSONObject();
+        }
+        if (!applicationData.startsWith(BINARY_PREFIX)) {
+            return (Map<String, Object>)JSON.parse(applicationData);
+        }
+        byte[] bytes = Base64.getDecoder().decode(applicationData.substring(BINARY_PREFIX.length()));
+        byte[] payload = bytes[0] == FLAG_DEFLATED ? inflate(bytes, 1, bytes.length - 1)
+            : Arrays.copyOfRange(bytes, 1, bytes.length);
+        return readMap(new Input(payload));
+    }
+
+    private static void writeMap(Output out, Map<?, ?> map) {
+        // JSON does not write null values of a map
+        int size = 0;
+        for (Object value : map.values()) {
+            if (value != null) {
+                size++;
+            }
+        }
+        out.writeVarInt(size);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getValue() != null) {
+                writeKey(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        }
+    }
+
+    private static void writeKey(Output out, String key) {
+        for (int i = 0; i < KNOWN_KEYS.length; i++) {
+            if (KNOWN_KEYS[i].equals(key)) {
+                out.writeVarInt(i + 1);
+                return;
+            }
+        }
+        out.writeVarInt(0);
+        out.writeString(key);
+    }
+
+    private static void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.write(NULL);
+        } else if (value instanceof String || value instanceof Character) {
+            out.write(STRING);
+            out.writeString(value.toString());
+        } else if (value instanceof Boolean) {
+            out.write((Boolean)value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.write(INT);
+            out.writeVarLong(((Number)value).intValue());
+        } else if (value instanceof Long) {
+            out.write(LONG);
+            out.writeVarLong((Long)value);
+        } else if (value instanceof Date) {
+            // JSON writes a date as its time
+            out.write(LONG);
+            out.writeVarLong(((Date)value).getTime());
+        } else if (value instanceof Double || value instanceof Float) {
+            // the JSON text of the number, which JSON reads back as a BigDecimal, NaN and infinity as null
+            String text = JSON.toJSONString(value);
+            if ("null".equals(text)) {
+                out.write(NULL);
+            } else {
+                out.write(BIG_DECIMAL);
+                out.writeString(text);
+            }
+        } else if (value instanceof BigDecimal) {
+            out.write(BIG_DECIMAL);
+            out.writeString(value.toString());
+        } else if (value instanceof Map) {
+            out.write(MAP);
+            writeMap(out, (Map<?, ?>)value);
+        } else if (value instanceof Collection || value instanceof Object[]) {
+            Collection<?> collection = value instanceof Collection ? (Collection<?>)value : Arrays.asList(
+                (Object[])value);
+            out.write(LIST);
+            out.writeVarInt(collection.size());
+            for (Object element : collection) {
+                writeValue(out, element);
+            }
+        } else {
+            out.write(JSON_VALUE);
+            out.writeString(JSON.toJSONString(value));
+        }
+    }
+
+    private static Map<String, Object> readMap(Input in) {
+        int size = in.readVarInt();
+        Map<String, Object> map = new JSONObject(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            int keyIndex = in.readVarInt();
+            String key = keyIndex == 0 ? in.readString() : KNOWN_KEYS[keyIndex - 1];
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    private static Object readValue(Input in) {
+        byte type = in.read();
+        switch (type) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+            case LONG:
+                long value = in.readVarLong();
+                // JSON reads an integral number as an Integer when it fits
+                return value == (int)value ? (Object)(int)value : (Object)value;
+            case STRING:
+                return in.readString();
+            case BIG_DECIMAL:
+                return new BigDecimal(in.readString());
+            case MAP:
+                return readMap(in);
+            case LIST:
+                int size = in.readVarInt();
+                JSONArray list = new JSONArray(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case JSON_VALUE:
+                return JSON.parse(in.readString());
+            default:
+                throw new FrameworkException("Unknown value type in TCC application data: " + type);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes, int offset, int length) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes, offset, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new FrameworkException("Truncated TCC application data");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new FrameworkException(e, "Corrupted TCC application data");
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(256);
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeVarLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                write((int)((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            write((int)zigZag);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte read() {
+            return bytes[position++];
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        long readVarLong() {
+            long zigZag = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = read();
+                zigZag |= (long)(b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+        }
+
+        String readString() {
+            int length = readVarInt();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.util.StringUtils;
@@ -33,6 +34,8 @@ import io.seata.rm.tcc.api.BusinessActionContextParameter;
  */
 public class ActionContextUtil {
 
+    private static final Map<Class<?>, List<Field>> CONTEXT_FIELDS_CACHE = new ConcurrentHashMap<>();
+
     private ActionContextUtil() {
 
     }
@@ -46,37 +49,32 @@ public class ActionContextUtil {
     public static Map<String, Object> fetchContextFromObject(Object targetParam) {
         try {
             Map<String, Object> context = new HashMap<>(8);
-            List<Field> fields = new ArrayList<>();
-            getAllField(targetParam.getClass(), fields);
-            for (Field f : fields) {
+            for (Field f : getContextFields(targetParam.getClass())) {
                 String fieldName = f.getName();
                 BusinessActionContextParameter annotation = f.getAnnotation(BusinessActionContextParameter.class);
 
-                if (annotation != null) {
-                    f.setAccessible(true);
-                    Object paramObject = f.get(targetParam);
-                    int index = annotation.index();
-                    if (index >= 0) {
-                        @SuppressWarnings("unchecked")
-                        Object targetObject = ((List<Object>)paramObject).get(index);
-                        if (annotation.isParamInProperty()) {
-                            context.putAll(fetchContextFromObject(targetObject));
+                Object paramObject = f.get(targetParam);
+                int index = annotation.index();
+                if (index >= 0) {
+                    @SuppressWarnings("unchecked")
+                    Object targetObject = ((List<Object>)paramObject).get(index);
+                    if (annotation.isParamInProperty()) {
+                        context.putAll(fetchContextFromObject(targetObject));
+                    } else {
+                        if (StringUtils.isBlank(annotation.paramName())) {
+                            context.put(fieldName, paramObject);
                         } else {
-                            if (StringUtils.isBlank(annotation.paramName())) {
-                                context.put(fieldName, paramObject);
-                            } else {
-                                context.put(annotation.paramName(), paramObject);
-                            }
+                            context.put(annotation.paramName(), paramObject);
                         }
+                    }
+                } else {
+                    if (annotation.isParamInProperty()) {
+                        context.putAll(fetchContextFromObject(paramObject));
                     } else {
-                        if (annotation.isParamInProperty()) {
-                            context.putAll(fetchContextFromObject(paramObject));
+                        if (StringUtils.isBlank(annotation.paramName())) {
+                            context.put(fieldName, paramObject);
                         } else {
-                            if (StringUtils.isBlank(annotation.paramName())) {
-                                context.put(fieldName, paramObject);
-                            } else {
-                                context.put(annotation.paramName(), paramObject);
-                            }
+                            context.put(annotation.paramName(), paramObject);
                         }
                     }
                 }
@@ -87,6 +85,29 @@ public class ActionContextUtil {
         }
     }
 
+    /**
+     * Gets the fields annotated with BusinessActionContextParameter, looked up once per class.
+     *
+     * @param clazz the class
+     * @return the accessible annotated fields
+     */
+    private static List<Field> getContextFields(Class<?> clazz) {
+        List<Field> contextFields = CONTEXT_FIELDS_CACHE.get(clazz);
+        if (contextFields == null) {
+            List<Field> fields = new ArrayList<>();
+            getAllField(clazz, fields);
+            contextFields = new ArrayList<>();
+            for (Field f : fields) {
+                if (f.getAnnotation(BusinessActionContextParameter.class) != null) {
+                    f.setAccessible(true);
+                    contextFields.add(f);
+                }
+            }
+            CONTEXT_FIELDS_CACHE.put(clazz, contextFields);
+        }
+        return contextFields;
+    }
+
     /**
      * Gets all field.
      *
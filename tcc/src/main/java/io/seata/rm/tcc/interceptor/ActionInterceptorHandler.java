@@ -20,19 +20,28 @@ import io.seata.common.Constants;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.executor.Callback;
 import io.seata.common.util.NetUtil;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.model.BranchType;
 import io.seata.rm.DefaultResourceManager;
 import io.seata.rm.tcc.api.BusinessActionContext;
 import io.seata.rm.tcc.api.BusinessActionContextParameter;
 import io.seata.rm.tcc.api.TwoPhaseBusinessAction;
+import io.seata.rm.tcc.fence.TCCFenceHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE;
+import static io.seata.core.constants.DefaultValues.DEFAULT_CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD;
 
 /**
  * Handler the TCC Participant Aspect : Setting Context, Creating Branch Record
@@ -43,6 +52,8 @@ public class ActionInterceptorHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ActionInterceptorHandler.class);
 
+    private static final Map<Method, List<ContextParameter>> CONTEXT_PARAMETERS_CACHE = new ConcurrentHashMap<>();
+
     /**
      * Handler the TCC Aspect
      *
@@ -81,7 +92,13 @@ public class ActionInterceptorHandler {
         //the final parameters of the try method
         ret.put(Constants.TCC_METHOD_ARGUMENTS, arguments);
         //the final result
-        ret.put(Constants.TCC_METHOD_RESULT, targetCallback.execute());
+        if (businessAction.useTCCFence()) {
+            //the fence record is written in the local transaction of the try method
+            ret.put(Constants.TCC_METHOD_RESULT, TCCFenceHandler.prepareFence(xid, Long.valueOf(branchId),
+                actionName, targetCallback));
+        } else {
+            ret.put(Constants.TCC_METHOD_RESULT, targetCallback.execute());
+        }
         return ret;
     }
 
@@ -111,7 +128,14 @@ public class ActionInterceptorHandler {
         //init applicationData
         Map<String, Object> applicationContext = new HashMap<>(4);
         applicationContext.put(Constants.TCC_ACTION_CONTEXT, context);
-        String applicationContextStr = JSON.toJSONString(applicationContext);
+        // read on each call, the configuration cache serves them and keeps them up to date with the config center
+        Configuration config = ConfigurationFactory.getInstance();
+        String applicationContextStr = config.getBoolean(ConfigurationKeys.CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE,
+            DEFAULT_CLIENT_TCC_ACTION_CONTEXT_BINARY_ENABLE)
+            ? ActionContextCodec.encode(applicationContext, config.getInt(
+                ConfigurationKeys.CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD,
+                DEFAULT_CLIENT_TCC_ACTION_CONTEXT_COMPRESS_THRESHOLD))
+            : JSON.toJSONString(applicationContext);
         try {
             //registry branch record
             Long branchId = DefaultResourceManager.get().branchRegister(BranchType.TCC, actionName, null, xid,
@@ -168,36 +192,63 @@ public class ActionInterceptorHandler {
     protected Map<String, Object> fetchActionRequestContext(Method method, Object[] arguments) {
         Map<String, Object> context = new HashMap<>(8);
 
-        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-        for (int i = 0; i < parameterAnnotations.length; i++) {
-            for (int j = 0; j < parameterAnnotations[i].length; j++) {
-                if (parameterAnnotations[i][j] instanceof BusinessActionContextParameter) {
-                    BusinessActionContextParameter param = (BusinessActionContextParameter)parameterAnnotations[i][j];
-                    if (null == arguments[i]) {
-                        throw new IllegalArgumentException("@BusinessActionContextParameter 's params can not null");
-                    }
-                    Object paramObject = arguments[i];
-                    int index = param.index();
-                    //List, get by index
-                    if (index >= 0) {
-                        @SuppressWarnings("unchecked")
-                        Object targetParam = ((List<Object>)paramObject).get(index);
-                        if (param.isParamInProperty()) {
-                            context.putAll(ActionContextUtil.fetchContextFromObject(targetParam));
-                        } else {
-                            context.put(param.paramName(), targetParam);
-                        }
-                    } else {
-                        if (param.isParamInProperty()) {
-                            context.putAll(ActionContextUtil.fetchContextFromObject(paramObject));
-                        } else {
-                            context.put(param.paramName(), paramObject);
-                        }
-                    }
+        for (ContextParameter contextParameter : getContextParameters(method)) {
+            BusinessActionContextParameter param = contextParameter.annotation;
+            Object paramObject = arguments[contextParameter.argIndex];
+            if (null == paramObject) {
+                throw new IllegalArgumentException("@BusinessActionContextParameter 's params can not null");
+            }
+            int index = param.index();
+            //List, get by index
+            if (index >= 0) {
+                @SuppressWarnings("unchecked")
+                Object targetParam = ((List<Object>)paramObject).get(index);
+                if (param.isParamInProperty()) {
+                    context.putAll(ActionContextUtil.fetchContextFromObject(targetParam));
+                } else {
+                    context.put(param.paramName(), targetParam);
+                }
+            } else {
+                if (param.isParamInProperty()) {
+                    context.putAll(ActionContextUtil.fetchContextFromObject(paramObject));
+                } else {
+                    context.put(param.paramName(), paramObject);
                 }
             }
         }
         return context;
     }
 
+    /**
+     * the parameters annotated with BusinessActionContextParameter, looked up once per method
+     */
+    private List<ContextParameter> getContextParameters(Method method) {
+        List<ContextParameter> contextParameters = CONTEXT_PARAMETERS_CACHE.get(method);
+        if (contextParameters == null) {
+            contextParameters = new ArrayList<>();
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            for (int i = 0; i < parameterAnnotations.length; i++) {
+                for (int j = 0; j < parameterAnnotations[i].length; j++) {
+                    if (parameterAnnotations[i][j] instanceof BusinessActionContextParameter) {
+                        contextParameters.add(
+                            new ContextParameter(i, (BusinessActionContextParameter)parameterAnnotations[i][j]));
+                    }
+                }
+            }
+            CONTEXT_PARAMETERS_CACHE.put(method, contextParameters);
+        }
+        return contextParameters;
+    }
+
+    private static class ContextParameter {
+
+        private final int argIndex;
+        private final BusinessActionContextParameter annotation;
+
+        ContextParameter(int argIndex, BusinessActionContextParameter annotation) {
+            this.argIndex = argIndex;
+            this.annotation = annotation;
+        }
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import io.seata.common.Constants;
+import io.seata.common.exception.FrameworkException;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.BranchType;
+import io.seata.rm.tcc.api.BusinessActionContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type TCC resource manager test.
+ */
+public class TCCResourceManagerTest {
+
+    private static final String XID = "127.0.0.1:8091:1";
+
+    private static final long BRANCH_ID = 1L;
+
+    private TCCResourceManager resourceManager;
+
+    private FlakyAction action;
+
+    private String applicationData;
+
+    @BeforeEach
+    public void init() throws NoSuchMethodException {
+        action = new FlakyAction();
+        TCCResource resource = new TCCResource();
+        resource.setActionName("flakyAction");
+        resource.setTargetBean(action);
+        resource.setCommitMethod(FlakyAction.class.getMethod("commit", BusinessActionContext.class));
+        resource.setRollbackMethod(FlakyAction.class.getMethod("rollback", BusinessActionContext.class));
+        resourceManager = new TCCResourceManager();
+        // put directly, registering would reach out for a TC
+        resourceManager.getManagedResources().put(resource.getResourceId(), resource);
+
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("count", 1);
+        Map<String, Object> context = new HashMap<>();
+        context.put("amount", 10);
+        context.put("nested", nested);
+        Map<String, Object> data = new HashMap<>();
+        data.put(Constants.TCC_ACTION_CONTEXT, context);
+        applicationData = JSON.toJSONString(data);
+    }
+
+    @Test
+    public void testCommitRetryGetsFreshContext() throws Exception {
+        action.failures = 1;
+        Assertions.assertEquals(BranchStatus.PhaseTwo_CommitFailed_Retryable, resourceManager.branchCommit(
+            BranchType.TCC, XID, BRANCH_ID, "flakyAction", applicationData));
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, resourceManager.branchCommit(
+            BranchType.TCC, XID, BRANCH_ID, "flakyAction", applicationData));
+
+        assertFreshContexts();
+    }
+
+    @Test
+    public void testRollbackRetryAfterExceptionGetsFreshContext() throws Exception {
+        action.failures = 1;
+        action.throwOnFailure = true;
+        Assertions.assertThrows(FrameworkException.class, () -> resourceManager.branchRollback(
+            BranchType.TCC, XID, BRANCH_ID, "flakyAction", applicationData));
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, resourceManager.branchRollback(
+            BranchType.TCC, XID, BRANCH_ID, "flakyAction", applicationData));
+
+        assertFreshContexts();
+    }
+
+    @Test
+    public void testRetryOfAnotherTransactionIsDecodedAgain() throws Exception {
+        action.failures = 1;
+        resourceManager.branchCommit(BranchType.TCC, XID, BRANCH_ID, "flakyAction", applicationData);
+        String otherApplicationData = applicationData.replace("10", "20");
+        resourceManager.branchCommit(BranchType.TCC, XID, BRANCH_ID, "flakyAction", otherApplicationData);
+
+        Assertions.assertEquals(20, action.contexts.get(1).getActionContext("amount"));
+    }
+
+    private void assertFreshContexts() {
+        Assertions.assertEquals(2, action.contexts.size());
+        BusinessActionContext first = action.contexts.get(0);
+        BusinessActionContext second = action.contexts.get(1);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals("1", first.getActionContext("attempt"));
+        // the changes made by the failed attempt are not seen by the retry
+        Assertions.assertEquals("null,1", action.seen.get(1));
+        Assertions.assertEquals(10, second.getActionContext("amount"));
+    }
+
+    /**
+     * The action which fails the first attempts of phase two after changing its context.
+     */
+    public static class FlakyAction {
+
+        private final List<BusinessActionContext> contexts = new ArrayList<>();
+
+        private final List<String> seen = new ArrayList<>();
+
+        private int failures;
+
+        private boolean throwOnFailure;
+
+        public boolean commit(BusinessActionContext actionContext) {
+            return attempt(actionContext);
+        }
+
+        public boolean rollback(BusinessActionContext actionContext) {
+            return attempt(actionContext);
+        }
+
+        private boolean attempt(BusinessActionContext actionContext) {
+            contexts.add(actionContext);
+            Map<String, Object> nested = (Map<String, Object>)actionContext.getActionContext("nested");
+            seen.add(actionContext.getActionContext("attempt") + "," + nested.get("count"));
+            actionContext.getActionContext().put("attempt", String.valueOf(contexts.size()));
+            nested.put("count", 2);
+            if (failures-- > 0) {
+                if (throwOnFailure) {
+                    throw new IllegalStateException("failed attempt");
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.fence;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.exception.StoreException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * The type TCC fence handler test.
+ */
+public class TCCFenceHandlerTest {
+
+    private static final String XID = "127.0.0.1:8091:1";
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:tcc_fence;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists tcc_fence_log (xid varchar(128), branch_id bigint, "
+                + "action_name varchar(64), status tinyint, gmt_create timestamp, gmt_modified timestamp, "
+                + "primary key (xid, branch_id))");
+            statement.execute("create table if not exists account (id bigint primary key)");
+            statement.execute("delete from tcc_fence_log");
+            statement.execute("delete from account");
+        }
+        TCCFenceConfig tccFenceConfig = new TCCFenceConfig(dataSource, new DataSourceTransactionManager(dataSource));
+        tccFenceConfig.setCleanPeriodMillis(0);
+        tccFenceConfig.afterPropertiesSet();
+    }
+
+    @Test
+    public void testPhaseTwoIsIdempotent() throws Throwable {
+        Object result = TCCFenceHandler.prepareFence(XID, 1L, "action", () -> insertAccount(1L));
+        Assertions.assertEquals(1, result);
+        Assertions.assertEquals(1, count("account"));
+
+        AtomicInteger commits = new AtomicInteger();
+        Assertions.assertTrue(TCCFenceHandler.commitFence(() -> commits.incrementAndGet() > 0, XID, 1L));
+        Assertions.assertTrue(TCCFenceHandler.commitFence(() -> commits.incrementAndGet() > 0, XID, 1L));
+        Assertions.assertEquals(1, commits.get());
+        // a committed branch is not rolled back
+        Assertions.assertFalse(TCCFenceHandler.rollbackFence(() -> true, XID, 1L, "action"));
+    }
+
+    @Test
+    public void testEmptyRollbackRejectsLateTry() throws Throwable {
+        AtomicInteger rollbacks = new AtomicInteger();
+        Assertions.assertTrue(TCCFenceHandler.rollbackFence(() -> rollbacks.incrementAndGet() > 0, XID, 2L, "action"));
+        Assertions.assertTrue(TCCFenceHandler.rollbackFence(() -> rollbacks.incrementAndGet() > 0, XID, 2L, "action"));
+        Assertions.assertEquals(0, rollbacks.get());
+
+        StoreException e = Assertions.assertThrows(StoreException.class,
+            () -> TCCFenceHandler.prepareFence(XID, 2L, "action", () -> insertAccount(2L)));
+        Assertions.assertEquals(FrameworkErrorCode.TccFenceRecordAlreadyExists, e.getErrcode());
+        Assertions.assertEquals(0, count("account"));
+    }
+
+    @Test
+    public void testFailedTryRollsBackFenceRecord() throws Throwable {
+        Assertions.assertThrows(IOException.class, () -> TCCFenceHandler.prepareFence(XID, 3L, "action", () -> {
+            insertAccount(3L);
+            throw new IOException("try failed");
+        }));
+        Assertions.assertEquals(0, count("account"));
+        Assertions.assertEquals(0, count("tcc_fence_log"));
+
+        // phase two of a failed try rolls back empty, a failed rollback is retried
+        Assertions.assertThrows(StoreException.class, () -> TCCFenceHandler.commitFence(() -> true, XID, 3L));
+        TCCFenceHandler.prepareFence(XID, 4L, "action", () -> insertAccount(4L));
+        Assertions.assertFalse(TCCFenceHandler.rollbackFence(() -> false, XID, 4L, "action"));
+        Assertions.assertTrue(TCCFenceHandler.rollbackFence(() -> true, XID, 4L, "action"));
+    }
+
+    @Test
+    public void testDeleteFinishedFenceInBatches() throws Throwable {
+        for (long branchId = 10; branchId < 15; branchId++) {
+            TCCFenceHandler.prepareFence(XID, branchId, "action", () -> null);
+            TCCFenceHandler.commitFence(() -> true, XID, branchId);
+        }
+        TCCFenceHandler.prepareFence(XID, 15L, "action", () -> null);
+
+        Assertions.assertEquals(0, TCCFenceHandler.deleteFenceByDate(new Date(System.currentTimeMillis() - 60000), 2));
+        Assertions.assertEquals(5, TCCFenceHandler.deleteFenceByDate(new Date(System.currentTimeMillis() + 60000), 2));
+        // the tried branch is kept
+        Assertions.assertEquals(1, count("tcc_fence_log"));
+    }
+
+    private int insertAccount(long id) throws Exception {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate("insert into account (id) values (" + id + ")");
+        }
+    }
+
+    private int count(String table) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.tcc.interceptor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import io.seata.common.Constants;
+import io.seata.rm.tcc.TccParam;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Action context codec test.
+ */
+public class ActionContextCodecTest {
+
+    @Test
+    public void testEncodeAndDecode() {
+        Date now = new Date();
+        Map<String, Object> applicationData = newApplicationData(now, "abc@ali.com");
+
+        String encoded = ActionContextCodec.encode(applicationData, -1);
+        Assertions.assertTrue(encoded.startsWith(ActionContextCodec.BINARY_PREFIX));
+        Assertions.assertTrue(encoded.length() < JSON.toJSONString(applicationData).length());
+
+        Map<String, Object> context = (Map<String, Object>)ActionContextCodec.decode(encoded).get(
+            Constants.TCC_ACTION_CONTEXT);
+        Assertions.assertEquals("prepare", context.get(Constants.PREPARE_METHOD));
+        Assertions.assertEquals(now.getTime(), context.get(Constants.ACTION_START_TIME));
+        Assertions.assertEquals(10, context.get("a"));
+        Assertions.assertEquals(-1, context.get("negative"));
+        Assertions.assertEquals(new BigDecimal("12.50"), context.get("amount"));
+        Assertions.assertEquals(new BigDecimal("1.5"), context.get("rate"));
+        Assertions.assertEquals(Boolean.TRUE, context.get("flag"));
+        Assertions.assertFalse(context.containsKey("nothing"));
+        Assertions.assertEquals("b", ((List<Object>)context.get("list")).get(0));
+        // other objects are seen as they are with JSON
+        Assertions.assertEquals(1, ((Map<String, Object>)context.get("param")).get("num"));
+    }
+
+    @Test
+    public void testDecodedTypesMatchJson() {
+        Map<String, Object> applicationData = newApplicationData(new Date(), "abc@ali.com");
+        Map<String, Object> context = (Map<String, Object>)applicationData.get(Constants.TCC_ACTION_CONTEXT);
+        context.put("big", Long.MAX_VALUE);
+        context.put("short", (short)3);
+        context.put("float", 0.1F);
+        context.put("double", 1.0E10D);
+        context.put("nan", Double.NaN);
+        context.put("char", 'c');
+        context.put("ints", new int[] {1, 2});
+        context.put("array", new Object[] {"x", null, 2.5D});
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("rate", 0.25D);
+        nested.put("count", 7L);
+        context.put("nested", nested);
+
+        Object expected = JSON.parse(JSON.toJSONString(applicationData));
+        Object decoded = ActionContextCodec.decode(ActionContextCodec.encode(applicationData, -1));
+        assertSameAsJson(expected, decoded);
+    }
+
+    private void assertSameAsJson(Object expected, Object actual) {
+        if (expected == null) {
+            Assertions.assertNull(actual);
+            return;
+        }
+        Assertions.assertSame(expected.getClass(), actual.getClass(), String.valueOf(expected));
+        if (expected instanceof Map) {
+            Map<String, Object> expectedMap = (Map<String, Object>)expected;
+            Map<String, Object> actualMap = (Map<String, Object>)actual;
+            Assertions.assertEquals(expectedMap.keySet(), actualMap.keySet());
+            for (Map.Entry<String, Object> entry : expectedMap.entrySet()) {
+                assertSameAsJson(entry.getValue(), actualMap.get(entry.getKey()));
+            }
+        } else if (expected instanceof List) {
+            List<Object> expectedList = (List<Object>)expected;
+            List<Object> actualList = (List<Object>)actual;
+            Assertions.assertEquals(expectedList.size(), actualList.size());
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertSameAsJson(expectedList.get(i), actualList.get(i));
+            }
+        } else {
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testCompress() {
+        StringBuilder email = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            email.append("abc@ali.com;");
+        }
+        Map<String, Object> applicationData = newApplicationData(new Date(), email.toString());
+
+        String plain = ActionContextCodec.encode(applicationData, -1);
+        String compressed = ActionContextCodec.encode(applicationData, 1024);
+        Assertions.assertTrue(compressed.length() < plain.length() / 4);
+
+        Map<String, Object> context = (Map<String, Object>)ActionContextCodec.decode(compressed).get(
+            Constants.TCC_ACTION_CONTEXT);
+        Assertions.assertEquals(email.toString(), context.get("email"));
+    }
+
+    @Test
+    public void testDecodeJson() {
+        Map<String, Object> applicationData = newApplicationData(new Date(), "abc@ali.com");
+        Map<String, Object> context = (Map<String, Object>)ActionContextCodec.decode(
+            JSON.toJSONString(applicationData)).get(Constants.TCC_ACTION_CONTEXT);
+        Assertions.assertEquals("abc@ali.com", context.get("email"));
+        Assertions.assertTrue(ActionContextCodec.decode(null).isEmpty());
+    }
+
+    private Map<String, Object> newApplicationData(Date now, String email) {
+        Map<String, Object> context = new HashMap<>();
+        context.put(Constants.PREPARE_METHOD, "prepare");
+        context.put(Constants.COMMIT_METHOD, "commit");
+        context.put(Constants.ROLLBACK_METHOD, "rollback");
+        context.put(Constants.ACTION_NAME, "tccActionForTest");
+        context.put(Constants.ACTION_START_TIME, now);
+        context.put("a", 10);
+        context.put("negative", -1L);
+        context.put("amount", new BigDecimal("12.50"));
+        context.put("rate", 1.5D);
+        context.put("flag", true);
+        context.put("nothing", null);
+        context.put("email", email);
+        List<Object> list = new ArrayList<>();
+        list.add("b");
+        context.put("list", list);
+        context.put("param", new TccParam(1, "abc@ali.com"));
+        Map<String, Object> applicationData = new HashMap<>();
+        applicationData.put(Constants.TCC_ACTION_CONTEXT, context);
+        return applicationData;
+    }
+}
@@ -16,6 +16,7 @@
 package io.seata.saga.engine;
 
 import io.seata.saga.engine.mock.DemoService.People;
+import io.seata.saga.engine.pcext.ServiceRetryScheduler;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.statelang.domain.ExecutionStatus;
 import io.seata.saga.statelang.domain.StateMachineInstance;
@@ -85,6 +86,43 @@ public class StateMachineAsyncTests {
 
         Assertions.assertNotNull(inst.getException());
         Assertions.assertTrue(ExecutionStatus.FA.equals(inst.getStatus()));
+
+        // the retries were deferred to the timer instead of sleeping in the engine thread
+        ServiceRetryScheduler retryScheduler = stateMachineEngine.getStateMachineConfig().getServiceRetryScheduler();
+        Assertions.assertTrue(retryScheduler.getScheduledCount() > 0);
+        Assertions.assertEquals(0, retryScheduler.getBacklog());
+    }
+
+    @Test
+    public void testDeferredRetryTiming() {
+
+        ServiceRetryScheduler retryScheduler = stateMachineEngine.getStateMachineConfig().getServiceRetryScheduler();
+        long scheduledBefore = retryScheduler.getScheduledCount();
+        long delayBefore = retryScheduler.getTotalDelayMillis();
+
+        long start = System.currentTimeMillis();
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("barThrowException", "true");
+
+        String stateMachineName = "simpleDeferredRetryStateMachine";
+
+        StateMachineInstance inst = stateMachineEngine.startAsync(stateMachineName, null, paramMap, callback);
+
+        waittingForFinish(inst);
+
+        long cost = System.currentTimeMillis() - start;
+
+        Assertions.assertNotNull(inst.getException());
+        Assertions.assertTrue(ExecutionStatus.FA.equals(inst.getStatus()));
+
+        // MaxAttempts 3, the intervals are 200, 200 * 2 * 1 and 200 * 2 * 2 millis
+        Assertions.assertEquals(3, retryScheduler.getScheduledCount() - scheduledBefore);
+        Assertions.assertEquals(1400, retryScheduler.getTotalDelayMillis() - delayBefore);
+        Assertions.assertTrue(cost >= 1400, "the retries fired before they were due, cost: " + cost);
+        Assertions.assertTrue(retryScheduler.getMaxFireLagMillis() < 1000,
+            "the retries fired late, lag: " + retryScheduler.getMaxFireLagMillis());
+        Assertions.assertEquals(0, retryScheduler.getBacklog());
     }
 
     @Test
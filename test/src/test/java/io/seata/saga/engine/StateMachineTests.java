@@ -201,6 +201,123 @@ public class StateMachineTests {
         Assertions.assertTrue(ExecutionStatus.SU.equals(inst.getCompensationStatus()));
     }
 
+    @Test
+    public void testParallelStateMachine() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+
+        String stateMachineName = "simpleParallelStateMachine";
+
+        StateMachineInstance inst = stateMachineEngine.start(stateMachineName, null, paramMap);
+
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+        Assertions.assertEquals(3, inst.getStateList().size());
+        Assertions.assertEquals("FooBranchState", inst.getStateList().get(1).getName());
+        Assertions.assertEquals("BarBranchState", inst.getStateList().get(2).getName());
+        Assertions.assertNotNull(inst.getEndParams().get("fooBranchResult"));
+        Assertions.assertNotNull(inst.getEndParams().get("barBranchResult"));
+    }
+
+    @Test
+    public void testParallelStateMachineWithCompensation() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+        paramMap.put("barThrowException", "true");
+
+        String stateMachineName = "simpleParallelStateMachine";
+
+        StateMachineInstance inst = stateMachineEngine.start(stateMachineName, null, paramMap);
+
+        Assertions.assertEquals(ExecutionStatus.UN, inst.getStatus());
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getCompensationStatus());
+        // the branches are compensated in the reverse order of the declaration, then the first state
+        Assertions.assertEquals("CompensateBarBranchState", inst.getStateList().get(3).getName());
+        Assertions.assertEquals("CompensateFooBranchState", inst.getStateList().get(4).getName());
+        Assertions.assertEquals("CompensateFirstState", inst.getStateList().get(5).getName());
+    }
+
+    @Test
+    public void testParallelStateMachineMergesBranchChanges() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+
+        StateMachineInstance inst = stateMachineEngine.start("simpleParallelMergeStateMachine", null, paramMap);
+
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+        // the first branch overwrote the variable, the last branch left its fork time value untouched
+        Assertions.assertEquals("foo", ((Map<String, Object>)inst.getEndParams().get("sharedResult")).get("branch"));
+        Assertions.assertNotNull(inst.getEndParams().get("barBranchResult"));
+    }
+
+    @Test
+    public void testParallelStateMachineWithBranchCatch() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+        paramMap.put("fooThrowException", "true");
+
+        StateMachineInstance inst = stateMachineEngine.start("simpleParallelMergeStateMachine", null, paramMap);
+
+        // the Catch of the failed branch routes to the compensation, which follows the CompensationOrder
+        Assertions.assertEquals(ExecutionStatus.UN, inst.getStatus());
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getCompensationStatus());
+        Assertions.assertEquals("CompensateFooBranchState", inst.getStateList().get(3).getName());
+        Assertions.assertEquals("CompensateBarBranchState", inst.getStateList().get(4).getName());
+        Assertions.assertEquals("CompensateFirstState", inst.getStateList().get(5).getName());
+    }
+
+    @Test
+    public void testParallelStateMachineJoinAny() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+        paramMap.put("barThrowException", "true");
+
+        StateMachineInstance inst = stateMachineEngine.start("simpleParallelAnyStateMachine", null, paramMap);
+
+        // one branch succeeded, so the failure of the other one is not routed to the compensation
+        Assertions.assertNull(inst.getCompensationStatus());
+        Assertions.assertEquals(3, inst.getStateList().size());
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStateList().get(1).getStatus());
+        Assertions.assertEquals(ExecutionStatus.UN, inst.getStateList().get(2).getStatus());
+        Assertions.assertNotNull(inst.getEndParams().get("fooBranchResult"));
+    }
+
+    @Test
+    public void testParallelSubStateMachines() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+
+        StateMachineInstance inst = stateMachineEngine.start("simpleParallelSubMachineStateMachine", null, paramMap);
+
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+        Assertions.assertEquals(2, inst.getStateList().size());
+        Assertions.assertEquals("FooSubMachineState", inst.getStateList().get(0).getName());
+        Assertions.assertEquals("BarSubMachineState", inst.getStateList().get(1).getName());
+        Assertions.assertNotNull(inst.getEndParams().get("fooSubResult"));
+        Assertions.assertNotNull(inst.getEndParams().get("barSubResult"));
+    }
+
+    @Test
+    public void testParallelSubStateMachinesWithFailedBranch() {
+
+        Map<String, Object> paramMap = new HashMap<>(1);
+        paramMap.put("a", 1);
+        paramMap.put("barBranchThrowException", "true");
+
+        StateMachineInstance inst = stateMachineEngine.start("simpleParallelSubMachineStateMachine", null, paramMap);
+
+        // the failure of the sub state machine reaches the join, which routes to the compensation of both branches;
+        // without a state log store the sub state machines cannot be looked up, so only the trigger is asserted
+        Assertions.assertEquals(ExecutionStatus.UN, inst.getStatus());
+        Assertions.assertNotNull(inst.getCompensationStatus());
+        Assertions.assertNotEquals(ExecutionStatus.SU, inst.getStateList().get(1).getStatus());
+    }
+
     @Test
     public void testCompensationAndSubStateMachine() {
 
@@ -0,0 +1,202 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.recovery;
+
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import io.seata.core.model.GlobalStatus;
+import io.seata.saga.engine.StateMachineEngine;
+import io.seata.saga.engine.impl.DefaultStateMachineConfig;
+import io.seata.saga.engine.repo.impl.StateMachineRepositoryImpl;
+import io.seata.saga.engine.store.db.DbAndReportTcStateLogStore;
+import io.seata.saga.statelang.domain.RecoverStrategy;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.StateMachineImpl;
+import io.seata.saga.tm.SagaTransactionalTemplate;
+import io.seata.tm.api.GlobalTransaction;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * StateMachineRecoverer test
+ */
+public class StateMachineRecovererTest {
+
+    private DbAndReportTcStateLogStore stateLogStore;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:saga_recovery;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            RunScript.execute(connection, new InputStreamReader(
+                getClass().getResourceAsStream("/saga/sql/h2_init.sql"), StandardCharsets.UTF_8));
+            statement.execute("delete from seata_state_inst");
+            statement.execute("delete from seata_state_machine_inst");
+            // i1..i4 are unfinished, i5 succeed, i6 is a sub state machine, i7 is still updated recently,
+            // i8 is compensated
+            insertMachine(statement, "i1", "m0", "t1", null, "FA", "UN", 600);
+            insertMachine(statement, "i2", "m0", "t1", null, "UN", null, 600);
+            insertMachine(statement, "i3", "m1", "t1", null, "RU", null, 600);
+            insertMachine(statement, "i4", "m0", "t2", null, "RU", null, 600);
+            insertMachine(statement, "i5", "m0", "t2", null, "SU", null, 600);
+            insertMachine(statement, "i6", "m0", "t2", "i4", "RU", null, 600);
+            insertMachine(statement, "i7", "m0", "t2", null, "RU", null, 0);
+            insertMachine(statement, "i8", "m0", "t2", null, "UN", "SU", 600);
+            insertState(statement, "s1", "i1", "FirstState", "SU", 30);
+            insertState(statement, "s2", "i1", "SecondState", "FA", 20);
+            insertState(statement, "s3", "i3", "FirstState", "SU", 10);
+        }
+        stateLogStore = new DbAndReportTcStateLogStore();
+        stateLogStore.setDataSource(dataSource);
+        stateLogStore.setDbType("H2");
+        stateLogStore.setTablePrefix("seata_");
+    }
+
+    @Test
+    public void testQueryRecoverableByPages() {
+        Date before = new Date(System.currentTimeMillis() - 60000);
+        List<StateMachineInstance> page = stateLogStore.queryRecoverableStateMachineInstances(before, null, 2);
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("i1", page.get(0).getId());
+        Assertions.assertEquals(2, page.get(0).getStateList().size());
+        Assertions.assertEquals("FirstState", page.get(0).getStateList().get(0).getName());
+        Assertions.assertEquals("i2", page.get(1).getId());
+        Assertions.assertTrue(page.get(1).getStateList().isEmpty());
+
+        page = stateLogStore.queryRecoverableStateMachineInstances(before, "i2", 2);
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("i3", page.get(0).getId());
+        Assertions.assertEquals(1, page.get(0).getStateList().size());
+        Assertions.assertEquals("i4", page.get(1).getId());
+
+        Assertions.assertTrue(stateLogStore.queryRecoverableStateMachineInstances(before, "i4", 2).isEmpty());
+    }
+
+    @Test
+    public void testClaim() {
+        Date before = new Date(System.currentTimeMillis() - 60000);
+        StateMachineInstance loaded = stateLogStore.queryRecoverableStateMachineInstances(before, null, 1).get(0);
+        StateMachineInstance loadedByOtherNode = stateLogStore.queryRecoverableStateMachineInstances(before, null, 1)
+            .get(0);
+
+        Assertions.assertTrue(stateLogStore.claimStateMachineInstance(loaded));
+        Assertions.assertFalse(stateLogStore.claimStateMachineInstance(loadedByOtherNode));
+        // the claimed instance is not scanned again until it is idle again
+        Assertions.assertEquals("i2", stateLogStore.queryRecoverableStateMachineInstances(before, null, 1).get(0)
+            .getId());
+    }
+
+    @Test
+    public void testClaimedInstancesAreRecoveredOnce() {
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        StateMachineRecoverer recoverer = newRecoverer(operations);
+
+        Assertions.assertEquals(4, recoverer.recover());
+        // a second node scanning the same store finds the instances claimed
+        Assertions.assertEquals(0, recoverer.recover());
+        Assertions.assertEquals(4, operations.size());
+    }
+
+    @Test
+    public void testInstancesFinishedByTcAreSkipped() throws Exception {
+        GlobalTransaction rollbacking = Mockito.mock(GlobalTransaction.class);
+        Mockito.when(rollbacking.getStatus()).thenReturn(GlobalStatus.TimeoutRollbacking);
+        GlobalTransaction begin = Mockito.mock(GlobalTransaction.class);
+        Mockito.when(begin.getStatus()).thenReturn(GlobalStatus.Begin);
+        SagaTransactionalTemplate sagaTransactionalTemplate = Mockito.mock(SagaTransactionalTemplate.class);
+        Mockito.when(sagaTransactionalTemplate.reloadTransaction(Mockito.anyString())).thenReturn(begin);
+        Mockito.when(sagaTransactionalTemplate.reloadTransaction("i2")).thenReturn(rollbacking);
+        stateLogStore.setSagaTransactionalTemplate(sagaTransactionalTemplate);
+
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        Assertions.assertEquals(3, newRecoverer(operations).recover());
+        // the TC is rolling back i2, it is not forwarded locally
+        Assertions.assertFalse(operations.contains("forward:i2"));
+        Assertions.assertEquals(3, operations.size());
+    }
+
+    @Test
+    public void testRecoverTenantsInTurn() {
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        StateMachineRecoverer recoverer = newRecoverer(operations);
+
+        Assertions.assertEquals(4, recoverer.recover());
+        // the instance of tenant t2 is not queued behind all the instances of t1
+        Assertions.assertEquals(
+            Arrays.asList("compensate:i1", "forward:i2", "compensate:i4", "forward:i3"), operations);
+    }
+
+    private StateMachineRecoverer newRecoverer(List<String> operations) {
+        StateMachineImpl forwardStateMachine = new StateMachineImpl();
+        forwardStateMachine.setId("m1");
+        forwardStateMachine.setName("forwardStateMachine");
+        forwardStateMachine.setRecoverStrategy(RecoverStrategy.Forward);
+        StateMachineRepositoryImpl stateMachineRepository = new StateMachineRepositoryImpl();
+        stateMachineRepository.registryStateMachine(forwardStateMachine);
+
+        DefaultStateMachineConfig stateMachineConfig = new DefaultStateMachineConfig();
+        stateMachineConfig.setStateLogStore(stateLogStore);
+        stateMachineConfig.setStateMachineRepository(stateMachineRepository);
+        stateMachineConfig.setTransOperationTimeout(60000);
+
+        StateMachineEngine stateMachineEngine = (StateMachineEngine)Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class[] {StateMachineEngine.class}, (proxy, method, args) -> {
+                if ("getStateMachineConfig".equals(method.getName())) {
+                    return stateMachineConfig;
+                }
+                StateMachineInstance stateMachineInstance = (StateMachineInstance)args[0];
+                operations.add(method.getName() + ":" + stateMachineInstance.getId());
+                return stateMachineInstance;
+            });
+
+        StateMachineRecoverer recoverer = new StateMachineRecoverer();
+        recoverer.setStateMachineEngine(stateMachineEngine);
+        recoverer.setPageSize(2);
+        recoverer.setParallelism(1);
+        return recoverer;
+    }
+
+    private static void insertMachine(Statement statement, String id, String machineId, String tenantId,
+                                      String parentId, String status, String compensationStatus, int idleSeconds)
+        throws Exception {
+        statement.execute("insert into seata_state_machine_inst (id, machine_id, tenant_id, parent_id, gmt_started, "
+            + "status, compensation_status, is_running, gmt_updated) values ('" + id + "', '" + machineId + "', '"
+            + tenantId + "', " + (parentId == null ? "null" : "'" + parentId + "'") + ", now(), '" + status + "', "
+            + (compensationStatus == null ? "null" : "'" + compensationStatus + "'") + ", 0, dateadd('SECOND', -"
+            + idleSeconds + ", now()))");
+    }
+
+    private static void insertState(Statement statement, String id, String machineInstId, String name,
+                                    String status, int ageSeconds) throws Exception {
+        statement.execute("insert into seata_state_inst (id, machine_inst_id, name, type, gmt_started, status, "
+            + "gmt_end) values ('" + id + "', '" + machineInstId + "', '" + name + "', 'ServiceTask', "
+            + "dateadd('SECOND', -" + ageSeconds + ", now()), '" + status + "', now())");
+    }
+}
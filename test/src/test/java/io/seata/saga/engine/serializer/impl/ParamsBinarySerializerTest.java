@@ -0,0 +1,204 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.serializer.impl;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import io.seata.saga.engine.mock.DemoService.People;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ParamsBinarySerializer test
+ */
+public class ParamsBinarySerializerTest {
+
+    private final ParamsBinarySerializer serializer = new ParamsBinarySerializer();
+
+    @Test
+    public void testRoundTrip() {
+        People child = new People();
+        child.setName("child");
+        child.setAge(3);
+        People people = new People();
+        people.setName("parent");
+        people.setAge(30);
+        people.setChildrenArray(new People[] {child});
+        List<People> childrenList = new ArrayList<>();
+        childrenList.add(child);
+        people.setChildrenList(childrenList);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("people", people);
+        params.put("amount", new BigDecimal("12.30"));
+        params.put("count", 7L);
+        params.put("date", new Date(1000L));
+        params.put("status", ExecutionStatus.SU);
+        params.put("flag", true);
+
+        String serialized = serializer.serialize(params);
+        Assertions.assertTrue(serialized.startsWith(ParamsBinarySerializer.PREFIX));
+
+        Map<String, Object> result = (Map<String, Object>)serializer.deserialize(serialized);
+        People resultPeople = (People)result.get("people");
+        Assertions.assertEquals("parent", resultPeople.getName());
+        Assertions.assertEquals(30, resultPeople.getAge());
+        Assertions.assertEquals("child", resultPeople.getChildrenArray()[0].getName());
+        Assertions.assertEquals(3, resultPeople.getChildrenList().get(0).getAge());
+        Assertions.assertNull(resultPeople.getChildrenMap());
+        Assertions.assertEquals(new BigDecimal("12.30"), result.get("amount"));
+        Assertions.assertEquals(7L, result.get("count"));
+        Assertions.assertEquals(new Date(1000L), result.get("date"));
+        Assertions.assertEquals(ExecutionStatus.SU, result.get("status"));
+        Assertions.assertEquals(true, result.get("flag"));
+    }
+
+    @Test
+    public void testCompressAndFastjsonFallback() {
+        List<String> params = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            params.add("value");
+        }
+        String serialized = serializer.serialize(params);
+        Assertions.assertTrue(serialized.length() < 1000);
+        Assertions.assertEquals(params, serializer.deserialize(serialized));
+
+        String json = new ParamsFastjsonSerializer().serialize(params);
+        Assertions.assertEquals(params, serializer.deserialize(json));
+    }
+
+    @Test
+    public void testLazyDeserialize() {
+        StateInstanceImpl stateInstance = new StateInstanceImpl();
+        stateInstance.setSerializedInputParams(serializer.serialize(new ArrayList<>()));
+        int[] decodeCount = new int[1];
+        stateInstance.setParamsDeserializer(serialized -> {
+            decodeCount[0]++;
+            return serializer.deserialize((String)serialized);
+        });
+
+        Assertions.assertEquals(0, decodeCount[0]);
+        Assertions.assertEquals(new ArrayList<>(), stateInstance.getInputParams());
+        Assertions.assertNull(stateInstance.getOutputParams());
+        stateInstance.getInputParams();
+        Assertions.assertEquals(1, decodeCount[0]);
+    }
+
+    @Test
+    public void testBeanPropertyTypes() {
+        Holder holder = new Holder();
+        holder.setNumbers(new int[] {1, 2, 3});
+        holder.setNames(new LinkedList<>(Arrays.asList("a", "b")));
+        holder.setSorted(new TreeSet<>(Arrays.asList("y", "x")));
+        TreeMap<String, Integer> counts = new TreeMap<>();
+        counts.put("b", 2);
+        counts.put("a", 1);
+        holder.setCounts(counts);
+
+        Holder result = (Holder)serializer.deserialize(serializer.serialize(holder));
+        Assertions.assertArrayEquals(new int[] {1, 2, 3}, result.getNumbers());
+        Assertions.assertEquals(new LinkedList<>(Arrays.asList("a", "b")), result.getNames());
+        Assertions.assertEquals(new TreeSet<>(Arrays.asList("x", "y")), result.getSorted());
+        Assertions.assertTrue(result.getSorted() instanceof TreeSet);
+        Assertions.assertEquals(counts, result.getCounts());
+
+        long[] longs = (long[])serializer.deserialize(serializer.serialize(new long[] {Long.MIN_VALUE, 0L}));
+        Assertions.assertArrayEquals(new long[] {Long.MIN_VALUE, 0L}, longs);
+    }
+
+    @Test
+    public void testDeniedClass() {
+        // a bean definition of a class on the deny list of fastjson
+        byte[] className = "org.apache.commons.collections.functors.InvokerTransformer".getBytes(
+            StandardCharsets.UTF_8);
+        byte[] payload = new byte[className.length + 3];
+        payload[1] = 22;
+        payload[2] = (byte)className.length;
+        System.arraycopy(className, 0, payload, 3, className.length);
+        String text = ParamsBinarySerializer.PREFIX + Base64.getEncoder().encodeToString(payload);
+
+        RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> serializer.deserialize(text));
+        Assertions.assertTrue(e.getCause() instanceof ClassNotFoundException);
+        Assertions.assertTrue(e.getCause().getMessage().contains("not allowed"));
+    }
+
+    @Test
+    public void testMalformedVarLong() {
+        byte[] payload = new byte[13];
+        payload[1] = 10;
+        Arrays.fill(payload, 2, payload.length, (byte)0xFF);
+        String text = ParamsBinarySerializer.PREFIX + Base64.getEncoder().encodeToString(payload);
+
+        Assertions.assertThrows(RuntimeException.class, () -> serializer.deserialize(text));
+    }
+
+    /**
+     * bean with property types the reader has to convert to
+     */
+    public static class Holder {
+
+        private int[] numbers;
+        private LinkedList<String> names;
+        private SortedSet<String> sorted;
+        private TreeMap<String, Integer> counts;
+
+        public int[] getNumbers() {
+            return numbers;
+        }
+
+        public void setNumbers(int[] numbers) {
+            this.numbers = numbers;
+        }
+
+        public LinkedList<String> getNames() {
+            return names;
+        }
+
+        public void setNames(LinkedList<String> names) {
+            this.names = names;
+        }
+
+        public SortedSet<String> getSorted() {
+            return sorted;
+        }
+
+        public void setSorted(SortedSet<String> sorted) {
+            this.sorted = sorted;
+        }
+
+        public TreeMap<String, Integer> getCounts() {
+            return counts;
+        }
+
+        public void setCounts(TreeMap<String, Integer> counts) {
+            this.counts = counts;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+
+import io.seata.common.exception.StoreException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BatchStateLogWriter test
+ */
+public class BatchStateLogWriterTest {
+
+    private static final String INSERT_SQL = "insert into state_log (id, machine_id, status) values (?, ?, ?)";
+    private static final String UPDATE_SQL = "update state_log set status = ? where id = ?";
+
+    private JdbcDataSource dataSource;
+    private BatchStateLogWriter writer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:state_log_writer;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists state_log (id varchar(32) primary key, machine_id varchar(32), status varchar(8))");
+            statement.execute("delete from state_log");
+        }
+        writer = new BatchStateLogWriter(dataSource, 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    public void testWritesAreOrderedAndFlushed() throws Exception {
+        writer.write("m1", INSERT_SQL, "s1", "m1", "RU");
+        writer.write("m2", INSERT_SQL, "s2", "m2", "RU");
+        writer.write("m1", UPDATE_SQL, "SU", "s1");
+
+        Boolean[] actionSeesUpdate = new Boolean[1];
+        writer.execute(() -> actionSeesUpdate[0] = "SU".equals(queryStatus("s1")));
+        writer.flush("m1");
+
+        Assertions.assertEquals("SU", queryStatus("s1"));
+        Assertions.assertEquals("RU", queryStatus("s2"));
+        Assertions.assertTrue(actionSeesUpdate[0]);
+    }
+
+    @Test
+    public void testFailedWriteIsReportedOnFlush() {
+        writer.write("m1", INSERT_SQL, "s1", "m1", "RU");
+        writer.write("m1", INSERT_SQL, "s1", "m1", "RU");
+        writer.flush("m2");
+        Assertions.assertThrows(StoreException.class, () -> writer.flush("m1"));
+        Assertions.assertEquals(0, writer.getFailedCount());
+        writer.flush("m1");
+    }
+
+    @Test
+    public void testFlushOnlyWaitsForTheInstance() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        writer.write("m1", INSERT_SQL, "s1", "m1", "RU");
+
+        // nothing of m2 is queued, so neither the blocked worker nor the write of m1 is waited for
+        writer.flush("m2");
+        writer.await("m2");
+        Assertions.assertNull(queryStatus("s1"));
+
+        blocked.countDown();
+        writer.await("m1");
+        Assertions.assertEquals("RU", queryStatus("s1"));
+    }
+
+    private String queryStatus(String id) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select status from state_log where id = '" + id + "'")) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.journal;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineInstanceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JournalStateLogStore test
+ */
+public class JournalStateLogStoreTest {
+
+    private File journalDir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        journalDir = Files.createTempDirectory("saga_journal").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Stream<java.nio.file.Path> paths = Files.walk(journalDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testRecoverFromJournal() throws Exception {
+        JournalStateLogStore store = newStore(1024 * 1024);
+        StateMachineInstance machineInstance = startMachine(store, "bk1");
+        StateInstance stateInstance = startState(store, machineInstance, "FirstState");
+        stateInstance.setStatus(ExecutionStatus.SU);
+        stateInstance.setGmtEnd(new Date());
+        stateInstance.setOutputParams("done");
+        store.recordStateFinished(stateInstance, null);
+        startState(store, machineInstance, "SecondState");
+        // reopen while the first store is still open, as after a crash
+
+        JournalStateLogStore reopened = newStore(1024 * 1024);
+        StateMachineInstance recovered = reopened.getStateMachineInstanceByBusinessKey("bk1", null);
+        Assertions.assertNotNull(recovered);
+        Assertions.assertEquals(machineInstance.getId(), recovered.getId());
+        Assertions.assertEquals("value", recovered.getStartParams().get("key"));
+        List<StateInstance> stateList = recovered.getStateList();
+        Assertions.assertEquals(2, stateList.size());
+        Assertions.assertEquals("FirstState", stateList.get(0).getName());
+        Assertions.assertEquals(ExecutionStatus.SU, stateList.get(0).getStatus());
+        Assertions.assertEquals("done", stateList.get(0).getOutputParams());
+        Assertions.assertEquals(ExecutionStatus.RU, stateList.get(1).getStatus());
+        reopened.destroy();
+        store.destroy();
+    }
+
+    @Test
+    public void testCheckpointWhenJournalIsFull() throws Exception {
+        JournalStateLogStore store = newStore(4096);
+        StateMachineInstance machineInstance = startMachine(store, "bk2");
+        for (int i = 0; i < 100; i++) {
+            startState(store, machineInstance, "State" + i);
+        }
+        Assertions.assertTrue(new File(journalDir, "state_log.checkpoint").exists());
+
+        JournalStateLogStore reopened = newStore(4096);
+        Assertions.assertEquals(100, reopened.queryStateInstanceListByMachineInstanceId(machineInstance.getId()).size());
+        reopened.destroy();
+        store.destroy();
+    }
+
+    @Test
+    public void testFinishedInstancesAreEvicted() throws Exception {
+        JournalStateLogStore store = newStore(1024 * 1024);
+        store.setRetentionMillis(0);
+        StateMachineInstance machineInstance = startMachine(store, "bk3");
+        startState(store, machineInstance, "FirstState");
+        store.checkpoint();
+        Assertions.assertNotNull(store.getStateMachineInstance(machineInstance.getId()));
+
+        machineInstance.setRunning(false);
+        machineInstance.setStatus(ExecutionStatus.SU);
+        machineInstance.setGmtEnd(new Date());
+        store.recordStateMachineFinished(machineInstance, null);
+        store.checkpoint();
+        Assertions.assertNull(store.getStateMachineInstance(machineInstance.getId()));
+        Assertions.assertNull(store.getStateMachineInstanceByBusinessKey("bk3", null));
+        store.destroy();
+
+        JournalStateLogStore reopened = newStore(1024 * 1024);
+        Assertions.assertNull(reopened.getStateMachineInstance(machineInstance.getId()));
+        reopened.destroy();
+    }
+
+    @Test
+    public void testRecoverableInstancesAreNotEvicted() throws Exception {
+        JournalStateLogStore store = newStore(1024 * 1024);
+        store.setRetentionMillis(0);
+        StateMachineInstance machineInstance = startMachine(store, "bk6");
+        machineInstance.setRunning(false);
+        machineInstance.setStatus(ExecutionStatus.UN);
+        machineInstance.setGmtEnd(new Date());
+        store.recordStateMachineFinished(machineInstance, null);
+        store.checkpoint();
+
+        Date gmtUpdatedBefore = new Date(System.currentTimeMillis() + 1000);
+        List<StateMachineInstance> recoverable = store.queryRecoverableStateMachineInstances(gmtUpdatedBefore, null,
+            10);
+        Assertions.assertEquals(1, recoverable.size());
+        Assertions.assertEquals(machineInstance.getId(), recoverable.get(0).getId());
+        store.destroy();
+
+        JournalStateLogStore reopened = newStore(1024 * 1024);
+        Assertions.assertEquals(1, reopened.queryRecoverableStateMachineInstances(gmtUpdatedBefore, null, 10).size());
+        reopened.destroy();
+    }
+
+    @Test
+    public void testCompensatedInstancesAreEvicted() throws Exception {
+        JournalStateLogStore store = newStore(1024 * 1024);
+        store.setRetentionMillis(0);
+        StateMachineInstance machineInstance = startMachine(store, "bk7");
+        machineInstance.setRunning(false);
+        // the status of a compensated instance stays UN
+        machineInstance.setStatus(ExecutionStatus.UN);
+        machineInstance.setCompensationStatus(ExecutionStatus.SU);
+        machineInstance.setGmtEnd(new Date());
+        store.recordStateMachineFinished(machineInstance, null);
+
+        Assertions.assertTrue(store.queryRecoverableStateMachineInstances(
+            new Date(System.currentTimeMillis() + 1000), null, 10).isEmpty());
+        store.checkpoint();
+        Assertions.assertNull(store.getStateMachineInstance(machineInstance.getId()));
+        store.destroy();
+    }
+
+    @Test
+    public void testBusinessKeyWithoutTenant() throws Exception {
+        JournalStateLogStore store = newStore(1024 * 1024);
+        StateMachineInstance machineInstance = startMachine(store, "bk4", null);
+
+        Assertions.assertEquals(machineInstance.getId(),
+            store.getStateMachineInstanceByBusinessKey("bk4", null).getId());
+        Assertions.assertEquals(machineInstance.getId(),
+            store.getStateMachineInstanceByBusinessKey("bk4", "000001").getId());
+        store.destroy();
+
+        JournalStateLogStore reopened = newStore(1024 * 1024);
+        Assertions.assertNotNull(reopened.getStateMachineInstanceByBusinessKey("bk4", null));
+        reopened.destroy();
+    }
+
+    @Test
+    public void testStateOfEvictedInstanceIsDropped() throws Exception {
+        JournalStateLogStore store = newStore(1024 * 1024);
+        store.setRetentionMillis(0);
+        StateMachineInstance machineInstance = startMachine(store, "bk5");
+        machineInstance.setRunning(false);
+        machineInstance.setStatus(ExecutionStatus.SU);
+        machineInstance.setGmtEnd(new Date());
+        store.recordStateMachineFinished(machineInstance, null);
+        store.checkpoint();
+        Assertions.assertNull(store.getStateMachineInstance(machineInstance.getId()));
+
+        // a state record applied after its machine instance was evicted
+        startState(store, machineInstance, "LateState");
+        Assertions.assertTrue(store.queryStateInstanceListByMachineInstanceId(machineInstance.getId()).isEmpty());
+        store.destroy();
+
+        JournalStateLogStore reopened = newStore(1024 * 1024);
+        Assertions.assertTrue(
+            reopened.queryStateInstanceListByMachineInstanceId(machineInstance.getId()).isEmpty());
+        reopened.destroy();
+    }
+
+    private JournalStateLogStore newStore(int journalFileSize) throws Exception {
+        JournalStateLogStore store = new JournalStateLogStore();
+        store.setJournalDir(journalDir.getAbsolutePath());
+        store.setJournalFileSize(journalFileSize);
+        store.setDefaultTenantId("000001");
+        store.afterPropertiesSet();
+        return store;
+    }
+
+    private StateMachineInstance startMachine(JournalStateLogStore store, String businessKey) {
+        return startMachine(store, businessKey, "000001");
+    }
+
+    private StateMachineInstance startMachine(JournalStateLogStore store, String businessKey, String tenantId) {
+        StateMachineInstanceImpl machineInstance = new StateMachineInstanceImpl();
+        machineInstance.setMachineId("machine");
+        machineInstance.setTenantId(tenantId);
+        machineInstance.setBusinessKey(businessKey);
+        machineInstance.setGmtStarted(new Date());
+        machineInstance.setStatus(ExecutionStatus.RU);
+        machineInstance.setRunning(true);
+        Map<String, Object> startParams = new HashMap<>();
+        startParams.put("key", "value");
+        machineInstance.setStartParams(startParams);
+        store.recordStateMachineStarted(machineInstance, null);
+        return machineInstance;
+    }
+
+    private StateInstance startState(JournalStateLogStore store, StateMachineInstance machineInstance, String name) {
+        StateInstanceImpl stateInstance = new StateInstanceImpl();
+        stateInstance.setName(name);
+        stateInstance.setMachineInstanceId(machineInstance.getId());
+        stateInstance.setStateMachineInstance(machineInstance);
+        stateInstance.setGmtStarted(new Date());
+        stateInstance.setStatus(ExecutionStatus.RU);
+        stateInstance.setInputParams(name);
+        store.recordStateStarted(stateInstance, null);
+        machineInstance.putStateInstance(stateInstance.getId(), stateInstance);
+        return stateInstance;
+    }
+}
@@ -33,6 +33,7 @@ create table if not exists seata_state_machine_inst
     primary key(id),
     unique key unikey_buz_tenant (business_key, tenant_id)
 );
+create index if not exists idx_recover on seata_state_machine_inst (compensation_status, status, gmt_updated);
 
 create table if not exists seata_state_inst
 (
@@ -31,7 +31,8 @@ create table if not exists seata_state_machine_inst
     is_running tinyint(1) comment 'is running(0 no|1 yes)',
     gmt_updated datetime(3) not null,
     primary key(id),
-    unique key unikey_buz_tenant (business_key, tenant_id)
+    unique key unikey_buz_tenant (business_key, tenant_id),
+    key idx_recover (compensation_status, status, gmt_updated)
 ) comment 'state machine instance';
 
 create table if not exists seata_state_inst
@@ -39,6 +39,7 @@ create table seata_state_machine_inst
     primary key(id)
 );
 create unique index state_machine_inst_unibuzkey on seata_state_machine_inst(uni_business_key, tenant_id);
+create index state_machine_inst_recover on seata_state_machine_inst(compensation_status, status, gmt_updated);
 
 create table seata_state_inst
 (
@@ -20,6 +20,7 @@ import java.util.concurrent.TimeoutException;
 import io.seata.core.exception.TmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.model.TransactionManager;
 import io.seata.core.protocol.ResultCode;
@@ -50,7 +51,7 @@ public class DefaultTransactionManager implements TransactionManager {
         GlobalBeginRequest request = new GlobalBeginRequest();
         request.setTransactionName(name);
         request.setTimeout(timeout);
-        GlobalBeginResponse response = (GlobalBeginResponse)syncCall(request);
+        GlobalBeginResponse response = (GlobalBeginResponse)syncCall(request, ClientMetrics.Request.GLOBAL_BEGIN);
         if (response.getResultCode() == ResultCode.Failed) {
             throw new TmTransactionException(TransactionExceptionCode.BeginFailed, response.getMsg());
         }
@@ -61,7 +62,7 @@ public class DefaultTransactionManager implements TransactionManager {
     public GlobalStatus commit(String xid) throws TransactionException {
         GlobalCommitRequest globalCommit = new GlobalCommitRequest();
         globalCommit.setXid(xid);
-        GlobalCommitResponse response = (GlobalCommitResponse)syncCall(globalCommit);
+        GlobalCommitResponse response = (GlobalCommitResponse)syncCall(globalCommit, ClientMetrics.Request.GLOBAL_COMMIT);
         return response.getGlobalStatus();
     }
 
@@ -69,7 +70,7 @@ public class DefaultTransactionManager implements TransactionManager {
     public GlobalStatus rollback(String xid) throws TransactionException {
         GlobalRollbackRequest globalRollback = new GlobalRollbackRequest();
         globalRollback.setXid(xid);
-        GlobalRollbackResponse response = (GlobalRollbackResponse)syncCall(globalRollback);
+        GlobalRollbackResponse response = (GlobalRollbackResponse)syncCall(globalRollback, ClientMetrics.Request.GLOBAL_ROLLBACK);
         return response.getGlobalStatus();
     }
 
@@ -77,7 +78,7 @@ public class DefaultTransactionManager implements TransactionManager {
     public GlobalStatus getStatus(String xid) throws TransactionException {
         GlobalStatusRequest queryGlobalStatus = new GlobalStatusRequest();
         queryGlobalStatus.setXid(xid);
-        GlobalStatusResponse response = (GlobalStatusResponse)syncCall(queryGlobalStatus);
+        GlobalStatusResponse response = (GlobalStatusResponse)syncCall(queryGlobalStatus, ClientMetrics.Request.GLOBAL_STATUS);
         return response.getGlobalStatus();
     }
 
@@ -86,15 +87,23 @@ public class DefaultTransactionManager implements TransactionManager {
         GlobalReportRequest globalReport = new GlobalReportRequest();
         globalReport.setXid(xid);
         globalReport.setGlobalStatus(globalStatus);
-        GlobalReportResponse response = (GlobalReportResponse) syncCall(globalReport);
+        GlobalReportResponse response = (GlobalReportResponse) syncCall(globalReport, ClientMetrics.Request.GLOBAL_REPORT);
         return response.getGlobalStatus();
     }
 
-    private AbstractTransactionResponse syncCall(AbstractTransactionRequest request) throws TransactionException {
+    private AbstractTransactionResponse syncCall(AbstractTransactionRequest request,
+                                                 ClientMetrics.Request operation) throws TransactionException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
-            return (AbstractTransactionResponse)TmRpcClient.getInstance().sendMsgWithResponse(request);
+            AbstractTransactionResponse response = (AbstractTransactionResponse)TmRpcClient.getInstance()
+                .sendMsgWithResponse(request);
+            success = response.getResultCode() != ResultCode.Failed;
+            return response;
         } catch (TimeoutException toe) {
             throw new TmTransactionException(TransactionExceptionCode.IO, "RPC timeout", toe);
+        } finally {
+            ClientMetrics.recordRequest(operation, null, start, success);
         }
     }
 }
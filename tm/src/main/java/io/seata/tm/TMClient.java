@@ -15,6 +15,7 @@
  */
 package io.seata.tm;
 
+import io.seata.core.metrics.ClientMetrics;
 import io.seata.core.rpc.netty.TmRpcClient;
 
 /**
@@ -33,6 +34,7 @@ public class TMClient {
     public static void init(String applicationId, String transactionServiceGroup) {
         TmRpcClient tmRpcClient = TmRpcClient.getInstance(applicationId, transactionServiceGroup);
         tmRpcClient.init();
+        ClientMetrics.init();
     }
 
 }